@@ -20,4 +20,5 @@ module org.aion.avm.core {
     requires org.objectweb.asm.util;
     requires org.objectweb.asm.tree.analysis;
     requires aion.vm.api;
+    requires java.management;
 }
@@ -1,5 +1,6 @@
 package org.aion.avm.core;
 
+import java.io.File;
 
 /**
  * A class to describe how to configure an AVM instance, when requesting that it be created.
@@ -30,6 +31,70 @@ public class AvmConfiguration {
      * Enabling this is only really useful when actively modifying the concurrent executor.
      */
     public boolean enableVerboseConcurrentExecutor;
+    /**
+     * If set to true, transactions are handed to the executor threads through per-thread lock-free deques, with work stealing
+     * (WorkStealingHandoffMonitor), instead of through a single monitor-protected queue (HandoffMonitor).
+     * This reduces contention between the executor threads when running with a high threadCount.
+     */
+    public boolean enableWorkStealingHandoff;
+    /**
+     * If set to true, a transaction is held back from the executor threads until the earlier transactions in its batch sharing its
+     * sender or destination address have completed, instead of running concurrently and being aborted when they conflict.
+     * This reduces the aborts (and wasted work) on blocks with many transactions from or to the same accounts.
+     */
+    public boolean enableConflictScheduling;
+    /**
+     * If set to true, the concurrent executor collects metrics for each batch (aborts per transaction, acquire wait times per
+     * address, commit wait times and thread utilization), available from AvmImpl.getExecutorMetrics() and over JMX.
+     * This is useful for tuning threadCount and finding contended contracts.  When disabled, nothing is measured.
+     */
+    public boolean enableExecutorMetrics;
+    /**
+     * The maximum number of loaded DApps kept in the cache between calls.
+     * Once this (or dappCacheMaxBytes) is exceeded, the least recently used DApps are evicted.
+     */
+    public int dappCacheMaxEntries;
+    /**
+     * The maximum estimated memory, in bytes, retained by the loaded DApps kept in the cache between calls (see
+     * LoadedDApp.getEstimatedRetainedBytes()).
+     */
+    public long dappCacheMaxBytes;
+    /**
+     * The maximum number of loaded instances of any one DApp kept in the cache.
+     * A loaded DApp can only be used by one executor thread at a time so, when several threads call the same DApp concurrently, each
+     * needs its own instance:  keeping more than one means that a popular DApp doesn't need to be loaded again just because another
+     * thread is already using it.
+     */
+    public int dappCacheMaxInstancesPerAddress;
+    /**
+     * The maximum number of deployed JARs whose transformed code is kept in the cache (see TransformedCodeCache), so that deploying
+     * the same JAR again only needs to run its <clinit>.
+     * Once this (or transformedCodeCacheMaxBytes) is exceeded, the least recently deployed JARs are evicted.  0 disables the cache.
+     */
+    public int transformedCodeCacheMaxEntries;
+    /**
+     * The maximum estimated size, in bytes, of the transformed code kept in the cache.
+     */
+    public long transformedCodeCacheMaxBytes;
+    /**
+     * If set, the transformed code cache is also kept in this directory, so that it survives restarting the node.
+     * Files written by other versions of the AVM are never used, but the AVM doesn't evict anything from this directory.
+     */
+    public File transformedCodeCacheDirectory;
+    /**
+     * If set to true, the transformed code of newly deployed DApps is stored in a compact, uncompressed, format which can be read
+     * back without unpacking a JAR, instead of as a JAR.  DApps stored in either format can always be loaded.
+     * Note that this changes what is stored for each new DApp so every node on a network must agree on this setting:  it must only be
+     * enabled as part of a network-wide activation.
+     */
+    public boolean enableCompactCodeFormat;
+    /**
+     * If set to true, DApp object graphs are written in the class-name dictionary format (see GraphFormat), which writes each class
+     * name once per graph, instead of in the legacy format.  Graphs stored in either format can always be read.
+     * Note that this changes the size of stored graphs, and so the energy used to read and write them, so every node on a network must
+     * agree on this setting:  it must only be enabled as part of a network-wide activation.
+     */
+    public boolean enableDictionaryGraphFormat;
 
     public AvmConfiguration() {
         // 4 threads is generally a safe, yet useful, number.
@@ -39,5 +104,24 @@ public class AvmConfiguration {
         // By default, none of our verbose options are enabled.
         this.enableVerboseContractErrors = false;
         this.enableVerboseConcurrentExecutor = false;
+        // The monitor-based hand-off remains the default.
+        this.enableWorkStealingHandoff = false;
+        // Transactions known to conflict are scheduled one after the other.
+        this.enableConflictScheduling = true;
+        // Metrics are opt-in.
+        this.enableExecutorMetrics = false;
+        // Enough to keep the DApps called in recent blocks loaded without letting the cache grow with the number of deployed DApps.
+        this.dappCacheMaxEntries = 1024;
+        this.dappCacheMaxBytes = 128L * 1024L * 1024L;
+        // Enough for every executor thread to call the same DApp, with the default threadCount.
+        this.dappCacheMaxInstancesPerAddress = 4;
+        // Enough for the templates commonly deployed again (tokens, wallets) but only kept in memory.
+        this.transformedCodeCacheMaxEntries = 256;
+        this.transformedCodeCacheMaxBytes = 64L * 1024L * 1024L;
+        this.transformedCodeCacheDirectory = null;
+        // New DApps are stored as JARs, as they always have been, until the network activates the compact format.
+        this.enableCompactCodeFormat = false;
+        // Graphs are written in the legacy format until the network activates the dictionary format.
+        this.enableDictionaryGraphFormat = false;
     }
 }
@@ -3,22 +3,28 @@ package org.aion.avm.core;
 import org.aion.avm.core.util.Helpers;
 import org.aion.kernel.*;
 
+import java.io.File;
 import java.io.IOException;
-import java.lang.ref.SoftReference;
+import java.lang.management.ManagementFactory;
 import java.math.BigInteger;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.function.Predicate;
+import javax.management.JMException;
+import javax.management.ObjectName;
 
+import org.aion.avm.core.persistence.GraphBuffer;
 import org.aion.avm.core.persistence.LoadedDApp;
 import org.aion.avm.core.util.ByteArrayWrapper;
-import org.aion.avm.core.util.SoftCache;
+import org.aion.avm.core.util.CacheStatistics;
+import org.aion.avm.core.util.LruCache;
 import org.aion.avm.internal.IInstrumentation;
 import org.aion.avm.internal.IInstrumentationFactory;
 import org.aion.avm.internal.InstrumentationHelpers;
+import org.aion.avm.internal.InstrumentedThread;
 import org.aion.avm.internal.JvmError;
 import org.aion.avm.internal.RuntimeAssertionError;
 import org.aion.parallel.AddressResourceMonitor;
+import org.aion.parallel.ExecutorMetrics;
 import org.aion.parallel.TransactionTask;
 import org.aion.types.Address;
 import org.aion.vm.api.interfaces.KernelInterface;
@@ -40,19 +46,32 @@ public class AvmImpl implements AvmInternal {
 
     // Long-lived state which is book-ended by the startup/shutdown calls.
     private static AvmImpl currentAvm;  // (only here for testing - makes sure that we properly clean these up between invocations)
-    private SoftCache<ByteArrayWrapper, LoadedDApp> hotCache;
-    private HandoffMonitor handoff;
+    private LruCache<ByteArrayWrapper, LoadedDApp> hotCache;
+    private IHandoffMonitor handoff;
+
+    // The transformed code of recently deployed JARs (kept across restarts, since it only depends on the JAR).
+    private final TransformedCodeCache transformedCodeCache;
 
     // Short-lived state which is reset for each batch of transaction request.
     private AddressResourceMonitor resourceMonitor;
 
+    // Concurrency metrics of the executor (null when disabled).
+    private final ExecutorMetrics metrics;
+
     // Used in the case of a fatal JvmError in the background threads.  A shutdown() is the only option from this point.
     private AvmFailedException backgroundFatalError;
 
     private final int threadCount;
     private final boolean preserveDebuggability;
+    private final int dappCacheMaxEntries;
+    private final long dappCacheMaxBytes;
+    private final int dappCacheMaxInstancesPerAddress;
     private final boolean enableVerboseContractErrors;
     private final boolean enableVerboseConcurrentExecutor;
+    private final boolean enableWorkStealingHandoff;
+    private final boolean enableConflictScheduling;
+    private final boolean enableCompactCodeFormat;
+    private final boolean enableDictionaryGraphFormat;
 
     public AvmImpl(IInstrumentationFactory instrumentationFactory, IExternalCapabilities capabilities, AvmConfiguration configuration) {
         this.instrumentationFactory = instrumentationFactory;
@@ -62,12 +81,37 @@ public class AvmImpl implements AvmInternal {
             throw new IllegalArgumentException("Thread count must be a positive integer");
         }
         this.threadCount = configuration.threadCount;
+        if ((configuration.dappCacheMaxEntries < 0) || (configuration.dappCacheMaxBytes < 0L)) {
+            throw new IllegalArgumentException("DApp cache bounds must not be negative");
+        }
+        if (configuration.dappCacheMaxInstancesPerAddress < 1) {
+            throw new IllegalArgumentException("DApp cache must allow at least 1 instance per address");
+        }
+        if ((configuration.transformedCodeCacheMaxEntries < 0) || (configuration.transformedCodeCacheMaxBytes < 0L)) {
+            throw new IllegalArgumentException("Transformed code cache bounds must not be negative");
+        }
+        File transformedCodeCacheDirectory = configuration.transformedCodeCacheDirectory;
+        if ((null != transformedCodeCacheDirectory) && !transformedCodeCacheDirectory.isDirectory() && !transformedCodeCacheDirectory.mkdirs()) {
+            throw new IllegalArgumentException("Transformed code cache directory can't be created: " + transformedCodeCacheDirectory);
+        }
+        if ((null != transformedCodeCacheDirectory) && (null == TransformedCodeCache.getAvmCodeVersion())) {
+            throw new IllegalArgumentException("Transformed code cache directory can't be used since the AVM version can't be determined");
+        }
         this.preserveDebuggability = configuration.preserveDebuggability;
+        this.dappCacheMaxEntries = configuration.dappCacheMaxEntries;
+        this.dappCacheMaxBytes = configuration.dappCacheMaxBytes;
+        this.dappCacheMaxInstancesPerAddress = configuration.dappCacheMaxInstancesPerAddress;
         this.enableVerboseContractErrors = configuration.enableVerboseContractErrors;
         this.enableVerboseConcurrentExecutor = configuration.enableVerboseConcurrentExecutor;
+        this.enableWorkStealingHandoff = configuration.enableWorkStealingHandoff;
+        this.enableConflictScheduling = configuration.enableConflictScheduling;
+        this.enableCompactCodeFormat = configuration.enableCompactCodeFormat;
+        this.enableDictionaryGraphFormat = configuration.enableDictionaryGraphFormat;
+        this.transformedCodeCache = new TransformedCodeCache(configuration.transformedCodeCacheMaxEntries, configuration.transformedCodeCacheMaxBytes, transformedCodeCacheDirectory);
+        this.metrics = configuration.enableExecutorMetrics ? new ExecutorMetrics(configuration.threadCount) : null;
     }
 
-    private class AvmExecutorThread extends Thread{
+    private class AvmExecutorThread extends InstrumentedThread {
 
         AvmExecutorThread(String name){
             super(name);
@@ -77,12 +121,17 @@ public class AvmImpl implements AvmInternal {
         public void run() {
             IInstrumentation instrumentation = AvmImpl.this.instrumentationFactory.createInstrumentation();
             InstrumentationHelpers.attachThread(instrumentation);
+            // Each thread reuses the same buffer to serialize graphs, across all of its transactions.
+            GraphBuffer graphBuffer = new GraphBuffer();
             try {
                 // Run as long as we have something to do (null means shutdown).
                 AvmTransactionResult outgoingResult = null;
                 TransactionTask incomingTask = AvmImpl.this.handoff.blockingPollForTransaction(null, null);
                 while (null != incomingTask) {
                     int abortCounter = 0;
+                    long busyStart = (null != AvmImpl.this.metrics) ? System.nanoTime() : 0L;
+                    // (we only want to count what this transaction allocates)
+                    graphBuffer.takeAllocatedBytes();
 
                     do {
                         if (AvmImpl.this.enableVerboseConcurrentExecutor) {
@@ -92,7 +141,9 @@ public class AvmImpl implements AvmInternal {
                         // TODO (AKI-112):  Determine if we can coalesce the IInstrumentation and TransactionTask to avoid this attach/detach.
                         incomingTask.startNewTransaction();
                         incomingTask.attachInstrumentationForThread();
+                        incomingTask.attachGraphBufferForThread(graphBuffer);
                         outgoingResult = AvmImpl.this.backgroundProcessTransaction(incomingTask);
+                        incomingTask.detachGraphBufferForThread();
                         incomingTask.detachInstrumentationForThread();
 
                         if (AvmTransactionResult.Code.FAILED_ABORT == outgoingResult.getResultCode()) {
@@ -100,6 +151,9 @@ public class AvmImpl implements AvmInternal {
                             // this is the point where that is "handled".
                             // Note that this is safe to do here since the instrumentation isn't exposed to any other threads.
                             instrumentation.clearAbortState();
+                            if (null != AvmImpl.this.metrics) {
+                                AvmImpl.this.metrics.recordAbort(incomingTask.getIndex());
+                            }
                             
                             if (AvmImpl.this.enableVerboseConcurrentExecutor) {
                                 System.out.println(this.getName() + " abort  " + incomingTask.getIndex() + " counter " + (++abortCounter));
@@ -110,6 +164,9 @@ public class AvmImpl implements AvmInternal {
                     if (AvmImpl.this.enableVerboseConcurrentExecutor) {
                         System.out.println(this.getName() + " finish " + incomingTask.getIndex() + " " + outgoingResult.getResultCode());
                     }
+                    if (null != AvmImpl.this.metrics) {
+                        AvmImpl.this.metrics.recordTaskCompleted(incomingTask.getIndex(), System.nanoTime() - busyStart, graphBuffer.takeAllocatedBytes());
+                    }
 
                     incomingTask = AvmImpl.this.handoff.blockingPollForTransaction(outgoingResult, incomingTask);
                 }
@@ -138,10 +195,13 @@ public class AvmImpl implements AvmInternal {
         AvmImpl.currentAvm = this;
         
         RuntimeAssertionError.assertTrue(null == this.hotCache);
-        this.hotCache = new SoftCache<>();
+        this.hotCache = new LruCache<>(this.dappCacheMaxEntries, this.dappCacheMaxBytes, this.dappCacheMaxInstancesPerAddress, LoadedDApp::getEstimatedRetainedBytes);
 
         RuntimeAssertionError.assertTrue(null == this.resourceMonitor);
-        this.resourceMonitor = new AddressResourceMonitor();
+        this.resourceMonitor = new AddressResourceMonitor(this.metrics);
+        if (null != this.metrics) {
+            registerMetrics(this.metrics);
+        }
 
         Set<Thread> executorThreads = new HashSet<>();
         for (int i = 0; i < this.threadCount; i++){
@@ -149,7 +209,9 @@ public class AvmImpl implements AvmInternal {
         }
 
         RuntimeAssertionError.assertTrue(null == this.handoff);
-        this.handoff = new HandoffMonitor(executorThreads);
+        this.handoff = this.enableWorkStealingHandoff
+                ? new WorkStealingHandoffMonitor(executorThreads, this.enableConflictScheduling)
+                : new HandoffMonitor(executorThreads, this.enableConflictScheduling);
         this.handoff.startExecutorThreads();
     }
 
@@ -160,13 +222,10 @@ public class AvmImpl implements AvmInternal {
         }
         // Clear the states of resources
         this.resourceMonitor.clear();
-
-        // Clear the hot cache
-        if (transactions.length > 0) {
-            long currentBlockNum = kernel.getBlockNumber();
-            validateCodeCache(currentBlockNum);
+        if ((null != this.metrics) && (transactions.length > 0)) {
+            this.metrics.startBatch(transactions.length);
         }
-        
+
         // Filter these transactions into the safe kind we use internally (the type passed in may not be well-formed).
         AvmTransaction[] safeTransactions = checkTransactions(transactions);
         // Create tasks for these new transactions and send them off to be asynchronously executed.
@@ -259,6 +318,9 @@ public class AvmImpl implements AvmInternal {
             errorDuringShutdown = e;
         }
         this.handoff = null;
+        if (null != this.metrics) {
+            unregisterMetrics();
+        }
         RuntimeAssertionError.assertTrue(this == AvmImpl.currentAvm);
         AvmImpl.currentAvm = null;
         this.hotCache = null;
@@ -368,7 +430,7 @@ public class AvmImpl implements AvmInternal {
 
         // do nothing for balance transfers of which the recipient is not a DApp address.
         if (tx.isCreate) {
-            DAppCreator.create(this.capabilities, thisTransactionKernel, this, task, tx, result, this.preserveDebuggability, this.enableVerboseContractErrors);
+            DAppCreator.create(this.capabilities, thisTransactionKernel, this, task, tx, result, this.transformedCodeCache, this.preserveDebuggability, this.enableVerboseContractErrors, this.enableCompactCodeFormat, this.enableDictionaryGraphFormat);
         } else { // call
             // See if this call is trying to reenter one already on this call-stack.  If so, we will need to partially resume its state.
             ReentrantDAppStack.ReentrantState stateToResume = task.getReentrantDAppStack().tryShareState(recipient);
@@ -379,23 +441,25 @@ public class AvmImpl implements AvmInternal {
             if ((null != stateToResume) && (null != thisTransactionKernel.getTransformedCode(recipient))) {
                 dapp = stateToResume.dApp;
                 // Call directly and don't interact with DApp cache (we are reentering the state, not the origin of it).
-                DAppExecutor.call(this.capabilities, thisTransactionKernel, this, dapp, stateToResume, task, tx, result, this.enableVerboseContractErrors);
+                DAppExecutor.call(this.capabilities, thisTransactionKernel, this, dapp, stateToResume, task, tx, result, this.enableVerboseContractErrors, this.enableDictionaryGraphFormat);
             } else {
                 // If we didn't find it there (that is only for reentrant calls so it is rarely found in the stack), try the hot DApp cache.
+                // (this holds several instances of a DApp, so it can still hit when other threads are running the same DApp)
                 ByteArrayWrapper addressWrapper = new ByteArrayWrapper(recipient.toBytes());
-                LoadedDApp dappInHotCache = this.hotCache.checkout(addressWrapper);
-                //'parentKernel.getTransformedCode(recipient) != null' means this recipient's DApp is not self-destructed.
-                if (thisTransactionKernel.getTransformedCode(recipient) != null) {
-                    dapp = dappInHotCache;
-                }
+                byte[] transformedCode = thisTransactionKernel.getTransformedCode(recipient);
+                // The cached DApp is only usable if it was loaded from the code currently at this address (this also drops it if the
+                // DApp was self-destructed or its code differs on the chain we are now running, after a reorganization).
+                // (we hash the code here, outside the cache's lock, so the check under the lock only compares the short hashes)
+                byte[] transformedCodeHash = LoadedDApp.hashLoadedCode(transformedCode);
+                dapp = this.hotCache.checkout(addressWrapper, (cached) -> cached.isLoadedFrom(transformedCodeHash));
                 if (null == dapp) {
                     // If we didn't find it there, just load it.
                     try {
-                        dapp = DAppLoader.loadFromGraph(thisTransactionKernel.getTransformedCode(recipient), this.preserveDebuggability);
+                        dapp = DAppLoader.loadFromGraph(transformedCode, this.preserveDebuggability);
 
-                        // If the dapp is freshly loaded, we set the block num
+                        // If the dapp is freshly loaded, we record which code it came from.
                         if (null != dapp){
-                            dapp.setLoadedBlockNum(parentKernel.getBlockNumber());
+                            dapp.setLoadedCodeHash(transformedCodeHash);
                         }
 
                     } catch (IOException e) {
@@ -404,7 +468,7 @@ public class AvmImpl implements AvmInternal {
                 }
                 // Run the call and, if successful, check this into the hot DApp cache.
                 if (null != dapp) {
-                    DAppExecutor.call(this.capabilities, thisTransactionKernel, this, dapp, stateToResume, task, tx, result, this.enableVerboseContractErrors);
+                    DAppExecutor.call(this.capabilities, thisTransactionKernel, this, dapp, stateToResume, task, tx, result, this.enableVerboseContractErrors, this.enableDictionaryGraphFormat);
                     if (AvmTransactionResult.Code.SUCCESS == result.getResultCode()) {
                         dapp.cleanForCache();
                         this.hotCache.checkin(addressWrapper, dapp);
@@ -429,8 +493,77 @@ public class AvmImpl implements AvmInternal {
         return resourceMonitor;
     }
 
-    private void validateCodeCache(long blockNum){
-        Predicate<SoftReference<LoadedDApp>> condition = (v) -> null != v.get() && v.get().getLoadedBlockNum() >= blockNum;
-        this.hotCache.removeValueIf(condition);
+    /**
+     * @return The concurrency metrics of the executor, or null if they weren't enabled in the AvmConfiguration.
+     */
+    public ExecutorMetrics getExecutorMetrics() {
+        return this.metrics;
+    }
+
+    private static void registerMetrics(ExecutorMetrics metrics) {
+        try {
+            ObjectName name = new ObjectName(ExecutorMetrics.OBJECT_NAME);
+            // (only one AVM runs at a time, so anything still registered is stale)
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            }
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name);
+        } catch (JMException e) {
+            throw RuntimeAssertionError.unexpected(e);
+        }
+    }
+
+    private static void unregisterMetrics() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(new ObjectName(ExecutorMetrics.OBJECT_NAME));
+        } catch (JMException e) {
+            throw RuntimeAssertionError.unexpected(e);
+        }
+    }
+
+    /**
+     * Loads instances of the DApp at the given address into the DApp cache, ahead of any calls to it, so that this many executor
+     * threads can then call it concurrently without any of them having to load it (limited by dappCacheMaxInstancesPerAddress).
+     * This is meant for DApps known to be popular, such as tokens.
+     *
+     * @param kernel The kernel to read the DApp's code from.
+     * @param address The address of the DApp.
+     * @param instanceCount The number of instances to load.
+     */
+    public void prewarmDApp(KernelInterface kernel, Address address, int instanceCount) {
+        if (null != this.backgroundFatalError) {
+            throw this.backgroundFatalError;
+        }
+        ByteArrayWrapper addressWrapper = new ByteArrayWrapper(address.toBytes());
+        byte[] transformedCode = kernel.getTransformedCode(address);
+        byte[] transformedCodeHash = LoadedDApp.hashLoadedCode(transformedCode);
+        for (int i = 0; i < Math.min(instanceCount, this.dappCacheMaxInstancesPerAddress); ++i) {
+            LoadedDApp dapp = null;
+            try {
+                dapp = DAppLoader.loadFromGraph(transformedCode, this.preserveDebuggability);
+            } catch (IOException e) {
+                unexpected(e); // the jar was created by AVM; IOException is unexpected
+            }
+            if (null == dapp) {
+                // Not a DApp.
+                break;
+            }
+            dapp.setLoadedCodeHash(transformedCodeHash);
+            this.hotCache.checkin(addressWrapper, dapp);
+        }
+    }
+
+    /**
+     * @return The statistics of the cache of loaded DApps (hits, misses, invalidations, evictions and current size).
+     */
+    public CacheStatistics getDAppCacheStatistics() {
+        return this.hotCache.getStatistics();
+    }
+
+    /**
+     * @return The statistics of the cache of transformed code of deployed JARs (hits, misses, evictions and current size).
+     */
+    public CacheStatistics getTransformedCodeCacheStatistics() {
+        return this.transformedCodeCache.getStatistics();
     }
 }
@@ -207,7 +207,7 @@ public class BlockchainRuntimeImpl implements IBlockchainRuntime {
 
     @Override
     public long avm_getRemainingEnergy() {
-        return IInstrumentation.attachedThreadInstrumentation.get().energyLeft();
+        return IInstrumentation.getCurrentThreadInstrumentation().energyLeft();
     }
 
     @Override
@@ -426,7 +426,7 @@ public class BlockchainRuntimeImpl implements IBlockchainRuntime {
     }
 
     private long restrictEnergyLimit(long energyLimit) {
-        long remainingEnergy = IInstrumentation.attachedThreadInstrumentation.get().energyLeft();
+        long remainingEnergy = IInstrumentation.getCurrentThreadInstrumentation().energyLeft();
         long maxAllowed = remainingEnergy - (remainingEnergy >> 6);
         return Math.min(maxAllowed, energyLimit);
     }
@@ -438,7 +438,7 @@ public class BlockchainRuntimeImpl implements IBlockchainRuntime {
         // we should never leave this method without decrementing this
         task.incrementTransactionStackDepth();
 
-        IInstrumentation currentThreadInstrumentation = IInstrumentation.attachedThreadInstrumentation.get();
+        IInstrumentation currentThreadInstrumentation = IInstrumentation.getCurrentThreadInstrumentation();
         if (null != this.reentrantState) {
             // Note that we want to save out the current nextHashCode.
             int nextHashCode = currentThreadInstrumentation.peekNextHashCode();
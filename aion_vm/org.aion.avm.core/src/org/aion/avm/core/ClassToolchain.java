@@ -17,8 +17,8 @@ public final class ClassToolchain {
     private final ClassVisitor classVisitor;
     private final int parsingOptions;
 
-    private ClassToolchain(byte[] bytecode, ClassVisitor visitor, ClassWriter writer, int parsingOptions) {
-        this.reader = new ClassReader(bytecode);
+    private ClassToolchain(ClassReader reader, ClassVisitor visitor, ClassWriter writer, int parsingOptions) {
+        this.reader = reader;
         this.classVisitor = visitor;
         this.writer = writer;
         this.parsingOptions = parsingOptions;
@@ -30,7 +30,7 @@ public final class ClassToolchain {
     }
 
     public static final class Builder {
-        private final byte[] bytecode;
+        private final ClassReader reader;
         private final List<ToolChainClassVisitor> visitorSequence = new ArrayList<>();
         private final int parsingOptions;
 
@@ -38,7 +38,7 @@ public final class ClassToolchain {
 
         public Builder(byte[] bytecode, int parsingOptions) {
             Objects.requireNonNull(bytecode);
-            this.bytecode = bytecode;
+            this.reader = new ClassReader(bytecode);
             this.parsingOptions = parsingOptions;
         }
 
@@ -54,6 +54,16 @@ public final class ClassToolchain {
             return new Creator();
         }
 
+        /**
+         * Adds a writer which copies the constant pool, and any method which the visitors pass through unchanged, directly from the
+         * input class, instead of rebuilding them.
+         * Note that this writer computes nothing (no frames or maxs) so it is only for visitors which don't change any code.
+         */
+        public Creator addCopyingWriter() {
+            this.writer = new ClassWriter(this.reader, 0);
+            return new Creator();
+        }
+
         public final class Creator {
             public ClassToolchain build() {
                 ClassVisitor prevVisitor = writer;
@@ -62,7 +72,7 @@ public final class ClassToolchain {
                     curVisitor.setDelegate(prevVisitor);
                     prevVisitor = curVisitor;
                 }
-                return new ClassToolchain(bytecode, visitorSequence.get(0), writer, parsingOptions);
+                return new ClassToolchain(reader, visitorSequence.get(0), writer, parsingOptions);
             }
         }
     }
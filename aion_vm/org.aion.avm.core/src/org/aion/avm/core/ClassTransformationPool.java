@@ -0,0 +1,83 @@
+package org.aion.avm.core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+import org.aion.avm.internal.RuntimeAssertionError;
+
+
+/**
+ * Runs the per-class stages of a deployment (each class is rewritten independently, only reading the shared ClassHierarchy and
+ * object size maps) on a bounded fork-join pool, shared by every AVM instance in the process, so that deploying a DApp with many
+ * classes can use all the cores.
+ *
+ * The results don't depend on how the work was scheduled:  each class is given to the transformation on its own (anything it
+ * produces is returned, not written into shared state) and the results are collected in class name order.  If any class fails, the
+ * exception thrown for the first failing class (in name order) is rethrown, as is, on the calling thread.
+ */
+public final class ClassTransformationPool {
+    public static final ClassTransformationPool singleton = new ClassTransformationPool(Runtime.getRuntime().availableProcessors());
+
+    private final ForkJoinPool pool;
+
+    public ClassTransformationPool(int parallelism) {
+        RuntimeAssertionError.assertTrue(parallelism > 0);
+        // (the default thread factory creates daemon threads, so an idle pool doesn't keep the process alive)
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Applies the transformation to every class, concurrently.
+     *
+     * @param classes The classes to transform, by name.
+     * @param transformation Transforms one class, given its name and bytecode.  It must only read state shared with other classes.
+     * @return The result of each transformation, by class name.
+     */
+    public <R> Map<String, R> transformAll(Map<String, byte[]> classes, BiFunction<String, byte[], R> transformation) {
+        Map<String, byte[]> sortedClasses = new TreeMap<>(classes);
+        Map<String, R> results = new HashMap<>();
+        if (sortedClasses.size() <= 1) {
+            // Not worth the hand-off.
+            for (Map.Entry<String, byte[]> elt : sortedClasses.entrySet()) {
+                results.put(elt.getKey(), transformation.apply(elt.getKey(), elt.getValue()));
+            }
+        } else {
+            List<Future<R>> futures = new ArrayList<>();
+            for (Map.Entry<String, byte[]> elt : sortedClasses.entrySet()) {
+                futures.add(this.pool.submit(() -> transformation.apply(elt.getKey(), elt.getValue())));
+            }
+            int i = 0;
+            for (String name : sortedClasses.keySet()) {
+                results.put(name, join(futures.get(i)));
+                i += 1;
+            }
+        }
+        return results;
+    }
+
+    private static <R> R join(Future<R> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            // We don't use interruption.
+            throw RuntimeAssertionError.unexpected(e);
+        } catch (ExecutionException e) {
+            // Rethrow what the transformation threw, so the caller handles it exactly as if the class had been transformed on its thread.
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            } else {
+                throw RuntimeAssertionError.unexpected(cause);
+            }
+        }
+    }
+}
@@ -95,30 +95,47 @@ public class DAppCreator {
         // We need to run our rejection filter and static rename pass.
         Map<String, byte[]> safeClasses = rejectionAndRenameInputClasses(inputClasses, classHierarchy, preserveDebuggability);
         
-        // merge the generated classes and processed classes, assuming the package spaces do not conflict.
-        Map<String, byte[]> processedClasses = new HashMap<>();
-        // merge the generated classes and processed classes, assuming the package spaces do not conflict.
-        // We also want to expose this type to the class writer so it can compute common superclasses.
-        GeneratedClassConsumer generatedClassesSink = (superClassSlashName, classSlashName, bytecode) -> {
-            // Note that the processed classes are expected to use .-style names.
-            String classDotName = Helpers.internalNameToFulllyQualifiedName(classSlashName);
-            processedClasses.put(classDotName, bytecode);
-        };
         Map<String, Integer> postRenameObjectSizes = computeAllPostRenameObjectSizes(oldPreRenameForest, preserveDebuggability);
 
-        Map<String, byte[]> transformedClasses = new HashMap<>();
+        // The interface field mapping needs to know all of the user-defined interfaces.
+        Set<String> preRenameUserClassesAndInterfaces = classHierarchy.getPreRenameUserDefinedClassesAndInterfaces();
+        Set<String> userInterfaceSlashNames = new HashSet<>();
+
+        for (String preRenameUserClassOrInterface : preRenameUserClassesAndInterfaces) {
+            if (preserveDebuggability) {
+                // In debug mode, our pre-rename classes are not renamed, so we query as if it is post-rename.
+                if (classHierarchy.postRenameTypeIsInterface(preRenameUserClassOrInterface)) {
+                    userInterfaceSlashNames.add(PackageConstants.kUserSlashPrefix + Helpers.fulllyQualifiedNameToInternalName(preRenameUserClassOrInterface));
+                }
+            } else {
+                if (classHierarchy.preRenameTypeIsInterface(preRenameUserClassOrInterface)) {
+                    userInterfaceSlashNames.add(PackageConstants.kUserSlashPrefix + Helpers.fulllyQualifiedNameToInternalName(preRenameUserClassOrInterface));
+                }
+            }
+        }
+        String javaLangObjectSlashName = PackageConstants.kShadowSlashPrefix + "java/lang/Object";
 
         int parsingOptions = preserveDebuggability ? ClassReader.EXPAND_FRAMES : ClassReader.EXPAND_FRAMES | ClassReader.SKIP_DEBUG;
 
-        for (String name : safeClasses.keySet()) {
+        // Each class is transformed independently (they only read the hierarchy and the object sizes), so we transform them in parallel.
+        Map<String, TransformedClass> transformed = ClassTransformationPool.singleton.transformAll(safeClasses, (name, safeClass) -> {
             // Note that transformClasses requires that the input class names by the .-style names.
             RuntimeAssertionError.assertTrue(-1 == name.indexOf("/"));
+            // Each class gets its own sink, for the classes generated while transforming it, so nothing is shared between the threads.
+            Map<String, byte[]> generatedClasses = new HashMap<>();
+            GeneratedClassConsumer generatedClassesSink = (superClassSlashName, classSlashName, bytecode) -> {
+                // Note that the processed classes are expected to use .-style names.
+                String classDotName = Helpers.internalNameToFulllyQualifiedName(classSlashName);
+                generatedClasses.put(classDotName, bytecode);
+            };
 
             // We need to parse with EXPAND_FRAMES, since the StackWatcherClassAdapter uses a MethodNode to parse methods.
             // We also add SKIP_DEBUG since we aren't using debug data and skipping it removes extraneous labels which would otherwise
             // cause the BlockBuildingMethodVisitor to build lots of small blocks instead of a few big ones (each block incurs a Helper
             // static call, which is somewhat expensive - this is how we bill for energy).
-            byte[] bytecode = new ClassToolchain.Builder(safeClasses.get(name), parsingOptions)
+            // Note that this pass needs to compute the frames (not just the maxs, which the array wrapping analysis needs):  ASM's
+            // COMPUTE_MAXS alone doesn't account for the exception pushed on entry to a handler.
+            byte[] bytecode = new ClassToolchain.Builder(safeClass, parsingOptions)
                     .addNextVisitor(new ConstantVisitor())
                     .addNextVisitor(new ClassMetering(postRenameObjectSizes))
                     .addNextVisitor(new InvokedynamicShadower(PackageConstants.kShadowSlashPrefix))
@@ -130,52 +147,33 @@ public class DAppCreator {
                     .addWriter(new TypeAwareClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS, classHierarchy, preserveDebuggability))
                     .build()
                     .runAndGetBytecode();
+            // The second, and last, pass also deals with static fields in interfaces (note that all fields in interfaces are defined as
+            // static), so the class only needs to be read and written twice.  Since the interface's <clinit> moved into the generated
+            // class was rewritten by the array wrapping, in this pass, the generated class computes its own frames.
             bytecode = new ClassToolchain.Builder(bytecode, parsingOptions)
                     .addNextVisitor(new ArrayWrappingClassAdapterRef(classHierarchy))
                     .addNextVisitor(new ArrayWrappingClassAdapter())
+                    .addNextVisitor(new InterfaceFieldMappingVisitor(generatedClassesSink, userInterfaceSlashNames, javaLangObjectSlashName
+                            , () -> new TypeAwareClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS, classHierarchy, preserveDebuggability)))
                     .addWriter(new TypeAwareClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS, classHierarchy, preserveDebuggability))
                     .build()
                     .runAndGetBytecode();
-            transformedClasses.put(name, bytecode);
-        }
-
-        /*
-         * Another pass to deal with static fields in interfaces.
-         * Note that all fields in interfaces are defined as static.
-         */
-
-        // We grab all of the user-defined interfaces.
-        Set<String> preRenameUserClassesAndInterfaces = classHierarchy.getPreRenameUserDefinedClassesAndInterfaces();
-        Set<String> userInterfaceSlashNames = new HashSet<>();
-
-        for (String preRenameUserClassOrInterface : preRenameUserClassesAndInterfaces) {
-            if (preserveDebuggability) {
-                // In debug mode, our pre-rename classes are not renamed, so we query as if it is post-rename.
-                if (classHierarchy.postRenameTypeIsInterface(preRenameUserClassOrInterface)) {
-                    userInterfaceSlashNames.add(PackageConstants.kUserSlashPrefix + Helpers.fulllyQualifiedNameToInternalName(preRenameUserClassOrInterface));
-                }
-            } else {
-                if (classHierarchy.preRenameTypeIsInterface(preRenameUserClassOrInterface)) {
-                    userInterfaceSlashNames.add(PackageConstants.kUserSlashPrefix + Helpers.fulllyQualifiedNameToInternalName(preRenameUserClassOrInterface));
-                }
-            }
-        }
-
-        String javaLangObjectSlashName = PackageConstants.kShadowSlashPrefix + "java/lang/Object";
-        for (String name : transformedClasses.keySet()) {
-            byte[] bytecode = new ClassToolchain.Builder(transformedClasses.get(name), parsingOptions)
-                    .addNextVisitor(new InterfaceFieldMappingVisitor(generatedClassesSink, userInterfaceSlashNames, javaLangObjectSlashName))
-                    .addWriter(new TypeAwareClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS, classHierarchy, preserveDebuggability))
-                    .build()
-                    .runAndGetBytecode();
+            return new TransformedClass(bytecode, generatedClasses);
+        });
 
-            processedClasses.put(name, bytecode);
+        // merge the generated classes and processed classes, assuming the package spaces do not conflict.
+        // (we merge in name order so the result doesn't depend on which thread finished first)
+        Map<String, byte[]> processedClasses = new HashMap<>();
+        for (String name : new TreeSet<>(transformed.keySet())) {
+            TransformedClass transformedClass = transformed.get(name);
+            processedClasses.putAll(transformedClass.generatedClasses);
+            processedClasses.put(name, transformedClass.bytecode);
         }
 
         return processedClasses;
     }
 
-    public static void create(IExternalCapabilities capabilities, KernelInterface kernel, AvmInternal avm, TransactionTask task, AvmTransaction tx, AvmTransactionResult result, boolean preserveDebuggability, boolean verboseErrors) {
+    public static void create(IExternalCapabilities capabilities, KernelInterface kernel, AvmInternal avm, TransactionTask task, AvmTransaction tx, AvmTransactionResult result, TransformedCodeCache transformedCodeCache, boolean preserveDebuggability, boolean verboseErrors, boolean useCompactCodeFormat, boolean useDictionaryGraphFormat) {
         // Expose the DApp outside the try so we can detach from it, when we exit.
         LoadedDApp dapp = null;
         try {
@@ -191,31 +189,47 @@ public class DAppCreator {
                 return;
             }
 
-            RawDappModule rawDapp = RawDappModule.readFromJar(codeAndArguments.code, preserveDebuggability);
-            if (rawDapp == null) {
-                if (verboseErrors) {
-                    System.err.println("DApp deployment failed due to corrupt JAR data");
+            // Deploying a JAR we have already transformed only needs to run its <clinit>.
+            TransformedCodeCache.TransformedCode transformedCode = transformedCodeCache.get(codeAndArguments.code, preserveDebuggability);
+            if (null == transformedCode) {
+                RawDappModule rawDapp = RawDappModule.readFromJar(codeAndArguments.code, preserveDebuggability);
+                if (rawDapp == null) {
+                    if (verboseErrors) {
+                        System.err.println("DApp deployment failed due to corrupt JAR data");
+                    }
+                    result.setResultCode(AvmTransactionResult.Code.FAILED_INVALID_DATA);
+                    result.setEnergyUsed(tx.energyLimit);
+                    return;
                 }
-                result.setResultCode(AvmTransactionResult.Code.FAILED_INVALID_DATA);
-                result.setEnergyUsed(tx.energyLimit);
-                return;
-            }
 
-            // Verify that the DApp contains the main class they listed and that it has a "public static byte[] main()" method.
-            if (!rawDapp.classes.containsKey(rawDapp.mainClass) || !MainMethodChecker.checkForMain(rawDapp.classes.get(rawDapp.mainClass))) {
-                if (verboseErrors) {
-                    String explanation = !rawDapp.classes.containsKey(rawDapp.mainClass) ? "missing Main class" : "missing main() method";
-                    System.err.println("DApp deployment failed due to " + explanation);
+                // Verify that the DApp contains the main class they listed and that it has a "public static byte[] main()" method.
+                if (!rawDapp.classes.containsKey(rawDapp.mainClass) || !MainMethodChecker.checkForMain(rawDapp.classes.get(rawDapp.mainClass))) {
+                    if (verboseErrors) {
+                        String explanation = !rawDapp.classes.containsKey(rawDapp.mainClass) ? "missing Main class" : "missing main() method";
+                        System.err.println("DApp deployment failed due to " + explanation);
+                    }
+                    result.setResultCode(AvmTransactionResult.Code.FAILED_INVALID_DATA);
+                    result.setEnergyUsed(tx.energyLimit);
+                    return;
                 }
-                result.setResultCode(AvmTransactionResult.Code.FAILED_INVALID_DATA);
-                result.setEnergyUsed(tx.energyLimit);
-                return;
+                ClassHierarchyForest dappClassesForest = rawDapp.classHierarchyForest;
+
+                // transform
+                Map<String, byte[]> transformedClasses = transformClasses(rawDapp.classes, dappClassesForest, rawDapp.classHierarchy, preserveDebuggability);
+
+                // Create the immortal version of the transformed DApp code by stripping the <clinit>.
+                // (nothing else changes so the copying writer can take everything else directly from the transformed class)
+                Map<String, byte[]> immortalClasses = ClassTransformationPool.singleton.transformAll(transformedClasses, (className, transformedClass) ->
+                        new ClassToolchain.Builder(transformedClass, 0)
+                                .addNextVisitor(new ClinitStrippingVisitor())
+                                .addCopyingWriter()
+                                .build()
+                                .runAndGetBytecode()
+                );
+                transformedCode = new TransformedCodeCache.TransformedCode(rawDapp.mainClass, transformedClasses, immortalClasses, rawDapp.numberOfClasses, rawDapp.bytecodeSize);
+                transformedCodeCache.put(codeAndArguments.code, preserveDebuggability, transformedCode);
             }
-            ClassHierarchyForest dappClassesForest = rawDapp.classHierarchyForest;
-
-            // transform
-            Map<String, byte[]> transformedClasses = transformClasses(rawDapp.classes, dappClassesForest, rawDapp.classHierarchy, preserveDebuggability);
-            TransformedDappModule transformedDapp = TransformedDappModule.fromTransformedClasses(transformedClasses, rawDapp.mainClass);
+            TransformedDappModule transformedDapp = TransformedDappModule.fromTransformedClasses(transformedCode.transformedClasses, transformedCode.mainClass);
 
             dapp = DAppLoader.fromTransformed(transformedDapp, preserveDebuggability);
             
@@ -228,34 +242,24 @@ public class DAppCreator {
             // We have just created this dApp, there should be no previous runtime associated with it.
             RuntimeAssertionError.assertTrue(previousRuntime == null);
 
-            IInstrumentation threadInstrumentation = IInstrumentation.attachedThreadInstrumentation.get();
-            threadInstrumentation.chargeEnergy(BillingRules.getDeploymentFee(rawDapp.numberOfClasses, rawDapp.bytecodeSize));
-
-            // Create the immortal version of the transformed DApp code by stripping the <clinit>.
-            Map<String, byte[]> immortalClasses = new HashMap<>();
-            for (Map.Entry<String, byte[]> elt : transformedClasses.entrySet()) {
-                String className = elt.getKey();
-                byte[] transformedClass = elt.getValue();
-                byte[] immortalClass = new ClassToolchain.Builder(transformedClass, 0)
-                        .addNextVisitor(new ClinitStrippingVisitor())
-                        .addWriter(new ClassWriter(0))
-                        .build()
-                        .runAndGetBytecode();
-                immortalClasses.put(className, immortalClass);
-            }
-            ImmortalDappModule immortalDapp = ImmortalDappModule.fromImmortalClasses(immortalClasses, transformedDapp.mainClass);
+            IInstrumentation threadInstrumentation = IInstrumentation.getCurrentThreadInstrumentation();
+            threadInstrumentation.chargeEnergy(BillingRules.getDeploymentFee(transformedCode.numberOfClasses, transformedCode.bytecodeSize));
+
+            ImmortalDappModule immortalDapp = ImmortalDappModule.fromImmortalClasses(transformedCode.immortalClasses, transformedDapp.mainClass);
 
             // store deployed code
             kernel.putCode(dappAddress, codeAndArguments.code);
             // store transformed dapp
-            byte[] immortalDappJar = immortalDapp.createJar(dappAddress, kernel.getBlockTimestamp());
-            kernel.setTransformedCode(dappAddress, immortalDappJar);
+            byte[] immortalDappCode = useCompactCodeFormat
+                    ? immortalDapp.createCompact()
+                    : immortalDapp.createJar(dappAddress, kernel.getBlockTimestamp());
+            kernel.setTransformedCode(dappAddress, immortalDappCode);
 
             // Force the classes in the dapp to initialize so that the <clinit> is run (since we already saved the version without).
             dapp.forceInitializeAllClasses();
 
             // Save back the state before we return.
-            byte[] rawGraphData = dapp.saveEntireGraph(threadInstrumentation.peekNextHashCode(), StorageFees.MAX_GRAPH_SIZE);
+            byte[] rawGraphData = dapp.saveEntireGraph(task.getGraphBuffer(), threadInstrumentation.peekNextHashCode(), StorageFees.MAX_GRAPH_SIZE, useDictionaryGraphFormat);
             // Bill for writing this size.
             threadInstrumentation.chargeEnergy(StorageFees.WRITE_PRICE_PER_BYTE * rawGraphData.length);
             kernel.putObjectGraph(dappAddress, rawGraphData);
@@ -392,4 +396,17 @@ public class DAppCreator {
         }
         return safeClasses;
     }
+
+    /**
+     * A transformed class and the classes generated while transforming it (both specified in .-style).
+     */
+    private static final class TransformedClass {
+        public final byte[] bytecode;
+        public final Map<String, byte[]> generatedClasses;
+
+        public TransformedClass(byte[] bytecode, Map<String, byte[]> generatedClasses) {
+            this.bytecode = bytecode;
+            this.generatedClasses = generatedClasses;
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package org.aion.avm.core;
 
+import java.util.Arrays;
+
 import org.aion.avm.StorageFees;
 import org.aion.avm.core.persistence.LoadedDApp;
 import org.aion.avm.core.persistence.ReentrantGraph;
@@ -19,17 +21,17 @@ public class DAppExecutor {
 
     public static void call(IExternalCapabilities capabilities, KernelInterface kernel, AvmInternal avm, LoadedDApp dapp,
                             ReentrantDAppStack.ReentrantState stateToResume, TransactionTask task,
-                            AvmTransaction tx, AvmTransactionResult result, boolean verboseErrors) {
+                            AvmTransaction tx, AvmTransactionResult result, boolean verboseErrors, boolean useDictionaryGraphFormat) {
         Address dappAddress = tx.destinationAddress;
         
         // If this is a reentrant call, we need to serialize the graph of the parent frame.  This is required to both copy-back our changes but also
         // is required in case we want to revert the state.
         ReentrantGraph callerState = (null != stateToResume)
-                ? dapp.captureStateAsCaller(stateToResume.getNextHashCode(), StorageFees.MAX_GRAPH_SIZE)
+                ? dapp.captureStateAsCaller(task.getGraphBuffer(), stateToResume.getNextHashCode(), StorageFees.MAX_GRAPH_SIZE, useDictionaryGraphFormat)
                 : null;
         
         // Note that the instrumentation is just a per-thread access to the state stack - we can grab it at any time as it never changes for this thread.
-        IInstrumentation threadInstrumentation = IInstrumentation.attachedThreadInstrumentation.get();
+        IInstrumentation threadInstrumentation = IInstrumentation.getCurrentThreadInstrumentation();
         
         // We need to get the interned classes before load the graph since it might need to instantiate class references.
         InternedClasses initialClassWrappers = (null != stateToResume)
@@ -63,7 +65,7 @@ public class DAppExecutor {
             // Save back the state before we return.
             if (null != stateToResume) {
                 int updatedNextHashCode = threadInstrumentation.peekNextHashCode();
-                ReentrantGraph calleeState = dapp.captureStateAsCallee(updatedNextHashCode, StorageFees.MAX_GRAPH_SIZE);
+                ReentrantGraph calleeState = dapp.captureStateAsCallee(task.getGraphBuffer(), updatedNextHashCode, StorageFees.MAX_GRAPH_SIZE, useDictionaryGraphFormat);
                 // Bill for writing this size.
                 threadInstrumentation.chargeEnergy(StorageFees.WRITE_PRICE_PER_BYTE * calleeState.rawState.length);
                 // Now, commit this back into the callerState.
@@ -72,10 +74,13 @@ public class DAppExecutor {
                 stateToResume.updateNextHashCode(updatedNextHashCode);
             } else {
                 // We are at the "top" so write this back to disk.
-                byte[] postCallGraphData = dapp.saveEntireGraph(threadInstrumentation.peekNextHashCode(), StorageFees.MAX_GRAPH_SIZE);
+                byte[] postCallGraphData = dapp.saveEntireGraph(task.getGraphBuffer(), threadInstrumentation.peekNextHashCode(), StorageFees.MAX_GRAPH_SIZE, useDictionaryGraphFormat);
                 // Bill for writing this size.
                 threadInstrumentation.chargeEnergy(StorageFees.WRITE_PRICE_PER_BYTE * postCallGraphData.length);
-                kernel.putObjectGraph(dappAddress, postCallGraphData);
+                // There is no point in writing the graph back if nothing changed.
+                if (!Arrays.equals(rawGraphData, postCallGraphData)) {
+                    kernel.putObjectGraph(dappAddress, postCallGraphData);
+                }
             }
 
             result.setResultCode(AvmTransactionResult.Code.SUCCESS);
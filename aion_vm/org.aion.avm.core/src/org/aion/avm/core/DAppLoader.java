@@ -20,21 +20,21 @@ public class DAppLoader {
     /**
      * Called to load an immortal DApp from the code storage provided by the kernel.
      * 
-     * @param immortalDappJar The contract jar.
+     * @param immortalDappCode The transformed code of the contract (in either the compact or JAR format).
      * @return The DApp instance, or NULL if not exist
      * @throws IOException If there was a failure decoding the code from the kernel.
      */
-    public static LoadedDApp loadFromGraph(byte[] immortalDappJar, boolean preserveDebuggability) throws IOException {
+    public static LoadedDApp loadFromGraph(byte[] immortalDappCode, boolean preserveDebuggability) throws IOException {
         // normal account or account with no code?
-        if (immortalDappJar == null || immortalDappJar.length == 0) {
+        if (immortalDappCode == null || immortalDappCode.length == 0) {
             return null;
         }
 
         // parse the code
-        ImmortalDappModule app = ImmortalDappModule.readFromJar(immortalDappJar);
+        ImmortalDappModule app = ImmortalDappModule.readFromStorage(immortalDappCode);
         
         // We now need all the classes which will loaded within the class loader for this DApp (includes Helper and userlib classes we add).
-        Map<String, byte[]> allClasses = Helpers.mapIncludingHelperBytecode(app.classes, Helpers.loadDefaultHelperBytecode());
+        Map<String, byte[]> allClasses = NodeEnvironment.singleton.mapIncludingDAppSupportClasses(app.classes);
         
         // Construct the per-contract class loader.
         AvmClassLoader classLoader = NodeEnvironment.singleton.createInvocationClassLoader(allClasses);
@@ -55,7 +55,7 @@ public class DAppLoader {
      */
     public static LoadedDApp fromTransformed(TransformedDappModule app, boolean preserveDebuggability) {
         // We now need all the classes which will loaded within the class loader for this DApp (includes Helper and userlib classes we add).
-        Map<String, byte[]> allClasses = Helpers.mapIncludingHelperBytecode(app.classes, Helpers.loadDefaultHelperBytecode());
+        Map<String, byte[]> allClasses = NodeEnvironment.singleton.mapIncludingDAppSupportClasses(app.classes);
         
         // Construct the per-contract class loader.
         AvmClassLoader classLoader = NodeEnvironment.singleton.createInvocationClassLoader(allClasses);
@@ -2,10 +2,9 @@ package org.aion.avm.core;
 
 import org.aion.avm.internal.RuntimeAssertionError;
 import org.aion.kernel.AvmTransactionResult;
+import org.aion.parallel.ConflictScheduler;
 import org.aion.parallel.TransactionTask;
 
-import java.util.LinkedList;
-import java.util.Queue;
 import java.util.Set;
 import org.aion.vm.api.interfaces.SimpleFuture;
 import org.aion.vm.api.interfaces.TransactionResult;
@@ -15,24 +14,36 @@ import org.aion.vm.api.interfaces.TransactionResult;
  * Used by the AvmImpl to manage communication between its internal execution thread and the external calling thread.
  * This just provides monitor-protected blocking input/output variables, exception handling, and a safe way to shutdown.
  * Note that once an instance of this has been shutdown, it can't be started back up.
+ * This is the default IHandoffMonitor (see WorkStealingHandoffMonitor for the alternative).
  * 
  * NOTE:  This currently assumes only one external thread is interacting with it at any given time.  This means that
  * attempting to send transactions from multiple threads or shutdown with one thread while running a transaction on another
  * would result in undefined behaviour.
  */
-public class HandoffMonitor {
+public class HandoffMonitor implements IHandoffMonitor {
     private Set<Thread> internalThreads;
+    private final boolean scheduleByConflicts;
     private TransactionTask[] incomingTransactionTasks;
 
-    private Queue<TransactionTask> taskQueue;
+    // Decides which of the incoming tasks can be handed out next (null when there is no batch in progress).
+    private ConflictScheduler scheduler;
 
     private AvmTransactionResult[] outgoingResults;
     private Throwable backgroundThrowable;
     //private int nextTransactionIndex;
 
     public HandoffMonitor(Set<Thread> threadSet) {
+        this(threadSet, false);
+    }
+
+    /**
+     * @param threadSet The executor threads.
+     * @param scheduleByConflicts If true, a task is only handed out once the earlier tasks sharing its sender or destination have
+     * completed (see ConflictScheduler).  Otherwise, tasks are handed out strictly in index order.
+     */
+    public HandoffMonitor(Set<Thread> threadSet, boolean scheduleByConflicts) {
         this.internalThreads = threadSet;
-        this.taskQueue = new LinkedList<>();
+        this.scheduleByConflicts = scheduleByConflicts;
     }
 
     /**
@@ -42,9 +53,10 @@ public class HandoffMonitor {
      * @param tasks The tasks for each transaction to run.
      * @return The result of the transactions in the given tasks as a corresponding array of asynchronous futures.
      */
+    @Override
     public synchronized SimpleFuture<TransactionResult>[] sendTransactionsAsynchronously(TransactionTask[] tasks) {
         // We lock-step these, so there can't already be a transaction in the hand-off.
-        RuntimeAssertionError.assertTrue(this.taskQueue.isEmpty());
+        RuntimeAssertionError.assertTrue(null == this.scheduler);
         RuntimeAssertionError.assertTrue(null == this.outgoingResults);
         RuntimeAssertionError.assertTrue(tasks.length > 0);
         // Also, we can't have already been shut down.
@@ -57,8 +69,10 @@ public class HandoffMonitor {
         // Enqueue the new tasks and wake up the background thread.
         for (int i = 0; i < tasks.length; ++i ) {
             this.incomingTransactionTasks[i] = tasks[i];
-            this.taskQueue.add(tasks[i]);
         }
+        this.scheduler = this.scheduleByConflicts
+                ? ConflictScheduler.byConflicts(tasks)
+                : ConflictScheduler.inOrder(tasks);
 
         this.outgoingResults = new AvmTransactionResult[tasks.length];
         this.notifyAll();
@@ -97,6 +111,7 @@ public class HandoffMonitor {
         if ((index + 1) == this.outgoingResults.length) {
             this.incomingTransactionTasks = null;
             this.outgoingResults = null;
+            this.scheduler = null;
         }
         return result;
     }
@@ -109,17 +124,19 @@ public class HandoffMonitor {
      * @param previousResult The result of the previous transaction returned by this call.
      * @return The next transaction to run or null if we should shut down.
      */
+    @Override
     public synchronized TransactionTask blockingPollForTransaction(AvmTransactionResult previousResult, TransactionTask previousTask) {
         // We may have been given these transactions as a list but we hand them out to the caller individually.
         
-        // First, write-back any results that we have and notify anyone listening for that, on the front.
+        // First, write-back any results that we have (releasing any tasks waiting on this one) and notify anyone listening for that, on the front.
         if (null != previousResult) {
             this.outgoingResults[previousTask.getIndex()] = previousResult;
+            this.scheduler.markCompleted(previousTask);
         }
         this.notifyAll();
         
-        // This means that we only actually block when the incoming transactions are null (we make it null when we consume the last element and it becomes non-null when new data enqueued).
-        while ((null != this.internalThreads) && (this.taskQueue.isEmpty())) {
+        // This means that we only actually block when no incoming transaction is ready (either there is no batch or the remaining ones are waiting on those still running).
+        while ((null != this.internalThreads) && ((null == this.scheduler) || !this.scheduler.hasReadyTask())) {
             try {
                 this.wait();
             } catch (InterruptedException e) {
@@ -132,9 +149,8 @@ public class HandoffMonitor {
         TransactionTask nextTask = null;
         if (null != this.internalThreads) {
             // Make sure that we don't already have a response for the transaction we want to hand out.
-            RuntimeAssertionError.assertTrue(null == this.outgoingResults[this.taskQueue.peek().getIndex()]);
-
-            nextTask = this.taskQueue.poll();
+            nextTask = this.scheduler.pollReadyTask();
+            RuntimeAssertionError.assertTrue(null == this.outgoingResults[nextTask.getIndex()]);
         }
         return nextTask;
     }
@@ -145,6 +161,7 @@ public class HandoffMonitor {
      * 
      * @param throwable The exception (expected to be RuntimeException or Error).
      */
+    @Override
     public synchronized void setBackgroundThrowable(Throwable throwable) {
         // This will terminate anything the foreground is doing so notify them.
         this.backgroundThrowable = throwable;
@@ -155,6 +172,7 @@ public class HandoffMonitor {
      * Called by the external thread.
      * Requests all the internal executor threads start.
      */
+    @Override
     public synchronized void startExecutorThreads(){
         for (Thread t: this.internalThreads){
             t.start();
@@ -165,6 +183,7 @@ public class HandoffMonitor {
      * Called by the external thread.
      * Requests that the internal thread stop.  Only returns once the internal thread has terminated.
      */
+    @Override
     public void stopAndWaitForShutdown() {
         // (called by the foreground thread)
         // Stop the thread and wait for it to join.
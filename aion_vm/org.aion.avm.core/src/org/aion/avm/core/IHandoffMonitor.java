@@ -0,0 +1,56 @@
+package org.aion.avm.core;
+
+import org.aion.kernel.AvmTransactionResult;
+import org.aion.parallel.TransactionTask;
+import org.aion.vm.api.interfaces.SimpleFuture;
+import org.aion.vm.api.interfaces.TransactionResult;
+
+
+/**
+ * The hand-off between the external calling thread, which sends batches of transactions and consumes their results, and the
+ * internal executor threads, which run them.
+ * The implementation is selected by AvmConfiguration.
+ * 
+ * NOTE:  Implementations assume only one external thread is interacting with them at any given time.
+ */
+public interface IHandoffMonitor {
+    /**
+     * Called by the external thread.
+     * Called to send new transactions to the internal threads.
+     * 
+     * @param tasks The tasks for each transaction to run.
+     * @return The result of the transactions in the given tasks as a corresponding array of asynchronous futures.
+     */
+    SimpleFuture<TransactionResult>[] sendTransactionsAsynchronously(TransactionTask[] tasks);
+
+    /**
+     * Called by the internal thread.
+     * The main blocking point for the internal thread.  It passes in the result from the last transaction it just completed
+     * and then waits until a new transaction comes in or a shutdown is requested.
+     * 
+     * @param previousResult The result of the previous transaction returned by this call.
+     * @param previousTask The task of the previous transaction returned by this call.
+     * @return The next transaction to run or null if we should shut down.
+     */
+    TransactionTask blockingPollForTransaction(AvmTransactionResult previousResult, TransactionTask previousTask);
+
+    /**
+     * Called by the internal thread.
+     * This is called if something goes wrong while running the transaction on the internal thread to communicate this problem to the external.
+     * 
+     * @param throwable The exception (expected to be RuntimeException or Error).
+     */
+    void setBackgroundThrowable(Throwable throwable);
+
+    /**
+     * Called by the external thread.
+     * Requests all the internal executor threads start.
+     */
+    void startExecutorThreads();
+
+    /**
+     * Called by the external thread.
+     * Requests that the internal threads stop.  Only returns once they have all terminated.
+     */
+    void stopAndWaitForShutdown();
+}
@@ -51,6 +51,11 @@ public class NodeEnvironment {
 
     // The full class hierarchy; we only ever give away deep copies of this object!
     private ClassHierarchy classHierarchy;
+    // The frozen hierarchy of the shadow JCL, array wrappers and exceptions, which every DApp's hierarchy is an overlay on.
+    private ClassHierarchy sharedBaseClassHierarchy;
+
+    // The support classes added to every DApp's class loader (the renamed Helper and the Blockchain runtime), generated once.
+    private final Map<String, byte[]> dappSupportClasses;
 
     private NodeEnvironment() {
         Map<String, byte[]> generatedShadowJDK = CommonGenerators.generateShadowJDK();
@@ -196,6 +201,9 @@ public class NodeEnvironment {
         });
         this.preRenameRuntimeObjectSizeMap.putAll(shadowObjectSizeMap);
         this.postRenameRuntimeObjectSizeMap.putAll(apiObjectSizeMap);
+
+        // The class loaders never modify the bytecode they are given, so these can be shared by every DApp.
+        this.dappSupportClasses = Collections.unmodifiableMap(Helpers.mapIncludingHelperBytecode(Collections.emptyMap(), Helpers.loadDefaultHelperBytecode()));
     }
 
     // This is an example of the more "factory-like" nature of the NodeEnvironment.
@@ -203,6 +211,20 @@ public class NodeEnvironment {
         return new AvmClassLoader(this.sharedClassLoader, finalContractClasses);
     }
 
+    /**
+     * Builds the map of classes to give to a DApp's class loader:  the given contract classes, plus the support classes every DApp
+     * needs (these are generated once, by the NodeEnvironment, instead of for every DApp load).
+     *
+     * @param contractClasses The transformed classes of the contract.
+     * @return A new map containing the contract classes and the support classes.
+     */
+    public Map<String, byte[]> mapIncludingDAppSupportClasses(Map<String, byte[]> contractClasses) {
+        Map<String, byte[]> allClasses = new HashMap<>(contractClasses.size() + this.dappSupportClasses.size());
+        allClasses.putAll(contractClasses);
+        allClasses.putAll(this.dappSupportClasses);
+        return allClasses;
+    }
+
     public Class<?> loadSharedClass(String name) throws ClassNotFoundException {
         return Class.forName(name, true, this.sharedClassLoader);
     }
@@ -386,6 +408,15 @@ public class NodeEnvironment {
         return this.classHierarchy.deepCopy();
     }
 
+    /**
+     * Returns the frozen hierarchy of the shadow JCL and API classes, the array wrappers and the
+     * exceptions, which is shared (never copied) as the base of every DApp's hierarchy.
+     */
+    public ClassHierarchy getSharedBaseClassHierarchy() {
+        RuntimeAssertionError.assertTrue(this.sharedBaseClassHierarchy != null);
+        return this.sharedBaseClassHierarchy;
+    }
+
     /**
      * Computes the object size of shadow java.base classes
      *
@@ -424,6 +455,7 @@ public class NodeEnvironment {
             this.classHierarchy = new ClassHierarchyBuilder()
                 .addPostRenameNonUserDefinedClasses(classInfos)
                 .build();
+            this.sharedBaseClassHierarchy = ClassHierarchyBuilder.buildSharedBase(this.classHierarchy);
 
         } catch (IOException e) {
             // If the RT jar being something we can't process, our installation is clearly corrupt.
@@ -0,0 +1,329 @@
+package org.aion.avm.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import org.aion.avm.core.types.ImmortalDappModule;
+import org.aion.avm.core.util.ByteArrayWrapper;
+import org.aion.avm.core.util.CacheStatistics;
+import org.aion.avm.core.util.LruCache;
+import org.aion.avm.internal.RuntimeAssertionError;
+
+
+/**
+ * A cache of what deploying a DApp JAR produces (its transformed and immortal classes), keyed by the contents of the JAR, so that
+ * deploying the same JAR again (a token template, for example) skips the verification, rejection, renaming and transformation, and
+ * only needs to run the DApp's <clinit>.
+ *
+ * The key is the SHA-256 of the JAR bytes, whether debuggability is preserved, and the version of the AVM (see
+ * {@link #getAvmCodeVersion()}), since these are everything the transformation depends on.  Only JARs which were successfully
+ * transformed are cached.
+ *
+ * The cache is kept in memory (bounded, evicting the least recently used JARs) and, optionally, in a directory, so it survives a
+ * restart (or an upgrade:  files written by another version are never used).  Each JAR is stored in its own file, named by its
+ * key, which is written once and never evicted (the directory is expected to be managed by the node operator).  A file which can't
+ * be read is treated as a miss.
+ *
+ * The cached classes are shared between all the deployments which use them, so they must never be modified.
+ */
+public class TransformedCodeCache {
+    // A class from each library whose code decides what the transformation produces:  the AVM core (the transformation itself, the
+    // billing constants and the class hierarchy), the runtime (the shadow JCL, whose classes and object sizes the transformation
+    // uses), the API, and ASM.
+    private static final Class<?>[] TRANSFORMATION_CODE = new Class<?>[] {
+            TransformedCodeCache.class,
+            org.aion.avm.shadow.java.lang.Object.class,
+            avm.Address.class,
+            org.objectweb.asm.ClassWriter.class,
+            org.objectweb.asm.commons.GeneratorAdapter.class,
+            org.objectweb.asm.tree.ClassNode.class,
+            org.objectweb.asm.tree.analysis.Analyzer.class,
+    };
+
+    // Cache files start with this header (then the version).
+    private static final byte[] FILE_HEADER = new byte[] { 'A', 'V', 'M', 'T' };
+
+    private final LruCache<ByteArrayWrapper, TransformedCode> memoryCache;
+    // (null if we only cache in memory)
+    private final File directory;
+    // (empty if the version is unknown, in which case we only cache in memory)
+    private final byte[] version;
+
+    /**
+     * Creates a new, empty, cache.
+     *
+     * @param maxEntries The maximum number of JARs to keep in memory.
+     * @param maxBytes The maximum total size of the classes to keep in memory.
+     * @param directory The existing directory to also keep the cache in, or null to only keep it in memory.
+     */
+    public TransformedCodeCache(int maxEntries, long maxBytes, File directory) {
+        // (the memory only holds what this code transformed, so the version is only needed in the file names and contents)
+        this(maxEntries, maxBytes, directory, (null != directory) ? getAvmCodeVersion() : null);
+    }
+
+    // (only directly used by tests, to pretend to be another version)
+    TransformedCodeCache(int maxEntries, long maxBytes, File directory, byte[] version) {
+        this.memoryCache = new LruCache<>(maxEntries, maxBytes, TransformedCode::getEstimatedBytes);
+        this.directory = directory;
+        this.version = (null != version) ? version : new byte[0];
+        if (null != directory) {
+            RuntimeAssertionError.assertTrue(directory.isDirectory());
+            // Without a version, we couldn't tell what wrote a file.
+            RuntimeAssertionError.assertTrue(null != version);
+        }
+    }
+
+    /**
+     * Identifies the code of this AVM which decides what the transformation produces:  the SHA-256 of the contents of the libraries
+     * it is loaded from (the AVM core, runtime and API, and ASM).  Any change to them (even one which doesn't change the
+     * transformation) is a new version, so no code transformed by another version is ever reused.
+     * This is computed once, the first time it is needed.
+     *
+     * @return The version, or null if the libraries couldn't be read (the AVM isn't loaded from local JARs or class directories).
+     */
+    public static byte[] getAvmCodeVersion() {
+        byte[] version = CodeVersionHolder.VERSION;
+        return (null != version) ? version.clone() : null;
+    }
+
+    static byte[] computeAvmCodeVersion() {
+        byte[] version = null;
+        try {
+            Set<Path> locations = new LinkedHashSet<>();
+            for (Class<?> clazz : TRANSFORMATION_CODE) {
+                CodeSource source = clazz.getProtectionDomain().getCodeSource();
+                locations.add(Paths.get(source.getLocation().toURI()));
+            }
+            MessageDigest digest = newDigest();
+            for (Path location : locations) {
+                digestLocation(digest, location);
+            }
+            version = digest.digest();
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            // (a class without a code source, or one which isn't a local file)
+            version = null;
+        }
+        return version;
+    }
+
+    /**
+     * Digests the name and contents of every class and resource in a JAR or class directory, in name order, so the result only
+     * depends on what they contain (not on the timestamps of a rebuild, for example).
+     */
+    private static void digestLocation(MessageDigest digest, Path location) throws IOException {
+        SortedMap<String, byte[]> contents = new TreeMap<>();
+        if (Files.isDirectory(location)) {
+            try (Stream<Path> files = Files.walk(location)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                    contents.put(location.relativize(file).toString().replace(File.separatorChar, '/'), Files.readAllBytes(file));
+                }
+            }
+        } else {
+            try (JarFile jar = new JarFile(location.toFile())) {
+                for (JarEntry entry : Collections.list(jar.entries())) {
+                    if (!entry.isDirectory()) {
+                        try (InputStream stream = jar.getInputStream(entry)) {
+                            contents.put(entry.getName(), stream.readAllBytes());
+                        }
+                    }
+                }
+            }
+        }
+        digest.update(location.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+        for (Map.Entry<String, byte[]> elt : contents.entrySet()) {
+            byte[] name = elt.getKey().getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(2 * Integer.BYTES).putInt(name.length).putInt(elt.getValue().length).array());
+            digest.update(name);
+            digest.update(elt.getValue());
+        }
+    }
+
+    /**
+     * Looks up what deploying the given JAR produced, the last time.
+     *
+     * @param code The DApp JAR.
+     * @param preserveDebuggability Whether or not debug mode is enabled.
+     * @return What the deployment produced, or null if this JAR isn't in the cache.
+     */
+    public TransformedCode get(byte[] code, boolean preserveDebuggability) {
+        ByteArrayWrapper key = keyFor(code, preserveDebuggability);
+        TransformedCode transformedCode = this.memoryCache.get(key);
+        if ((null == transformedCode) && (null != this.directory)) {
+            transformedCode = readFile(fileFor(key));
+            if (null != transformedCode) {
+                this.memoryCache.checkin(key, transformedCode);
+            }
+        }
+        return transformedCode;
+    }
+
+    /**
+     * Adds what deploying the given JAR produced to the cache.
+     *
+     * @param code The DApp JAR.
+     * @param preserveDebuggability Whether or not debug mode is enabled.
+     * @param transformedCode What the deployment produced.
+     */
+    public void put(byte[] code, boolean preserveDebuggability, TransformedCode transformedCode) {
+        ByteArrayWrapper key = keyFor(code, preserveDebuggability);
+        this.memoryCache.checkin(key, transformedCode);
+        if (null != this.directory) {
+            File file = fileFor(key);
+            if (!file.exists()) {
+                writeFile(file, transformedCode);
+            }
+        }
+    }
+
+    /**
+     * @return The statistics of the in-memory cache (hits, misses, evictions and current size).
+     */
+    public CacheStatistics getStatistics() {
+        return this.memoryCache.getStatistics();
+    }
+
+    private ByteArrayWrapper keyFor(byte[] code, boolean preserveDebuggability) {
+        MessageDigest digest = newDigest();
+        digest.update(this.version);
+        digest.update((byte) (preserveDebuggability ? 1 : 0));
+        digest.update(code);
+        return new ByteArrayWrapper(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every JVM is required to support SHA-256.
+            throw RuntimeAssertionError.unexpected(e);
+        }
+    }
+
+    private File fileFor(ByteArrayWrapper key) {
+        // (the key prints as hex)
+        return new File(this.directory, key.toString());
+    }
+
+    /**
+     * A cache file is the header and version (preceded by its 4-byte length), the number of classes and bytecode size of the JAR, followed by the transformed and
+     * immortal classes (each in the compact code format, preceded by its 4-byte length).
+     */
+    private void writeFile(File file, TransformedCode transformedCode) {
+        byte[] transformed = ImmortalDappModule.fromImmortalClasses(transformedCode.transformedClasses, transformedCode.mainClass).createCompact();
+        byte[] immortal = ImmortalDappModule.fromImmortalClasses(transformedCode.immortalClasses, transformedCode.mainClass).createCompact();
+        ByteBuffer buffer = ByteBuffer.allocate(FILE_HEADER.length + Integer.BYTES + this.version.length + 2 * Long.BYTES + Integer.BYTES + transformed.length + Integer.BYTES + immortal.length);
+        buffer.put(FILE_HEADER);
+        buffer.putInt(this.version.length).put(this.version);
+        buffer.putLong(transformedCode.numberOfClasses);
+        buffer.putLong(transformedCode.bytecodeSize);
+        buffer.putInt(transformed.length).put(transformed);
+        buffer.putInt(immortal.length).put(immortal);
+        try {
+            // Write a temporary file and move it into place, so a reader never sees a partial file.
+            File temporary = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+            Files.write(temporary.toPath(), buffer.array());
+            Files.move(temporary.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            // The cache is only an optimization, so we just don't store this one.
+        }
+    }
+
+    private TransformedCode readFile(File file) {
+        TransformedCode transformedCode = null;
+        if (file.isFile()) {
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+                byte[] header = new byte[FILE_HEADER.length];
+                buffer.get(header);
+                if (Arrays.equals(FILE_HEADER, header) && Arrays.equals(this.version, readBytes(buffer))) {
+                    long numberOfClasses = buffer.getLong();
+                    long bytecodeSize = buffer.getLong();
+                    ImmortalDappModule transformed = ImmortalDappModule.readFromStorage(readBytes(buffer));
+                    ImmortalDappModule immortal = ImmortalDappModule.readFromStorage(readBytes(buffer));
+                    if ((null != transformed) && (null != immortal) && !buffer.hasRemaining()) {
+                        transformedCode = new TransformedCode(transformed.mainClass, transformed.classes, immortal.classes, numberOfClasses, bytecodeSize);
+                    }
+                }
+            } catch (IOException | BufferUnderflowException e) {
+                // The file is damaged (handled below).
+            }
+            if (null == transformedCode) {
+                // The file is damaged, or was written by another version, so treat it as a miss (it will be replaced, the next time
+                // this JAR is deployed).
+                file.delete();
+            }
+        }
+        return transformedCode;
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if ((length < 0) || (length > buffer.remaining())) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+
+    /**
+     * What deploying a JAR produced:  its transformed classes (which still have their <clinit>, to be run by the deployment) and
+     * immortal classes (which are stored), and what the deployment is billed for.
+     * This is immutable, since it is shared by every deployment of the JAR.
+     */
+    public static final class TransformedCode {
+        public final String mainClass;
+        public final Map<String, byte[]> transformedClasses;
+        public final Map<String, byte[]> immortalClasses;
+        public final long numberOfClasses;
+        public final long bytecodeSize;
+
+        public TransformedCode(String mainClass, Map<String, byte[]> transformedClasses, Map<String, byte[]> immortalClasses, long numberOfClasses, long bytecodeSize) {
+            this.mainClass = mainClass;
+            this.transformedClasses = Collections.unmodifiableMap(transformedClasses);
+            this.immortalClasses = Collections.unmodifiableMap(immortalClasses);
+            this.numberOfClasses = numberOfClasses;
+            this.bytecodeSize = bytecodeSize;
+        }
+
+        public long getEstimatedBytes() {
+            long bytes = 0L;
+            for (Map.Entry<String, byte[]> elt : this.transformedClasses.entrySet()) {
+                bytes += 2L * elt.getKey().length() + elt.getValue().length;
+            }
+            for (Map.Entry<String, byte[]> elt : this.immortalClasses.entrySet()) {
+                bytes += 2L * elt.getKey().length() + elt.getValue().length;
+            }
+            return bytes;
+        }
+    }
+
+
+    // (so the libraries are only read the first time the version is needed)
+    private static final class CodeVersionHolder {
+        private static final byte[] VERSION = computeAvmCodeVersion();
+    }
+}
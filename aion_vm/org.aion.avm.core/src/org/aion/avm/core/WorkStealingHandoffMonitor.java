@@ -0,0 +1,305 @@
+package org.aion.avm.core;
+
+import org.aion.avm.internal.RuntimeAssertionError;
+import org.aion.kernel.AvmTransactionResult;
+import org.aion.parallel.ConflictScheduler;
+import org.aion.parallel.TransactionTask;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import org.aion.vm.api.interfaces.SimpleFuture;
+import org.aion.vm.api.interfaces.TransactionResult;
+
+
+/**
+ * An alternative to HandoffMonitor which doesn't funnel every thread through a single monitor.
+ * Each executor thread owns a lock-free set of ready tasks, ordered by index:  a batch is dealt out across these sets, in index order,
+ * and a thread always runs the lowest task in its own set, stealing the lowest task of another set when its own is empty, before
+ * parking.  Wake-ups are targeted:  sending a batch only unparks the threads which were given tasks and completing a result only
+ * unparks the external thread if it is waiting on that specific result.
+ * When scheduling by conflicts, a task isn't dealt to any thread until every earlier task sharing its sender or destination has
+ * completed (see ConflictScheduler):  the thread which completes its last dependency adds it to its own set, so conflicting
+ * transactions run one after the other, on the same thread, instead of aborting each other.  A task can only be in a set once it is
+ * ready, so stealing can never start it early.
+ * Since each thread only adds to its own set, and always takes its lowest task, the lowest uncommitted task is always either running
+ * or the next task its owner will take, so the in-order commit can't deadlock.
+ *
+ * NOTE:  Like HandoffMonitor, this assumes only one external thread is interacting with it at any given time and, once shut down,
+ * it can't be started back up.
+ */
+public class WorkStealingHandoffMonitor implements IHandoffMonitor {
+    // (built in the constructor and only read afterward, so they are safe to share with the executor threads)
+    private final Worker[] workers;
+    private final Map<Thread, Worker> workersByThread;
+    private final boolean scheduleByConflicts;
+
+    private volatile boolean isRunning;
+    private volatile Batch currentBatch;
+    private volatile Throwable backgroundThrowable;
+
+    // The external thread and the index of the result it is blocked on (-1 if it isn't blocked).
+    private volatile Thread consumerThread;
+    private volatile int awaitedIndex;
+
+    public WorkStealingHandoffMonitor(Set<Thread> threadSet) {
+        this(threadSet, false);
+    }
+
+    public WorkStealingHandoffMonitor(Set<Thread> threadSet, boolean scheduleByConflicts) {
+        this.scheduleByConflicts = scheduleByConflicts;
+        this.workers = new Worker[threadSet.size()];
+        this.workersByThread = new HashMap<>();
+        int i = 0;
+        for (Thread thread : threadSet) {
+            Worker worker = new Worker(thread, i);
+            this.workers[i] = worker;
+            this.workersByThread.put(thread, worker);
+            i += 1;
+        }
+        this.awaitedIndex = -1;
+        this.isRunning = true;
+    }
+
+    @Override
+    public SimpleFuture<TransactionResult>[] sendTransactionsAsynchronously(TransactionTask[] tasks) {
+        // We lock-step these, so there can't already be a transaction in the hand-off.
+        RuntimeAssertionError.assertTrue(null == this.currentBatch);
+        RuntimeAssertionError.assertTrue(tasks.length > 0);
+        // Also, we can't have already been shut down.
+        if (!this.isRunning) {
+            throw new IllegalStateException("Thread already stopped");
+        }
+
+        this.consumerThread = Thread.currentThread();
+        Batch batch = new Batch(tasks, this.scheduleByConflicts ? ConflictScheduler.byConflicts(tasks) : ConflictScheduler.inOrder(tasks));
+        this.currentBatch = batch;
+
+        // Deal the ready tasks out in index order (the others are added by whichever thread completes their last dependency).
+        int nextWorker = 0;
+        boolean[] isGiven = new boolean[this.workers.length];
+        for (TransactionTask task : tasks) {
+            if (0 == batch.pendingDependencies.get(task.getIndex())) {
+                this.workers[nextWorker].tasks.add(task);
+                isGiven[nextWorker] = true;
+                nextWorker = (nextWorker + 1) % this.workers.length;
+            }
+        }
+        // Only wake the threads which were given something:  the others aren't needed for a batch this small.
+        for (int i = 0; i < this.workers.length; ++i) {
+            if (isGiven[i]) {
+                LockSupport.unpark(this.workers[i].thread);
+            }
+        }
+
+        // Return the future result, which will do the waiting for us.
+        ResultWaitFuture[] results = new ResultWaitFuture[tasks.length];
+        for (int i = 0; i < results.length; ++i) {
+            results[i] = new ResultWaitFuture(i);
+        }
+        return results;
+    }
+
+    public AvmTransactionResult blockingConsumeResult(int index) {
+        Batch batch = this.currentBatch;
+
+        // Wait until we have the result or something went wrong.
+        AvmTransactionResult result = batch.results.get(index);
+        if (null == result) {
+            // Publish what we are waiting for before checking again, so the executor completing it can't miss us.
+            this.awaitedIndex = index;
+            result = batch.results.get(index);
+            while ((null == result) && (null == this.backgroundThrowable)) {
+                LockSupport.park(this);
+                result = batch.results.get(index);
+            }
+            this.awaitedIndex = -1;
+        }
+
+        // Throw an exception, if there is one.
+        handleThrowable();
+
+        // Consume the result and return it.
+        result.getSideEffects().merge(batch.tasks[index].popSideEffects());
+        RuntimeAssertionError.assertTrue(batch.tasks[index].isSideEffectsStackEmpty());
+        batch.tasks[index] = null;
+        batch.results.set(index, null);
+        // If this is the last one in the list, drop it.
+        // (note that this assumes the the results are consumed in-order - this requirement exists in more fundamental parts of the system, though).
+        if ((index + 1) == batch.tasks.length) {
+            this.currentBatch = null;
+        }
+        return result;
+    }
+
+    @Override
+    public TransactionTask blockingPollForTransaction(AvmTransactionResult previousResult, TransactionTask previousTask) {
+        Worker self = this.workersByThread.get(Thread.currentThread());
+        RuntimeAssertionError.assertTrue(null != self);
+
+        // First, release the tasks which were only waiting on this one, then write-back any results that we have and wake the external
+        // thread, if it is waiting for exactly this one.
+        if (null != previousResult) {
+            Batch batch = this.currentBatch;
+            int index = previousTask.getIndex();
+            releaseDependents(self, batch, index);
+            RuntimeAssertionError.assertTrue(null == batch.results.get(index));
+            batch.results.set(index, previousResult);
+            if (index == this.awaitedIndex) {
+                LockSupport.unpark(this.consumerThread);
+            }
+        }
+
+        // We only block when there is nothing left to run or steal (an unpark which races with this check isn't lost, since it
+        // leaves the permit set for the next park).
+        TransactionTask nextTask = findTask(self);
+        while ((null == nextTask) && this.isRunning) {
+            LockSupport.park(this);
+            nextTask = findTask(self);
+        }
+
+        // Unless this was a shutdown request, return the next transaction.
+        return this.isRunning ? nextTask : null;
+    }
+
+    @Override
+    public void setBackgroundThrowable(Throwable throwable) {
+        // This will terminate anything the foreground is doing so wake it.
+        this.backgroundThrowable = throwable;
+        Thread consumer = this.consumerThread;
+        if (null != consumer) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    @Override
+    public void startExecutorThreads() {
+        for (Worker worker : this.workers) {
+            worker.thread.start();
+        }
+    }
+
+    @Override
+    public void stopAndWaitForShutdown() {
+        // (called by the foreground thread)
+        // Stop the threads and wait for them to join.
+        this.isRunning = false;
+        for (Worker worker : this.workers) {
+            LockSupport.unpark(worker.thread);
+        }
+
+        // Join on the threads and throw any exceptions left over.
+        try {
+            for (Worker worker : this.workers) {
+                worker.thread.join();
+            }
+        } catch (InterruptedException e) {
+            // We don't use interruption.
+            RuntimeAssertionError.unexpected(e);
+        }
+        handleThrowable();
+    }
+
+
+    private void releaseDependents(Worker self, Batch batch, int index) {
+        // Any task which was only waiting on this one becomes ready on this thread, since it conflicts with what this thread just ran.
+        int released = 0;
+        for (TransactionTask dependent : batch.dependents[index]) {
+            if (0 == batch.pendingDependencies.decrementAndGet(dependent.getIndex())) {
+                self.tasks.add(dependent);
+                released += 1;
+            }
+        }
+        // We will take one of these, ourselves, but wake some other threads to steal the rest.
+        for (int i = 1; (i < released) && (i < this.workers.length); ++i) {
+            LockSupport.unpark(this.workers[(self.position + i) % this.workers.length].thread);
+        }
+    }
+
+    private TransactionTask findTask(Worker self) {
+        TransactionTask task = self.tasks.pollFirst();
+        // Steal the lowest task of the other threads, since the lowest indices are the ones the external thread needs first.
+        for (int i = 1; (null == task) && (i < this.workers.length); ++i) {
+            task = this.workers[(self.position + i) % this.workers.length].tasks.pollFirst();
+        }
+        return task;
+    }
+
+    /**
+     * Called by the external thread.
+     */
+    private void handleThrowable() {
+        // This is safe without a lock since backgroundThrowable saturates to non-null.
+        Throwable throwable = this.backgroundThrowable;
+        if (null != throwable) {
+            // Only RuntimeExceptions and Errors can actually be handled here.
+            try {
+                throw throwable;
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Error e) {
+                throw e;
+            } catch (Throwable t) {
+                // This can't happen since we only store those 2.
+                RuntimeAssertionError.unexpected(t);
+            }
+        }
+    }
+
+
+    private static class Worker {
+        public final Thread thread;
+        public final int position;
+        // The tasks which are ready to run, lowest index first.
+        public final ConcurrentSkipListSet<TransactionTask> tasks;
+
+        public Worker(Thread thread, int position) {
+            this.thread = thread;
+            this.position = position;
+            this.tasks = new ConcurrentSkipListSet<>();
+        }
+    }
+
+
+    private static class Batch {
+        public final TransactionTask[] tasks;
+        public final AtomicReferenceArray<AvmTransactionResult> results;
+        // Per task index:  the later tasks waiting on it and the number of its dependencies which haven't completed.
+        public final List<TransactionTask>[] dependents;
+        public final AtomicIntegerArray pendingDependencies;
+
+        @SuppressWarnings("unchecked")
+        public Batch(TransactionTask[] tasks, ConflictScheduler conflicts) {
+            this.tasks = tasks.clone();
+            this.results = new AtomicReferenceArray<>(tasks.length);
+            this.dependents = new List[tasks.length];
+            this.pendingDependencies = new AtomicIntegerArray(tasks.length);
+            for (int i = 0; i < tasks.length; ++i) {
+                this.dependents[i] = conflicts.getDependents(i);
+                this.pendingDependencies.set(i, conflicts.getPendingDependencyCount(i));
+            }
+        }
+    }
+
+
+    private class ResultWaitFuture implements SimpleFuture<TransactionResult> {
+        private final int index;
+        // We will cache the result.
+        private AvmTransactionResult cachedResult;
+        public ResultWaitFuture(int index) {
+            this.index = index;
+        }
+        @Override
+        public AvmTransactionResult get() {
+            if (null == this.cachedResult) {
+                this.cachedResult = WorkStealingHandoffMonitor.this.blockingConsumeResult(this.index);
+            }
+            return this.cachedResult;
+        }
+    }
+}
@@ -3,8 +3,11 @@ package org.aion.avm.core.arraywrapping;
 import org.aion.avm.RuntimeMethodFeeSchedule;
 
 import java.util.*;
+import java.util.function.Supplier;
 import org.aion.avm.arraywrapper.ArrayElement;
+import org.aion.avm.core.util.CacheStatistics;
 import org.aion.avm.core.util.Helpers;
+import org.aion.avm.core.util.LruCache;
 import org.aion.avm.internal.PackageConstants;
 import org.aion.avm.internal.RuntimeAssertionError;
 import org.objectweb.asm.ClassWriter;
@@ -19,6 +22,20 @@ public class ArrayWrappingClassGenerator implements Opcodes {
 
     static private String SHADOW_ARRAY = PackageConstants.kArrayWrapperSlashPrefix + "Array";
 
+    // Every DApp loader generates the wrappers over its own classes (and each reload of a DApp generates them again) but the same
+    // element types recur across DApps and reloads, so the generated bytecode is shared, node-wide.
+    // The bytecode of a wrapper only depends on its name and the names of its super types, so that is what it is cached by.
+    static private final int GENERATED_CACHE_MAX_ENTRIES = 4096;
+    static private final long GENERATED_CACHE_MAX_BYTES = 16L * 1024L * 1024L;
+    static private final LruCache<String, byte[]> generatedCache = new LruCache<>(GENERATED_CACHE_MAX_ENTRIES, GENERATED_CACHE_MAX_BYTES, (bytecode) -> bytecode.length);
+
+    /**
+     * @return The statistics of the node-wide cache of generated wrapper bytecode.
+     */
+    public static CacheStatistics getGeneratedCacheStatistics() {
+        return generatedCache.getStatistics();
+    }
+
     public static byte[] arrayWrappingFactory(String request, ClassLoader loader){
 
         if (request.startsWith(PackageConstants.kArrayWrapperDotPrefix + "interface._")){
@@ -106,7 +123,8 @@ public class ArrayWrappingClassGenerator implements Opcodes {
             System.out.println("*********************************");
         }
 
-        return generateInterfaceBytecode(wrapperInterfaceSlashName, elementInterfaceWrapperNames.toArray(new String[elementInterfaceWrapperNames.size()]));
+        String[] superInterfaces = elementInterfaceWrapperNames.toArray(new String[elementInterfaceWrapperNames.size()]);
+        return generateOrGetCached(wrapperInterfaceSlashName, superInterfaces, () -> generateInterfaceBytecode(wrapperInterfaceSlashName, superInterfaces));
 
     }
 
@@ -150,7 +168,7 @@ public class ArrayWrappingClassGenerator implements Opcodes {
             String interfaceWrapperSlashName = ArrayNameMapper.getInterfaceWrapper(interfaceSlashName);
 
             String superClassSlashName = PackageConstants.kArrayWrapperSlashPrefix + "ObjectArray";
-            bytecode = generateClassBytecode(wrapperClassSlashName, superClassSlashName, dim, new String[] {interfaceWrapperSlashName});
+            bytecode = generateOrGetCached(wrapperClassSlashName, new String[] {interfaceWrapperSlashName}, () -> generateClassBytecode(wrapperClassSlashName, superClassSlashName, dim, new String[] {interfaceWrapperSlashName}));
 
             if (DEBUG) {
                 System.out.println("Generating class : " + wrapperClassSlashName);
@@ -161,7 +179,7 @@ public class ArrayWrappingClassGenerator implements Opcodes {
             }
         }else{
             // Element IS primitive
-            bytecode = generateClassBytecode(wrapperClassSlashName, PackageConstants.kArrayWrapperSlashPrefix + "ObjectArray", dim, null);
+            bytecode = generateOrGetCached(wrapperClassSlashName, new String[0], () -> generateClassBytecode(wrapperClassSlashName, PackageConstants.kArrayWrapperSlashPrefix + "ObjectArray", dim, null));
             if (DEBUG) {
                 System.out.println("Generating Prim Class : " + wrapperClassSlashName);
                 System.out.println("Wrapper Dimension : " + dim);
@@ -174,6 +192,17 @@ public class ArrayWrappingClassGenerator implements Opcodes {
         return bytecode;
     }
 
+    private static byte[] generateOrGetCached(String wrapperSlashName, String[] superSlashNames, Supplier<byte[]> generator) {
+        String key = wrapperSlashName + " " + String.join(" ", superSlashNames);
+        byte[] bytecode = generatedCache.get(key);
+        if (null == bytecode) {
+            // (if 2 threads generate the same wrapper at once, the second copy is just dropped, since it is identical)
+            bytecode = generator.get();
+            generatedCache.checkin(key, bytecode);
+        }
+        return bytecode;
+    }
+
     private static byte[] generateClassBytecode(String wrapperClassSlashName, String superClassSlashName, int dimensions, String[] superInterfaceSlashNames){
         ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_MAXS);
         classWriter.visit(V10, ACC_PUBLIC | ACC_SUPER, wrapperClassSlashName, null, superClassSlashName, superInterfaceSlashNames);
@@ -382,10 +411,6 @@ public class ArrayWrappingClassGenerator implements Opcodes {
         methodVisitor.visitInsn(LADD);
         methodVisitor.visitMethodInsn(INVOKESTATIC, SHADOW_ARRAY, "chargeEnergy", "(J)V", false);
 
-        // lazyLoad
-        methodVisitor.visitVarInsn(ALOAD, 0);
-        methodVisitor.visitMethodInsn(INVOKEVIRTUAL, wrapper, "lazyLoad", "()V", false);
-
         methodVisitor.visitCode();
         methodVisitor.visitTypeInsn(NEW, wrapper);
         methodVisitor.visitInsn(DUP);
@@ -158,4 +158,15 @@ public class AvmClassLoader extends ClassLoader {
     public byte[] getUserClassBytecode(String className){
         return this.bytecodeMap.get(className);
     }
+
+    /**
+     * @return The total size of the bytecode this loader can define classes from (not including generated array wrappers).
+     */
+    public long getTotalBytecodeSize() {
+        long total = 0L;
+        for (byte[] bytecode : this.bytecodeMap.values()) {
+            total += bytecode.length;
+        }
+        return total;
+    }
 }
@@ -7,6 +7,7 @@ import org.aion.avm.internal.RuntimeAssertionError;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 
@@ -21,8 +22,8 @@ public class AvmSharedClassLoader extends ClassLoader {
     // Static class cache generated during initialization phase, after initialization it can provide lock free access
     private final Map<String, Class<?>> cacheStatic;
 
-    // Dynamic class cache used for dynamic class generation, require lock before access
-    private final Map<String, Class<?>> cacheDynamic;
+    // Dynamic class cache used for dynamic class generation, lock free to read but generating a class requires the lock
+    private final ConcurrentHashMap<String, Class<?>> cacheDynamic;
 
     // List of dynamic class generation handlers
     private ArrayList<Function<String, byte[]>> handlers;
@@ -40,7 +41,7 @@ public class AvmSharedClassLoader extends ClassLoader {
         super(AvmClassLoader.class.getClassLoader());
         this.bytecodeMap = bytecodeMap;
         this.cacheStatic = new HashMap<>();
-        this.cacheDynamic = new HashMap<>();
+        this.cacheDynamic = new ConcurrentHashMap<>();
         this.handlers = new ArrayList<>();
 
         registerHandlers();
@@ -113,7 +114,15 @@ public class AvmSharedClassLoader extends ClassLoader {
         }
 
         // Array wrapper classes are either already in dynamic cache, or need to be generated
-        if (name.startsWith(PackageConstants.kArrayWrapperDotPrefix)){
+        // (every DApp loader delegates the wrappers over shared classes here, so those already generated are found without locking)
+        Class<?> cachedDynamic = name.startsWith(PackageConstants.kArrayWrapperDotPrefix)
+                ? this.cacheDynamic.get(name)
+                : null;
+        if (null != cachedDynamic) {
+            result = cachedDynamic;
+            // We got this from the cache so don't resolve.
+            shouldResolve = false;
+        } else if (name.startsWith(PackageConstants.kArrayWrapperDotPrefix)){
             synchronized (this.cacheDynamic) {
                 if (this.cacheDynamic.containsKey(name)) {
                     result = this.cacheDynamic.get(name);
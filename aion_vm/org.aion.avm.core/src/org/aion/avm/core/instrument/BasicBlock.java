@@ -1,5 +1,6 @@
 package org.aion.avm.core.instrument;
 
+import org.objectweb.asm.Label;
 import org.objectweb.asm.util.Printer;
 
 import java.util.Collections;
@@ -8,7 +9,7 @@ import java.util.List;
 
 /**
  * Describes a single basic block within a method.
- * Note that only the opcodeSequence, switchCounts, and allocatedTypes are meant to be immutable.
+ * Note that only the opcodeSequence, switchCounts, allocatedTypes, startLabels, and branchTargets are meant to be immutable.
  * The variable energyCost is mutable, deliberately, to allow for mutation requests.
  */
 public class BasicBlock {
@@ -19,12 +20,22 @@ public class BasicBlock {
      */
     public final List<Integer> switchCases;
     public final List<String> allocatedTypes;
+    /**
+     * The labels which mark the start of the block (any jump, switch, or exception handler targeting the block uses one of these).
+     */
+    public final List<Label> startLabels;
+    /**
+     * The labels targeted by the jump or switch which ends the block (empty if it doesn't end in one).
+     */
+    public final List<Label> branchTargets;
     private long energyCost;
 
-    public BasicBlock(List<Integer> opcodes, List<Integer> switchCases, List<String> allocatedTypes) {
+    public BasicBlock(List<Integer> opcodes, List<Integer> switchCases, List<String> allocatedTypes, List<Label> startLabels, List<Label> branchTargets) {
         this.opcodeSequence = Collections.unmodifiableList(opcodes);
         this.switchCases = Collections.unmodifiableList(switchCases);
         this.allocatedTypes = Collections.unmodifiableList(allocatedTypes);
+        this.startLabels = Collections.unmodifiableList(startLabels);
+        this.branchTargets = Collections.unmodifiableList(branchTargets);
     }
 
     /**
@@ -7,12 +7,15 @@ import org.objectweb.asm.Opcodes;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 
 /**
  * Collects information regarding BasicBlocks within a method.
- * Specifically, this refers to the opcodes, switch cases, and allocated types within a given block.
+ * Specifically, this refers to the opcodes, switch cases, and allocated types within a given block, as well as the labels which
+ * connect the blocks (where each block starts and where the jump or switch ending it goes), so the control flow can be analyzed.
  * 
  * Note that this was adapted from the ClassRewriter.BlockMethodReader.
  */
@@ -21,21 +24,34 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
     private List<Integer> currentBuildingBlock;
     private List<Integer> currentBlockSwitches;
     private List<String> currentAllocationList;
+    private List<Label> currentStartLabels;
+    private List<Label> currentBranchTargets;
+    private final Set<Label> handlerLabels;
 
     public BlockBuildingMethodVisitor() {
         super(Opcodes.ASM6);
         this.buildingList = new ArrayList<>();
+        this.handlerLabels = new HashSet<>();
         
         // We need to enter our initial state in the constructor since this method may be abstract and have no code.
         this.currentBuildingBlock = new ArrayList<>();
         this.currentBlockSwitches = new ArrayList<>();
         this.currentAllocationList = new ArrayList<>();
+        this.currentStartLabels = new ArrayList<>();
+        this.currentBranchTargets = new ArrayList<>();
     }
 
     public List<BasicBlock> getBlockList() {
         return Collections.unmodifiableList(this.buildingList);
     }
 
+    /**
+     * @return The labels where the exception handlers of the method start.
+     */
+    public Set<Label> getHandlerLabels() {
+        return Collections.unmodifiableSet(this.handlerLabels);
+    }
+
     @Override
     public void visitEnd() {
         // This is called after all the code has been walked, so seal the final block.
@@ -43,6 +59,12 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
         this.currentBuildingBlock = null;
         this.currentBlockSwitches = null;
         this.currentAllocationList = null;
+        this.currentStartLabels = null;
+        this.currentBranchTargets = null;
+    }
+    @Override
+    public void visitTryCatchBlock(Label start, Label end, Label handler, String type) {
+        this.handlerLabels.add(handler);
     }
     @Override
     public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
@@ -73,6 +95,7 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
     @Override
     public void visitJumpInsn(int opcode, Label label) {
         this.currentBuildingBlock.add(opcode);
+        this.currentBranchTargets.add(label);
         // Jump is the end of a block so emit the label.
         // (note that this is also where if statements show up).
         handleLabel();
@@ -80,6 +103,8 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
     @Override
     public void visitLabel(Label label) {
         handleLabel();
+        // This label is where the next block starts.
+        this.currentStartLabels.add(label);
     }
     @Override
     public void visitLdcInsn(Object value) {
@@ -90,6 +115,7 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
         this.currentBuildingBlock.add(Opcodes.LOOKUPSWITCH);
         // Count the number of labels plus the default.
         this.currentBlockSwitches.add(labels.length + 1);
+        addSwitchTargets(dflt, labels);
         
         // Even though every label is given, there could be unreachable code immediately after.
         handleLabel();
@@ -107,6 +133,7 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
         this.currentBuildingBlock.add(Opcodes.TABLESWITCH);
         // Count the number of labels plus the default.
         this.currentBlockSwitches.add(labels.length + 1);
+        addSwitchTargets(dflt, labels);
         
         // Even though every label is given, there could be unreachable code immediately after.
         handleLabel();
@@ -132,11 +159,20 @@ public class BlockBuildingMethodVisitor extends MethodVisitor {
         // Seal the previous block (avoid the case where the block is empty).
         if (!this.currentBuildingBlock.isEmpty()) {
             // Add the block to our finished block list.
-            this.buildingList.add(new BasicBlock(this.currentBuildingBlock, this.currentBlockSwitches, this.currentAllocationList));
+            this.buildingList.add(new BasicBlock(this.currentBuildingBlock, this.currentBlockSwitches, this.currentAllocationList, this.currentStartLabels, this.currentBranchTargets));
             // Start the new block.
             this.currentBuildingBlock = new ArrayList<>();
             this.currentBlockSwitches = new ArrayList<>();
             this.currentAllocationList = new ArrayList<>();
+            this.currentStartLabels = new ArrayList<>();
+            this.currentBranchTargets = new ArrayList<>();
+        }
+    }
+
+    private void addSwitchTargets(Label dflt, Label[] labels) {
+        this.currentBranchTargets.add(dflt);
+        for (Label label : labels) {
+            this.currentBranchTargets.add(label);
         }
     }
 }
@@ -12,11 +12,22 @@ import java.util.Map;
 public class ClassMetering extends ClassToolchain.ToolChainClassVisitor {
     private Map<String, Integer> objectSizes;
     private final BytecodeFeeScheduler bytecodeFeeScheduler;
+    private final boolean coalesceCharges;
 
     public ClassMetering(Map<String, Integer> objectSizes) {
+        this(objectSizes, true);
+    }
+
+    /**
+     * @param objectSizes The sizes of the types the code can allocate.
+     * @param coalesceCharges True if the EnergyChargeCoalescer should reduce the number of charges (which doesn't change any energy
+     * totals - this is only false to test that).
+     */
+    public ClassMetering(Map<String, Integer> objectSizes, boolean coalesceCharges) {
         super(Opcodes.ASM6);
 
         this.objectSizes = objectSizes;
+        this.coalesceCharges = coalesceCharges;
         
         // Note that we construct the fee scheduler, internally.
         this.bytecodeFeeScheduler = new BytecodeFeeScheduler();
@@ -49,6 +60,11 @@ public class ClassMetering extends ClassToolchain.ToolChainClassVisitor {
                     block.setEnergyCost(feeForBlock);
                 }
 
+                // Move the costs of the blocks we can into their predecessors, so fewer of them need to charge.
+                if (ClassMetering.this.coalesceCharges) {
+                    EnergyChargeCoalescer.coalesce(blocks, readingVisitor.getHandlerLabels());
+                }
+
                 // We can now build the arraywrapper over the real visitor, and accept it in order to add the instrumentation.
                 BlockInstrumentationVisitor instrumentingVisitor = new BlockInstrumentationVisitor(realVisitor, blocks);
                 this.accept(instrumentingVisitor);
@@ -0,0 +1,152 @@
+package org.aion.avm.core.instrument;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.objectweb.asm.Label;
+import org.objectweb.asm.Opcodes;
+
+
+/**
+ * Reduces the number of energy charges in a method, once its blocks have been assigned their costs, without changing how much
+ * energy any execution of the method is charged.
+ *
+ * A block's cost is moved into its predecessors (so the block no longer needs a charge of its own) when every way into the block
+ * is a predecessor which:
+ * -always continues into the block (it falls through or ends in a GOTO to it - a conditional jump or switch doesn't count), and
+ * -contains no instruction which can throw (so nobody can observe that it charged for the block before actually entering it).
+ * Blocks entered any other way (the start of the method, an exception handler, a conditional jump or switch) keep their charge.
+ *
+ * This is what merges straight-line blocks (split by labels which are only there for try ranges or debug data) and the condition
+ * block of a loop into the block which precedes it (the loop body and the initial GOTO).
+ * A block receiving a cost is never itself moved, and vice-versa, so every loop still charges at least once per iteration.
+ */
+public class EnergyChargeCoalescer {
+    /**
+     * Moves the costs of the blocks which can be entered only from the end of a non-throwing predecessor into those predecessors.
+     *
+     * @param blocks The blocks of the method, in order, with their costs already set (these costs are updated).
+     * @param handlerLabels The labels where the exception handlers of the method start.
+     */
+    public static void coalesce(List<BasicBlock> blocks, Set<Label> handlerLabels) {
+        int blockCount = blocks.size();
+        Map<Label, Integer> blockIndexByLabel = new HashMap<>();
+        for (int i = 0; i < blockCount; ++i) {
+            for (Label label : blocks.get(i).startLabels) {
+                blockIndexByLabel.put(label, i);
+            }
+        }
+
+        // Find the predecessors of each block which always continue into it (and can't throw), and which blocks have other entries.
+        boolean[] hasOtherEntry = new boolean[blockCount];
+        List<List<Integer>> movablePredecessors = new ArrayList<>();
+        for (int i = 0; i < blockCount; ++i) {
+            movablePredecessors.add(new ArrayList<>());
+        }
+        if (blockCount > 0) {
+            // (the method entry)
+            hasOtherEntry[0] = true;
+        }
+        for (Label handler : handlerLabels) {
+            Integer index = blockIndexByLabel.get(handler);
+            if (null == index) {
+                // We don't know this label so don't assume anything about this method.
+                return;
+            }
+            hasOtherEntry[index] = true;
+        }
+        for (int i = 0; i < blockCount; ++i) {
+            BasicBlock block = blocks.get(i);
+            List<Integer> targets = new ArrayList<>();
+            for (Label label : block.branchTargets) {
+                Integer index = blockIndexByLabel.get(label);
+                if (null == index) {
+                    return;
+                }
+                targets.add(index);
+            }
+            int lastOpcode = block.opcodeSequence.get(block.opcodeSequence.size() - 1);
+            if (Opcodes.GOTO == lastOpcode) {
+                addEdge(blocks, movablePredecessors, hasOtherEntry, i, targets.get(0));
+            } else if (!targets.isEmpty()) {
+                // A conditional jump (which can also fall through) or a switch.
+                for (int target : targets) {
+                    hasOtherEntry[target] = true;
+                }
+                if ((Opcodes.TABLESWITCH != lastOpcode) && (Opcodes.LOOKUPSWITCH != lastOpcode) && ((i + 1) < blockCount)) {
+                    hasOtherEntry[i + 1] = true;
+                }
+            } else if (!isExit(lastOpcode) && ((i + 1) < blockCount)) {
+                addEdge(blocks, movablePredecessors, hasOtherEntry, i, i + 1);
+            }
+        }
+
+        // Now, move the costs we can (skipping any block which received a cost or whose predecessor already moved its own).
+        boolean[] isMoved = new boolean[blockCount];
+        boolean[] isReceiving = new boolean[blockCount];
+        for (int i = 0; i < blockCount; ++i) {
+            BasicBlock block = blocks.get(i);
+            List<Integer> predecessors = movablePredecessors.get(i);
+            boolean canMove = !hasOtherEntry[i]
+                    && !predecessors.isEmpty()
+                    && !isReceiving[i]
+                    && (block.getEnergyCost() > 0L);
+            for (int predecessor : predecessors) {
+                canMove = canMove && (predecessor != i) && !isMoved[predecessor];
+            }
+            if (canMove) {
+                for (int predecessor : predecessors) {
+                    BasicBlock receiver = blocks.get(predecessor);
+                    receiver.setEnergyCost(receiver.getEnergyCost() + block.getEnergyCost());
+                    isReceiving[predecessor] = true;
+                }
+                block.setEnergyCost(0L);
+                isMoved[i] = true;
+            }
+        }
+    }
+
+    private static void addEdge(List<BasicBlock> blocks, List<List<Integer>> movablePredecessors, boolean[] hasOtherEntry, int from, int to) {
+        if (canThrow(blocks.get(from))) {
+            hasOtherEntry[to] = true;
+        } else {
+            movablePredecessors.get(to).add(from);
+        }
+    }
+
+    private static boolean isExit(int opcode) {
+        return (Opcodes.ATHROW == opcode)
+                || ((opcode >= Opcodes.IRETURN) && (opcode <= Opcodes.RETURN));
+    }
+
+    private static boolean canThrow(BasicBlock block) {
+        boolean canThrow = false;
+        for (int opcode : block.opcodeSequence) {
+            canThrow = canThrow || !isNonThrowing(opcode);
+        }
+        return canThrow;
+    }
+
+    /**
+     * Conservatively determines which opcodes can never throw:  constants (except LDC), local variable loads and stores, stack
+     * manipulation, arithmetic (except integer division and remainder), conversions, comparisons, and jumps.
+     * Anything touching the heap, a class, or another method (and the exits) is assumed to throw.
+     */
+    private static boolean isNonThrowing(int opcode) {
+        boolean isNonThrowing;
+        if ((Opcodes.IDIV == opcode) || (Opcodes.LDIV == opcode) || (Opcodes.IREM == opcode) || (Opcodes.LREM == opcode)) {
+            isNonThrowing = false;
+        } else {
+            isNonThrowing = ((opcode >= Opcodes.NOP) && (opcode <= Opcodes.SIPUSH))
+                    || ((opcode >= Opcodes.ILOAD) && (opcode <= Opcodes.ALOAD))
+                    || ((opcode >= Opcodes.ISTORE) && (opcode <= Opcodes.ASTORE))
+                    || ((opcode >= Opcodes.POP) && (opcode <= Opcodes.GOTO))
+                    || (Opcodes.IFNULL == opcode)
+                    || (Opcodes.IFNONNULL == opcode);
+        }
+        return isNonThrowing;
+    }
+}
@@ -12,6 +12,7 @@ import org.objectweb.asm.tree.MethodNode;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.objectweb.asm.Opcodes.ACC_INTERFACE;
 import static org.objectweb.asm.Opcodes.ACC_PRIVATE;
@@ -33,6 +34,7 @@ public class InterfaceFieldMappingVisitor extends ClassToolchain.ToolChainClassV
     private GeneratedClassConsumer consumer;
     private Set<String> userInterfaceSlashNames;
     private String javaLangObject;
+    private Supplier<ClassWriter> generatedClassWriterFactory;
 
     private boolean isInterface = false;
     private String name = null;
@@ -48,10 +50,24 @@ public class InterfaceFieldMappingVisitor extends ClassToolchain.ToolChainClassV
      * @param javaLangObjectSlashName The java/lang/Object class name, either pre-rename or post-rename
      */
     public InterfaceFieldMappingVisitor(GeneratedClassConsumer consumer, Set<String> userInterfaceSlashNames, String javaLangObjectSlashName) {
+        this(consumer, userInterfaceSlashNames, javaLangObjectSlashName, () -> new ClassWriter(0));
+    }
+
+    /**
+     * Create an InterfaceFieldMappingVisitor instance.
+     *
+     * @param consumer                    A container to collect all the generated classes
+     * @param userInterfaceSlashNames     The set of user defined classes
+     * @param javaLangObjectSlashName     The java/lang/Object class name, either pre-rename or post-rename
+     * @param generatedClassWriterFactory Creates the writer for the generated class (it must compute the frames and maxs of the clinit
+     *                                    if the code reaching this visitor has been changed since they were last computed)
+     */
+    public InterfaceFieldMappingVisitor(GeneratedClassConsumer consumer, Set<String> userInterfaceSlashNames, String javaLangObjectSlashName, Supplier<ClassWriter> generatedClassWriterFactory) {
         super(Opcodes.ASM6);
         this.consumer = consumer;
         this.userInterfaceSlashNames = userInterfaceSlashNames;
         this.javaLangObject = javaLangObjectSlashName;
+        this.generatedClassWriterFactory = generatedClassWriterFactory;
     }
 
     @Override
@@ -103,7 +119,7 @@ public class InterfaceFieldMappingVisitor extends ClassToolchain.ToolChainClassV
             String genSuperName = javaLangObject;
             int genAccess = access & ~ACC_INTERFACE;
 
-            ClassWriter cw = new ClassWriter(0);
+            ClassWriter cw = this.generatedClassWriterFactory.get();
 
             // class declaration
             cw.visit(V1_6, genAccess, genName, null, genSuperName, null);
@@ -1,14 +1,16 @@
 package org.aion.avm.core.persistence;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 import org.aion.avm.core.ClassToolchain;
-import org.aion.avm.internal.RuntimeAssertionError;
+import org.aion.avm.core.util.Helpers;
+import org.aion.avm.internal.IObjectDeserializer;
+import org.aion.avm.internal.IObjectSerializer;
 import org.objectweb.asm.FieldVisitor;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
-import org.objectweb.asm.tree.MethodNode;
-import org.objectweb.asm.tree.analysis.Analyzer;
-import org.objectweb.asm.tree.analysis.AnalyzerException;
-import org.objectweb.asm.tree.analysis.Frame;
 
 
 /**
@@ -16,22 +18,41 @@ import org.objectweb.asm.tree.analysis.Frame;
  * Specifically, this means the following transformations:
  * 1)  Add a special constructor, which cannot already be present, just calling its superclass counterpart.
  * 2)  Remove "final" from all fields (at least instance fields - we may be able to treat static fields differently).
- * 3)  Prepend all PUTFIELD/GETFIELD instructions with a call to "lazyLoad()" on the receiver object (unless "this" in a constructor).
+ * 3)  Generate static methods to serialize/deserialize the fields declared by this class (the instance fields and, separately, the
+ *  static fields), so that the SortedFieldCache doesn't need to use reflection to read or write them.  These write the fields in
+ *  exactly the order the reflective path does (sorted by name, constants first for statics) so both produce the same data.
+ *  They are only generated if the class declares any fields of the corresponding kind (we don't want to initialize a class to
+ *  serialize its statics if the reflective path wouldn't have).
  * 
- * Note that this transformation doesn't depend on the persistence model being applied.  So long as "lazyLoad()" is a safe no-op,
- * there is no harm in enabling this without the corresponding persistence logic.
- * This should probably be put late in the pipeline since these transformations are substantial, and could change energy and stack
- * accounting in pretty large ways for what are essentially our own implementation details.
+ * Note that the graph is always loaded eagerly, in its entirety, so field accesses are left alone (we used to prepend them with a
+ * call to "lazyLoad()" when we had the incremental loading design but that was only ever a no-op on the hot path).
+ * This should probably be put late in the pipeline since it adds code which is an implementation detail of ours, and shouldn't be
+ * subject to energy and stack accounting.
  */
 public class AutomaticGraphVisitor extends ClassToolchain.ToolChainClassVisitor {
-    private static final String CLINIT_NAME = "<clinit>";
     private static final String INIT_NAME = "<init>";
     // The special constructor takes (Void ignore, int readIndex).
     private static final String SPECIAL_CONSTRUCTOR_DESCRIPTOR = "(Ljava/lang/Void;I)V";
 
+    // The generated codec methods are looked up, by these names, in SortedFieldCache.
+    // (user-defined methods are all prefixed with "avm_" so these can't collide with them).
+    public static final String SERIALIZE_INSTANCE_FIELDS_NAME = "serializeInstanceFields";
+    public static final String DESERIALIZE_INSTANCE_FIELDS_NAME = "deserializeInstanceFields";
+    public static final String SERIALIZE_STATIC_FIELDS_NAME = "serializeStaticFields";
+    public static final String DESERIALIZE_STATIC_FIELDS_NAME = "deserializeStaticFields";
+    private static final String SERIALIZER_NAME = Helpers.fulllyQualifiedNameToInternalName(IObjectSerializer.class.getName());
+    private static final String DESERIALIZER_NAME = Helpers.fulllyQualifiedNameToInternalName(IObjectDeserializer.class.getName());
+    // Instance codecs take (Object instance, IObject[De]Serializer), static codecs just take the IObject[De]Serializer.
+    private static final String SERIALIZE_INSTANCE_FIELDS_DESCRIPTOR = "(Ljava/lang/Object;L" + SERIALIZER_NAME + ";)V";
+    private static final String DESERIALIZE_INSTANCE_FIELDS_DESCRIPTOR = "(Ljava/lang/Object;L" + DESERIALIZER_NAME + ";)V";
+    private static final String SERIALIZE_STATIC_FIELDS_DESCRIPTOR = "(L" + SERIALIZER_NAME + ";)V";
+    private static final String DESERIALIZE_STATIC_FIELDS_DESCRIPTOR = "(L" + DESERIALIZER_NAME + ";)V";
+
     private boolean isInterface;
     private String className;
     private String superClassName;
+    private final List<FieldDescription> instanceFields = new ArrayList<>();
+    private final List<FieldDescription> staticFields = new ArrayList<>();
 
     public AutomaticGraphVisitor() {
         super(Opcodes.ASM6);
@@ -41,7 +62,7 @@ public class AutomaticGraphVisitor extends ClassToolchain.ToolChainClassVisitor
     public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
         // Note that we don'tw ant to change interfaces - clearly, they have no constructors.
         this.isInterface = (0 != (Opcodes.ACC_INTERFACE & access));
-        // We need the class name for the analyzer.
+        // We need the class name as the owner of the fields in the generated codecs.
         this.className = name;
         // We just want to extract the superclass name.
         this.superClassName = superName;
@@ -53,47 +74,12 @@ public class AutomaticGraphVisitor extends ClassToolchain.ToolChainClassVisitor
         // Filter out the "final" from all fields.
         // (note that we may way to skip this, for statics, and exclude them from the serialization system).
         int newAccess = (~Opcodes.ACC_FINAL) & access; 
-        return super.visitField(newAccess, name, descriptor, signature, value);
-    }
-
-    @Override
-    public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
-        MethodVisitor downstream = super.visitMethod(access, name, descriptor, signature, exceptions);
-        MethodVisitor visitor = null;
-        
-        // There are 3 distinct special-cases we need to handle, here.
-        if (CLINIT_NAME.equals(name)) {
-            // 1) If this is the <clinit>, we don't want to inject the lazyLoad calls (nothing visible there could be a stub).
-            visitor = downstream;
-        } else if (INIT_NAME.equals(name)) {
-            // 2) If this is an <init> we need to ensure that we don't lazyLoad() the "this" pointer due to outer class references (issue-156).
-            visitor = new MethodNode(Opcodes.ASM6, access, name, descriptor, signature, exceptions) {
-                @Override
-                public void visitEnd() {
-                    super.visitEnd();
-                    
-                    // The MethodNode is fully populated so we can now analyze it.
-                    // We use a custom interpreter which only worries about "this" or "not this".
-                    Analyzer<ConstructorThisInterpreter.ThisValue> analyzer = new Analyzer<>(new ConstructorThisInterpreter());
-                    try {
-                        // We want to tear apart the frames and check if the top of the stack, at each bytecode, is "this" (those cases can be
-                        // safely skipped)..
-                        Frame<ConstructorThisInterpreter.ThisValue>[] frames = analyzer.analyze(AutomaticGraphVisitor.this.className, this);
-                        StackThisTracker tracker = new StackThisTracker(frames);
-                        // Tell the LazyLoadingMethodVisitor about these locations where "lazyLoad()" can be skipped and have it process the
-                        // method.
-                        this.accept(new LazyLoadingMethodVisitor(downstream, tracker));
-                    } catch (AnalyzerException e) {
-                        // Such an error should have been handled before we got this far.
-                        throw RuntimeAssertionError.unexpected(e);
-                    }
-                }
-            };
+        if (0 != (Opcodes.ACC_STATIC & access)) {
+            this.staticFields.add(new FieldDescription(name, descriptor));
         } else {
-            // 3) Otherwise, insert lazyLoad() calls before any field access.
-            visitor = new LazyLoadingMethodVisitor(downstream, null);
+            this.instanceFields.add(new FieldDescription(name, descriptor));
         }
-        return visitor;
+        return super.visitField(newAccess, name, descriptor, signature, value);
     }
 
     @Override
@@ -110,7 +96,115 @@ public class AutomaticGraphVisitor extends ClassToolchain.ToolChainClassVisitor
             methodVisitor.visitInsn(Opcodes.RETURN);
             methodVisitor.visitMaxs(4, 4);
             methodVisitor.visitEnd();
+
+            // Generate the field codecs.
+            if (!this.instanceFields.isEmpty()) {
+                this.instanceFields.sort(Comparator.comparing((field) -> field.name));
+                generateSerializeFields(SERIALIZE_INSTANCE_FIELDS_NAME, SERIALIZE_INSTANCE_FIELDS_DESCRIPTOR, this.instanceFields, false);
+                generateDeserializeFields(DESERIALIZE_INSTANCE_FIELDS_NAME, DESERIALIZE_INSTANCE_FIELDS_DESCRIPTOR, this.instanceFields, false);
+            }
+            if (!this.staticFields.isEmpty()) {
+                // The constants are serialized before the other statics, each group sorted by name.
+                this.staticFields.sort(Comparator.comparing((FieldDescription field) -> !field.name.startsWith(SortedFieldCache.CONSTANT_FIELD_PREFIX))
+                        .thenComparing((field) -> field.name));
+                generateSerializeFields(SERIALIZE_STATIC_FIELDS_NAME, SERIALIZE_STATIC_FIELDS_DESCRIPTOR, this.staticFields, true);
+                generateDeserializeFields(DESERIALIZE_STATIC_FIELDS_NAME, DESERIALIZE_STATIC_FIELDS_DESCRIPTOR, this.staticFields, true);
+            }
         }
         super.visitEnd();
     }
+
+
+    private void generateSerializeFields(String methodName, String methodDescriptor, List<FieldDescription> fields, boolean isStatic) {
+        // The serializer is the last argument.
+        int serializerIndex = isStatic ? 0 : 1;
+        MethodVisitor methodVisitor = super.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, methodName, methodDescriptor, null, null);
+        methodVisitor.visitCode();
+        for (FieldDescription field : fields) {
+            // serializer.writeX(instance.field) or serializer.writeX(Class.field).
+            methodVisitor.visitVarInsn(Opcodes.ALOAD, serializerIndex);
+            if (isStatic) {
+                methodVisitor.visitFieldInsn(Opcodes.GETSTATIC, this.className, field.name, field.descriptor);
+            } else {
+                methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                methodVisitor.visitTypeInsn(Opcodes.CHECKCAST, this.className);
+                methodVisitor.visitFieldInsn(Opcodes.GETFIELD, this.className, field.name, field.descriptor);
+            }
+            methodVisitor.visitMethodInsn(Opcodes.INVOKEINTERFACE, SERIALIZER_NAME, "write" + codecTypeName(field.descriptor), "(" + codecDescriptor(field.descriptor) + ")V", true);
+        }
+        methodVisitor.visitInsn(Opcodes.RETURN);
+        // (the writer computes these).
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private void generateDeserializeFields(String methodName, String methodDescriptor, List<FieldDescription> fields, boolean isStatic) {
+        // The deserializer is the last argument.
+        int deserializerIndex = isStatic ? 0 : 1;
+        MethodVisitor methodVisitor = super.visitMethod(Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC, methodName, methodDescriptor, null, null);
+        methodVisitor.visitCode();
+        for (FieldDescription field : fields) {
+            // instance.field = deserializer.readX() or Class.field = deserializer.readX().
+            if (!isStatic) {
+                methodVisitor.visitVarInsn(Opcodes.ALOAD, 0);
+                methodVisitor.visitTypeInsn(Opcodes.CHECKCAST, this.className);
+            }
+            methodVisitor.visitVarInsn(Opcodes.ALOAD, deserializerIndex);
+            String codecDescriptor = codecDescriptor(field.descriptor);
+            methodVisitor.visitMethodInsn(Opcodes.INVOKEINTERFACE, DESERIALIZER_NAME, "read" + codecTypeName(field.descriptor), "()" + codecDescriptor, true);
+            if (!codecDescriptor.equals(field.descriptor)) {
+                // readObject() returns Object so cast to the field's type (array descriptors are already valid CHECKCAST types).
+                String castType = field.descriptor.startsWith("[")
+                        ? field.descriptor
+                        : field.descriptor.substring(1, field.descriptor.length() - 1);
+                methodVisitor.visitTypeInsn(Opcodes.CHECKCAST, castType);
+            }
+            methodVisitor.visitFieldInsn(isStatic ? Opcodes.PUTSTATIC : Opcodes.PUTFIELD, this.className, field.name, field.descriptor);
+        }
+        methodVisitor.visitInsn(Opcodes.RETURN);
+        // (the writer computes these).
+        methodVisitor.visitMaxs(0, 0);
+        methodVisitor.visitEnd();
+    }
+
+    private static String codecTypeName(String fieldDescriptor) {
+        switch (fieldDescriptor) {
+            case "Z":
+                return "Boolean";
+            case "B":
+                return "Byte";
+            case "S":
+                return "Short";
+            case "C":
+                return "Char";
+            case "I":
+                return "Int";
+            case "F":
+                return "Float";
+            case "J":
+                return "Long";
+            case "D":
+                return "Double";
+            default:
+                return "Object";
+        }
+    }
+
+    private static String codecDescriptor(String fieldDescriptor) {
+        // Primitives are read/written directly while all references go through the Object variant.
+        return (1 == fieldDescriptor.length())
+                ? fieldDescriptor
+                : "Ljava/lang/Object;";
+    }
+
+
+    private static class FieldDescription {
+        public final String name;
+        public final String descriptor;
+
+        public FieldDescription(String name, String descriptor) {
+            this.name = name;
+            this.descriptor = descriptor;
+        }
+    }
 }
@@ -3,12 +3,16 @@ package org.aion.avm.core.persistence;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.aion.avm.internal.IObjectDeserializer;
 import org.aion.avm.internal.RuntimeAssertionError;
 
 
+/**
+ * Reads a graph written in either the current (class-name dictionary) format or the legacy format, as described in {@link GraphFormat}.
+ */
 public class ByteBufferObjectDeserializer implements IObjectDeserializer {
     private final ByteBuffer buffer;
     private final SortedFieldCache cache;
@@ -16,13 +20,22 @@ public class ByteBufferObjectDeserializer implements IObjectDeserializer {
     private final IPersistenceNameMapper classNameMapper;
     // Note that this will be null if this is our pre-pass where we are merely walking through the buffer to find the instance types.
     private final List<Object> instanceList;
+    private final boolean isLegacyFormat;
+    // The internal class names of the graph's dictionary, indexed by type id (rebuilt as we read, so it is the same on each pass).
+    private final List<String> typeIdToClassName;
 
     public ByteBufferObjectDeserializer(ByteBuffer buffer, List<Object> instanceList, SortedFieldCache cache, IGlobalResolver resolver, IPersistenceNameMapper classNameMapper) {
+        this(buffer, instanceList, cache, resolver, classNameMapper, false);
+    }
+
+    public ByteBufferObjectDeserializer(ByteBuffer buffer, List<Object> instanceList, SortedFieldCache cache, IGlobalResolver resolver, IPersistenceNameMapper classNameMapper, boolean isLegacyFormat) {
         this.buffer = buffer;
         this.cache = cache;
         this.resolver = resolver;
         this.classNameMapper = classNameMapper;
         this.instanceList = instanceList;
+        this.isLegacyFormat = isLegacyFormat;
+        this.typeIdToClassName = new ArrayList<>();
     }
 
     @Override
@@ -83,14 +96,18 @@ public class ByteBufferObjectDeserializer implements IObjectDeserializer {
                 break;
             }
             case ReferenceConstants.REF_CONSTANT: {
-                int constantIdentifier = this.buffer.getInt();
+                int constantIdentifier = this.isLegacyFormat
+                        ? this.buffer.getInt()
+                        : GraphFormat.getVarInt(this.buffer);
                 result = (null != this.instanceList)
                         ? this.resolver.getConstantForIdentifier(constantIdentifier)
                         : null;
                 break;
             }
             case ReferenceConstants.REF_NORMAL: {
-                int instanceIndex = this.buffer.getInt();
+                int instanceIndex = this.isLegacyFormat
+                        ? this.buffer.getInt()
+                        : GraphFormat.getVarInt(this.buffer);
                 result = (null != this.instanceList)
                         ? this.instanceList.get(instanceIndex)
                         : null;
@@ -122,50 +139,70 @@ public class ByteBufferObjectDeserializer implements IObjectDeserializer {
             // We can deserialize this one, but first see if we need to call a superclass.
             internalDeserializeFieldsFromRoot(rootClass, thisClass.getSuperclass(), instance);
             
-            // Now, serialize the fields in this level.
-            try {
-                Field[] fields = this.cache.getInstanceFields(thisClass);
-                for (Field field : fields) {
-                    // We need to crack the type, here.
-                    Class<?> type = field.getType();
-                    if (boolean.class == type) {
-                        boolean val = this.readBoolean();
-                        field.setBoolean(instance, val);
-                    } else if (byte.class == type) {
-                        byte val = this.readByte();
-                        field.setByte(instance, val);
-                    } else if (short.class == type) {
-                        short val = this.readShort();
-                        field.setShort(instance, val);
-                    } else if (char.class == type) {
-                        char val = this.readChar();
-                        field.setChar(instance, val);
-                    } else if (int.class == type) {
-                        int val = this.readInt();
-                        field.setInt(instance, val);
-                    } else if (float.class == type) {
-                        float val = this.readFloat();
-                        field.setFloat(instance, val);
-                    } else if (long.class == type) {
-                        long val = this.readLong();
-                        field.setLong(instance, val);
-                    } else if (double.class == type) {
-                        double val = this.readDouble();
-                        field.setDouble(instance, val);
-                    } else {
-                        // Object types require further logic.
-                        Object val = this.readObject();
-                        field.set(instance, val);
+            // Now, deserialize the fields in this level (through the generated codec, if there is one).
+            if (!this.cache.deserializeInstanceFields(thisClass, instance, this)) {
+                try {
+                    Field[] fields = this.cache.getInstanceFields(thisClass);
+                    for (Field field : fields) {
+                        // We need to crack the type, here.
+                        Class<?> type = field.getType();
+                        if (boolean.class == type) {
+                            boolean val = this.readBoolean();
+                            field.setBoolean(instance, val);
+                        } else if (byte.class == type) {
+                            byte val = this.readByte();
+                            field.setByte(instance, val);
+                        } else if (short.class == type) {
+                            short val = this.readShort();
+                            field.setShort(instance, val);
+                        } else if (char.class == type) {
+                            char val = this.readChar();
+                            field.setChar(instance, val);
+                        } else if (int.class == type) {
+                            int val = this.readInt();
+                            field.setInt(instance, val);
+                        } else if (float.class == type) {
+                            float val = this.readFloat();
+                            field.setFloat(instance, val);
+                        } else if (long.class == type) {
+                            long val = this.readLong();
+                            field.setLong(instance, val);
+                        } else if (double.class == type) {
+                            double val = this.readDouble();
+                            field.setDouble(instance, val);
+                        } else {
+                            // Object types require further logic.
+                            Object val = this.readObject();
+                            field.set(instance, val);
+                        }
                     }
+                } catch (IllegalAccessException e) {
+                    // Reflection errors can't happen since we set this up so we could access it.
+                    throw RuntimeAssertionError.unexpected(e);
                 }
-            } catch (IllegalAccessException e) {
-                // Reflection errors can't happen since we set this up so we could access it.
-                throw RuntimeAssertionError.unexpected(e);
             }
         }
     }
 
     private String internalReadClassName() {
+        String internalClassName = null;
+        if (this.isLegacyFormat) {
+            internalClassName = internalReadFullClassName();
+        } else {
+            int typeId = GraphFormat.getVarInt(this.buffer);
+            if (this.typeIdToClassName.size() == typeId) {
+                // This is the definition of a new type id, so the full name follows.
+                internalClassName = internalReadFullClassName();
+                this.typeIdToClassName.add(internalClassName);
+            } else {
+                RuntimeAssertionError.assertTrue(typeId < this.typeIdToClassName.size());
+                internalClassName = this.typeIdToClassName.get(typeId);
+            }
+        }
+        return internalClassName;
+    }
+
+    private String internalReadFullClassName() {
         // We limit class names to 255 UTF-8 bytes so read the length byte.
         int length = (0xff & this.buffer.get());
         RuntimeAssertionError.assertTrue(length > 0);
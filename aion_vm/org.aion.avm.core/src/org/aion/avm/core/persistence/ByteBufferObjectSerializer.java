@@ -3,26 +3,36 @@ package org.aion.avm.core.persistence;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Queue;
 
 import org.aion.avm.internal.IObjectSerializer;
 import org.aion.avm.internal.RuntimeAssertionError;
 
 
+/**
+ * Writes the graph in either the legacy format or the class-name dictionary format, as described in {@link GraphFormat}.
+ */
 public class ByteBufferObjectSerializer implements IObjectSerializer {
     private final ByteBuffer buffer;
     private final SortedFieldCache cache;
     private final IGlobalResolver resolver;
     private final IPersistenceNameMapper classNameMapper;
     private final InstanceIndexMapper instanceMapper;
+    private final boolean useDictionaryFormat;
+    // Maps each internal class name we have already written to its type id in the graph's dictionary.
+    private final Map<String, Integer> classNameToTypeId;
 
-    public ByteBufferObjectSerializer(ByteBuffer buffer, Queue<Object> out_ToProcessQueue, SortedFieldCache cache, IGlobalResolver resolver, IPersistenceNameMapper classNameMapper) {
+    public ByteBufferObjectSerializer(ByteBuffer buffer, Queue<Object> out_ToProcessQueue, SortedFieldCache cache, IGlobalResolver resolver, IPersistenceNameMapper classNameMapper, boolean useDictionaryFormat) {
         this.buffer = buffer;
         this.cache = cache;
         this.resolver = resolver;
         this.classNameMapper = classNameMapper;
         this.instanceMapper = new InstanceIndexMapper(out_ToProcessQueue);
+        this.useDictionaryFormat = useDictionaryFormat;
+        this.classNameToTypeId = new HashMap<>();
     }
 
     @Override
@@ -78,7 +88,7 @@ public class ByteBufferObjectSerializer implements IObjectSerializer {
             int constantIdentifier = this.resolver.getAsConstant(value);
             if (0 != constantIdentifier) {
                 this.buffer.put(ReferenceConstants.REF_CONSTANT);
-                this.buffer.putInt(constantIdentifier);
+                internalWriteIdentifier(constantIdentifier);
             } else {
                 String internalClassName = this.resolver.getAsInternalClassName(value);
                 if (null != internalClassName) {
@@ -87,7 +97,7 @@ public class ByteBufferObjectSerializer implements IObjectSerializer {
                 } else {
                     int instanceIndex = instanceMapper.getIndexForInstance(value);
                     this.buffer.put(ReferenceConstants.REF_NORMAL);
-                    this.buffer.putInt(instanceIndex);
+                    internalWriteIdentifier(instanceIndex);
                 }
             }
         }
@@ -113,50 +123,78 @@ public class ByteBufferObjectSerializer implements IObjectSerializer {
             // We can serialize this one, but first see if we need to call a superclass.
             internalSerializeFieldsToRoot(rootClass, thisClass.getSuperclass(), instance);
             
-            // Now, serialize the fields in this level.
-            try {
-                Field[] fields = this.cache.getInstanceFields(thisClass);
-                for (Field field : fields) {
-                    // We need to crack the type, here.
-                    Class<?> type = field.getType();
-                    if (boolean.class == type) {
-                        boolean val = field.getBoolean(instance);
-                        this.writeBoolean(val);
-                    } else if (byte.class == type) {
-                        byte val = field.getByte(instance);
-                        this.writeByte(val);
-                    } else if (short.class == type) {
-                        short val = field.getShort(instance);
-                        this.writeShort(val);
-                    } else if (char.class == type) {
-                        char val = field.getChar(instance);
-                        this.writeChar(val);
-                    } else if (int.class == type) {
-                        int val = field.getInt(instance);
-                        this.writeInt(val);
-                    } else if (float.class == type) {
-                        float actual = field.getFloat(instance);
-                        this.writeFloat(actual);
-                    } else if (long.class == type) {
-                        long val = field.getLong(instance);
-                        this.writeLong(val);
-                    } else if (double.class == type) {
-                        double actual = field.getDouble(instance);
-                        this.writeDouble(actual);
-                    } else {
-                        // Object types require further logic.
-                        Object target = field.get(instance);
-                        this.writeObject(target);
+            // Now, serialize the fields in this level (through the generated codec, if there is one).
+            if (!this.cache.serializeInstanceFields(thisClass, instance, this)) {
+                try {
+                    Field[] fields = this.cache.getInstanceFields(thisClass);
+                    for (Field field : fields) {
+                        // We need to crack the type, here.
+                        Class<?> type = field.getType();
+                        if (boolean.class == type) {
+                            boolean val = field.getBoolean(instance);
+                            this.writeBoolean(val);
+                        } else if (byte.class == type) {
+                            byte val = field.getByte(instance);
+                            this.writeByte(val);
+                        } else if (short.class == type) {
+                            short val = field.getShort(instance);
+                            this.writeShort(val);
+                        } else if (char.class == type) {
+                            char val = field.getChar(instance);
+                            this.writeChar(val);
+                        } else if (int.class == type) {
+                            int val = field.getInt(instance);
+                            this.writeInt(val);
+                        } else if (float.class == type) {
+                            float actual = field.getFloat(instance);
+                            this.writeFloat(actual);
+                        } else if (long.class == type) {
+                            long val = field.getLong(instance);
+                            this.writeLong(val);
+                        } else if (double.class == type) {
+                            double actual = field.getDouble(instance);
+                            this.writeDouble(actual);
+                        } else {
+                            // Object types require further logic.
+                            Object target = field.get(instance);
+                            this.writeObject(target);
+                        }
                     }
+                } catch (IllegalAccessException e) {
+                    // Reflection errors can't happen since we set this up so we could access it.
+                    throw RuntimeAssertionError.unexpected(e);
                 }
-            } catch (IllegalAccessException e) {
-                // Reflection errors can't happen since we set this up so we could access it.
-                throw RuntimeAssertionError.unexpected(e);
             }
         }
     }
 
+    private void internalWriteIdentifier(int identifier) {
+        if (this.useDictionaryFormat) {
+            GraphFormat.putVarInt(this.buffer, identifier);
+        } else {
+            this.buffer.putInt(identifier);
+        }
+    }
+
     private void internalWriteClassName(String internalClassName) {
+        Integer typeId = this.useDictionaryFormat
+                ? this.classNameToTypeId.get(internalClassName)
+                : null;
+        if (null != typeId) {
+            GraphFormat.putVarInt(this.buffer, typeId);
+        } else {
+            if (this.useDictionaryFormat) {
+                // This is the first time we have seen this class, so define it as the next type id.
+                int newTypeId = this.classNameToTypeId.size();
+                this.classNameToTypeId.put(internalClassName, newTypeId);
+                GraphFormat.putVarInt(this.buffer, newTypeId);
+            }
+            // (the legacy format writes the full name every time)
+            internalWriteFullClassName(internalClassName);
+        }
+    }
+
+    private void internalWriteFullClassName(String internalClassName) {
         String storageName = this.classNameMapper.getStorageClassName(internalClassName);
         byte[] utf8 = storageName.getBytes(StandardCharsets.UTF_8);
         // We limit class names to 255 UTF-8 bytes so read the length byte.
@@ -1,8 +1,6 @@
 package org.aion.avm.core.persistence;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -18,10 +16,12 @@ public class Deserializer {
         RuntimeAssertionError.assertTrue(ByteOrder.BIG_ENDIAN == inputBuffer.order());
         
         // Deserialization requires that we walk the input data twice, since we need to create all the instances on the first pass and attach them all on the second.
+        // The graph may still be in the legacy format, if it was stored before the class-name dictionary format was introduced.
+        boolean isLegacyFormat = GraphFormat.readIsLegacyFormat(inputBuffer);
         // So, we skip the hashcode on the first pass.
         inputBuffer.getInt();
         // Create the pre-pass deserializer, just to walk consistently.
-        ByteBufferObjectDeserializer prePassDeserializer = new ByteBufferObjectDeserializer(inputBuffer, null, cache, resolver, classNameMapper);
+        ByteBufferObjectDeserializer prePassDeserializer = new ByteBufferObjectDeserializer(inputBuffer, null, cache, resolver, classNameMapper, isLegacyFormat);
         // Now, we need walk the statics, but only to advance the cursor through the buffer (since we will read the same data, but just won't be able to find the instances).
         deserializeClassStatics(prePassDeserializer, cache, sortedRoots);
         
@@ -31,10 +31,11 @@ public class Deserializer {
         // Now, we have enough information to build the graph.
         // Reset the buffer and read it again.
         inputBuffer.rewind();
+        GraphFormat.readIsLegacyFormat(inputBuffer);
         
         int nextHashCode = inputBuffer.getInt();
         // Create te real deserializer (this one has the instance list for building the connections from that index).
-        ByteBufferObjectDeserializer objectDeserializer = new ByteBufferObjectDeserializer(inputBuffer, instanceList, cache, resolver, classNameMapper);
+        ByteBufferObjectDeserializer objectDeserializer = new ByteBufferObjectDeserializer(inputBuffer, instanceList, cache, resolver, classNameMapper, isLegacyFormat);
         
         // Next, we deserialize all the class statics for the user's classes.
         deserializeClassStatics(objectDeserializer, cache, sortedRoots);
@@ -55,17 +56,19 @@ public class Deserializer {
 
     private static void deserializeOneClass(ByteBufferObjectDeserializer objectDeserializer, SortedFieldCache cache, Class<?> clazz) {
         // Note that we don't serialize the class name - the roots are in the same sorted order for reading and writing.
-        // First, we serialize the constants.
-        Field[] constants = cache.getConstantFields(clazz);
-        deserializeFieldsForClass(objectDeserializer, constants);
-        
-        // Then, we serialize the user-defined static fields.
-        Field[] fields = cache.getUserStaticFields(clazz);
-        deserializeFieldsForClass(objectDeserializer, fields);
+        // If the class has a generated codec, it handles both the constants and the other statics.
+        if (!cache.deserializeStaticFields(clazz, objectDeserializer)) {
+            // First, we serialize the constants.
+            Field[] constants = cache.getConstantFields(clazz);
+            deserializeFieldsForClass(objectDeserializer, constants);
+            
+            // Then, we serialize the user-defined static fields.
+            Field[] fields = cache.getUserStaticFields(clazz);
+            deserializeFieldsForClass(objectDeserializer, fields);
+        }
     }
 
     private static List<Object> createAllInstancesFromBuffer(ByteBufferObjectDeserializer objectDeserializer, List<Object> existingObjectIndex, SortedFieldCache cache, IPersistenceNameMapper classNameMapper) {
-        Method deserializeSelfMethod = cache.getDeserializeSelfMethod();
         List<Object> instanceList = new ArrayList<>();
         // We want to tell each instance which index we read them as - this is useful in the case of reentrant calls so we can track the
         // instance we can write back into.
@@ -77,49 +80,37 @@ public class Deserializer {
         boolean isDeserializingIntoCallerObjects = (null != existingObjectIndex);
         
         // We walk the entire buffer, ending when we fall off the end (the exception).
-        try {
-            boolean keepRunning = true;
-            while (keepRunning) {
-                // We only expect the error when reading the class name, so only check it there (other cases would be errors).
-                String internalClassName = null;
-                try {
-                    internalClassName = objectDeserializer.readClassName();
-                } catch (BufferUnderflowException done) {
-                    // This was expected - means we fell off the end of the buffer.
-                    keepRunning = false;
-                }
-                if (keepRunning) {
-                    // Note that we might be re-using an old instance (if we are returning from a reentrant call).
-                    // Even if there is a different object instance we want to re-use, we still need to create the instance in order to advance the stream.
-                    Object instance = (isDeserializingIntoCallerObjects && (null != existingObjectIndex.get(readIndex)))
-                            ? existingObjectIndex.get(readIndex)
-                            : cache.getNewInstance(internalClassName, isDeserializingIntoCallerObjects ? -1 : readIndex);
-                    deserializeSelfMethod.invoke(instance, null, objectDeserializer);
-                    instanceList.add(instance);
-                    readIndex += 1;
-                }
+        boolean keepRunning = true;
+        while (keepRunning) {
+            // We only expect the error when reading the class name, so only check it there (other cases would be errors).
+            String internalClassName = null;
+            try {
+                internalClassName = objectDeserializer.readClassName();
+            } catch (BufferUnderflowException done) {
+                // This was expected - means we fell off the end of the buffer.
+                keepRunning = false;
+            }
+            if (keepRunning) {
+                // Note that we might be re-using an old instance (if we are returning from a reentrant call).
+                // Even if there is a different object instance we want to re-use, we still need to create the instance in order to advance the stream.
+                Object instance = (isDeserializingIntoCallerObjects && (null != existingObjectIndex.get(readIndex)))
+                        ? existingObjectIndex.get(readIndex)
+                        : cache.getNewInstance(internalClassName, isDeserializingIntoCallerObjects ? -1 : readIndex);
+                cache.deserializeSelf(instance, objectDeserializer);
+                instanceList.add(instance);
+                readIndex += 1;
             }
-        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-            // Reflection errors can't happen since we set this up so we could access it.
-            throw RuntimeAssertionError.unexpected(e);
         }
         return instanceList;
     }
 
     private static void populateAllInstancesFromBuffer(ByteBufferObjectDeserializer objectDeserializer, List<Object> instanceList, SortedFieldCache cache) {
-        Method deserializeSelfMethod = cache.getDeserializeSelfMethod();
-        
         // We walk the entire instanceList, assuming that it is the full content of the storage.
-        try {
-            for (Object instance : instanceList) {
-                // Read the class name, but just to advance the cursor.
-                objectDeserializer.readClassName();
-                // Now, deserialize the instance.
-                deserializeSelfMethod.invoke(instance, null, objectDeserializer);
-            }
-        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-            // Reflection errors can't happen since we set this up so we could access it.
-            throw RuntimeAssertionError.unexpected(e);
+        for (Object instance : instanceList) {
+            // Read the class name, but just to advance the cursor.
+            objectDeserializer.readClassName();
+            // Now, deserialize the instance.
+            cache.deserializeSelf(instance, objectDeserializer);
         }
     }
 
@@ -0,0 +1,83 @@
+package org.aion.avm.core.persistence;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import org.aion.avm.internal.OutOfEnergyException;
+import org.aion.avm.internal.RuntimeAssertionError;
+
+
+/**
+ * A reusable buffer to serialize graphs into, so that saving a graph doesn't allocate a buffer of the maximum graph size, every time.
+ * The buffer starts small and grows (doubling, up to the maximum size requested) when a graph doesn't fit, in which case the graph
+ * is just serialized again.  It never shrinks, so it quickly settles at the size of the largest graph it is used for.
+ *
+ * Each AVM executor thread owns one, which it lends to the transaction it is running, so it is never used by more than one thread.
+ * Note that a reentrant call serializes graphs while the caller's graph is still needed but, since every serialized graph is copied
+ * out of the buffer, the buffer itself is never in use by more than one graph at a time.
+ *
+ * The bytes allocated by the buffer (growing it and the copies of each serialized graph) are counted, so they can be reported.
+ */
+public class GraphBuffer {
+    public static final int DEFAULT_INITIAL_CAPACITY = 16 * 1024;
+
+    private ByteBuffer buffer;
+    private long allocatedBytes;
+
+    public GraphBuffer() {
+        this(DEFAULT_INITIAL_CAPACITY);
+    }
+
+    public GraphBuffer(int initialCapacity) {
+        RuntimeAssertionError.assertTrue(initialCapacity > 0);
+        this.buffer = ByteBuffer.allocate(initialCapacity);
+        this.allocatedBytes = initialCapacity;
+    }
+
+    /**
+     * Serializes a graph into the buffer, growing it if required, and returns a copy of the serialized bytes.
+     * Note that the writer may be called more than once, if the graph doesn't fit, so it must not rely on any state from a previous
+     * call.
+     *
+     * @param maximumSizeInBytes The size limit on the serialized graph.
+     * @param writer Serializes the graph into the buffer it is given (which starts empty).
+     * @return The serialized graph.
+     * @throws OutOfEnergyException The graph is larger than maximumSizeInBytes.
+     */
+    public byte[] serialize(int maximumSizeInBytes, Consumer<ByteBuffer> writer) {
+        byte[] serialized = null;
+        while (null == serialized) {
+            int limit = Math.min(this.buffer.capacity(), maximumSizeInBytes);
+            this.buffer.clear();
+            this.buffer.limit(limit);
+            try {
+                writer.accept(this.buffer);
+                serialized = Arrays.copyOf(this.buffer.array(), this.buffer.position());
+                this.allocatedBytes += serialized.length;
+            } catch (OutOfEnergyException e) {
+                // The serializer reports running off the end of the buffer as being out of energy, which is only true once we are at the limit.
+                if (limit >= maximumSizeInBytes) {
+                    throw e;
+                }
+                int newCapacity = (int) Math.min((long) this.buffer.capacity() * 2L, (long) maximumSizeInBytes);
+                this.buffer = ByteBuffer.allocate(newCapacity);
+                this.allocatedBytes += newCapacity;
+            }
+        }
+        return serialized;
+    }
+
+    public int getCapacity() {
+        return this.buffer.capacity();
+    }
+
+    /**
+     * @return The number of bytes allocated since the last call (or since the buffer was created).
+     */
+    public long takeAllocatedBytes() {
+        long bytes = this.allocatedBytes;
+        this.allocatedBytes = 0L;
+        return bytes;
+    }
+}
@@ -0,0 +1,73 @@
+package org.aion.avm.core.persistence;
+
+import java.nio.ByteBuffer;
+
+import org.aion.avm.internal.RuntimeAssertionError;
+
+
+/**
+ * Describes the versions of the serialized graph format and the variable-length integer encoding used by the current one.
+ *
+ * The original (legacy) format starts with the nextHashCode, as a fixed-width int, and writes every class name in full, every time it
+ * is referenced.  Since the nextHashCode is never negative, the class-name dictionary format starts with a header int which has the
+ * high bit set, so we can tell the two formats apart and read either.
+ * Graphs are only written in the dictionary format when AvmConfiguration.enableDictionaryGraphFormat is set, since the size of a
+ * graph determines the energy billed for reading and writing it.
+ *
+ * In the dictionary format:
+ * -class names are written as a type id into a per-graph dictionary.  A type id equal to the size of the dictionary defines a new entry
+ *  and is immediately followed by the class name (length byte and UTF-8), which is then assigned that id.  Every other type id refers
+ *  to an entry defined earlier in the graph.
+ * -type ids, instance indices, and constant identifiers (all non-negative and usually small) are written as varints:  7 bits per byte,
+ *  least significant first, with the high bit set on every byte but the last.
+ * Primitive field values (and the nextHashCode) are still written at their fixed width, so the size of a graph (and the cost of
+ * storing it) depends only on its shape, not the values it holds.
+ */
+public class GraphFormat {
+    /**
+     * The header which starts a graph in the class-name dictionary format.
+     */
+    public static final int DICTIONARY_FORMAT_HEADER = 0xA7000002;
+
+    /**
+     * The longest encoding of a varint (7 bits per byte).
+     */
+    private static final int MAX_VARINT_BYTES = 5;
+
+    /**
+     * Determines which format the graph in the buffer uses, consuming the header when it is the current format.
+     *
+     * @param buffer The buffer, positioned at the start of the graph.
+     * @return True if this graph is in the legacy format (in which case nothing was consumed).
+     */
+    public static boolean readIsLegacyFormat(ByteBuffer buffer) {
+        int header = buffer.getInt(buffer.position());
+        boolean isLegacy = (header >= 0);
+        if (!isLegacy) {
+            RuntimeAssertionError.assertTrue(DICTIONARY_FORMAT_HEADER == header);
+            buffer.getInt();
+        }
+        return isLegacy;
+    }
+
+    public static void putVarInt(ByteBuffer buffer, int value) {
+        RuntimeAssertionError.assertTrue(value >= 0);
+        while (0 != (value & ~0x7f)) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    public static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int i = 0; i < MAX_VARINT_BYTES; ++i) {
+            byte next = buffer.get();
+            value |= (next & 0x7f) << (7 * i);
+            if (next >= 0) {
+                return value;
+            }
+        }
+        throw RuntimeAssertionError.unreachable("Malformed varint");
+    }
+}
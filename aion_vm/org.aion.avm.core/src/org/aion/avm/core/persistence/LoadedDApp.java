@@ -5,6 +5,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 import java.util.List;
 
 import org.aion.avm.core.util.DebugNameResolver;
@@ -71,7 +74,7 @@ public class LoadedDApp {
     private Class<?> mainClass;
     private Field runtimeBlockchainRuntimeField;
     private Method mainMethod;
-    private long loadedBlockNum;
+    private byte[] loadedCodeHash;
     private final boolean preserveDebuggability;
 
     /**
@@ -122,33 +125,30 @@ public class LoadedDApp {
      * Requests that the Classes in the receiver be walked and all referenced objects be serialized into a graph.
      * NOTE:  The caller is expected to manage billing - none of that is done in here.
      * 
+     * @param graphBuffer The reusable buffer to serialize the graph into.
      * @param nextHashCode The nextHashCode to serialize into the graph so that this can be resumed in the future.
      * @param maximumSizeInBytes The size limit on the serialized graph size (this is a parameter for testing but also to allow the caller to impose energy-based limits).
+     * @param useDictionaryFormat True if the graph should be written in the class-name dictionary format, false for the legacy format (see GraphFormat).
      * @return The enter serialized object graph.
      */
-    public byte[] saveEntireGraph(int nextHashCode, int maximumSizeInBytes) {
-        ByteBuffer outputBuffer = ByteBuffer.allocate(maximumSizeInBytes);
+    public byte[] saveEntireGraph(GraphBuffer graphBuffer, int nextHashCode, int maximumSizeInBytes, boolean useDictionaryFormat) {
         List<Object> out_instanceIndex = null;
         List<Integer> out_calleeToCallerIndexMap = null;
         StandardGlobalResolver resolver = new StandardGlobalResolver(null, this.loader);
         StandardNameMapper classNameMapper = new StandardNameMapper();
-        Serializer.serializeEntireGraph(outputBuffer, out_instanceIndex, out_calleeToCallerIndexMap, resolver, this.fieldCache, classNameMapper, nextHashCode, this.sortedClasses);
-        
-        byte[] finalBytes = new byte[outputBuffer.position()];
-        System.arraycopy(outputBuffer.array(), 0, finalBytes, 0, finalBytes.length);
-        return finalBytes;
+        return graphBuffer.serialize(maximumSizeInBytes, (outputBuffer) -> Serializer.serializeEntireGraph(outputBuffer, out_instanceIndex, out_calleeToCallerIndexMap, resolver, this.fieldCache, classNameMapper, nextHashCode, this.sortedClasses, useDictionaryFormat));
     }
 
-    public ReentrantGraph captureStateAsCaller(int nextHashCode, int maxGraphSize) {
+    public ReentrantGraph captureStateAsCaller(GraphBuffer graphBuffer, int nextHashCode, int maxGraphSize, boolean useDictionaryFormat) {
         StandardGlobalResolver resolver = new StandardGlobalResolver(null, this.loader);
         StandardNameMapper classNameMapper = new StandardNameMapper();
-        return ReentrantGraph.captureCallerState(resolver, this.fieldCache, classNameMapper, maxGraphSize, nextHashCode, this.sortedClasses);
+        return ReentrantGraph.captureCallerState(resolver, this.fieldCache, classNameMapper, graphBuffer, maxGraphSize, nextHashCode, this.sortedClasses, useDictionaryFormat);
     }
 
-    public ReentrantGraph captureStateAsCallee(int updatedNextHashCode, int maxGraphSize) {
+    public ReentrantGraph captureStateAsCallee(GraphBuffer graphBuffer, int updatedNextHashCode, int maxGraphSize, boolean useDictionaryFormat) {
         StandardGlobalResolver resolver = new StandardGlobalResolver(null, this.loader);
         StandardNameMapper classNameMapper = new StandardNameMapper();
-        return ReentrantGraph.captureCalleeState(resolver, this.fieldCache, classNameMapper, maxGraphSize, updatedNextHashCode, this.sortedClasses);
+        return ReentrantGraph.captureCalleeState(resolver, this.fieldCache, classNameMapper, graphBuffer, maxGraphSize, updatedNextHashCode, this.sortedClasses, useDictionaryFormat);
     }
 
     public void commitReentrantChanges(InternedClasses internedClassMap, ReentrantGraph callerState, ReentrantGraph calleeState) {
@@ -343,11 +343,54 @@ public class LoadedDApp {
         }
     }
 
-    public void setLoadedBlockNum(long loadedBlockNum) {
-        this.loadedBlockNum = loadedBlockNum;
+    /**
+     * Computes the hash used to identify the transformed code a DApp was loaded from (see setLoadedCodeHash() and isLoadedFrom()).
+     * This is computed by the caller, once per call, so that checking cached instances only compares these short hashes.
+     *
+     * @param code The transformed code (null if there is none).
+     * @return The SHA-256 of the code (null if there is no code).
+     */
+    public static byte[] hashLoadedCode(byte[] code) {
+        byte[] hash = null;
+        if (null != code) {
+            try {
+                hash = MessageDigest.getInstance("SHA-256").digest(code);
+            } catch (NoSuchAlgorithmException e) {
+                // Every JVM is required to support SHA-256.
+                throw RuntimeAssertionError.unexpected(e);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Records the transformed code this DApp was loaded from, so a cached instance can later be checked against the current code.
+     *
+     * @param loadedCodeHash The hash of the transformed code passed to the DAppLoader, from hashLoadedCode().
+     */
+    public void setLoadedCodeHash(byte[] loadedCodeHash) {
+        this.loadedCodeHash = loadedCodeHash;
     }
 
-    public long getLoadedBlockNum() {
-        return loadedBlockNum;
+    /**
+     * @param codeHash The hash of the transformed code currently stored for this DApp's address, from hashLoadedCode() (null if
+     * there is no code).
+     * @return True if this DApp was loaded from exactly this code.
+     */
+    public boolean isLoadedFrom(byte[] codeHash) {
+        return (null != this.loadedCodeHash) && Arrays.equals(this.loadedCodeHash, codeHash);
+    }
+
+    /**
+     * Estimates the memory retained by this DApp:  the bytecode held by its class loader, plus the classes defined from it (which
+     * we approximate as the same size again).
+     *
+     * @return The estimated retained size, in bytes.
+     */
+    public long getEstimatedRetainedBytes() {
+        long bytecodeSize = (this.loader instanceof AvmClassLoader)
+                ? ((AvmClassLoader) this.loader).getTotalBytecodeSize()
+                : 0L;
+        return 2L * bytecodeSize;
     }
 }
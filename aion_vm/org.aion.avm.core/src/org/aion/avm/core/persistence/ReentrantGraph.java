@@ -10,21 +10,23 @@ import java.util.List;
  * In the future, this logic and data may be split, since they don't need to be together.  This just makes the connection more obvious, for now.
  */
 public class ReentrantGraph {
-    public static ReentrantGraph captureCallerState(IGlobalResolver resolver, SortedFieldCache cache, IPersistenceNameMapper classNameMapper, int maximumSizeInBytes, int nextHashCode, Class<?>[] sortedRoots) {
-        ByteBuffer buffer = ByteBuffer.allocate(maximumSizeInBytes);
+    public static ReentrantGraph captureCallerState(IGlobalResolver resolver, SortedFieldCache cache, IPersistenceNameMapper classNameMapper, GraphBuffer graphBuffer, int maximumSizeInBytes, int nextHashCode, Class<?>[] sortedRoots, boolean useDictionaryFormat) {
         List<Object> existingObjectIndex = new ArrayList<>();
-        Serializer.serializeEntireGraph(buffer, existingObjectIndex, null, resolver, cache, classNameMapper, nextHashCode, sortedRoots);
-        byte[] finalBytes = new byte[buffer.position()];
-        System.arraycopy(buffer.array(), 0, finalBytes, 0, finalBytes.length);
+        byte[] finalBytes = graphBuffer.serialize(maximumSizeInBytes, (buffer) -> {
+            // (if the buffer needed to grow, we are serializing again so we need to start a new index)
+            existingObjectIndex.clear();
+            Serializer.serializeEntireGraph(buffer, existingObjectIndex, null, resolver, cache, classNameMapper, nextHashCode, sortedRoots, useDictionaryFormat);
+        });
         return new ReentrantGraph(finalBytes, existingObjectIndex, null);
     }
 
-    public static ReentrantGraph captureCalleeState(IGlobalResolver resolver, SortedFieldCache cache, IPersistenceNameMapper classNameMapper, int maximumSizeInBytes, int nextHashCode, Class<?>[] sortedRoots) {
-        ByteBuffer calleeBuffer = ByteBuffer.allocate(maximumSizeInBytes);
+    public static ReentrantGraph captureCalleeState(IGlobalResolver resolver, SortedFieldCache cache, IPersistenceNameMapper classNameMapper, GraphBuffer graphBuffer, int maximumSizeInBytes, int nextHashCode, Class<?>[] sortedRoots, boolean useDictionaryFormat) {
         List<Integer> calleeToCallerMapping = new ArrayList<>();
-        Serializer.serializeEntireGraph(calleeBuffer, null, calleeToCallerMapping, resolver, cache, classNameMapper, nextHashCode, sortedRoots);
-        byte[] calleeBytes = new byte[calleeBuffer.position()];
-        System.arraycopy(calleeBuffer.array(), 0, calleeBytes, 0, calleeBytes.length);
+        byte[] calleeBytes = graphBuffer.serialize(maximumSizeInBytes, (buffer) -> {
+            // (if the buffer needed to grow, we are serializing again so we need to start a new mapping)
+            calleeToCallerMapping.clear();
+            Serializer.serializeEntireGraph(buffer, null, calleeToCallerMapping, resolver, cache, classNameMapper, nextHashCode, sortedRoots, useDictionaryFormat);
+        });
         return new ReentrantGraph(calleeBytes, null, calleeToCallerMapping);
     }
 
@@ -1,8 +1,6 @@
 package org.aion.avm.core.persistence;
 
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -16,7 +14,7 @@ import org.aion.avm.internal.RuntimeAssertionError;
 
 public class Serializer {
     // (Should make this Map a list since the graph is probably dense?)
-    public static void serializeEntireGraph(ByteBuffer outputBuffer, List<Object> out_instanceIndex, List<Integer> out_calleeToCallerIndexMap, IGlobalResolver resolver, SortedFieldCache cache, IPersistenceNameMapper classNameMapper, int nextHashCode, Class<?>[] sortedRoots) {
+    public static void serializeEntireGraph(ByteBuffer outputBuffer, List<Object> out_instanceIndex, List<Integer> out_calleeToCallerIndexMap, IGlobalResolver resolver, SortedFieldCache cache, IPersistenceNameMapper classNameMapper, int nextHashCode, Class<?>[] sortedRoots, boolean useDictionaryFormat) {
         // We define the storage as big-endian.
         RuntimeAssertionError.assertTrue(ByteOrder.BIG_ENDIAN == outputBuffer.order());
         // We cannot be both serializing to build an index (that is done when serializing caller state before entering a callee frame)
@@ -24,13 +22,18 @@ public class Serializer {
         // In the common case, we are doing neither (these arguments are only used for reentrant calls).
         RuntimeAssertionError.assertTrue((null == out_instanceIndex) || (null == out_calleeToCallerIndexMap));
         
-        // We can write the next hash, first, since we already know it.
+        // The dictionary format starts with its header (the legacy format has none).
+        if (useDictionaryFormat) {
+            outputBuffer.putInt(GraphFormat.DICTIONARY_FORMAT_HEADER);
+        }
+        
+        // We can write the next hash, right after that, since we already know it.
         outputBuffer.putInt(nextHashCode);
         
         // We are going to perform a breadth-first traversal so we need a queue.
         Queue<Object> toProcessQueue = new LinkedList<>();
         // Create the object serializer (it maintains the state of the serialization and can also be passed in to objects to request that they serialize).
-        ByteBufferObjectSerializer objectSerializer = new ByteBufferObjectSerializer(outputBuffer, toProcessQueue, cache, resolver, classNameMapper);
+        ByteBufferObjectSerializer objectSerializer = new ByteBufferObjectSerializer(outputBuffer, toProcessQueue, cache, resolver, classNameMapper, useDictionaryFormat);
         
         // Next, we serialize all the class statics from the user's classes.
         serializeClassStatics(objectSerializer, cache, sortedRoots);
@@ -54,48 +57,37 @@ public class Serializer {
 
     private static void serializeOneClass(ByteBufferObjectSerializer objectSerializer, SortedFieldCache cache, Class<?> clazz) {
         // Note that we don't serialize the class name - the roots are in the same sorted order for reading and writing.
-        // First, we serialize the constants.
-        Field[] constants = cache.getConstantFields(clazz);
-        serializeFieldsForClass(objectSerializer, constants);
-        
-        // Then, we serialize the user-defined static fields.
-        Field[] fields = cache.getUserStaticFields(clazz);
-        serializeFieldsForClass(objectSerializer, fields);
+        // If the class has a generated codec, it handles both the constants and the other statics.
+        if (!cache.serializeStaticFields(clazz, objectSerializer)) {
+            // First, we serialize the constants.
+            Field[] constants = cache.getConstantFields(clazz);
+            serializeFieldsForClass(objectSerializer, constants);
+            
+            // Then, we serialize the user-defined static fields.
+            Field[] fields = cache.getUserStaticFields(clazz);
+            serializeFieldsForClass(objectSerializer, fields);
+        }
     }
 
     private static void serializeGraphFromWorkQueue(List<Object> out_instanceIndex, List<Integer> out_calleeToCallerIndexMap, ByteBufferObjectSerializer objectSerializer, SortedFieldCache cache, Queue<Object> toProcessQueue) {
-        Method serializeSelfMethod = cache.getSerializeSelfMethod();
-        Field readIndexField = cache.getReadIndexField();
-        
         try {
             while (!toProcessQueue.isEmpty()) {
                 Object instance = toProcessQueue.remove();
                 // We first need to serialize the class name.
                 String internalClassName = instance.getClass().getName();
                 objectSerializer.writeClassName(internalClassName);
-                serializeSelfMethod.invoke(instance, null, objectSerializer);
+                cache.serializeSelf(instance, objectSerializer);
                 if (null != out_instanceIndex) {
                     out_instanceIndex.add(instance);
                 } else if (null != out_calleeToCallerIndexMap) {
-                    int readIndex = readIndexField.getInt(instance);
+                    int readIndex = cache.getReadIndex(instance);
                     out_calleeToCallerIndexMap.add(readIndex);
                 }
             }
-        } catch (InvocationTargetException e) {
-            Throwable cause = e.getCause();
-            if (cause instanceof OutOfEnergyException) {
-                // This can happen within our deserialization path for various reasons.
-                throw (OutOfEnergyException) cause;
-            } else if (cause instanceof BufferOverflowException) {
-                // This is if we run off the end of the buffer, which is an example of out of energy.
-                throw new OutOfEnergyException();
-            } else {
-                // This shouldn't happen but is distinct from reflection errors.
-                throw RuntimeAssertionError.unexpected(e);
-            }
-        } catch (IllegalAccessException | IllegalArgumentException e) {
-            // Reflection errors can't happen since we set this up so we could access it.
-            throw RuntimeAssertionError.unexpected(e);
+        } catch (BufferOverflowException e) {
+            // This is if we run off the end of the buffer, which is an example of out of energy.
+            // (note that an OutOfEnergyException from within our serialization path just passes through).
+            throw new OutOfEnergyException();
         }
     }
 
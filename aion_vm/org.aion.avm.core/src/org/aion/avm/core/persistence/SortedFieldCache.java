@@ -1,42 +1,70 @@
 package org.aion.avm.core.persistence;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
+import org.aion.avm.internal.IObjectDeserializer;
+import org.aion.avm.internal.IObjectSerializer;
 import org.aion.avm.internal.RuntimeAssertionError;
 
 
 /**
  * Caches field/method and general reflection data associated with a specific loaded contract.
- * In the future, we might store these in the SoftCache, along-side the code.
+ * In the future, we might store these in the DApp cache, along-side the code.
+ * 
+ * Everything called once per instance (or per class) while walking the graph is resolved into a MethodHandle, once, so that the walk
+ * itself doesn't go through reflection.  Where the class has the field codecs generated by AutomaticGraphVisitor, those are used
+ * instead of reading or writing the fields one at a time.  Classes without them (the shadow JDK, interface field holders, or code
+ * transformed before the codecs existed) still fall back to the sorted Field arrays.
  */
 public class SortedFieldCache {
-    private static final String CONSTANT_FIELD_PREFIX = "const_";
+    static final String CONSTANT_FIELD_PREFIX = "const_";
+    private static final MethodType SERIALIZE_SELF_TYPE = MethodType.methodType(void.class, Object.class, Class.class, IObjectSerializer.class);
+    private static final MethodType DESERIALIZE_SELF_TYPE = MethodType.methodType(void.class, Object.class, Class.class, IObjectDeserializer.class);
+    private static final MethodType READ_INDEX_TYPE = MethodType.methodType(int.class, Object.class);
+    private static final MethodType NEW_INSTANCE_TYPE = MethodType.methodType(Object.class, Void.class, int.class);
 
-    private final Map<String, Class<?>> internalNameClasses;
+    private final Map<String, MethodHandle> internalNameConstructors;
     private final Map<Class<?>, Field[]> constantFields;
     private final Map<Class<?>, Field[]> staticFields;
     private final Map<Class<?>, Field[]> instanceFields;
+    // (these map to null for classes which don't have the generated codec)
+    private final Map<Class<?>, MethodHandle> instanceFieldSerializers;
+    private final Map<Class<?>, MethodHandle> instanceFieldDeserializers;
+    private final Map<Class<?>, MethodHandle> staticFieldSerializers;
+    private final Map<Class<?>, MethodHandle> staticFieldDeserializers;
     private final ClassLoader dappClassLoader;
-    private final Method serializeSelf;
-    private final Method deserializeSelf;
-    private final Field readIndex;
+    private final MethodHandle serializeSelf;
+    private final MethodHandle deserializeSelf;
+    private final MethodHandle readIndex;
 
     public SortedFieldCache(ClassLoader dappClassLoader, Method serializeSelf, Method deserializeSelf, Field readIndex) {
-        this.internalNameClasses = new HashMap<>();
+        this.internalNameConstructors = new HashMap<>();
         this.constantFields = new HashMap<>();
         this.staticFields = new HashMap<>();
         this.instanceFields = new HashMap<>();
+        this.instanceFieldSerializers = new HashMap<>();
+        this.instanceFieldDeserializers = new HashMap<>();
+        this.staticFieldSerializers = new HashMap<>();
+        this.staticFieldDeserializers = new HashMap<>();
         this.dappClassLoader = dappClassLoader;
-        this.serializeSelf = serializeSelf;
-        this.deserializeSelf = deserializeSelf;
-        this.readIndex = readIndex;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            this.serializeSelf = lookup.unreflect(serializeSelf).asType(SERIALIZE_SELF_TYPE);
+            this.deserializeSelf = lookup.unreflect(deserializeSelf).asType(DESERIALIZE_SELF_TYPE);
+            this.readIndex = lookup.unreflectGetter(readIndex).asType(READ_INDEX_TYPE);
+        } catch (IllegalAccessException e) {
+            // These are all public.
+            throw RuntimeAssertionError.unexpected(e);
+        }
     }
 
     public Field[] getConstantFields(Class<?> clazz) {
@@ -83,38 +111,152 @@ public class SortedFieldCache {
         return result;
     }
 
-    public Method getSerializeSelfMethod() {
-        return this.serializeSelf;
+    /**
+     * Writes the instance fields declared by clazz (not its superclasses) using its generated codec, if it has one.
+     * 
+     * @return True if the fields were written, false if the class has no generated codec (and the caller must use getInstanceFields()).
+     */
+    public boolean serializeInstanceFields(Class<?> clazz, Object instance, IObjectSerializer serializer) {
+        MethodHandle codec = lookupCodec(this.instanceFieldSerializers, clazz, AutomaticGraphVisitor.SERIALIZE_INSTANCE_FIELDS_NAME, Object.class, IObjectSerializer.class);
+        if (null != codec) {
+            try {
+                codec.invokeExact(instance, serializer);
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+        return (null != codec);
+    }
+
+    /**
+     * Reads the instance fields declared by clazz (not its superclasses) using its generated codec, if it has one.
+     * 
+     * @return True if the fields were read, false if the class has no generated codec (and the caller must use getInstanceFields()).
+     */
+    public boolean deserializeInstanceFields(Class<?> clazz, Object instance, IObjectDeserializer deserializer) {
+        MethodHandle codec = lookupCodec(this.instanceFieldDeserializers, clazz, AutomaticGraphVisitor.DESERIALIZE_INSTANCE_FIELDS_NAME, Object.class, IObjectDeserializer.class);
+        if (null != codec) {
+            try {
+                codec.invokeExact(instance, deserializer);
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+        return (null != codec);
+    }
+
+    /**
+     * Writes the constants and then the other static fields of clazz using its generated codec, if it has one.
+     * 
+     * @return True if the fields were written, false if the class has no generated codec (and the caller must use getConstantFields()
+     * and getUserStaticFields()).
+     */
+    public boolean serializeStaticFields(Class<?> clazz, IObjectSerializer serializer) {
+        MethodHandle codec = lookupCodec(this.staticFieldSerializers, clazz, AutomaticGraphVisitor.SERIALIZE_STATIC_FIELDS_NAME, IObjectSerializer.class);
+        if (null != codec) {
+            try {
+                codec.invokeExact(serializer);
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+        return (null != codec);
+    }
+
+    /**
+     * Reads the constants and then the other static fields of clazz using its generated codec, if it has one.
+     * 
+     * @return True if the fields were read, false if the class has no generated codec (and the caller must use getConstantFields()
+     * and getUserStaticFields()).
+     */
+    public boolean deserializeStaticFields(Class<?> clazz, IObjectDeserializer deserializer) {
+        MethodHandle codec = lookupCodec(this.staticFieldDeserializers, clazz, AutomaticGraphVisitor.DESERIALIZE_STATIC_FIELDS_NAME, IObjectDeserializer.class);
+        if (null != codec) {
+            try {
+                codec.invokeExact(deserializer);
+            } catch (Throwable t) {
+                throw propagate(t);
+            }
+        }
+        return (null != codec);
+    }
+
+    public void serializeSelf(Object instance, IObjectSerializer serializer) {
+        try {
+            this.serializeSelf.invokeExact(instance, (Class<?>) null, serializer);
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
     }
 
-    public Method getDeserializeSelfMethod() {
-        return this.deserializeSelf;
+    public void deserializeSelf(Object instance, IObjectDeserializer deserializer) {
+        try {
+            this.deserializeSelf.invokeExact(instance, (Class<?>) null, deserializer);
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
     }
 
-    public Field getReadIndexField() {
-        return this.readIndex;
+    public int getReadIndex(Object instance) {
+        try {
+            return (int) this.readIndex.invokeExact(instance);
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
     }
 
     public Object getNewInstance(String internalClassName, int readIndex) {
-        Class<?> clazz = this.internalNameClasses.get(internalClassName);
-        if (null == clazz) {
+        MethodHandle constructor = this.internalNameConstructors.get(internalClassName);
+        if (null == constructor) {
             try {
-                clazz = this.dappClassLoader.loadClass(internalClassName);
-            } catch (ClassNotFoundException e) {
-                // We can't fail to find this since we wrote it to the datastore.
+                Class<?> clazz = this.dappClassLoader.loadClass(internalClassName);
+                // We define the Void class, since we just need to define a constructor that the user can't hook
+                // into (and their references to this would be mapped to shadow). 
+                Constructor<?> reflectedConstructor = clazz.getConstructor(Void.class, int.class);
+                reflectedConstructor.setAccessible(true);
+                constructor = MethodHandles.lookup().unreflectConstructor(reflectedConstructor).asType(NEW_INSTANCE_TYPE);
+            } catch (ClassNotFoundException | NoSuchMethodException | SecurityException | IllegalAccessException e) {
+                // We can't fail to find this since we wrote it to the datastore and the type is datastore-safe.
                 throw RuntimeAssertionError.unexpected(e);
             }
-            this.internalNameClasses.put(internalClassName, clazz);
+            this.internalNameConstructors.put(internalClassName, constructor);
         }
-        // We define the Void class, since we just need to define a constructor that the user can't hook
-        // into (and their references to this would be mapped to shadow). 
         try {
-            Constructor<?> constructor = clazz.getConstructor(Void.class, int.class);
-            constructor.setAccessible(true);
-            return constructor.newInstance((Void)null, readIndex);
-        } catch (NoSuchMethodException | SecurityException | InstantiationException | IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-            // We can't fail to find this since the type is datastore-safe.
-            throw RuntimeAssertionError.unexpected(e);
+            return (Object) constructor.invokeExact((Void)null, readIndex);
+        } catch (Throwable t) {
+            throw propagate(t);
+        }
+    }
+
+
+    private static MethodHandle lookupCodec(Map<Class<?>, MethodHandle> codecs, Class<?> clazz, String name, Class<?>... parameterTypes) {
+        MethodHandle codec = codecs.get(clazz);
+        if ((null == codec) && !codecs.containsKey(clazz)) {
+            try {
+                Method method = clazz.getDeclaredMethod(name, parameterTypes);
+                method.setAccessible(true);
+                codec = MethodHandles.lookup().unreflect(method);
+            } catch (NoSuchMethodException e) {
+                // This class has no generated codec so the caller will use the reflective path.
+                codec = null;
+            } catch (IllegalAccessException e) {
+                // We just made this accessible.
+                throw RuntimeAssertionError.unexpected(e);
+            }
+            codecs.put(clazz, codec);
+        }
+        return codec;
+    }
+
+    private static RuntimeException propagate(Throwable t) {
+        // Unlike reflection, method handles don't wrap the exceptions thrown by what they invoke so we can let those through.
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        } else if (t instanceof Error) {
+            throw (Error) t;
+        } else {
+            // Nothing we invoke declares a checked exception.
+            throw RuntimeAssertionError.unexpected(t);
         }
     }
 }
@@ -1,5 +1,6 @@
 package org.aion.avm.core.types;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -7,6 +8,7 @@ import java.util.LinkedList;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.aion.avm.internal.RuntimeAssertionError;
 
 /**
@@ -32,12 +34,27 @@ import org.aion.avm.internal.RuntimeAssertionError;
  *
  * A means of producing a deep copy of the hierarchy is also provided.
  *
+ * Once constructed, the query methods only read the hierarchy, so it can be queried by several
+ * threads at once (as long as nobody is adding to it).
+ *
+ * A hierarchy can be frozen, after which nothing can be added to it, and then used as the shared
+ * base of any number of overlays. An overlay holds only the classes added to it (typically the
+ * classes of one DApp) and looks everything else up in its base, so the classes every DApp needs
+ * (the shadow JCL, array wrappers and exceptions) are only built once. Nothing is ever added to the
+ * base through an overlay: a base node does not know about its children in an overlay, so an
+ * overlay only ever walks up the hierarchy (from child to parent).
+ *
  * This hierarchy only accepts post-rename classes!
  */
 public final class ClassHierarchy {
     private final DecoratedHierarchyNode root;
     private Map<String, DecoratedHierarchyNode> nameToNodeMapping;
     private Set<String> preRenameUserDefinedClasses;
+    // The frozen hierarchy this one is an overlay on (null if this is not an overlay).
+    private final ClassHierarchy base;
+    private boolean isFrozen;
+    // The results of getTightestCommonSuperClass, keyed by both class names (cleared whenever a class is added).
+    private final Map<String, String> tightestCommonSuperClassCache;
 
     /**
      * Constructs a new class hierarchy with the following nodes already in place: java.lang.Object,
@@ -46,6 +63,9 @@ public final class ClassHierarchy {
     public ClassHierarchy() {
         this.nameToNodeMapping = new HashMap<>();
         this.preRenameUserDefinedClasses = null;
+        this.base = null;
+        this.isFrozen = false;
+        this.tightestCommonSuperClassCache = new ConcurrentHashMap<>();
 
         HierarchyNode javaLangObjectNode = HierarchyNode.from(ClassInformation.postRenameInfofrom(CommonType.JAVA_LANG_OBJECT));
         HierarchyNode IObjectNode = HierarchyNode.from(ClassInformation.postRenameInfofrom(CommonType.I_OBJECT));
@@ -65,6 +85,75 @@ public final class ClassHierarchy {
         this.nameToNodeMapping.put(javaLangThrowable.getDotName(), DecoratedHierarchyNode.decorate(javaLangThrowable));
     }
 
+    /**
+     * Constructs an empty overlay on the given frozen hierarchy.
+     */
+    private ClassHierarchy(ClassHierarchy base) {
+        RuntimeAssertionError.assertTrue(base.isFrozen);
+        this.nameToNodeMapping = new HashMap<>();
+        this.preRenameUserDefinedClasses = null;
+        this.base = base;
+        this.isFrozen = false;
+        this.tightestCommonSuperClassCache = new ConcurrentHashMap<>();
+        this.root = base.root;
+    }
+
+    /**
+     * Freezes this hierarchy so that nothing more can be added to it, which allows it to be the base
+     * of overlays (and to be shared by threads).
+     *
+     * Only a complete (verified) hierarchy, which is not itself an overlay, should be frozen.
+     */
+    void freeze() {
+        RuntimeAssertionError.assertTrue(this.base == null);
+        this.isFrozen = true;
+    }
+
+    /**
+     * Returns a new, empty, overlay on this hierarchy, which must be frozen.
+     *
+     * The overlay contains all of the classes in this hierarchy and the classes added to it are
+     * only added to the overlay.
+     */
+    ClassHierarchy createOverlay() {
+        return new ClassHierarchy(this);
+    }
+
+    /**
+     * Returns {@code true} only if this hierarchy is an overlay on a frozen base hierarchy.
+     */
+    boolean isOverlay() {
+        return this.base != null;
+    }
+
+    /**
+     * Returns {@code true} only if this is an overlay and the class with the provided .-style name
+     * is in its base.
+     */
+    boolean isInBase(String dotName) {
+        return (this.base != null) && (this.base.getNode(dotName) != null);
+    }
+
+    /**
+     * Returns the nodes held by this hierarchy itself (for an overlay, this excludes the nodes of
+     * its base).
+     */
+    Collection<DecoratedHierarchyNode> getOwnNodes() {
+        return Collections.unmodifiableCollection(this.nameToNodeMapping.values());
+    }
+
+    /**
+     * Returns the node of the class with the provided .-style name, looking in the base if this is
+     * an overlay, or null if there is no such class.
+     */
+    private DecoratedHierarchyNode getNode(String dotName) {
+        DecoratedHierarchyNode node = this.nameToNodeMapping.get(dotName);
+        if ((node == null) && (this.base != null)) {
+            node = this.base.getNode(dotName);
+        }
+        return node;
+    }
+
     /**
      * Adds the set of pre-rename user-defined classes to the hierarchy. Note that this is the only
      * proper way of adding user-defined classes to the hierarchy so that they are handled correctly
@@ -85,6 +174,7 @@ public final class ClassHierarchy {
      * @param preserveDebuggability Whether or not we are in debug mode.
      */
     public void addPreRenameUserDefinedClasses(Set<ClassInformation> preRenameUserDefinedClassInfos, boolean preserveDebuggability) {
+        RuntimeAssertionError.assertTrue(!this.isFrozen);
         RuntimeAssertionError.assertTrue(this.preRenameUserDefinedClasses == null);
         this.preRenameUserDefinedClasses = new HashSet<>();
 
@@ -150,8 +240,9 @@ public final class ClassHierarchy {
             return false;
         }
 
-        RuntimeAssertionError.assertTrue(this.nameToNodeMapping.containsKey(className));
-        return this.nameToNodeMapping.get(className).getClassInfo().isInterface;
+        DecoratedHierarchyNode node = getNode(className);
+        RuntimeAssertionError.assertTrue(node != null);
+        return node.getClassInfo().isInterface;
     }
 
     /**
@@ -165,8 +256,9 @@ public final class ClassHierarchy {
     }
 
     public String getConcreteSuperClassDotName(String className) {
-        RuntimeAssertionError.assertTrue(this.nameToNodeMapping.containsKey(className));
-        return this.nameToNodeMapping.get(className).getClassInfo().superClassDotName;
+        DecoratedHierarchyNode node = getNode(className);
+        RuntimeAssertionError.assertTrue(node != null);
+        return node.getClassInfo().superClassDotName;
     }
 
     /**
@@ -195,7 +287,7 @@ public final class ClassHierarchy {
      * False otherwise.
      */
     public boolean contains(String dotName) {
-        return this.nameToNodeMapping.containsKey(dotName);
+        return getNode(dotName) != null;
     }
 
     /**
@@ -216,7 +308,7 @@ public final class ClassHierarchy {
             // is in the hierarchy.
             String classNameForQuery = (preserveDebuggability) ? className : NonWrapperClassRenamer.toPostRenameClassName(className);
 
-            if (!this.nameToNodeMapping.get(classNameForQuery).getClassInfo().isInterface) {
+            if (!getNode(classNameForQuery).getClassInfo().isInterface) {
                 classes.add(className);
             }
 
@@ -245,22 +337,35 @@ public final class ClassHierarchy {
             throw new NullPointerException("Cannot get the tightest super class of a null class: " + class1 + ", " + class2);
         }
 
-        if (!this.nameToNodeMapping.containsKey(class1)) {
+        if (getNode(class1) == null) {
             throw new IllegalArgumentException("The hierarchy does not contain: " + class1);
         }
-        if (!this.nameToNodeMapping.containsKey(class2)) {
+        if (getNode(class2) == null) {
             throw new IllegalArgumentException("The hierarchy does not contain: " + class2);
         }
 
-        // Visit the ancestors of the two starting nodes and mark them differently.
-        visitAncestorsAndMarkGreen(class1);
-        visitAncestorsAndMarkRed(class2);
+        // The answer for two classes of the base can't depend on the overlay, so ask the base (and share its cache).
+        if (isInBase(class1) && isInBase(class2)) {
+            return this.base.getTightestCommonSuperClass(class1, class2);
+        }
+
+        // (the same classes are queried over and over, while computing the frames of a DApp, so we remember the answers)
+        String key = class1 + " " + class2;
+        String tightestCommonSuperClass = this.tightestCommonSuperClassCache.get(key);
+        if (tightestCommonSuperClass == null) {
+            tightestCommonSuperClass = computeTightestCommonSuperClass(class1, class2);
+            this.tightestCommonSuperClassCache.put(key, tightestCommonSuperClass);
+        }
+        return tightestCommonSuperClass;
+    }
 
-        // Now, starting at the root, discover all doubly marked leaf nodes.
-        Set<ClassInformation> leafNodes = discoverAllDoublyMarkedLeafNodesFromRoot();
+    private String computeTightestCommonSuperClass(String class1, String class2) {
+        // Collect the ancestors of the two starting nodes (rather than marking the nodes, so that concurrent queries don't interfere).
+        Set<String> ancestorsOfClass1 = collectAncestors(class1);
+        Set<String> ancestorsOfClass2 = collectAncestors(class2);
 
-        // Clean up the mess we made.
-        clearAllMarkings();
+        // Now, discover all leaf nodes which are ancestors of both.
+        Set<ClassInformation> leafNodes = discoverAllCommonLeafNodes(ancestorsOfClass1, ancestorsOfClass2);
 
         // If these nodes have no super class in common something is very wrong.
         RuntimeAssertionError.assertTrue(!leafNodes.isEmpty());
@@ -286,7 +391,9 @@ public final class ClassHierarchy {
      * @return The size of the hierarchy.
      */
     public int size() {
-        return this.nameToNodeMapping.size();
+        return (this.base == null)
+            ? this.nameToNodeMapping.size()
+            : this.base.size() + this.nameToNodeMapping.size();
     }
 
     /**
@@ -295,6 +402,9 @@ public final class ClassHierarchy {
      *
      * Deep copies should only be made on valid hierarchies that have finished being constructed
      * (and ideally have been verified by {@link ClassHierarchyVerifier}).
+     *
+     * The deep copy of an overlay is a complete hierarchy (with the classes of the base) which is
+     * neither an overlay nor frozen.
      */
     public ClassHierarchy deepCopy() {
         ClassHierarchy deepCopy = new ClassHierarchy();
@@ -349,7 +459,7 @@ public final class ClassHierarchy {
 
         // Note that a node is considered absent if it is not a real node! A ghost node should be
         // considered absent since its purpose is to act as a placeholder until we encounter it.
-        DecoratedHierarchyNode node = this.nameToNodeMapping.get(classToAdd.dotName);
+        DecoratedHierarchyNode node = getNode(classToAdd.dotName);
 
         if ((node == null) || (node.isGhostNode())) {
             add(classToAdd);
@@ -374,11 +484,16 @@ public final class ClassHierarchy {
         RuntimeAssertionError.assertTrue(classToAdd != null);
         RuntimeAssertionError.assertTrue(!classToAdd.isPreRenameClassInfo);
         RuntimeAssertionError.assertTrue(!classToAdd.dotName.contains("/"));
+        RuntimeAssertionError.assertTrue(!this.isFrozen);
+
+        // Anything we remembered may no longer be the tightest common super class.
+        this.tightestCommonSuperClassCache.clear();
 
         // Add the new node to the hierarchy.
         HierarchyNode newNode = HierarchyNode.from(classToAdd);
 
-        DecoratedHierarchyNode nodeToAddFoundInMap = this.nameToNodeMapping.get(classToAdd.dotName);
+        // (a node of the base is never a ghost, so we only replace ghosts in this hierarchy)
+        DecoratedHierarchyNode nodeToAddFoundInMap = getNode(classToAdd.dotName);
 
         if (nodeToAddFoundInMap == null) {
             // The node we want to add is not already present, so we create it.
@@ -404,7 +519,7 @@ public final class ClassHierarchy {
                 throw new IllegalArgumentException("Attempted to subclass " + CommonType.JAVA_LANG_OBJECT.dotName + " in a post-rename hierarchy: " + classToAdd.dotName);
             }
 
-            DecoratedHierarchyNode parentNode = this.nameToNodeMapping.get(superClass);
+            DecoratedHierarchyNode parentNode = getNode(superClass);
 
             if (parentNode == null) {
                 // The parent isn't in the hierarchy yet, so we create a 'ghost' node as a placeholder for now.
@@ -414,14 +529,18 @@ public final class ClassHierarchy {
                 parentNode = ghost;
             }
 
-            // Add the pointers.
-            parentNode.addChild(newNode);
+            // Add the pointers (but never change the base, which is shared).
+            if (!isInBase(superClass)) {
+                parentNode.addChild(newNode);
+            }
             newNode.addParent(parentNode.unwrap());
         }
     }
 
     private Set<ClassInformation> getClassInfosOfAllNodes() {
-        Set<ClassInformation> classInfos = new HashSet<>();
+        Set<ClassInformation> classInfos = (this.base == null)
+            ? new HashSet<>()
+            : this.base.getClassInfosOfAllNodes();
 
         for (DecoratedHierarchyNode node : this.nameToNodeMapping.values()) {
             // Ghost nodes don't have associated class info (or they would be a real node).
@@ -433,75 +552,61 @@ public final class ClassHierarchy {
     }
 
     /**
-     * Visits all ancestor nodes of the provided starting node and marks them green.
+     * Returns the names of the provided starting node and all of its ancestor nodes.
      *
      * ASSUMPTION: startingNode is non-null and exists in the hierarchy.
      */
-    private void visitAncestorsAndMarkGreen(String startingNode) {
-        visitAncestors(startingNode, true);
-    }
-
-    /**
-     * Visits all ancestor nodes of the provided starting node and marks them red.
-     *
-     * ASSUMPTION: startingNode is non-null and exists in the hierarchy.
-     */
-    private void visitAncestorsAndMarkRed(String startingNode) {
-        visitAncestors(startingNode, false);
-    }
-
-    /**
-     * Visists all descendants of the root node in the hierarchy only if they are doubly marked
-     * (that is, marked both green and red).
-     *
-     * Returns the list of all such doubly-marked nodes that are leaf nodes in this node subset.
-     */
-    private Set<ClassInformation> discoverAllDoublyMarkedLeafNodesFromRoot() {
-        RuntimeAssertionError.assertTrue(this.root.isMarkedGreen() && this.root.isMarkedRed());
-
+    private Set<String> collectAncestors(String startingNode) {
+        Set<String> ancestors = new HashSet<>();
         Queue<String> nodesToVisit = new LinkedList<>();
-        nodesToVisit.add(this.root.getDotName());
+        nodesToVisit.add(startingNode);
 
-        Set<ClassInformation> leafNodes = new HashSet<>();
         while (!nodesToVisit.isEmpty()) {
 
-            DecoratedHierarchyNode nextNode = this.nameToNodeMapping.get(nodesToVisit.poll());
+            String next = nodesToVisit.poll();
 
-            // A leaf node in our context is a node that has no doubly-marked children!
-            boolean foundChild = false;
+            if (ancestors.add(next)) {
+                for (IHierarchyNode parent : getNode(next).getParents()) {
+                    nodesToVisit.add(parent.getDotName());
+                }
+            }
+        }
 
-            for (IHierarchyNode child : nextNode.getChildren()) {
+        return ancestors;
+    }
 
-                // The child pointers are not decorated, so we need to graph the node from the map.
-                DecoratedHierarchyNode decoratedChild = this.nameToNodeMapping.get(child.getDotName());
+    /**
+     * Returns all of the common ancestors (that is, the nodes contained in both of the provided
+     * ancestor sets) which are leaf nodes in this node subset: those which are not the parent of
+     * another common ancestor.
+     *
+     * Note that this only walks from children to parents (any parent of a common ancestor is also a
+     * common ancestor), since the nodes of a base don't know about their children in an overlay.
+     */
+    private Set<ClassInformation> discoverAllCommonLeafNodes(Set<String> ancestorsOfClass1, Set<String> ancestorsOfClass2) {
+        RuntimeAssertionError.assertTrue(ancestorsOfClass1.contains(this.root.getDotName()) && ancestorsOfClass2.contains(this.root.getDotName()));
 
-                // Only visit a doubly-marked node.
-                if (decoratedChild.isMarkedGreen() && decoratedChild.isMarkedRed()) {
-                    foundChild = true;
-                    nodesToVisit.add(child.getDotName());
-                }
+        Set<String> commonAncestors = new HashSet<>(ancestorsOfClass1);
+        commonAncestors.retainAll(ancestorsOfClass2);
 
+        // A leaf node in our context is a node that has no children which are common ancestors!
+        Set<String> parentsOfCommonAncestors = new HashSet<>();
+        for (String commonAncestor : commonAncestors) {
+            for (IHierarchyNode parent : getNode(commonAncestor).getParents()) {
+                parentsOfCommonAncestors.add(parent.getDotName());
             }
+        }
 
-            // If we did not find any children then this is a leaf node.
-            if (!foundChild) {
-                leafNodes.add(nextNode.getClassInfo());
+        Set<ClassInformation> leafNodes = new HashSet<>();
+        for (String commonAncestor : commonAncestors) {
+            if (!parentsOfCommonAncestors.contains(commonAncestor)) {
+                leafNodes.add(getNode(commonAncestor).getClassInfo());
             }
-
         }
 
         return leafNodes;
     }
 
-    /**
-     * Clears all of the decorated nodes of any markings applied to them.
-     */
-    private void clearAllMarkings() {
-        for (DecoratedHierarchyNode node : this.nameToNodeMapping.values()) {
-            node.clearMarkings();
-        }
-    }
-
     /**
      * Replaces the ghost node with the real node.
      *
@@ -530,28 +635,6 @@ public final class ClassHierarchy {
         }
     }
 
-    private void visitAncestors(String startingNode, boolean markGreen) {
-        Queue<String> nodesToVisit = new LinkedList<>();
-        nodesToVisit.add(startingNode);
-
-        while (!nodesToVisit.isEmpty()) {
-
-            String next = nodesToVisit.poll();
-
-            DecoratedHierarchyNode nextNode = this.nameToNodeMapping.get(next);
-
-            if (markGreen) {
-                nextNode.markGreen();
-            } else {
-                nextNode.markRed();
-            }
-
-            for (IHierarchyNode child : nextNode.getParents()) {
-                nodesToVisit.add(child.getDotName());
-            }
-        }
-    }
-
     private void connectChildAndParent(IHierarchyNode child, IHierarchyNode parent) {
         child.addParent(parent);
         parent.addChild(child);
@@ -559,7 +642,7 @@ public final class ClassHierarchy {
 
     @Override
     public String toString() {
-        return "ClassHierarchy { post-rename hierarchy of " + this.nameToNodeMapping.size() + " classes. }";
+        return "ClassHierarchy { post-rename hierarchy of " + size() + " classes. }";
     }
 
 }
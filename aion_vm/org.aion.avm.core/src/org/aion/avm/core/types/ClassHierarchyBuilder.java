@@ -106,8 +106,16 @@ public final class ClassHierarchyBuilder {
      */
     public ClassHierarchy build() {
 
-        // The most efficient way to construct the hierarchy is to begin with the shadow JCL if specified.
-        ClassHierarchy hierarchy = (this.addShadowJcl) ? createHierarchyWithShadowJclClasses() : new ClassHierarchy();
+        // When the hierarchy is the shadow JCL, array wrappers and exceptions (plus user classes), which is what every DApp needs, it
+        // is an overlay on the node's shared base hierarchy, so only the user classes are actually added.
+        // Otherwise, the most efficient way to construct the hierarchy is to begin with the shadow JCL if specified.
+        boolean isOverlay = this.addShadowJcl && this.addArrays && this.addExceptions && !this.addNonUserClasses;
+        ClassHierarchy hierarchy;
+        if (isOverlay) {
+            hierarchy = NodeEnvironment.singleton.getSharedBaseClassHierarchy().createOverlay();
+        } else {
+            hierarchy = (this.addShadowJcl) ? createHierarchyWithShadowJclClasses() : new ClassHierarchy();
+        }
 
         // Add any non-user-defined classes if specified as a set of class infos.
         if (this.addNonUserClasses) {
@@ -119,13 +127,13 @@ public final class ClassHierarchyBuilder {
             addUserClasses(hierarchy);
         }
 
-        // Add the handwritten array wrapper classes if specified.
-        if (this.addArrays) {
+        // Add the handwritten array wrapper classes if specified (and they aren't already in the base).
+        if (this.addArrays && !isOverlay) {
             addHandwrittenArrayWrappersToHierarchy(hierarchy);
         }
 
-        // Add the exception types if specified.
-        if (this.addExceptions) {
+        // Add the exception types if specified (and they aren't already in the base).
+        if (this.addExceptions && !isOverlay) {
             addPostRenameJclExceptionTypes(hierarchy);
         }
 
@@ -137,6 +145,28 @@ public final class ClassHierarchyBuilder {
         return hierarchy;
     }
 
+    /**
+     * Builds the base hierarchy shared by all of the DApp hierarchies built on a node: the shadow JCL
+     * classes, the hand-written array wrappers and the JCL exceptions. The result is verified and
+     * frozen, so it can be shared by threads and used as the base of overlays.
+     *
+     * @param shadowJclHierarchy The hierarchy of the shadow JCL classes (it is copied, not changed).
+     * @return The frozen base hierarchy.
+     */
+    public static ClassHierarchy buildSharedBase(ClassHierarchy shadowJclHierarchy) {
+        ClassHierarchyBuilder builder = new ClassHierarchyBuilder();
+        ClassHierarchy hierarchy = shadowJclHierarchy.deepCopy();
+        builder.addHandwrittenArrayWrappersToHierarchy(hierarchy);
+        builder.addPostRenameJclExceptionTypes(hierarchy);
+
+        HierarchyVerificationResult result = builder.verifier.verifyHierarchy(hierarchy);
+        if (!result.success) {
+            throw new RejectedClassException(result.getError());
+        }
+        hierarchy.freeze();
+        return hierarchy;
+    }
+
     /**
      * Constructs a new hierarchy with all the shadow JCL classes loaded into it.
      */
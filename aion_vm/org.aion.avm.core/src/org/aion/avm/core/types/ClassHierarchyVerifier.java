@@ -26,6 +26,9 @@ public final class ClassHierarchyVerifier {
      *
      * If none of these faults are discovered, then the verifier will return a successful result.
      *
+     * If the hierarchy is an overlay, only the classes of the overlay are verified (its base was
+     * verified before it was frozen).
+     *
      * @param hierarchy The hierarchy to be verified.
      */
     public HierarchyVerificationResult verifyHierarchy(ClassHierarchy hierarchy) {
@@ -33,6 +36,10 @@ public final class ClassHierarchyVerifier {
             throw new NullPointerException("Cannot verify a null hierarchy.");
         }
 
+        if (hierarchy.isOverlay()) {
+            return verifyOverlay(hierarchy);
+        }
+
         Set<IHierarchyNode> visited = new HashSet<>();
 
         LinkedList<IHierarchyNode> nodesToVisit = new LinkedList<>();
@@ -88,4 +95,69 @@ public final class ClassHierarchyVerifier {
         return HierarchyVerificationResult.successful();
     }
 
+    /**
+     * Verifies the classes of an overlay for the same faults as a complete hierarchy, but without
+     * walking down from the root (the nodes of the base don't know about their children in the
+     * overlay): each class is checked against its parents and a class is reachable from the root
+     * if any of its parents is in the base or is itself reachable.
+     */
+    private HierarchyVerificationResult verifyOverlay(ClassHierarchy hierarchy) {
+        for (IHierarchyNode currentNode : hierarchy.getOwnNodes()) {
+
+            // Verify that the node is not a ghost node.
+            if (currentNode.isGhostNode()) {
+                return HierarchyVerificationResult.foundGhostNode(currentNode.getDotName());
+            }
+
+            int numberOfNonInterfaceParents = 0;
+            for (IHierarchyNode parent : currentNode.getParents()) {
+
+                if (parent.isGhostNode()) {
+                    return HierarchyVerificationResult.foundGhostNode(parent.getDotName());
+                }
+
+                // Verify no interface is a child of a non-interface (other than java/lang/Object).
+                if ((currentNode.getClassInfo().isInterface) && (!parent.getClassInfo().isInterface)) {
+                    if (!parent.getClassInfo().dotName.equals(CommonType.JAVA_LANG_OBJECT.dotName)) {
+                        return HierarchyVerificationResult.foundInterfaceWithConcreteSuperClass(currentNode.getDotName());
+                    }
+                }
+
+                if (!parent.getClassInfo().isInterface) {
+                    numberOfNonInterfaceParents++;
+                }
+            }
+
+            // Verify this node does not have multiple non-interface parents.
+            if (numberOfNonInterfaceParents > 1) {
+                return HierarchyVerificationResult.foundMultipleNonInterfaceSuperClasses(currentNode.getDotName());
+            }
+        }
+
+        // Verify that every node can be reached (repeat until no more nodes become reachable).
+        Set<String> reachable = new HashSet<>();
+        boolean isChanged = true;
+        while (isChanged) {
+            isChanged = false;
+            for (IHierarchyNode currentNode : hierarchy.getOwnNodes()) {
+                if (!reachable.contains(currentNode.getDotName())) {
+                    for (IHierarchyNode parent : currentNode.getParents()) {
+                        if (hierarchy.isInBase(parent.getDotName()) || reachable.contains(parent.getDotName())) {
+                            reachable.add(currentNode.getDotName());
+                            isChanged = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+
+        int unreachable = hierarchy.getOwnNodes().size() - reachable.size();
+        if (unreachable > 0) {
+            return HierarchyVerificationResult.foundUnreachableNodes(unreachable);
+        }
+
+        return HierarchyVerificationResult.successful();
+    }
+
 }
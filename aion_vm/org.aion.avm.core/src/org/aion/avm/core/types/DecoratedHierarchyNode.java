@@ -4,23 +4,21 @@ import java.util.Set;
 import org.aion.avm.internal.RuntimeAssertionError;
 
 /**
- * A decorated node is just a {@link IHierarchyNode} wrapper that allows for a node to be marked different
- * colours.
+ * A decorated node is just a {@link IHierarchyNode} wrapper, which is how the {@link ClassHierarchy}
+ * holds its nodes.
  *
- * This is used by the {@link ClassHierarchy#getTightestCommonSuperClass(String, String)}
- * algorithm.
+ * Note that it holds no markings for the {@link ClassHierarchy#getTightestCommonSuperClass(String, String)}
+ * algorithm (that algorithm keeps them to itself) so that querying a hierarchy never writes to it.
  *
  * A decorated node cannot 'decorate' (wrap) another decorated node. You can always assume the
  * wrapped node is not decorated.
  *
  * A decorated node directly exposes the node it wraps and so the immutability of this underlying
  * node is subject to the immutability guarantees of the wrapped node (typically not immutable), and
- * the markings on the decorated node are not immutable either.
+ * the decorated node adds no state of its own.
  */
 public class DecoratedHierarchyNode implements IHierarchyNode {
     private IHierarchyNode node;
-    private boolean isGreen;
-    private boolean isRed;
 
     private DecoratedHierarchyNode(IHierarchyNode node) {
         if (node == null) {
@@ -29,8 +27,6 @@ public class DecoratedHierarchyNode implements IHierarchyNode {
         RuntimeAssertionError.assertTrue(!(node instanceof DecoratedHierarchyNode));
 
         this.node = node;
-        this.isGreen = false;
-        this.isRed = false;
     }
 
     public static DecoratedHierarchyNode decorate(IHierarchyNode node) {
@@ -49,27 +45,6 @@ public class DecoratedHierarchyNode implements IHierarchyNode {
         return (HierarchyGhostNode) this.node;
     }
 
-    public void markGreen() {
-        this.isGreen = true;
-    }
-
-    public void markRed() {
-        this.isRed = true;
-    }
-
-    public boolean isMarkedGreen() {
-        return this.isGreen;
-    }
-
-    public boolean isMarkedRed() {
-        return this.isRed;
-    }
-
-    public void clearMarkings() {
-        this.isGreen = false;
-        this.isRed = false;
-    }
-
     @Override
     public boolean isGhostNode() {
         return this.node.isGhostNode();
@@ -2,6 +2,8 @@ package org.aion.avm.core.types;
 
 /**
  * An interface which exists to allow external concerns to be notified when a class is dynamically generated for the purposes of exception wrapping.
+ * Note that it is called on whichever thread is transforming the class, and classes are transformed concurrently, so a consumer shared
+ * between classes must be thread-safe (DAppCreator avoids this by giving each class its own consumer).
  */
 public interface GeneratedClassConsumer {
     /**
@@ -2,7 +2,12 @@ package org.aion.avm.core.types;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.jar.Attributes;
 import java.util.jar.JarEntry;
@@ -25,6 +30,72 @@ public class ImmortalDappModule {
     // Note that we currently limit the size of an in-memory JAR to 1 MiB.
     private static final int MAX_JAR_BYTES = 1024 * 1024;
 
+    // The compact format starts with this header, followed by a version byte (a JAR, being a ZIP file, always starts with "PK").
+    private static final byte[] COMPACT_HEADER = new byte[] { 'A', 'V', 'M', 'C' };
+    private static final byte COMPACT_VERSION = 1;
+
+    /**
+     * Reads the Dapp module from the transformed code stored for a DApp, which is either in the compact format written by
+     * {@link #createCompact()} or, for DApps deployed before it existed, a JAR written by {@link #createJar(Address, long)}.
+     *
+     * @param code The stored transformed code.
+     * @return The module, or null if the contents were insufficient for a Dapp.
+     * @throws IOException An error occurred while reading the contents.
+     */
+    public static ImmortalDappModule readFromStorage(byte[] code) throws IOException {
+        return isCompact(code)
+                ? readFromCompact(code)
+                : readFromJar(code);
+    }
+
+    /**
+     * @param code The stored transformed code.
+     * @return True if the code is in the compact format (any version).
+     */
+    public static boolean isCompact(byte[] code) {
+        return (code.length > COMPACT_HEADER.length) && Arrays.equals(COMPACT_HEADER, 0, COMPACT_HEADER.length, code, 0, COMPACT_HEADER.length);
+    }
+
+    private static ImmortalDappModule readFromCompact(byte[] code) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(code);
+        buffer.position(COMPACT_HEADER.length);
+        byte version = buffer.get();
+        if (COMPACT_VERSION != version) {
+            throw new IOException("Unknown compact code version: " + version);
+        }
+        try {
+            String mainClass = readString(buffer);
+            int classCount = buffer.getInt();
+            Map<String, byte[]> classes = new HashMap<>();
+            for (int i = 0; i < classCount; ++i) {
+                String name = readString(buffer);
+                classes.put(name, readBytes(buffer));
+            }
+            if (buffer.hasRemaining()) {
+                throw new IOException("Trailing bytes in compact code");
+            }
+            return !classes.isEmpty()
+                    ? new ImmortalDappModule(classes, mainClass)
+                    : null;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Truncated compact code", e);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        return new String(readBytes(buffer), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if ((length < 0) || (length > buffer.remaining())) {
+            throw new BufferUnderflowException();
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return bytes;
+    }
+
     /**
      * Reads the Dapp module from JAR bytes, in memory.
      * Note that a Dapp module is expected to specify a main class and contain at least one class.
@@ -56,6 +127,35 @@ public class ImmortalDappModule {
         this.mainClass = mainClass;
     }
 
+    /**
+     * Create the compact, uncompressed, representation of all the classes in this module:  the header and version, followed by the
+     * main class name and then each class name and its bytecode, in name order (so every node produces the same bytes).
+     * Each string or byte[] is written as its 4-byte length, followed by its bytes.
+     */
+    public byte[] createCompact() {
+        String[] names = this.classes.keySet().toArray(new String[0]);
+        Arrays.sort(names);
+        byte[] mainClassBytes = this.mainClass.getBytes(StandardCharsets.UTF_8);
+        byte[][] nameBytes = new byte[names.length][];
+        int size = COMPACT_HEADER.length + 1 + Integer.BYTES + mainClassBytes.length + Integer.BYTES;
+        for (int i = 0; i < names.length; ++i) {
+            nameBytes[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            size += Integer.BYTES + nameBytes[i].length + Integer.BYTES + this.classes.get(names[i]).length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.put(COMPACT_HEADER);
+        buffer.put(COMPACT_VERSION);
+        buffer.putInt(mainClassBytes.length).put(mainClassBytes);
+        buffer.putInt(names.length);
+        for (int i = 0; i < names.length; ++i) {
+            byte[] bytecode = this.classes.get(names[i]);
+            buffer.putInt(nameBytes[i].length).put(nameBytes[i]);
+            buffer.putInt(bytecode.length).put(bytecode);
+        }
+        return buffer.array();
+    }
+
     /**
      * Create the in-memory JAR containing all the classes in this module.
      */
@@ -0,0 +1,65 @@
+package org.aion.avm.core.util;
+
+
+/**
+ * An immutable snapshot of the statistics of an {@link LruCache}.
+ */
+public class CacheStatistics {
+    private final long hits;
+    private final long misses;
+    private final long invalidations;
+    private final long evictions;
+    private final int entryCount;
+    private final long totalBytes;
+
+    public CacheStatistics(long hits, long misses, long invalidations, long evictions, int entryCount, long totalBytes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.invalidations = invalidations;
+        this.evictions = evictions;
+        this.entryCount = entryCount;
+        this.totalBytes = totalBytes;
+    }
+
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * @return The number of lookups which found nothing usable (including those which found an invalid value).
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * @return The number of values dropped because they were no longer valid.
+     */
+    public long getInvalidations() {
+        return this.invalidations;
+    }
+
+    /**
+     * @return The number of values dropped to keep the cache within its bounds.
+     */
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    public int getEntryCount() {
+        return this.entryCount;
+    }
+
+    /**
+     * @return The total estimated size of the values currently in the cache, in bytes.
+     */
+    public long getTotalBytes() {
+        return this.totalBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics(hits=" + this.hits + ", misses=" + this.misses + ", invalidations=" + this.invalidations
+                + ", evictions=" + this.evictions + ", entries=" + this.entryCount + ", bytes=" + this.totalBytes + ")";
+    }
+}
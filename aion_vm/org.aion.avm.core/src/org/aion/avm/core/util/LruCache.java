@@ -0,0 +1,204 @@
+package org.aion.avm.core.util;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+import org.aion.avm.internal.RuntimeAssertionError;
+
+
+/**
+ * A bounded, thread-safe cache which evicts its least recently used entries once it holds more than maxEntries values or more
+ * than maxBytes of (estimated) value size.
+ * Values are checked out (removed while they are in use) and checked back in after use, so that a value is never shared between
+ * threads.  Since several threads may want a value for the same key at once, each key holds a pool of up to maxValuesPerKey
+ * interchangeable values:  a checkout takes any one of them and only misses if they are all checked out.
+ * Checking a value in makes its key the most recently used one.
+ *
+ * Hits, misses, invalidations and evictions are counted and can be read as a {@link CacheStatistics} snapshot.
+ *
+ * @param <K> The key type (should have sensible hashCode() and equals() implementations).
+ * @param <V> The value type.
+ */
+public class LruCache<K, V> {
+    private final int maxEntries;
+    private final long maxBytes;
+    private final int maxValuesPerKey;
+    private final ToLongFunction<V> sizeEstimator;
+
+    // (insertion-ordered, since checkin re-inserts the key, so the head is always the least recently used)
+    private final LinkedHashMap<K, ArrayDeque<Entry<V>>> underlyingMap;
+    private int entryCount;
+    private long totalBytes;
+
+    private long hits;
+    private long misses;
+    private long invalidations;
+    private long evictions;
+
+    /**
+     * Creates a new, empty, cache holding at most one value per key.
+     *
+     * @param maxEntries The maximum number of values to retain.
+     * @param maxBytes The maximum total size of the values to retain, as reported by sizeEstimator.
+     * @param sizeEstimator Estimates the size of a value, in bytes (only called once, when the value is checked in).
+     */
+    public LruCache(int maxEntries, long maxBytes, ToLongFunction<V> sizeEstimator) {
+        this(maxEntries, maxBytes, 1, sizeEstimator);
+    }
+
+    /**
+     * Creates a new, empty, cache.
+     *
+     * @param maxEntries The maximum number of values to retain.
+     * @param maxBytes The maximum total size of the values to retain, as reported by sizeEstimator.
+     * @param maxValuesPerKey The maximum number of values to retain for any one key.
+     * @param sizeEstimator Estimates the size of a value, in bytes (only called once, when the value is checked in).
+     */
+    public LruCache(int maxEntries, long maxBytes, int maxValuesPerKey, ToLongFunction<V> sizeEstimator) {
+        RuntimeAssertionError.assertTrue(maxEntries >= 0);
+        RuntimeAssertionError.assertTrue(maxBytes >= 0L);
+        RuntimeAssertionError.assertTrue(maxValuesPerKey >= 1);
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.maxValuesPerKey = maxValuesPerKey;
+        this.sizeEstimator = sizeEstimator;
+        this.underlyingMap = new LinkedHashMap<>();
+    }
+
+    public synchronized V checkout(K key) {
+        return checkout(key, null);
+    }
+
+    /**
+     * Removes and returns a value for the given key, so long as it is still valid.
+     *
+     * @param key The key to look up.
+     * @param isValid Decides if a cached value can still be used (null if every value is valid).  Invalid values are dropped.
+     * @return The cached value, or null if there was no valid value.
+     */
+    public synchronized V checkout(K key, Predicate<V> isValid) {
+        ArrayDeque<Entry<V>> pool = this.underlyingMap.get(key);
+        V value = null;
+        if (null != pool) {
+            // Take the most recently checked-in value first, since it is the most likely to still be warm.
+            while ((null == value) && !pool.isEmpty()) {
+                Entry<V> entry = pool.pollLast();
+                this.entryCount -= 1;
+                this.totalBytes -= entry.size;
+                if ((null == isValid) || isValid.test(entry.value)) {
+                    value = entry.value;
+                } else {
+                    this.invalidations += 1;
+                }
+            }
+            if (pool.isEmpty()) {
+                this.underlyingMap.remove(key);
+            }
+        }
+        if (null != value) {
+            this.hits += 1;
+        } else {
+            this.misses += 1;
+        }
+        return value;
+    }
+
+    /**
+     * Returns a value for the given key without checking it out:  it stays in the cache (and its key becomes the most recently
+     * used one).
+     * This is only for caches of immutable values, which can safely be shared between threads.
+     *
+     * @param key The key to look up.
+     * @return The cached value, or null if there was none.
+     */
+    public synchronized V get(K key) {
+        // Re-insert the key so that it becomes the most recently used.
+        ArrayDeque<Entry<V>> pool = this.underlyingMap.remove(key);
+        V value = null;
+        if (null != pool) {
+            value = pool.peekLast().value;
+            this.underlyingMap.put(key, pool);
+            this.hits += 1;
+        } else {
+            this.misses += 1;
+        }
+        return value;
+    }
+
+    public synchronized void checkin(K key, V value) {
+        long size = this.sizeEstimator.applyAsLong(value);
+        // Re-insert the key so that it becomes the most recently used.
+        ArrayDeque<Entry<V>> pool = this.underlyingMap.remove(key);
+        if (null == pool) {
+            pool = new ArrayDeque<>();
+        }
+        if ((size > this.maxBytes) || (pool.size() >= this.maxValuesPerKey)) {
+            // This could never fit (or its pool is already full) so drop it immediately, instead of evicting anything else.
+            this.evictions += 1;
+        } else {
+            pool.addLast(new Entry<>(value, size));
+            this.entryCount += 1;
+            this.totalBytes += size;
+        }
+        if (!pool.isEmpty()) {
+            this.underlyingMap.put(key, pool);
+        }
+
+        // Evict from the least recently used end until we are back within bounds (oldest value of the least recently used key first).
+        while ((this.entryCount > this.maxEntries) || (this.totalBytes > this.maxBytes)) {
+            Map.Entry<K, ArrayDeque<Entry<V>>> eldest = this.underlyingMap.entrySet().iterator().next();
+            Entry<V> entry = eldest.getValue().pollFirst();
+            if (eldest.getValue().isEmpty()) {
+                this.underlyingMap.remove(eldest.getKey());
+            }
+            this.entryCount -= 1;
+            this.totalBytes -= entry.size;
+            this.evictions += 1;
+        }
+    }
+
+    /**
+     * Drops every entry matching the given condition, counting them as invalidations.
+     *
+     * @param condition The test applied to each key and value.
+     */
+    public synchronized void removeIf(BiPredicate<K, V> condition) {
+        Iterator<Map.Entry<K, ArrayDeque<Entry<V>>>> iterator = this.underlyingMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<K, ArrayDeque<Entry<V>>> elt = iterator.next();
+            Iterator<Entry<V>> poolIterator = elt.getValue().iterator();
+            while (poolIterator.hasNext()) {
+                Entry<V> entry = poolIterator.next();
+                if (condition.test(elt.getKey(), entry.value)) {
+                    poolIterator.remove();
+                    this.entryCount -= 1;
+                    this.totalBytes -= entry.size;
+                    this.invalidations += 1;
+                }
+            }
+            if (elt.getValue().isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(this.hits, this.misses, this.invalidations, this.evictions, this.entryCount, this.totalBytes);
+    }
+
+
+    private static class Entry<V> {
+        public final V value;
+        public final long size;
+
+        public Entry(V value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+}
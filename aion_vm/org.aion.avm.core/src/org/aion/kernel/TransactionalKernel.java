@@ -168,7 +168,7 @@ public class TransactionalKernel implements KernelInterface {
     @Override
     public byte[] getStorage(Address address, byte[] key) {
         // We issue these requests from the given address, only, so it is safe for us to decide that we permit reads after deletes.
-        // The direct reason why this happens is that DApps which are already running are permitted to continue running but may need to lazyLoad.
+        // The direct reason why this happens is that DApps which are already running are permitted to continue running but may still read their storage.
         byte[] result = this.writeCache.getStorage(address, key);
         if (null == result) {
             result = this.parent.getStorage(address, key);
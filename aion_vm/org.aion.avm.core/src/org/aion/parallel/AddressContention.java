@@ -0,0 +1,50 @@
+package org.aion.parallel;
+
+import org.aion.avm.core.util.Helpers;
+
+/**
+ * A snapshot of how contended a single address was, within a batch of transactions.
+ */
+public class AddressContention {
+    private final byte[] address;
+    private final long acquireCount;
+    private final long totalWaitNanos;
+    private final long[] waitHistogram;
+
+    public AddressContention(byte[] address, long acquireCount, long totalWaitNanos, long[] waitHistogram) {
+        this.address = address;
+        this.acquireCount = acquireCount;
+        this.totalWaitNanos = totalWaitNanos;
+        this.waitHistogram = waitHistogram;
+    }
+
+    public byte[] getAddress() {
+        return this.address.clone();
+    }
+
+    /**
+     * @return The number of times the address was acquired (or an acquire was abandoned due to an abort).
+     */
+    public long getAcquireCount() {
+        return this.acquireCount;
+    }
+
+    /**
+     * @return The total time tasks spent blocked, acquiring the address.
+     */
+    public long getTotalWaitNanos() {
+        return this.totalWaitNanos;
+    }
+
+    /**
+     * @return The acquire wait times (see {@link WaitTimeHistogram} for the buckets).
+     */
+    public long[] getWaitHistogram() {
+        return this.waitHistogram.clone();
+    }
+
+    @Override
+    public String toString() {
+        return Helpers.bytesToHexString(this.address) + " acquires " + this.acquireCount + " waitNanos " + this.totalWaitNanos;
+    }
+}
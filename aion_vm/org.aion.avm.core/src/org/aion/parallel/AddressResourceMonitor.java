@@ -1,36 +1,49 @@
 package org.aion.parallel;
 
-import org.aion.avm.internal.RuntimeAssertionError;
-
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Used by executor threads to communicate with each other.
  * Executor threads can only acquire/release {@link AddressResource}, commit result through this monitor.
  * A new monitor will be created for each batch of transactions.
+ *
+ * Each {@link AddressResource} is guarded by its own lock, so tasks touching disjoint addresses never contend.  Waiting tasks
+ * park and are only woken when something they depend on changes:  a released resource is handed directly to its next owner,
+ * an aborted owner is woken wherever it is waiting and each commit only wakes the task whose turn is next.
  */
 public class AddressResourceMonitor {
     static boolean DEBUG = false;
 
     // Map for resource retrieval
-    private HashMap<AddressWrapper, AddressResource> resources;
+    private final ConcurrentHashMap<AddressWrapper, AddressResource> resources;
 
     // Ownership records for each task. It provide fast resource release.
-    private HashMap<TransactionTask, Set<AddressResource>> ownerships;
+    // (each entry is only ever accessed by the thread running that task)
+    private final ConcurrentHashMap<TransactionTask, Set<AddressResource>> ownerships;
+
+    // The threads currently blocked in this monitor, by the index of the task they are running.
+    private final ConcurrentHashMap<Integer, Thread> waitingThreads;
 
-    // Private monitor for safety
-    private final Object sync;
+    // Commit counter used to serialize transaction commit (only written by the task whose turn it is)
+    private volatile int commitCounter;
 
-    // Commit counter used to serialize transaction commit
-    private int commitCounter;
+    // Where wait times are reported (null if metrics are disabled, in which case nothing is measured)
+    private final ExecutorMetrics metrics;
 
     public AddressResourceMonitor()
     {
-        this.resources = new HashMap<>();
-        this.ownerships = new HashMap<>();
-        this.sync = new Object();
+        this(null);
+    }
+
+    public AddressResourceMonitor(ExecutorMetrics metrics)
+    {
+        this.metrics = metrics;
+        this.resources = new ConcurrentHashMap<>();
+        this.ownerships = new ConcurrentHashMap<>();
+        this.waitingThreads = new ConcurrentHashMap<>();
         this.commitCounter = 0;
     }
 
@@ -40,11 +53,10 @@ public class AddressResourceMonitor {
      *
      */
     public void clear(){
-        synchronized (sync) {
-            this.resources.clear();
-            this.ownerships.clear();
-            this.commitCounter = 0;
-        }
+        this.resources.clear();
+        this.ownerships.clear();
+        this.waitingThreads.clear();
+        this.commitCounter = 0;
     }
 
     /**
@@ -62,78 +74,104 @@ public class AddressResourceMonitor {
      * @param task The requester task.
      */
     public void acquire(byte[] address, TransactionTask task){
-        synchronized (sync) {
-            AddressWrapper addressWrapper = new AddressWrapper(address);
-            AddressResource resource = getResource(addressWrapper);
+        AddressWrapper addressWrapper = new AddressWrapper(address);
+        AddressResource resource = this.resources.computeIfAbsent(addressWrapper, (ignored) -> new AddressResource());
 
-            // Add task to the waiting queue.
+        // Add task to the waiting queue.
+        TransactionTask abortedOwner = null;
+        synchronized (resource) {
             if (resource.addToWaitingQueue(task)) {
-                sync.notifyAll();
+                abortedOwner = resource.getOwnedBy();
             }
+        }
+        if (null != abortedOwner) {
+            wakeTask(abortedOwner.getIndex());
+        }
 
-            long startTime = 0;
-            long endTime = 0;
+        long startTime = 0;
+        long endTime = 0;
 
-            if (DEBUG) {
+        if (null != this.metrics) {
+            startTime = System.nanoTime();
+        }
+        if (DEBUG) {
+            synchronized (resource) {
                 int holder = null != resource.getOwnedBy() ? resource.getOwnedBy().getIndex() : -1;
                 int nextOwner = null != resource.getNextOwner() ? resource.getNextOwner().getIndex() : -1;
                 System.out.println("Request " + task.getIndex() + " " + resource.toString() + " hold by " + holder +
                         " nextOwner " + nextOwner + " locked " + resource.isOwned() + " inAbortState " + task.inAbortState());
-                startTime = System.nanoTime();
             }
+            startTime = System.nanoTime();
+        }
 
-            // Resource res is granted to task iff
-            // res is not hold by other task && task is the next owner
-            while ((resource.isOwned() || !resource.isNextOwner(task)) && task != resource.getOwnedBy()
-                    && !task.inAbortState()){
-                try {
-                    sync.wait();
-                }catch (InterruptedException e){
-                    RuntimeAssertionError.unreachable("Waiting executor thread received interruption: ACQUIRE");
+        // Resource res is granted to task iff
+        // res is not hold by other task && task is the next owner
+        // (we register as waiting before the first check so that a release or abort racing with it can't be missed)
+        boolean isAcquired = false;
+        this.waitingThreads.put(task.getIndex(), Thread.currentThread());
+        while (true) {
+            synchronized (resource) {
+                boolean mustWait = (resource.isOwned() || !resource.isNextOwner(task)) && task != resource.getOwnedBy();
+                if (task.inAbortState()) {
+                    break;
+                } else if (!mustWait) {
+                    resource.setOwner(task);
+                    isAcquired = true;
+                    break;
                 }
             }
+            LockSupport.park(this);
+        }
+        this.waitingThreads.remove(task.getIndex());
 
-            if (!task.inAbortState()) {
-                if (DEBUG) {
-                    endTime = System.nanoTime();
-                    System.out.println("Acquire " + task.getIndex() + " " + resource.toString()
-                            + " waitingTime " + (endTime - startTime)/1000 + " \u00B5s");
-                }
-                resource.setOwner(task);
-                recordOwnership(resource, task);
-            }else{
-                if (DEBUG) {
-                    endTime = System.nanoTime();
-                    System.out.println("Abort   " + task.getIndex() + " " + resource.toString()
-                            + " waitingTime " + (endTime - startTime)/1000 + " \u00B5s");
-                }
+        if (null != this.metrics) {
+            this.metrics.recordAcquireWait(addressWrapper, System.nanoTime() - startTime);
+        }
+        if (isAcquired) {
+            if (DEBUG) {
+                endTime = System.nanoTime();
+                System.out.println("Acquire " + task.getIndex() + " " + resource.toString()
+                        + " waitingTime " + (endTime - startTime)/1000 + " \u00B5s");
+            }
+            recordOwnership(resource, task);
+        }else{
+            if (DEBUG) {
+                endTime = System.nanoTime();
+                System.out.println("Abort   " + task.getIndex() + " " + resource.toString()
+                        + " waitingTime " + (endTime - startTime)/1000 + " \u00B5s");
             }
-
-            if (DEBUG) System.out.flush();
         }
+
+        if (DEBUG) System.out.flush();
     }
 
     /**
      * Release all resource holding by given task.
      * Called by executor thread when the task finished/need restart.
+     * Each released resource is handed over to its next owner, by waking it.
      *
      * This method will not block.
      *
      * @param task The requesting task.
      */
     private void releaseResourcesForTask(TransactionTask task){
-        RuntimeAssertionError.assertTrue(Thread.holdsLock(sync));
-
         Set<AddressResource> toRemove = ownerships.remove(task);
         if (null != toRemove) {
             for (AddressResource resource : toRemove) {
-                resource.removeFromWaitingQueue(task);
-                if (task == resource.getOwnedBy()) {
-                    resource.setOwner(null);
+                TransactionTask nextOwner;
+                synchronized (resource) {
+                    resource.removeFromWaitingQueue(task);
+                    if (task == resource.getOwnedBy()) {
+                        resource.setOwner(null);
+                    }
+                    nextOwner = resource.getNextOwner();
                 }
                 if (DEBUG) {
-                    int nextOwner = null != resource.getNextOwner() ? resource.getNextOwner().getIndex() : -1;
-                    System.out.println("Release " + task.getIndex() + " " + resource.toString() + " nextOwner " + nextOwner);
+                    int nextOwnerIndex = null != nextOwner ? nextOwner.getIndex() : -1;
+                    System.out.println("Release " + task.getIndex() + " " + resource.toString() + " nextOwner " + nextOwnerIndex);
+                }
+                if (null != nextOwner) {
+                    wakeTask(nextOwner.getIndex());
                 }
             }
         }
@@ -157,48 +195,45 @@ public class AddressResourceMonitor {
     public boolean commitKernelForTask(TransactionTask task, boolean isRejected){
         boolean ret = false;
 
-        synchronized (sync){
-
-            while (this.commitCounter != task.getIndex() && !task.inAbortState()){
-                try {
-                    sync.wait();
-                }catch (InterruptedException e){
-                    RuntimeAssertionError.unreachable("Waiting executor thread received interruption: COMMIT");
-                }
-            }
+        long startTime = (null != this.metrics) ? System.nanoTime() : 0L;
+        this.waitingThreads.put(task.getIndex(), Thread.currentThread());
+        while (this.commitCounter != task.getIndex() && !task.inAbortState()){
+            LockSupport.park(this);
+        }
+        this.waitingThreads.remove(task.getIndex());
+        if (null != this.metrics) {
+            this.metrics.recordCommitWait(System.nanoTime() - startTime);
+        }
 
-            if (!task.inAbortState()){
-                if (!isRejected) {
-                    task.getThisTransactionalKernel().commit();
-                    task.outputFlush();
-                }
-                this.commitCounter++;
-                ret = true;
+        // Once it is our turn, every lower task has committed so nothing can set our abort state anymore.
+        if (!task.inAbortState()){
+            if (!isRejected) {
+                task.getThisTransactionalKernel().commit();
+                task.outputFlush();
             }
+            ret = true;
+        }
 
-            releaseResourcesForTask(task);
+        releaseResourcesForTask(task);
 
-            // Only wake up others when all resources are released
-            sync.notifyAll();
+        // Only hand the commit ticket to the next task when all resources are released
+        if (ret) {
+            this.commitCounter = task.getIndex() + 1;
+            wakeTask(task.getIndex() + 1);
         }
 
         return ret;
     }
 
-    private AddressResource getResource(AddressWrapper addr){
-        RuntimeAssertionError.assertTrue(Thread.holdsLock(sync));
-
-        AddressResource ret = resources.get(addr);
-        if (null == ret){
-            ret = new AddressResource();
-            resources.put(addr, ret);
+    private void wakeTask(int index) {
+        // (a task which isn't blocked yet will see the change when it next checks, so it is fine to miss it here)
+        Thread thread = this.waitingThreads.get(index);
+        if (null != thread) {
+            LockSupport.unpark(thread);
         }
-        return ret;
     }
 
     private void recordOwnership(AddressResource res, TransactionTask task){
-        RuntimeAssertionError.assertTrue(Thread.holdsLock(sync));
-
         Set<AddressResource> entry = ownerships.get(task);
         if (null == entry){
             entry = new HashSet<>();
@@ -208,10 +243,6 @@ public class AddressResourceMonitor {
     }
 
     void testReleaseResourcesForTask(TransactionTask task){
-        synchronized (sync) {
-            releaseResourcesForTask(task);
-            sync.notifyAll();
-        }
+        releaseResourcesForTask(task);
     }
 }
-
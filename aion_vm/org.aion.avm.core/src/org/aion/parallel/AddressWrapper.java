@@ -1,5 +1,7 @@
 package org.aion.parallel;
 
+import java.util.Arrays;
+
 /**
  * A package private class wraps address byte array.
  *
@@ -13,13 +15,14 @@ class AddressWrapper {
         this.addr = addr;
     }
 
+    byte[] getBytes() {
+        return this.addr;
+    }
+
     @Override
     public int hashCode() {
-        int code = 0;
-        for (byte elt : this.addr) {
-            code += (int)elt;
-        }
-        return code;
+        // (summing the bytes made most addresses collide, which serialized the concurrent resource map on a few bins)
+        return Arrays.hashCode(this.addr);
     }
 
     @Override
@@ -0,0 +1,108 @@
+package org.aion.parallel;
+
+import java.util.List;
+
+/**
+ * A snapshot of the concurrency metrics of a single batch of transactions, as collected by {@link ExecutorMetrics}.
+ */
+public class BatchMetrics {
+    private final int[] abortsPerTask;
+    private final long wallNanos;
+    private final long busyNanos;
+    private final int threadCount;
+    private final long totalCommitWaitNanos;
+    private final long[] commitWaitHistogram;
+    private final List<AddressContention> addressContention;
+    private final long[] graphBytesPerTask;
+
+    public BatchMetrics(int[] abortsPerTask, long wallNanos, long busyNanos, int threadCount, long totalCommitWaitNanos, long[] commitWaitHistogram, List<AddressContention> addressContention, long[] graphBytesPerTask) {
+        this.abortsPerTask = abortsPerTask;
+        this.wallNanos = wallNanos;
+        this.busyNanos = busyNanos;
+        this.threadCount = threadCount;
+        this.totalCommitWaitNanos = totalCommitWaitNanos;
+        this.commitWaitHistogram = commitWaitHistogram;
+        this.addressContention = addressContention;
+        this.graphBytesPerTask = graphBytesPerTask;
+    }
+
+    public int getTransactionCount() {
+        return this.abortsPerTask.length;
+    }
+
+    /**
+     * @return The number of times each transaction of the batch was aborted and restarted, by index.
+     */
+    public int[] getAbortsPerTask() {
+        return this.abortsPerTask.clone();
+    }
+
+    public long getTotalAborts() {
+        long total = 0L;
+        for (int aborts : this.abortsPerTask) {
+            total += aborts;
+        }
+        return total;
+    }
+
+    /**
+     * @return The bytes allocated to serialize the graphs of each transaction of the batch (growing the graph buffer of the thread
+     * running it and copying out the serialized graphs), by index.
+     */
+    public long[] getGraphBytesPerTask() {
+        return this.graphBytesPerTask.clone();
+    }
+
+    public long getTotalGraphBytes() {
+        long total = 0L;
+        for (long bytes : this.graphBytesPerTask) {
+            total += bytes;
+        }
+        return total;
+    }
+
+    /**
+     * @return The time from the batch being submitted to its last transaction completing.
+     */
+    public long getWallNanos() {
+        return this.wallNanos;
+    }
+
+    /**
+     * @return The fraction of the executor threads' time, during the batch, spent running transactions (including the ones aborted).
+     */
+    public double getThreadUtilization() {
+        return (0L == this.wallNanos)
+                ? 0.0
+                : (double) this.busyNanos / ((double) this.wallNanos * this.threadCount);
+    }
+
+    /**
+     * @return The total time transactions spent waiting for their turn to commit (or to be aborted while waiting).
+     */
+    public long getTotalCommitWaitNanos() {
+        return this.totalCommitWaitNanos;
+    }
+
+    /**
+     * @return The commit wait times (see {@link WaitTimeHistogram} for the buckets).
+     */
+    public long[] getCommitWaitHistogram() {
+        return this.commitWaitHistogram.clone();
+    }
+
+    /**
+     * @return The contention of every address acquired in the batch, most contended (longest total wait) first.
+     */
+    public List<AddressContention> getAddressContention() {
+        return this.addressContention;
+    }
+
+    /**
+     * @param count The maximum number of addresses to return.
+     * @return The most contended addresses of the batch (longest total wait first).
+     */
+    public List<AddressContention> getHotAddresses(int count) {
+        return this.addressContention.subList(0, Math.min(count, this.addressContention.size()));
+    }
+}
@@ -0,0 +1,136 @@
+package org.aion.parallel;
+
+import org.aion.avm.core.AvmTransaction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Decides which tasks of a batch are ready to be handed out to the executor threads.
+ *
+ * Without conflict tracking, every task is ready immediately and they are handed out in index order (as they always have been).
+ * With conflict tracking, a task only becomes ready once every earlier task with the same sender or destination address has
+ * completed:  such tasks would otherwise run concurrently, only for the later one to be aborted and restarted when the earlier
+ * one acquires their shared address.  Ready tasks are still handed out lowest index first, so the lowest uncommitted task is
+ * always either running or ready, which means this can't deadlock the in-order commit.
+ *
+ * Note that only the addresses known before execution are considered:  conflicts introduced by internal calls are still resolved
+ * at runtime, by the {@link AddressResourceMonitor}.
+ *
+ * This class is not thread-safe:  it is expected to be used under the lock of the hand-off which owns it.
+ */
+public class ConflictScheduler {
+    // Per task index:  the later tasks which depend on it and the number of dependencies not yet completed.
+    private final List<List<TransactionTask>> dependents;
+    private final int[] pendingDependencies;
+
+    private final PriorityQueue<TransactionTask> readyTasks;
+
+    /**
+     * Creates a scheduler which hands out every task in index order, without considering conflicts.
+     *
+     * @param tasks The batch of tasks, where each task's index is its position in the array.
+     * @return The new scheduler.
+     */
+    public static ConflictScheduler inOrder(TransactionTask[] tasks) {
+        return new ConflictScheduler(tasks, false);
+    }
+
+    /**
+     * Creates a scheduler which holds back each task until the earlier tasks sharing its sender or destination have completed.
+     *
+     * @param tasks The batch of tasks, where each task's index is its position in the array.
+     * @return The new scheduler.
+     */
+    public static ConflictScheduler byConflicts(TransactionTask[] tasks) {
+        return new ConflictScheduler(tasks, true);
+    }
+
+    private ConflictScheduler(TransactionTask[] tasks, boolean trackConflicts) {
+        this.dependents = new ArrayList<>(tasks.length);
+        this.pendingDependencies = new int[tasks.length];
+        this.readyTasks = new PriorityQueue<>();
+
+        // The last task seen for each address:  this is enough since that task depends, in turn, on the ones before it.
+        Map<AddressWrapper, TransactionTask> lastTaskByAddress = new HashMap<>();
+        for (TransactionTask task : tasks) {
+            this.dependents.add(null);
+            if (trackConflicts) {
+                AvmTransaction tx = task.getTransaction();
+                TransactionTask senderDependency = lastTaskByAddress.put(new AddressWrapper(tx.senderAddress.toBytes()), task);
+                TransactionTask destinationDependency = lastTaskByAddress.put(new AddressWrapper(tx.destinationAddress.toBytes()), task);
+                addDependency(senderDependency, task);
+                if (destinationDependency != senderDependency) {
+                    addDependency(destinationDependency, task);
+                }
+            }
+            if (0 == this.pendingDependencies[task.getIndex()]) {
+                this.readyTasks.add(task);
+            }
+        }
+    }
+
+    /**
+     * @return True if there is a task ready to be handed out.
+     */
+    public boolean hasReadyTask() {
+        return !this.readyTasks.isEmpty();
+    }
+
+    /**
+     * @return The lowest-index task which is ready, or null if none are ready.
+     */
+    public TransactionTask pollReadyTask() {
+        return this.readyTasks.poll();
+    }
+
+    /**
+     * Records that the given task has completed (committed or been rejected), releasing the tasks which were waiting on it.
+     *
+     * @param task The completed task.
+     */
+    public void markCompleted(TransactionTask task) {
+        List<TransactionTask> waiting = this.dependents.get(task.getIndex());
+        if (null != waiting) {
+            for (TransactionTask dependent : waiting) {
+                this.pendingDependencies[dependent.getIndex()] -= 1;
+                if (0 == this.pendingDependencies[dependent.getIndex()]) {
+                    this.readyTasks.add(dependent);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param index The index of a task in the batch.
+     * @return The number of earlier tasks sharing an address with it which have not yet been marked completed.
+     */
+    public int getPendingDependencyCount(int index) {
+        return this.pendingDependencies[index];
+    }
+
+    /**
+     * @param index The index of a task in the batch.
+     * @return The later tasks sharing an address with it, which are waiting on it to complete (empty if there are none).
+     */
+    public List<TransactionTask> getDependents(int index) {
+        List<TransactionTask> waiting = this.dependents.get(index);
+        return (null != waiting)
+                ? Collections.unmodifiableList(waiting)
+                : Collections.emptyList();
+    }
+
+    private void addDependency(TransactionTask dependency, TransactionTask task) {
+        if ((null != dependency) && (dependency != task)) {
+            if (null == this.dependents.get(dependency.getIndex())) {
+                this.dependents.set(dependency.getIndex(), new ArrayList<>());
+            }
+            this.dependents.get(dependency.getIndex()).add(task);
+            this.pendingDependencies[task.getIndex()] += 1;
+        }
+    }
+}
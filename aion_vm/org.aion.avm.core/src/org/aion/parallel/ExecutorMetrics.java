@@ -0,0 +1,211 @@
+package org.aion.parallel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the concurrency metrics of the parallel executor:  aborts per transaction, acquire wait times per address, commit wait
+ * times, thread utilization and the bytes allocated to serialize graphs, per transaction.
+ * The metrics of each batch are collected as it runs and published, as a {@link BatchMetrics} snapshot, once its last transaction
+ * completes.
+ *
+ * This is only created when enabled in the AvmConfiguration:  otherwise, the executor holds null and measures nothing.
+ */
+public class ExecutorMetrics implements ExecutorMetricsMXBean {
+    public static final String OBJECT_NAME = "org.aion.avm:type=ExecutorMetrics";
+    private static final int HOT_ADDRESS_COUNT = 10;
+
+    private final int threadCount;
+
+    private final LongAdder batchCount;
+    private final LongAdder transactionCount;
+    private final LongAdder abortCount;
+
+    // The batch being collected (written by the external thread, then only read) and the last one completed.
+    private volatile BatchCounters currentBatch;
+    private volatile BatchMetrics lastBatch;
+
+    public ExecutorMetrics(int threadCount) {
+        this.threadCount = threadCount;
+        this.batchCount = new LongAdder();
+        this.transactionCount = new LongAdder();
+        this.abortCount = new LongAdder();
+    }
+
+    /**
+     * Called by the external thread, before handing a new batch to the executor threads.
+     *
+     * @param transactionCount The number of transactions in the batch.
+     */
+    public void startBatch(int transactionCount) {
+        this.currentBatch = new BatchCounters(transactionCount);
+    }
+
+    public void recordAbort(int taskIndex) {
+        this.currentBatch.aborts.incrementAndGet(taskIndex);
+        this.abortCount.increment();
+    }
+
+    void recordAcquireWait(AddressWrapper address, long nanos) {
+        AddressCounters counters = this.currentBatch.addresses.computeIfAbsent(address, (ignored) -> new AddressCounters());
+        counters.acquireCount.increment();
+        counters.totalWaitNanos.add(nanos);
+        counters.waitHistogram.record(nanos);
+    }
+
+    void recordCommitWait(long nanos) {
+        this.currentBatch.totalCommitWaitNanos.add(nanos);
+        this.currentBatch.commitWaitHistogram.record(nanos);
+    }
+
+    /**
+     * Called by an executor thread once it is done with a transaction (before handing back its result).
+     *
+     * @param taskIndex The index of the transaction in its batch.
+     * @param busyNanos The time the thread spent running the transaction, including any aborted attempts.
+     * @param graphBytes The bytes allocated to serialize the transaction's graphs, including any aborted attempts.
+     */
+    public void recordTaskCompleted(int taskIndex, long busyNanos, long graphBytes) {
+        BatchCounters batch = this.currentBatch;
+        batch.busyNanos.add(busyNanos);
+        batch.graphBytes.set(taskIndex, graphBytes);
+        if (batch.size == batch.completed.incrementAndGet()) {
+            // We were the last one so publish the batch.
+            this.lastBatch = batch.snapshot(System.nanoTime(), this.threadCount);
+            this.batchCount.increment();
+            this.transactionCount.add(batch.size);
+        }
+    }
+
+    /**
+     * @return The metrics of the last batch which completed, or null if none has.
+     */
+    public BatchMetrics getLastBatch() {
+        return this.lastBatch;
+    }
+
+    @Override
+    public long getBatchCount() {
+        return this.batchCount.sum();
+    }
+
+    @Override
+    public long getTransactionCount() {
+        return this.transactionCount.sum();
+    }
+
+    @Override
+    public long getAbortCount() {
+        return this.abortCount.sum();
+    }
+
+    @Override
+    public int getLastBatchTransactionCount() {
+        BatchMetrics batch = this.lastBatch;
+        return (null != batch) ? batch.getTransactionCount() : 0;
+    }
+
+    @Override
+    public long getLastBatchAborts() {
+        BatchMetrics batch = this.lastBatch;
+        return (null != batch) ? batch.getTotalAborts() : 0L;
+    }
+
+    @Override
+    public long getLastBatchWallNanos() {
+        BatchMetrics batch = this.lastBatch;
+        return (null != batch) ? batch.getWallNanos() : 0L;
+    }
+
+    @Override
+    public double getLastBatchThreadUtilization() {
+        BatchMetrics batch = this.lastBatch;
+        return (null != batch) ? batch.getThreadUtilization() : 0.0;
+    }
+
+    @Override
+    public long getLastBatchCommitWaitNanos() {
+        BatchMetrics batch = this.lastBatch;
+        return (null != batch) ? batch.getTotalCommitWaitNanos() : 0L;
+    }
+
+    @Override
+    public long[] getLastBatchCommitWaitHistogram() {
+        BatchMetrics batch = this.lastBatch;
+        return (null != batch) ? batch.getCommitWaitHistogram() : new long[WaitTimeHistogram.BUCKET_COUNT];
+    }
+
+    @Override
+    public long getLastBatchGraphBytes() {
+        BatchMetrics batch = this.lastBatch;
+        return (null != batch) ? batch.getTotalGraphBytes() : 0L;
+    }
+
+    @Override
+    public String[] getLastBatchHotAddresses() {
+        BatchMetrics batch = this.lastBatch;
+        if (null == batch) {
+            return new String[0];
+        }
+        List<AddressContention> hot = batch.getHotAddresses(HOT_ADDRESS_COUNT);
+        String[] descriptions = new String[hot.size()];
+        for (int i = 0; i < descriptions.length; ++i) {
+            descriptions[i] = hot.get(i).toString();
+        }
+        return descriptions;
+    }
+
+
+    private static class AddressCounters {
+        public final LongAdder acquireCount = new LongAdder();
+        public final LongAdder totalWaitNanos = new LongAdder();
+        public final WaitTimeHistogram waitHistogram = new WaitTimeHistogram();
+    }
+
+
+    private static class BatchCounters {
+        public final int size;
+        public final long startNanos;
+        public final AtomicIntegerArray aborts;
+        public final ConcurrentHashMap<AddressWrapper, AddressCounters> addresses;
+        public final LongAdder totalCommitWaitNanos;
+        public final WaitTimeHistogram commitWaitHistogram;
+        public final LongAdder busyNanos;
+        public final AtomicLongArray graphBytes;
+        public final AtomicInteger completed;
+
+        public BatchCounters(int size) {
+            this.size = size;
+            this.startNanos = System.nanoTime();
+            this.aborts = new AtomicIntegerArray(size);
+            this.addresses = new ConcurrentHashMap<>();
+            this.totalCommitWaitNanos = new LongAdder();
+            this.commitWaitHistogram = new WaitTimeHistogram();
+            this.busyNanos = new LongAdder();
+            this.graphBytes = new AtomicLongArray(size);
+            this.completed = new AtomicInteger();
+        }
+
+        public BatchMetrics snapshot(long endNanos, int threadCount) {
+            int[] abortsPerTask = new int[this.size];
+            long[] graphBytesPerTask = new long[this.size];
+            for (int i = 0; i < this.size; ++i) {
+                abortsPerTask[i] = this.aborts.get(i);
+                graphBytesPerTask[i] = this.graphBytes.get(i);
+            }
+            List<AddressContention> contention = new ArrayList<>(this.addresses.size());
+            for (Map.Entry<AddressWrapper, AddressCounters> entry : this.addresses.entrySet()) {
+                AddressCounters counters = entry.getValue();
+                contention.add(new AddressContention(entry.getKey().getBytes(), counters.acquireCount.sum(), counters.totalWaitNanos.sum(), counters.waitHistogram.toArray()));
+            }
+            contention.sort((one, two) -> Long.compare(two.getTotalWaitNanos(), one.getTotalWaitNanos()));
+            return new BatchMetrics(abortsPerTask, endNanos - this.startNanos, this.busyNanos.sum(), threadCount, this.totalCommitWaitNanos.sum(), this.commitWaitHistogram.toArray(), contention, graphBytesPerTask);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.aion.parallel;
+
+/**
+ * The JMX view of {@link ExecutorMetrics}:  totals since the AVM started and a summary of the last completed batch.
+ */
+public interface ExecutorMetricsMXBean {
+    long getBatchCount();
+
+    long getTransactionCount();
+
+    long getAbortCount();
+
+    int getLastBatchTransactionCount();
+
+    long getLastBatchAborts();
+
+    long getLastBatchWallNanos();
+
+    double getLastBatchThreadUtilization();
+
+    long getLastBatchCommitWaitNanos();
+
+    long[] getLastBatchCommitWaitHistogram();
+
+    long getLastBatchGraphBytes();
+
+    String[] getLastBatchHotAddresses();
+}
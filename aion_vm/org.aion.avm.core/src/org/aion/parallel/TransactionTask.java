@@ -5,6 +5,7 @@ import java.util.Stack;
 
 import org.aion.avm.core.AvmTransaction;
 import org.aion.avm.core.ReentrantDAppStack;
+import org.aion.avm.core.persistence.GraphBuffer;
 import org.aion.avm.core.util.Helpers;
 import org.aion.avm.internal.IInstrumentation;
 import org.aion.avm.internal.RuntimeAssertionError;
@@ -21,6 +22,7 @@ public class TransactionTask implements Comparable<TransactionTask>{
     private AvmTransaction externalTransaction;
     private volatile boolean abortState;
     private IInstrumentation threadOwningTask;
+    private GraphBuffer graphBuffer;
     private ReentrantDAppStack reentrantDAppStack;
     private int index;
     private StringBuffer outBuffer;
@@ -59,7 +61,7 @@ public class TransactionTask implements Comparable<TransactionTask>{
      */
     public void attachInstrumentationForThread() {
         RuntimeAssertionError.assertTrue(null == this.threadOwningTask);
-        this.threadOwningTask = IInstrumentation.attachedThreadInstrumentation.get();
+        this.threadOwningTask = IInstrumentation.getCurrentThreadInstrumentation();
         RuntimeAssertionError.assertTrue(null != this.threadOwningTask);
         if (this.abortState){
             threadOwningTask.setAbortState();
@@ -67,10 +69,34 @@ public class TransactionTask implements Comparable<TransactionTask>{
     }
 
     public void detachInstrumentationForThread() {
-        RuntimeAssertionError.assertTrue(IInstrumentation.attachedThreadInstrumentation.get() == this.threadOwningTask);
+        RuntimeAssertionError.assertTrue(IInstrumentation.getCurrentThreadInstrumentation() == this.threadOwningTask);
         this.threadOwningTask = null;
     }
 
+    /**
+     * Lends the executor thread's reusable graph buffer to the current task, while the thread is running it.
+     *
+     * @param graphBuffer The buffer owned by the executor thread.
+     */
+    public void attachGraphBufferForThread(GraphBuffer graphBuffer) {
+        RuntimeAssertionError.assertTrue(null == this.graphBuffer);
+        this.graphBuffer = graphBuffer;
+    }
+
+    public void detachGraphBufferForThread() {
+        RuntimeAssertionError.assertTrue(null != this.graphBuffer);
+        this.graphBuffer = null;
+    }
+
+    /**
+     * Get the buffer the current task should use to serialize graphs.
+     *
+     * @return The graph buffer of the thread running the task.
+     */
+    public GraphBuffer getGraphBuffer() {
+        return this.graphBuffer;
+    }
+
     /**
      * Set the current task state to require abort.
      * If a helper is already attached to this task, set the helper abort state as well.
@@ -0,0 +1,45 @@
+package org.aion.parallel;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe histogram of wait times, with power-of-two microsecond buckets:  bucket 0 counts the waits shorter than 1 us and
+ * bucket i counts those in [2^(i-1), 2^i) us (the last bucket also counts everything longer).
+ */
+public class WaitTimeHistogram {
+    public static final int BUCKET_COUNT = 32;
+
+    private final AtomicLongArray buckets;
+
+    public WaitTimeHistogram() {
+        this.buckets = new AtomicLongArray(BUCKET_COUNT);
+    }
+
+    /**
+     * @param nanos The duration of a wait, in nanoseconds.
+     */
+    public void record(long nanos) {
+        this.buckets.incrementAndGet(bucketFor(nanos));
+    }
+
+    /**
+     * @return A copy of the bucket counts.
+     */
+    public long[] toArray() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            copy[i] = this.buckets.get(i);
+        }
+        return copy;
+    }
+
+    /**
+     * @param nanos A duration, in nanoseconds.
+     * @return The index of the bucket counting this duration.
+     */
+    public static int bucketFor(long nanos) {
+        long micros = nanos / 1_000L;
+        int bucket = 64 - Long.numberOfLeadingZeros(micros);
+        return Math.min(bucket, BUCKET_COUNT - 1);
+    }
+}
@@ -6,8 +6,10 @@ import avm.Address;
 import org.aion.avm.core.blockchainruntime.EmptyCapabilities;
 import org.aion.avm.core.classloading.AvmClassLoader;
 import org.aion.avm.core.dappreading.JarBuilder;
+import org.aion.avm.core.types.ImmortalDappModule;
 import org.aion.avm.core.types.RawDappModule;
 import org.aion.avm.core.util.ABIUtil;
+import org.aion.avm.core.util.CacheStatistics;
 import org.aion.avm.core.util.CodeAndArguments;
 import org.aion.avm.core.util.Helpers;
 import org.aion.avm.internal.AvmThrowable;
@@ -40,6 +42,7 @@ import java.util.Map;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -263,11 +266,24 @@ public class AvmImplTest {
 
     @Test
     public void testHelperStateRestore() {
+        // The graph of this DApp is 114 bytes, in the legacy format.
+        verifyHelperStateRestore(new AvmConfiguration(), 342, 114);
+    }
+
+    @Test
+    public void testHelperStateRestoreWithDictionaryGraphFormat() {
+        // The same graph is only 77 bytes in the dictionary format, so reading and writing it costs less.
+        AvmConfiguration config = new AvmConfiguration();
+        config.enableDictionaryGraphFormat = true;
+        verifyHelperStateRestore(config, 231, 77);
+    }
+
+    private void verifyHelperStateRestore(AvmConfiguration config, long graphWriteCost, long graphReadCost) {
         byte[] jar = JarBuilder.buildJarForMainAndClasses(AvmImplTestResource.class);
         byte[] arguments = new byte[0];
         byte[] txData = new CodeAndArguments(jar, arguments).encodeToBytes();
         TestingKernel kernel = new TestingKernel(block);
-        AvmImpl avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), new AvmConfiguration());
+        AvmImpl avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), config);
 
         // deploy
         long energyLimit = 1_000_000l;
@@ -282,7 +298,7 @@ public class AvmImplTest {
         long basicCost = BillingRules.getBasicTransactionCost(txData);
         long codeInstantiationOfDeploymentFee = BillingRules.getDeploymentFee(1, jar.length);
         long clinitCost = 91l;
-        long initialStorageCost = 342;
+        long initialStorageCost = graphWriteCost;
         long transactionCost = basicCost + codeInstantiationOfDeploymentFee + clinitCost + initialStorageCost;
         assertEquals(transactionCost, ((AvmTransactionResult) result1).getEnergyUsed());
         assertEquals(energyLimit - transactionCost, result1.getEnergyRemaining());
@@ -298,8 +314,8 @@ public class AvmImplTest {
         long costOfBlocks = 51l + 31l + 326l;
         //reentrant call cost including code block cost
         long costOfRuntimeCall = 51l + 31l + 66l + (100 + 630);
-        // All persistence load/store cost (note that this is a reentrant call): (2 reads at 114, 2 writes at 342)
-        long runStorageCost = 114 + 114 + 342 + 342;
+        // All persistence load/store cost (note that this is a reentrant call): (2 reads and 2 writes)
+        long runStorageCost = graphReadCost + graphReadCost + graphWriteCost + graphWriteCost;
         // runtime cost of the initial call
         long runtimeCost = 100 + 100 + 600 + 100 + 100 + 100 + 620;
         transactionCost = runtimeCost + tx2.getTransactionCost() + costOfBlocks + costOfRuntimeCall + runStorageCost;
@@ -326,6 +342,138 @@ public class AvmImplTest {
         avm.shutdown();
     }
 
+    @Test
+    public void testDAppCacheBoundsAndInvalidation() {
+        byte[] jar = JarBuilder.buildJarForMainAndClassesAndUserlib(ReentrantCrossCallResource.class);
+        byte[] txData = new CodeAndArguments(jar, new byte[0]).encodeToBytes();
+        TestingKernel kernel = new TestingKernel(block);
+        AvmConfiguration config = new AvmConfiguration();
+        config.dappCacheMaxEntries = 1;
+        AvmImpl avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), config);
+        Address first = createDApp(kernel, avm, txData);
+        Address second = createDApp(kernel, avm, txData);
+        byte[] argData = ABIUtil.encodeMethodArguments("callSelfForNull");
+
+        // The first call loads the DApp and the second finds it in the cache.
+        callDApp(kernel, avm, first, argData);
+        callDApp(kernel, avm, first, argData);
+        CacheStatistics stats = avm.getDAppCacheStatistics();
+        assertEquals(1L, stats.getMisses());
+        assertEquals(1L, stats.getHits());
+        assertEquals(1, stats.getEntryCount());
+        assertTrue(stats.getTotalBytes() > 0L);
+
+        // Calling the second DApp evicts the first, since only 1 entry is allowed, so the first must be loaded again.
+        callDApp(kernel, avm, second, argData);
+        callDApp(kernel, avm, first, argData);
+        stats = avm.getDAppCacheStatistics();
+        assertEquals(3L, stats.getMisses());
+        assertEquals(2L, stats.getEvictions());
+        assertEquals(1, stats.getEntryCount());
+
+        // Once the code is gone, the cached DApp is invalidated (and the call becomes a plain transfer).
+        kernel.setTransformedCode(org.aion.types.Address.wrap(first.unwrap()), null);
+        Transaction tx = Transaction.call(deployer, org.aion.types.Address.wrap(first.unwrap()), kernel.getNonce(deployer), BigInteger.ZERO, argData, 5_000_000L, 1L);
+        assertEquals(AvmTransactionResult.Code.SUCCESS, avm.run(kernel, new Transaction[] {tx})[0].get().getResultCode());
+        stats = avm.getDAppCacheStatistics();
+        assertEquals(1L, stats.getInvalidations());
+        assertEquals(0, stats.getEntryCount());
+        avm.shutdown();
+    }
+
+    @Test
+    public void testPrewarmDApp() {
+        byte[] jar = JarBuilder.buildJarForMainAndClassesAndUserlib(ReentrantCrossCallResource.class);
+        byte[] txData = new CodeAndArguments(jar, new byte[0]).encodeToBytes();
+        TestingKernel kernel = new TestingKernel(block);
+        AvmImpl avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), new AvmConfiguration());
+        Address contractAddr = createDApp(kernel, avm, txData);
+
+        // Loading 2 instances up-front means that the next call finds one ready.
+        avm.prewarmDApp(kernel, org.aion.types.Address.wrap(contractAddr.unwrap()), 2);
+        assertEquals(2, avm.getDAppCacheStatistics().getEntryCount());
+        callDApp(kernel, avm, contractAddr, ABIUtil.encodeMethodArguments("callSelfForNull"));
+        CacheStatistics stats = avm.getDAppCacheStatistics();
+        assertEquals(1L, stats.getHits());
+        assertEquals(0L, stats.getMisses());
+        assertEquals(2, stats.getEntryCount());
+        avm.shutdown();
+    }
+
+    @Test
+    public void testTransformedCodeCache() {
+        byte[] jar = JarBuilder.buildJarForMainAndClassesAndUserlib(ReentrantCrossCallResource.class);
+        byte[] txData = new CodeAndArguments(jar, new byte[0]).encodeToBytes();
+        TestingKernel kernel = new TestingKernel(block);
+        AvmImpl avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), new AvmConfiguration());
+
+        // Deploying the same JAR again finds its transformed code in the cache, and costs the same.
+        TransactionResult first = createDAppCanFail(kernel, avm, txData);
+        TransactionResult second = createDAppCanFail(kernel, avm, txData);
+        assertEquals(AvmTransactionResult.Code.SUCCESS, second.getResultCode());
+        assertEquals(((AvmTransactionResult) first).getEnergyUsed(), ((AvmTransactionResult) second).getEnergyUsed());
+        assertArrayEquals(kernel.getTransformedCode(org.aion.types.Address.wrap(first.getReturnData())), kernel.getTransformedCode(org.aion.types.Address.wrap(second.getReturnData())));
+        CacheStatistics stats = avm.getTransformedCodeCacheStatistics();
+        assertEquals(1L, stats.getMisses());
+        assertEquals(1L, stats.getHits());
+        assertEquals(1, stats.getEntryCount());
+
+        // Both DApps work.
+        assertNull(callDApp(kernel, avm, new Address(first.getReturnData()), ABIUtil.encodeMethodArguments("callSelfForNull")));
+        assertNull(callDApp(kernel, avm, new Address(second.getReturnData()), ABIUtil.encodeMethodArguments("callSelfForNull")));
+        avm.shutdown();
+    }
+
+    @Test
+    public void testTransformedCodeCacheDirectory() throws IOException {
+        byte[] jar = JarBuilder.buildJarForMainAndClassesAndUserlib(ReentrantCrossCallResource.class);
+        byte[] txData = new CodeAndArguments(jar, new byte[0]).encodeToBytes();
+        File directory = folder.newFolder();
+        AvmConfiguration config = new AvmConfiguration();
+        config.transformedCodeCacheDirectory = directory;
+
+        TestingKernel kernel = new TestingKernel(block);
+        AvmImpl avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), config);
+        TransactionResult first = createDAppCanFail(kernel, avm, txData);
+        avm.shutdown();
+        assertEquals(1, directory.list().length);
+
+        // A new AVM instance (with an empty in-memory cache) reads the transformed code back from the directory.
+        avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), config);
+        TransactionResult second = createDAppCanFail(kernel, avm, txData);
+        assertEquals(AvmTransactionResult.Code.SUCCESS, second.getResultCode());
+        assertEquals(((AvmTransactionResult) first).getEnergyUsed(), ((AvmTransactionResult) second).getEnergyUsed());
+        assertArrayEquals(kernel.getTransformedCode(org.aion.types.Address.wrap(first.getReturnData())), kernel.getTransformedCode(org.aion.types.Address.wrap(second.getReturnData())));
+        assertEquals(1, avm.getTransformedCodeCacheStatistics().getEntryCount());
+        assertNull(callDApp(kernel, avm, new Address(second.getReturnData()), ABIUtil.encodeMethodArguments("callSelfForNull")));
+        avm.shutdown();
+    }
+
+    @Test
+    public void testCompactCodeFormat() {
+        byte[] jar = JarBuilder.buildJarForMainAndClassesAndUserlib(ReentrantCrossCallResource.class);
+        byte[] txData = new CodeAndArguments(jar, new byte[0]).encodeToBytes();
+        TestingKernel kernel = new TestingKernel(block);
+
+        // By default, new DApps are still stored as JARs.
+        AvmImpl avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), new AvmConfiguration());
+        Address jarDApp = createDApp(kernel, avm, txData);
+        avm.shutdown();
+        assertFalse(ImmortalDappModule.isCompact(kernel.getTransformedCode(org.aion.types.Address.wrap(jarDApp.unwrap()))));
+
+        // Once enabled, they are stored in the compact format.
+        AvmConfiguration config = new AvmConfiguration();
+        config.enableCompactCodeFormat = true;
+        avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), config);
+        Address compactDApp = createDApp(kernel, avm, txData);
+        assertTrue(ImmortalDappModule.isCompact(kernel.getTransformedCode(org.aion.types.Address.wrap(compactDApp.unwrap()))));
+
+        // DApps stored in either format can be called.
+        assertNull(callDApp(kernel, avm, jarDApp, ABIUtil.encodeMethodArguments("callSelfForNull")));
+        assertNull(callDApp(kernel, avm, compactDApp, ABIUtil.encodeMethodArguments("callSelfForNull")));
+        avm.shutdown();
+    }
+
     @Test
     public void testRecursiveHashCode() {
         byte[] jar = JarBuilder.buildJarForMainAndClassesAndUserlib(ReentrantCrossCallResource.class);
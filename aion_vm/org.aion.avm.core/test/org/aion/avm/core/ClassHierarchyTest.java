@@ -12,6 +12,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import org.aion.avm.core.rejection.RejectedClassException;
 import org.aion.avm.core.types.ClassHierarchy;
 import org.aion.avm.core.types.ClassHierarchyBuilder;
 import org.aion.avm.core.types.ClassHierarchyVerifier;
@@ -261,6 +262,96 @@ public class ClassHierarchyTest {
         assertEquals(CommonType.I_OBJECT.dotName, hierarchy.getTightestCommonSuperClass("G", "H"));
     }
 
+    /**
+     * Queries only read the hierarchy, so several threads can query it at once.
+     */
+    @Test
+    public void testTightestSuperFromConcurrentQueries() throws Exception {
+        ClassHierarchy hierarchy = produceHierarchyForTightestSuperTests();
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 4; ++i) {
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int j = 0; j < 1_000; ++j) {
+                        assertEquals("A", hierarchy.getTightestCommonSuperClass("E", "F"));
+                        assertEquals(CommonType.I_OBJECT.dotName, hierarchy.getTightestCommonSuperClass("G", "H"));
+                    }
+                } catch (Throwable t) {
+                    failures.add(t);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty());
+    }
+
+    /**
+     * A DApp's hierarchy (the shadow JCL, array wrappers and exceptions, plus its user classes) is
+     * an overlay on the node's shared base, so it must answer exactly as a complete hierarchy would
+     * and adding its classes must not change the base.
+     */
+    @Test
+    public void testDAppHierarchyIsOverlayOnSharedBase() {
+        ClassInformation interface1 = ClassInformation.preRenameInfoFor(true, "int1", CommonType.JAVA_LANG_OBJECT.dotName, null);
+        ClassInformation class1 = ClassInformation.preRenameInfoFor(false, "class1", "java.lang.RuntimeException", new String[]{ interface1.dotName });
+        ClassInformation class2 = ClassInformation.preRenameInfoFor(false, "class2", "java.lang.Exception", null);
+        Set<ClassInformation> classes = new HashSet<>(toList(interface1, class1, class2));
+
+        ClassHierarchy base = NodeEnvironment.singleton.getSharedBaseClassHierarchy();
+        int baseSize = base.size();
+
+        ClassHierarchy overlay = new ClassHierarchyBuilder()
+            .addShadowJcl()
+            .addPreRenameUserDefinedClasses(classes, false)
+            .addHandwrittenArrayWrappers()
+            .addPostRenameJclExceptions()
+            .build();
+        ClassHierarchy complete = overlay.deepCopy();
+
+        // The base is untouched.
+        assertEquals(baseSize, base.size());
+        assertFalse(base.contains(PackageConstants.kUserDotPrefix + class1.dotName));
+
+        assertEquals(baseSize + 3, overlay.size());
+        assertEquals(complete.size(), overlay.size());
+        assertTrue(new ClassHierarchyVerifier().verifyHierarchy(complete).success);
+
+        String userClass1 = PackageConstants.kUserDotPrefix + class1.dotName;
+        String userClass2 = PackageConstants.kUserDotPrefix + class2.dotName;
+        String shadowException = PackageConstants.kShadowDotPrefix + "java.lang.Exception";
+        String shadowRuntimeException = PackageConstants.kShadowDotPrefix + "java.lang.RuntimeException";
+        assertEquals(shadowException, overlay.getTightestCommonSuperClass(userClass1, userClass2));
+        assertEquals(complete.getTightestCommonSuperClass(userClass1, userClass2), overlay.getTightestCommonSuperClass(userClass1, userClass2));
+        assertEquals(shadowRuntimeException, overlay.getTightestCommonSuperClass(userClass1, shadowRuntimeException));
+        assertEquals(shadowException, overlay.getTightestCommonSuperClass(shadowRuntimeException, shadowException));
+        // (and again, from the cache)
+        assertEquals(shadowException, overlay.getTightestCommonSuperClass(userClass1, userClass2));
+        assertTrue(overlay.postRenameTypeIsInterface(PackageConstants.kUserDotPrefix + interface1.dotName));
+    }
+
+    @Test
+    public void testOverlayWithMissingSuperClassFailsVerification() {
+        ClassInformation class1 = ClassInformation.preRenameInfoFor(false, "class1", "missing", null);
+
+        try {
+            new ClassHierarchyBuilder()
+                .addShadowJcl()
+                .addPreRenameUserDefinedClasses(new HashSet<>(toList(class1)), false)
+                .addHandwrittenArrayWrappers()
+                .addPostRenameJclExceptions()
+                .build();
+            fail();
+        } catch (RejectedClassException e) {
+            // Expected:  the missing class is a ghost.
+        }
+        assertFalse(NodeEnvironment.singleton.getSharedBaseClassHierarchy().contains(PackageConstants.kUserDotPrefix + class1.dotName));
+    }
+
     @Test
     public void testDeepCopy() {
         ClassInformation interface1 = ClassInformation.postRenameInfoFor(true, "int1", null, new String[]{ CommonType.I_OBJECT.dotName });
@@ -0,0 +1,48 @@
+package org.aion.avm.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aion.avm.core.rejection.RejectedClassException;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class ClassTransformationPoolTest {
+    @Test
+    public void testTransformAll() {
+        ClassTransformationPool pool = new ClassTransformationPool(4);
+        Map<String, byte[]> classes = new HashMap<>();
+        for (int i = 0; i < 20; ++i) {
+            classes.put("C" + i, new byte[i]);
+        }
+
+        Map<String, Integer> lengths = pool.transformAll(classes, (name, bytecode) -> bytecode.length);
+        Assert.assertEquals(classes.size(), lengths.size());
+        for (Map.Entry<String, byte[]> elt : classes.entrySet()) {
+            Assert.assertEquals(elt.getValue().length, lengths.get(elt.getKey()).intValue());
+        }
+    }
+
+    @Test
+    public void testFailureIsRethrownAsIs() {
+        ClassTransformationPool pool = new ClassTransformationPool(4);
+        Map<String, byte[]> classes = new HashMap<>();
+        for (int i = 0; i < 10; ++i) {
+            classes.put("C" + i, new byte[i]);
+        }
+
+        // Several classes fail but the one reported is always the first, in name order.
+        try {
+            pool.transformAll(classes, (name, bytecode) -> {
+                if (bytecode.length >= 5) {
+                    RejectedClassException.forbiddenMethodOverride(name);
+                }
+                return bytecode;
+            });
+            Assert.fail();
+        } catch (RejectedClassException e) {
+            Assert.assertTrue(e.getMessage().contains("C5"));
+        }
+    }
+}
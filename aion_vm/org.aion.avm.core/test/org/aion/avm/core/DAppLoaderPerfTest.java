@@ -0,0 +1,87 @@
+package org.aion.avm.core;
+
+import java.math.BigInteger;
+import java.util.Map;
+
+import org.aion.avm.core.blockchainruntime.EmptyCapabilities;
+import org.aion.avm.core.dappreading.JarBuilder;
+import org.aion.avm.core.persistence.LoadedDApp;
+import org.aion.avm.core.types.ImmortalDappModule;
+import org.aion.avm.core.util.CodeAndArguments;
+import org.aion.avm.core.util.Helpers;
+import org.aion.avm.userlib.AionList;
+import org.aion.avm.userlib.AionMap;
+import org.aion.avm.userlib.AionSet;
+import org.aion.kernel.AvmTransactionResult;
+import org.aion.kernel.Block;
+import org.aion.kernel.TestingKernel;
+import org.aion.kernel.Transaction;
+import org.aion.types.Address;
+import org.aion.vm.api.interfaces.TransactionResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * A basic performance test of loading a DApp from storage (the cold path taken when it isn't in the DApp cache).
+ * It reports the time of a full load and the time the per-load generation of the Helper and Blockchain classes used to take, before
+ * the NodeEnvironment started generating them once.
+ * Like BasicPerfTest, it can be run as a standard unit test but COUNT can be raised for more hands-on measurement.
+ */
+public class DAppLoaderPerfTest {
+    private final static int COUNT = 200;
+
+    @Test
+    public void testColdLoad() throws Exception {
+        byte[] transformedCode = deployAndGetTransformedCode();
+        ImmortalDappModule app = ImmortalDappModule.readFromStorage(transformedCode);
+
+        // Warm up both paths, since we are only interested in the steady state.
+        for (int i = 0; i < COUNT; ++i) {
+            Assert.assertNotNull(DAppLoader.loadFromGraph(transformedCode, false));
+            Helpers.mapIncludingHelperBytecode(app.classes, Helpers.loadDefaultHelperBytecode());
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < COUNT; ++i) {
+            LoadedDApp dapp = DAppLoader.loadFromGraph(transformedCode, false);
+            Assert.assertNotNull(dapp);
+        }
+        long loadNanos = (System.nanoTime() - start) / COUNT;
+
+        start = System.nanoTime();
+        for (int i = 0; i < COUNT; ++i) {
+            Map<String, byte[]> classes = Helpers.mapIncludingHelperBytecode(app.classes, Helpers.loadDefaultHelperBytecode());
+            Assert.assertNotNull(classes);
+        }
+        long generationNanos = (System.nanoTime() - start) / COUNT;
+
+        start = System.nanoTime();
+        for (int i = 0; i < COUNT; ++i) {
+            Map<String, byte[]> classes = NodeEnvironment.singleton.mapIncludingDAppSupportClasses(app.classes);
+            Assert.assertNotNull(classes);
+        }
+        long sharedNanos = (System.nanoTime() - start) / COUNT;
+
+        System.out.println("NANOS PER COLD LOAD: " + loadNanos);
+        System.out.println("NANOS PER SUPPORT CLASS MAP (generated per load): " + generationNanos);
+        System.out.println("NANOS PER SUPPORT CLASS MAP (shared): " + sharedNanos);
+    }
+
+    private static byte[] deployAndGetTransformedCode() {
+        Block block = new Block(new byte[32], 1, Helpers.randomAddress(), System.currentTimeMillis(), new byte[0]);
+        TestingKernel kernel = new TestingKernel(block);
+        AvmImpl avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), new AvmConfiguration());
+        byte[] jar = JarBuilder.buildJarForMainAndClasses(BasicPerfContract.class
+                , AionList.class
+                , AionMap.class
+                , AionSet.class
+        );
+        byte[] txData = new CodeAndArguments(jar, new byte[0]).encodeToBytes();
+        Transaction create = Transaction.create(TestingKernel.PREMINED_ADDRESS, kernel.getNonce(TestingKernel.PREMINED_ADDRESS), BigInteger.ZERO, txData, 10_000_000L, 1L);
+        TransactionResult result = avm.run(kernel, new Transaction[] {create})[0].get();
+        Assert.assertEquals(AvmTransactionResult.Code.SUCCESS, result.getResultCode());
+        avm.shutdown();
+        return kernel.getTransformedCode(Address.wrap(result.getReturnData()));
+    }
+}
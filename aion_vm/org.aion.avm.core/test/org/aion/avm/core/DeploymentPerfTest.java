@@ -0,0 +1,113 @@
+package org.aion.avm.core;
+
+import java.math.BigInteger;
+
+import org.aion.avm.core.blockchainruntime.EmptyCapabilities;
+import org.aion.avm.core.dappreading.JarBuilder;
+import org.aion.avm.core.testBlake2b.Blake2b;
+import org.aion.avm.core.testWallet.ByteArrayHelpers;
+import org.aion.avm.core.testWallet.ByteArrayWrapper;
+import org.aion.avm.core.testWallet.BytesKey;
+import org.aion.avm.core.testWallet.Daylimit;
+import org.aion.avm.core.testWallet.EventLogger;
+import org.aion.avm.core.testWallet.Multiowned;
+import org.aion.avm.core.testWallet.Operation;
+import org.aion.avm.core.testWallet.RequireFailedException;
+import org.aion.avm.core.testWallet.Wallet;
+import org.aion.avm.core.util.CodeAndArguments;
+import org.aion.avm.core.util.Helpers;
+import org.aion.avm.userlib.AionList;
+import org.aion.avm.userlib.AionMap;
+import org.aion.avm.userlib.AionSet;
+import org.aion.kernel.AvmTransactionResult;
+import org.aion.kernel.Block;
+import org.aion.kernel.TestingKernel;
+import org.aion.kernel.Transaction;
+import org.aion.types.Address;
+import org.aion.vm.api.interfaces.TransactionResult;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * A basic performance test of deployment latency (dominated by the transformation of the DApp's classes) over a few of the example
+ * JARs used by the other tests.
+ * Like BasicPerfTest, it can be run as a standard unit test but COUNT can be raised for more hands-on measurement.
+ * The transformed code cache is disabled when measuring the transformation, and measured on its own (deploying a JAR again).
+ */
+public class DeploymentPerfTest {
+    private final static int COUNT = 20;
+
+    private TestingKernel kernel;
+    private AvmImpl avm;
+
+    @Before
+    public void setup() {
+        Block block = new Block(new byte[32], 1, Helpers.randomAddress(), System.currentTimeMillis(), new byte[0]);
+        this.kernel = new TestingKernel(block);
+    }
+
+    @After
+    public void tearDown() {
+        this.avm.shutdown();
+    }
+
+    @Test
+    public void testDeploymentLatency() {
+        AvmConfiguration config = new AvmConfiguration();
+        config.transformedCodeCacheMaxEntries = 0;
+        this.avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), config);
+        measureAll("NANOS PER DEPLOYMENT");
+    }
+
+    @Test
+    public void testCachedDeploymentLatency() {
+        this.avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), new AvmConfiguration());
+        measureAll("NANOS PER CACHED DEPLOYMENT");
+        Assert.assertEquals(3, this.avm.getTransformedCodeCacheStatistics().getMisses());
+    }
+
+    private void measureAll(String label) {
+        byte[] basicPerf = JarBuilder.buildJarForMainAndClasses(BasicPerfContract.class, AionList.class, AionMap.class, AionSet.class);
+        byte[] wallet = JarBuilder.buildJarForMainAndClassesAndUserlib(Wallet.class
+                , Multiowned.class
+                , ByteArrayWrapper.class
+                , Operation.class
+                , ByteArrayHelpers.class
+                , BytesKey.class
+                , RequireFailedException.class
+                , Daylimit.class
+                , EventLogger.class
+        );
+        byte[] blake2b = JarBuilder.buildJarForMainAndClasses(org.aion.avm.core.testBlake2b.Main.class, Blake2b.class);
+
+        // Warm up, since we are only interested in the steady state.
+        for (int i = 0; i < COUNT; ++i) {
+            deploy(basicPerf);
+            deploy(wallet);
+            deploy(blake2b);
+        }
+
+        System.out.println(label + " (BasicPerfContract): " + measure(basicPerf));
+        System.out.println(label + " (Wallet): " + measure(wallet));
+        System.out.println(label + " (Blake2b): " + measure(blake2b));
+    }
+
+    private long measure(byte[] jar) {
+        long start = System.nanoTime();
+        for (int i = 0; i < COUNT; ++i) {
+            deploy(jar);
+        }
+        return (System.nanoTime() - start) / COUNT;
+    }
+
+    private void deploy(byte[] jar) {
+        byte[] txData = new CodeAndArguments(jar, new byte[0]).encodeToBytes();
+        Transaction create = Transaction.create(TestingKernel.PREMINED_ADDRESS, this.kernel.getNonce(TestingKernel.PREMINED_ADDRESS), BigInteger.ZERO, txData, 10_000_000L, 1L);
+        TransactionResult result = this.avm.run(this.kernel, new Transaction[] {create})[0].get();
+        Assert.assertEquals(AvmTransactionResult.Code.SUCCESS, result.getResultCode());
+        Assert.assertNotNull(this.kernel.getTransformedCode(Address.wrap(result.getReturnData())));
+    }
+}
@@ -0,0 +1,91 @@
+package org.aion.avm.core;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.aion.kernel.AvmTransactionResult;
+import org.aion.parallel.TransactionTask;
+import org.aion.vm.api.interfaces.SimpleFuture;
+import org.aion.vm.api.interfaces.TransactionResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * A basic comparison of the IHandoffMonitor implementations, with 1 to 64 executor threads running tiny transactions (so that the
+ * cost of the hand-off itself dominates).  While it can be run as a standard unit test, BATCH_COUNT and SPIN_PER_TASK can be
+ * increased for more hands-on measurement.
+ */
+public class HandoffMonitorPerfTest {
+    private final static int[] THREAD_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+    private final static int BATCH_COUNT = 10;
+    private final static int BATCH_SIZE = 512;
+    private final static int SPIN_PER_TASK = 1_000;
+
+    @Test
+    public void compareImplementations() {
+        for (int threadCount : THREAD_COUNTS) {
+            long monitorNanos = measure(HandoffMonitor::new, threadCount);
+            long workStealingNanos = measure(WorkStealingHandoffMonitor::new, threadCount);
+            System.out.println("THREADS: " + threadCount
+                    + "\tHandoffMonitor NANOS PER TX: " + (monitorNanos / (BATCH_COUNT * BATCH_SIZE))
+                    + "\tWorkStealingHandoffMonitor NANOS PER TX: " + (workStealingNanos / (BATCH_COUNT * BATCH_SIZE)));
+        }
+    }
+
+    private static long measure(Function<Set<Thread>, IHandoffMonitor> factory, int threadCount) {
+        // Create the tasks up-front, so we only measure the hand-off and the execution.
+        TransactionTask[][] batches = new TransactionTask[BATCH_COUNT][];
+        for (int i = 0; i < BATCH_COUNT; ++i) {
+            HandoffMonitorTest.FakeTransaction[] transactions = new HandoffMonitorTest.FakeTransaction[BATCH_SIZE];
+            for (int j = 0; j < BATCH_SIZE; ++j) {
+                transactions[j] = new HandoffMonitorTest.FakeTransaction();
+            }
+            batches[i] = HandoffMonitorTest.wrapTransactionInTasks(transactions);
+        }
+
+        Set<Thread> executorThreads = new HashSet<>();
+        SpinningThread[] threads = new SpinningThread[threadCount];
+        for (int i = 0; i < threadCount; ++i) {
+            threads[i] = new SpinningThread();
+            executorThreads.add(threads[i]);
+        }
+        IHandoffMonitor monitor = factory.apply(executorThreads);
+        for (SpinningThread thread : threads) {
+            thread.monitor = monitor;
+        }
+        monitor.startExecutorThreads();
+
+        long start = System.nanoTime();
+        for (TransactionTask[] batch : batches) {
+            SimpleFuture<TransactionResult>[] results = monitor.sendTransactionsAsynchronously(batch);
+            for (SimpleFuture<TransactionResult> result : results) {
+                Assert.assertNotNull(result.get());
+            }
+        }
+        long end = System.nanoTime();
+
+        monitor.stopAndWaitForShutdown();
+        return end - start;
+    }
+
+
+    private static class SpinningThread extends Thread {
+        private IHandoffMonitor monitor;
+        // (only here so that the spinning isn't optimized away)
+        private long sink;
+
+        @Override
+        public void run() {
+            TransactionTask task = this.monitor.blockingPollForTransaction(null, null);
+            while (null != task) {
+                for (int i = 0; i < SPIN_PER_TASK; ++i) {
+                    this.sink += (this.sink * 31) ^ i;
+                }
+                AvmTransactionResult result = new HandoffMonitorTest.FakeResult(this);
+                task = this.monitor.blockingPollForTransaction(result, task);
+            }
+        }
+    }
+}
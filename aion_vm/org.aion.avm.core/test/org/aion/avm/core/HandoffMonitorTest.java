@@ -4,6 +4,8 @@ import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import org.aion.avm.internal.RuntimeAssertionError;
 import org.aion.kernel.AvmTransactionResult;
@@ -17,12 +19,26 @@ import org.junit.Test;
 
 
 public class HandoffMonitorTest {
+    /**
+     * Creates the implementation under test (overridden to run these same tests against the other implementations).
+     */
+    protected IHandoffMonitor createMonitor(Set<Thread> executorThreads) {
+        return new HandoffMonitor(executorThreads);
+    }
+
+    /**
+     * Creates the implementation under test, scheduling by conflicts (overridden along with createMonitor()).
+     */
+    protected IHandoffMonitor createConflictSchedulingMonitor(Set<Thread> executorThreads) {
+        return new HandoffMonitor(executorThreads, true);
+    }
+
     @Test
     public void startupShutdown() {
         MonitorThread thread = new MonitorThread(null);
         Set<Thread> executorThreads = new HashSet<>();
         executorThreads.add(thread);
-        HandoffMonitor monitor = new HandoffMonitor(executorThreads);
+        IHandoffMonitor monitor = createMonitor(executorThreads);
         thread.startAgainstMonitor(monitor);
         monitor.stopAndWaitForShutdown();
         Assert.assertFalse(thread.isAlive());
@@ -34,7 +50,7 @@ public class HandoffMonitorTest {
         MonitorThread thread = new MonitorThread(null);
         Set<Thread> executorThreads = new HashSet<>();
         executorThreads.add(thread);
-        HandoffMonitor monitor = new HandoffMonitor(executorThreads);
+        IHandoffMonitor monitor = createMonitor(executorThreads);
         thread.startAgainstMonitor(monitor);
         
         // Enqueue transaction.
@@ -58,7 +74,7 @@ public class HandoffMonitorTest {
         MonitorThread thread = new MonitorThread(null);
         Set<Thread> executorThreads = new HashSet<>();
         executorThreads.add(thread);
-        HandoffMonitor monitor = new HandoffMonitor(executorThreads);
+        IHandoffMonitor monitor = createMonitor(executorThreads);
         thread.startAgainstMonitor(monitor);
         
         // Enqueue transaction and process result.
@@ -81,7 +97,7 @@ public class HandoffMonitorTest {
         MonitorThread thread = new MonitorThread(null);
         Set<Thread> executorThreads = new HashSet<>();
         executorThreads.add(thread);
-        HandoffMonitor monitor = new HandoffMonitor(executorThreads);
+        IHandoffMonitor monitor = createMonitor(executorThreads);
         thread.startAgainstMonitor(monitor);
         
         // Enqueue 2 transactions and verify the result array length.
@@ -114,7 +130,7 @@ public class HandoffMonitorTest {
         executorThreads.add(t2);
         executorThreads.add(t3);
         executorThreads.add(t4);
-        HandoffMonitor monitor = new HandoffMonitor(executorThreads);
+        IHandoffMonitor monitor = createMonitor(executorThreads);
 
         t1.startAgainstMonitor(monitor);
         t2.startAgainstMonitor(monitor);
@@ -155,7 +171,7 @@ public class HandoffMonitorTest {
         for (int i = 0; i < threadCount; i++){
             executorThreads.add(new MonitorThread(firstTaskBarrier));
         }
-        HandoffMonitor monitor = new HandoffMonitor(executorThreads);
+        IHandoffMonitor monitor = createMonitor(executorThreads);
 
         for (Thread t: executorThreads){
             ((MonitorThread) t).startAgainstMonitor(monitor);
@@ -183,15 +199,88 @@ public class HandoffMonitorTest {
         }
     }
 
+    @Test
+    public void conflictingCallsRunOneAfterTheOther() {
+        final int threadCount = 4;
+        final int taskCount = 64;
+        // Every fake transaction has the same sender and destination so each one must wait for the one before it to complete.
+        AtomicIntegerArray completed = new AtomicIntegerArray(taskCount);
+        AtomicInteger startedEarly = new AtomicInteger(0);
+        
+        // Startup.
+        Set<Thread> executorThreads = new HashSet<>();
+        for (int i = 0; i < threadCount; i++){
+            executorThreads.add(new ConflictCheckingThread(completed, startedEarly));
+        }
+        IHandoffMonitor monitor = createConflictSchedulingMonitor(executorThreads);
+        
+        // Queue the batch before the threads start, so they all go looking for a task at once.
+        FakeTransaction[] transactions = new FakeTransaction[taskCount];
+        for (int i = 0; i < transactions.length; i++){
+            transactions[i] = new FakeTransaction();
+        }
+        SimpleFuture<TransactionResult>[] results = monitor.sendTransactionsAsynchronously(wrapTransactionInTasks(transactions));
+        for (Thread t: executorThreads){
+            ((ConflictCheckingThread) t).startAgainstMonitor(monitor);
+        }
+        for (int i = 0; i < taskCount; i++){
+            results[i].get();
+        }
+        
+        // None of the threads (which were all looking for something to do) started a task before the one it conflicts with completed.
+        Assert.assertEquals(0, startedEarly.get());
+        
+        monitor.stopAndWaitForShutdown();
+        for (Thread t: executorThreads){
+            Assert.assertFalse(t.isAlive());
+        }
+    }
+
+    private class ConflictCheckingThread extends Thread {
+        private final AtomicIntegerArray completed;
+        private final AtomicInteger startedEarly;
+        private IHandoffMonitor monitor;
+
+        public ConflictCheckingThread(AtomicIntegerArray completed, AtomicInteger startedEarly){
+            this.completed = completed;
+            this.startedEarly = startedEarly;
+        }
+
+        public void startAgainstMonitor(IHandoffMonitor monitor) {
+            this.monitor = monitor;
+            this.start();
+        }
+        @Override
+        public void run() {
+            TransactionTask task = this.monitor.blockingPollForTransaction(null, null);
+            while (null != task) {
+                int index = task.getIndex();
+                if ((index > 0) && (0 == this.completed.get(index - 1))) {
+                    this.startedEarly.incrementAndGet();
+                }
+                // Take long enough that the other threads have a chance to take the next task, if it were handed out early.
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    // We don't use interruption.
+                    Assert.fail();
+                }
+                this.completed.set(index, 1);
+                AvmTransactionResult result = new FakeResult(this);
+                task = this.monitor.blockingPollForTransaction(result, task);
+            }
+        }
+    }
+
     private class MonitorThread extends Thread {
         private final CyclicBarrier firstTaskBarrier;
-        private HandoffMonitor monitor;
+        private IHandoffMonitor monitor;
 
         public MonitorThread(CyclicBarrier firstTaskBarrier){
             this.firstTaskBarrier = firstTaskBarrier;
         }
 
-        public void startAgainstMonitor(HandoffMonitor monitor) {
+        public void startAgainstMonitor(IHandoffMonitor monitor) {
             this.monitor = monitor;
             this.start();
         }
@@ -216,7 +305,7 @@ public class HandoffMonitorTest {
         }
     }
 
-    private class FakeResult extends AvmTransactionResult {
+    static class FakeResult extends AvmTransactionResult {
         public Thread executor;
 
         public FakeResult(Thread t){
@@ -231,7 +320,7 @@ public class HandoffMonitorTest {
      * AvmTransaction.
      * In those cases, we will just return something benign.
      */
-    private static class FakeTransaction implements TransactionInterface {
+    static class FakeTransaction implements TransactionInterface {
         @Override
         public byte[] getTransactionHash() {
             return new byte[0];
@@ -303,7 +392,7 @@ public class HandoffMonitorTest {
         }
     }
 
-    private static TransactionTask[] wrapTransactionInTasks(FakeTransaction[] transactions) {
+    static TransactionTask[] wrapTransactionInTasks(FakeTransaction[] transactions) {
         TransactionTask[] tasks = new TransactionTask[transactions.length];
         // (we don't consult the capabilities since there is no creation)
         IExternalCapabilities capabilities = null;
@@ -0,0 +1,67 @@
+package org.aion.avm.core;
+
+import org.aion.avm.internal.CommonInstrumentation;
+import org.aion.avm.internal.IInstrumentation;
+import org.aion.avm.internal.InstrumentationHelpers;
+import org.aion.avm.internal.InstrumentedThread;
+import org.aion.avm.internal.InternedClasses;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * A basic comparison of the cost of a shadow JCL call when the instrumentation is found through the ThreadLocal (any thread) and
+ * when it is bound to an InstrumentedThread (the AVM's executor threads).  Each call allocates a shadow Object (taking a hash code)
+ * and calls its avm_hashCode() (charging energy), so it looks the instrumentation up twice.
+ * Like BasicPerfTest, it can be run as a standard unit test but COUNT can be raised for more hands-on measurement.
+ */
+public class ShadowInstrumentationPerfTest {
+    private final static int COUNT = 1_000_000;
+
+    @Test
+    public void compareLookups() throws Exception {
+        // The shadow JCL must be bootstrapped before we can call into it.
+        Assert.assertNotNull(NodeEnvironment.singleton);
+
+        // Warm up both paths, since we are only interested in the steady state.
+        measure(new Thread(ShadowInstrumentationPerfTest::callShadowMethods));
+        measure(new BoundThread());
+
+        long threadLocalNanos = measure(new Thread(ShadowInstrumentationPerfTest::callShadowMethods));
+        long boundNanos = measure(new BoundThread());
+        System.out.println("NANOS PER SHADOW CALL (ThreadLocal): " + ((double) threadLocalNanos / COUNT));
+        System.out.println("NANOS PER SHADOW CALL (InstrumentedThread): " + ((double) boundNanos / COUNT));
+    }
+
+    private static long measure(Thread thread) throws InterruptedException {
+        long start = System.nanoTime();
+        thread.start();
+        thread.join();
+        return System.nanoTime() - start;
+    }
+
+    private static void callShadowMethods() {
+        IInstrumentation instrumentation = new CommonInstrumentation();
+        InstrumentationHelpers.attachThread(instrumentation);
+        instrumentation.enterNewFrame(ShadowInstrumentationPerfTest.class.getClassLoader(), Long.MAX_VALUE, 1, new InternedClasses());
+        int sum = 0;
+        for (int i = 0; i < COUNT; ++i) {
+            sum += new org.aion.avm.shadow.java.lang.Object().avm_hashCode();
+        }
+        Assert.assertNotEquals(0, sum);
+        instrumentation.exitCurrentFrame();
+        InstrumentationHelpers.detachThread(instrumentation);
+    }
+
+
+    private static class BoundThread extends InstrumentedThread {
+        public BoundThread() {
+            super("BoundThread");
+        }
+
+        @Override
+        public void run() {
+            callShadowMethods();
+        }
+    }
+}
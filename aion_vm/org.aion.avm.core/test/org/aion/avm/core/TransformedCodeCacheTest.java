@@ -0,0 +1,68 @@
+package org.aion.avm.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+
+public class TransformedCodeCacheTest {
+    private static final byte[] JAR = new byte[] { 1, 2, 3 };
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testVersionIsDerivedFromCode() {
+        // The version is a digest of the AVM libraries (the tests run from their JARs), so it is stable but not hard-coded.
+        byte[] version = TransformedCodeCache.getAvmCodeVersion();
+        Assert.assertNotNull(version);
+        Assert.assertEquals(32, version.length);
+        Assert.assertArrayEquals(version, TransformedCodeCache.computeAvmCodeVersion());
+    }
+
+    @Test
+    public void testFileReadBackBySameVersion() throws IOException {
+        File directory = folder.newFolder();
+        new TransformedCodeCache(4, 1024L, directory, new byte[] { 1 }).put(JAR, false, newTransformedCode());
+
+        // A new cache (with an empty memory) of the same version finds the file.
+        TransformedCodeCache.TransformedCode read = new TransformedCodeCache(4, 1024L, directory, new byte[] { 1 }).get(JAR, false);
+        Assert.assertNotNull(read);
+        Assert.assertEquals("Main", read.mainClass);
+        Assert.assertArrayEquals(new byte[] { 4 }, read.transformedClasses.get("Main"));
+        Assert.assertArrayEquals(new byte[] { 5 }, read.immortalClasses.get("Main"));
+        Assert.assertEquals(1L, read.numberOfClasses);
+        Assert.assertEquals(10L, read.bytecodeSize);
+    }
+
+    @Test
+    public void testFileFromOtherVersionIsMiss() throws IOException {
+        File directory = folder.newFolder();
+        new TransformedCodeCache(4, 1024L, directory, new byte[] { 1 }).put(JAR, false, newTransformedCode());
+        File[] oldFiles = directory.listFiles();
+        Assert.assertEquals(1, oldFiles.length);
+
+        // Another version doesn't look for that file.
+        TransformedCodeCache otherVersion = new TransformedCodeCache(4, 1024L, directory, new byte[] { 2 });
+        Assert.assertNull(otherVersion.get(JAR, false));
+
+        // Even when the file is where it would look (its name only depends on the key), the version in the file doesn't match.
+        otherVersion.put(JAR, false, newTransformedCode());
+        File newFile = directory.listFiles((dir, name) -> !name.equals(oldFiles[0].getName()))[0];
+        Files.copy(oldFiles[0].toPath(), newFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Assert.assertNull(new TransformedCodeCache(4, 1024L, directory, new byte[] { 2 }).get(JAR, false));
+        // (and it is removed so that the next deployment of this JAR writes it again)
+        Assert.assertFalse(newFile.exists());
+    }
+
+    private static TransformedCodeCache.TransformedCode newTransformedCode() {
+        return new TransformedCodeCache.TransformedCode("Main", Map.of("Main", new byte[] { 4 }), Map.of("Main", new byte[] { 5 }), 1L, 10L);
+    }
+}
@@ -0,0 +1,20 @@
+package org.aion.avm.core;
+
+import avm.Blockchain;
+
+
+/**
+ * A DApp which only changes its graph when it is called with an energy price above 1.
+ * (this avoids allocating anything to decide, since that would also change the graph, through its next hash code)
+ */
+public class UnchangedGraphTarget {
+    private static int[] data = new int[1000];
+    private static int counter;
+
+    public static byte[] main() {
+        if (Blockchain.getEnergyPrice() > 1L) {
+            counter += 1;
+        }
+        return null;
+    }
+}
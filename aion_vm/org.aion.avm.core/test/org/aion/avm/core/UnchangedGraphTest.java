@@ -0,0 +1,85 @@
+package org.aion.avm.core;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.aion.avm.core.blockchainruntime.EmptyCapabilities;
+import org.aion.avm.core.dappreading.JarBuilder;
+import org.aion.avm.core.util.CodeAndArguments;
+import org.aion.avm.core.util.Helpers;
+import org.aion.kernel.AvmTransactionResult;
+import org.aion.kernel.Block;
+import org.aion.kernel.TestingKernel;
+import org.aion.kernel.Transaction;
+import org.aion.types.Address;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class UnchangedGraphTest {
+    private static final Address DEPLOYER = TestingKernel.PREMINED_ADDRESS;
+    private static final Block BLOCK = new Block(new byte[32], 1, Helpers.randomAddress(), System.currentTimeMillis(), new byte[0]);
+
+    private CountingKernel kernel;
+    private AvmImpl avm;
+    private Address dappAddress;
+
+    @Before
+    public void setup() {
+        this.kernel = new CountingKernel(BLOCK);
+        this.avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), new AvmConfiguration());
+        byte[] txData = new CodeAndArguments(JarBuilder.buildJarForMainAndClasses(UnchangedGraphTarget.class), new byte[0]).encodeToBytes();
+        Transaction create = Transaction.create(DEPLOYER, this.kernel.getNonce(DEPLOYER), BigInteger.ZERO, txData, 10_000_000L, 1L);
+        AvmTransactionResult createResult = (AvmTransactionResult) this.avm.run(this.kernel, new Transaction[] {create})[0].get();
+        Assert.assertEquals(AvmTransactionResult.Code.SUCCESS, createResult.getResultCode());
+        this.dappAddress = Address.wrap(createResult.getReturnData());
+    }
+
+    @After
+    public void tearDown() {
+        this.avm.shutdown();
+    }
+
+    @Test
+    public void testUnchangedGraphIsNotWritten() {
+        byte[] graphBefore = this.kernel.getObjectGraph(this.dappAddress);
+        int writesBefore = this.kernel.graphWrites;
+        runCall(1L);
+
+        Assert.assertEquals(writesBefore, this.kernel.graphWrites);
+        Assert.assertArrayEquals(graphBefore, this.kernel.getObjectGraph(this.dappAddress));
+    }
+
+    @Test
+    public void testChangedGraphIsWritten() {
+        byte[] graphBefore = this.kernel.getObjectGraph(this.dappAddress);
+        int writesBefore = this.kernel.graphWrites;
+        runCall(2L);
+
+        Assert.assertEquals(writesBefore + 1, this.kernel.graphWrites);
+        Assert.assertFalse(Arrays.equals(graphBefore, this.kernel.getObjectGraph(this.dappAddress)));
+    }
+
+    private void runCall(long energyPrice) {
+        Transaction call = Transaction.call(DEPLOYER, this.dappAddress, this.kernel.getNonce(DEPLOYER), BigInteger.ZERO, new byte[0], 10_000_000L, energyPrice);
+        AvmTransactionResult callResult = (AvmTransactionResult) this.avm.run(this.kernel, new Transaction[] {call})[0].get();
+        Assert.assertEquals(AvmTransactionResult.Code.SUCCESS, callResult.getResultCode());
+    }
+
+
+    private static class CountingKernel extends TestingKernel {
+        public int graphWrites;
+
+        public CountingKernel(Block block) {
+            super(block);
+        }
+
+        @Override
+        public void putObjectGraph(Address address, byte[] bytes) {
+            this.graphWrites += 1;
+            super.putObjectGraph(address, bytes);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.aion.avm.core;
+
+import java.util.Set;
+
+
+/**
+ * Runs all of the HandoffMonitorTest cases against the WorkStealingHandoffMonitor.
+ */
+public class WorkStealingHandoffMonitorTest extends HandoffMonitorTest {
+    @Override
+    protected IHandoffMonitor createMonitor(Set<Thread> executorThreads) {
+        return new WorkStealingHandoffMonitor(executorThreads);
+    }
+
+    @Override
+    protected IHandoffMonitor createConflictSchedulingMonitor(Set<Thread> executorThreads) {
+        return new WorkStealingHandoffMonitor(executorThreads, true);
+    }
+}
@@ -1,11 +1,13 @@
 package org.aion.avm.core.arraywrapping;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import org.aion.avm.core.SimpleAvm;
 import org.aion.avm.core.miscvisitors.NamespaceMapper;
+import org.aion.avm.core.util.CacheStatistics;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -107,6 +109,31 @@ public class ArrayTypeTest {
         assertEquals(contract.test1DobjectArrayUnificationToSupers(), method.invoke(clazz.getConstructor().newInstance()));
     }
     
+    @Test
+    public void testWrappersGeneratedOncePerNode() throws Exception {
+        Method method = clazz.getMethod(NamespaceMapper.mapMethodName("test1DobjectArrayUnificationToSupers"));
+        assertEquals(contract.test1DobjectArrayUnificationToSupers(), method.invoke(clazz.getConstructor().newInstance()));
+
+        // Loading the same DApp again defines its wrappers in the new loader, but reuses their generated bytecode.
+        avm.shutdown();
+        avm = new SimpleAvm(1000000000000000000L,
+            this.preserveDebuggability,
+            ArrayTypeContract.class,
+            ArrayTypeContract.SuperestInterface.class,
+            ArrayTypeContract.SuperInterface.class,
+            ArrayTypeContract.SuperAbstract.class,
+            ArrayTypeContract.SuperClass.class,
+            ArrayTypeContract.SubClass.class
+        );
+        Class<?> reloaded = avm.getClassLoader().loadUserClassByOriginalName(ArrayTypeContract.class.getName(), this.preserveDebuggability);
+        CacheStatistics before = ArrayWrappingClassGenerator.getGeneratedCacheStatistics();
+        method = reloaded.getMethod(NamespaceMapper.mapMethodName("test1DobjectArrayUnificationToSupers"));
+        assertEquals(contract.test1DobjectArrayUnificationToSupers(), method.invoke(reloaded.getConstructor().newInstance()));
+        CacheStatistics after = ArrayWrappingClassGenerator.getGeneratedCacheStatistics();
+        assertEquals(before.getMisses(), after.getMisses());
+        assertTrue(after.getHits() > before.getHits());
+    }
+
     @Test
     public void test1DobjectArrayUnificationToSupersWithCasts() throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
         Method method = clazz.getMethod(NamespaceMapper.mapMethodName("test1DobjectArrayUnificationToSupersWithCasts"));
@@ -0,0 +1,23 @@
+package org.aion.avm.core.benchmarking;
+
+
+/**
+ * Used within ReflectionBenchmarkGraphCodecTest as a typical graph instance with a mix of field types.
+ */
+public class GraphCodecTarget {
+    public boolean flag;
+    public int count;
+    public long total;
+    public double ratio;
+    public char code;
+    public Object next;
+    public String name;
+
+    public GraphCodecTarget(int count) {
+        this.flag = true;
+        this.count = count;
+        this.total = 2L * count;
+        this.ratio = 0.5;
+        this.code = 'a';
+    }
+}
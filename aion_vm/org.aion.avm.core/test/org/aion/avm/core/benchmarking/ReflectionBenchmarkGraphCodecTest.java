@@ -0,0 +1,115 @@
+package org.aion.avm.core.benchmarking;
+
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+
+import org.aion.avm.core.SimpleAvm;
+import org.aion.avm.core.persistence.ByteBufferObjectSerializer;
+import org.aion.avm.core.persistence.SortedFieldCache;
+import org.aion.avm.internal.IObjectDeserializer;
+import org.aion.avm.internal.IObjectSerializer;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Benchmarking the reflective serialization of an instance's fields versus the codec generated by the AutomaticGraphVisitor.
+ *
+ * This is the per-instance work done when saving an object graph:  the reflective path is what the other ReflectionBenchmark
+ * tests measure the pieces of (a Field read per field, plus a dispatch on its type) while the generated path is a single
+ * MethodHandle invocation of straight-line field reads.
+ * Both paths must produce the same bytes.
+ */
+public class ReflectionBenchmarkGraphCodecTest {
+    private static int spins = ReflectionBenchmarkConstants.sameSpins;
+
+    private static SimpleAvm avm;
+    private static Class<?> targetClass;
+    private static Object target;
+    private static SortedFieldCache cache;
+
+    @BeforeClass
+    public static void setup() throws Exception {
+        System.out.println("Running each benchmark " + spins + " times each.");
+        avm = new SimpleAvm(1_000_000L, false, GraphCodecTarget.class);
+        targetClass = avm.getClassLoader().loadUserClassByOriginalName(GraphCodecTarget.class.getName(), false);
+        target = targetClass.getConstructor(int.class).newInstance(5);
+        Class<?> shadowObject = org.aion.avm.shadow.java.lang.Object.class;
+        cache = new SortedFieldCache(avm.getClassLoader()
+                , shadowObject.getDeclaredMethod("serializeSelf", Class.class, IObjectSerializer.class)
+                , shadowObject.getDeclaredMethod("deserializeSelf", Class.class, IObjectDeserializer.class)
+                , shadowObject.getDeclaredField("readIndex"));
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        avm.shutdown();
+    }
+
+    @Test
+    public void generatedAndReflectiveMatch() throws Exception {
+        ByteBuffer generated = ByteBuffer.allocate(64);
+        Assert.assertTrue(cache.serializeInstanceFields(targetClass, target, serializerFor(generated)));
+        ByteBuffer reflective = ByteBuffer.allocate(64);
+        reflectiveSerialize(serializerFor(reflective));
+        Assert.assertEquals(reflective.position(), generated.position());
+        Assert.assertArrayEquals(reflective.array(), generated.array());
+    }
+
+    @Test
+    public void GeneratedCodecTest() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        ByteBufferObjectSerializer serializer = serializerFor(buffer);
+        long start = System.nanoTime();
+        for (int i = 0; i < spins; ++i) {
+            buffer.clear();
+            cache.serializeInstanceFields(targetClass, target, serializer);
+        }
+        ReflectionBenchmarkConstants.printTime("Instance fields serialize", "Generated codec", System.nanoTime() - start, spins);
+    }
+
+    @Test
+    public void ReflectiveCodecTest() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        ByteBufferObjectSerializer serializer = serializerFor(buffer);
+        long start = System.nanoTime();
+        for (int i = 0; i < spins; ++i) {
+            buffer.clear();
+            reflectiveSerialize(serializer);
+        }
+        ReflectionBenchmarkConstants.printTime("Instance fields serialize", "Reflection", System.nanoTime() - start, spins);
+    }
+
+
+    private static ByteBufferObjectSerializer serializerFor(ByteBuffer buffer) {
+        // We only write primitives and nulls so nothing else is needed.
+        return new ByteBufferObjectSerializer(buffer, null, cache, null, null, false);
+    }
+
+    private static void reflectiveSerialize(IObjectSerializer serializer) throws Exception {
+        // This is the loop the serializer uses for classes without a generated codec.
+        for (Field field : cache.getInstanceFields(targetClass)) {
+            Class<?> type = field.getType();
+            if (boolean.class == type) {
+                serializer.writeBoolean(field.getBoolean(target));
+            } else if (byte.class == type) {
+                serializer.writeByte(field.getByte(target));
+            } else if (short.class == type) {
+                serializer.writeShort(field.getShort(target));
+            } else if (char.class == type) {
+                serializer.writeChar(field.getChar(target));
+            } else if (int.class == type) {
+                serializer.writeInt(field.getInt(target));
+            } else if (float.class == type) {
+                serializer.writeFloat(field.getFloat(target));
+            } else if (long.class == type) {
+                serializer.writeLong(field.getLong(target));
+            } else if (double.class == type) {
+                serializer.writeDouble(field.getDouble(target));
+            } else {
+                serializer.writeObject(field.get(target));
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.aion.avm.core.instrument;
+
+
+/**
+ * Note that this class is just used as a resource by EnergyChargeCoalescerTest:  a corpus of control flow shapes, each as a static
+ * method taking an int and returning a long.
+ */
+public class ChargeCoalescingTarget {
+    public static long sumLoop(int n) {
+        long sum = 0;
+        for (int i = 0; i < n; ++i) {
+            sum += i;
+        }
+        return sum;
+    }
+
+    public static long nestedLoops(int n) {
+        long sum = 0;
+        for (int i = 0; i < n; ++i) {
+            for (int j = i; j < n; ++j) {
+                sum += i * j;
+            }
+        }
+        return sum;
+    }
+
+    public static long whileBreak(int n) {
+        long i = 0;
+        while (true) {
+            if (i > n) {
+                break;
+            }
+            i += 3;
+        }
+        return i;
+    }
+
+    public static long doWhileContinue(int n) {
+        long sum = 0;
+        int i = 0;
+        do {
+            i += 1;
+            if (0 == (i % 2)) {
+                continue;
+            }
+            sum += i;
+        } while (i < n);
+        return sum;
+    }
+
+    public static long switchInLoop(int n) {
+        long sum = 0;
+        for (int i = 0; i < n; ++i) {
+            switch (i & 3) {
+                case 0:
+                    sum += 1;
+                    break;
+                case 1:
+                    sum += 10;
+                case 2:
+                    sum += 100;
+                    break;
+                default:
+                    sum -= 1;
+            }
+        }
+        return sum;
+    }
+
+    public static long conditionals(int n) {
+        long value = (n > 3) ? n : -n;
+        boolean isOdd = (1 == (n & 1));
+        return (isOdd && (value > 0)) ? (value * 2) : (value + 7);
+    }
+
+    public static long divideCatching(int n) {
+        try {
+            return 100 / n;
+        } catch (ArithmeticException e) {
+            return -1;
+        }
+    }
+
+    public static long divideThrowing(int n) {
+        long sum = 0;
+        for (int i = n; i >= 0; --i) {
+            sum += 1;
+            sum += 100 / (i - 2);
+        }
+        return sum;
+    }
+
+    public static long catchInLoop(int n) {
+        long sum = 0;
+        for (int i = 0; i < n; ++i) {
+            try {
+                sum += 1;
+                sum += checkedValue(i);
+                sum += 2;
+            } catch (IllegalArgumentException e) {
+                sum += 1000;
+            } finally {
+                sum += 3;
+            }
+        }
+        return sum;
+    }
+
+    public static long arrays(int n) {
+        int[] values = new int[n];
+        for (int i = 0; i < values.length; ++i) {
+            values[i] = i * i;
+        }
+        long sum = 0;
+        for (int value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    public static long strings(int n) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < n; ++i) {
+            builder.append(i);
+        }
+        return builder.toString().length();
+    }
+
+    public static long recursion(int n) {
+        return (n < 2) ? n : (recursion(n - 1) + recursion(n - 2));
+    }
+
+    public static long labeledLoops(int n) {
+        long sum = 0;
+        outer:
+        for (int i = 0; i < n; ++i) {
+            for (int j = 0; j < n; ++j) {
+                if (j > i) {
+                    continue outer;
+                }
+                if ((i * j) > 20) {
+                    break outer;
+                }
+                sum += j;
+            }
+        }
+        return sum;
+    }
+
+    private static int checkedValue(int i) {
+        if (0 == (i % 3)) {
+            throw new IllegalArgumentException();
+        }
+        return i;
+    }
+}
@@ -0,0 +1,107 @@
+package org.aion.avm.core.instrument;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aion.avm.core.ClassToolchain;
+import org.aion.avm.core.NodeEnvironment;
+import org.aion.avm.core.classloading.AvmClassLoader;
+import org.aion.avm.core.util.Helpers;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+
+
+/**
+ * Runs every method of ChargeCoalescingTarget, metered with and without the EnergyChargeCoalescer, to show that coalescing the
+ * charges never changes the energy charged (including when exceptions are thrown and caught) but does reduce the number of charges.
+ */
+public class EnergyChargeCoalescerTest {
+    private static final int[] INPUTS = {-1, 0, 1, 2, 3, 5, 17, 40};
+
+    private Class<?> plainClass;
+    private Class<?> coalescedClass;
+
+    @Before
+    public void setup() throws Exception {
+        this.plainClass = loadMetered(false);
+        this.coalescedClass = loadMetered(true);
+    }
+
+    @Test
+    public void testIdenticalEnergyTotals() throws Exception {
+        int methodCount = 0;
+        for (Method plainMethod : this.plainClass.getDeclaredMethods()) {
+            if (Modifier.isPublic(plainMethod.getModifiers())) {
+                Method coalescedMethod = this.coalescedClass.getMethod(plainMethod.getName(), int.class);
+                for (int input : INPUTS) {
+                    Run plain = run(plainMethod, input);
+                    Run coalesced = run(coalescedMethod, input);
+                    String description = plainMethod.getName() + "(" + input + ")";
+                    Assert.assertEquals(description, plain.result, coalesced.result);
+                    Assert.assertEquals(description, plain.cost, coalesced.cost);
+                    Assert.assertTrue(description, coalesced.charges <= plain.charges);
+                }
+                methodCount += 1;
+            }
+        }
+        Assert.assertEquals(13, methodCount);
+    }
+
+    @Test
+    public void testFewerChargesInLoops() throws Exception {
+        // The loop condition is merged into the body, so this halves the charges per iteration.
+        Run plain = run(this.plainClass.getMethod("sumLoop", int.class), 100);
+        Run coalesced = run(this.coalescedClass.getMethod("sumLoop", int.class), 100);
+        Assert.assertEquals(plain.cost, coalesced.cost);
+        Assert.assertEquals(203, plain.charges);
+        Assert.assertEquals(102, coalesced.charges);
+    }
+
+    private static Run run(Method method, int input) throws Exception {
+        ClassMeteringTest.TestEnergy.totalCost = 0;
+        ClassMeteringTest.TestEnergy.totalCharges = 0;
+        Object result;
+        try {
+            result = method.invoke(null, input);
+        } catch (InvocationTargetException e) {
+            // An exception escaping the method is just another outcome to compare.
+            result = e.getCause().getClass();
+        }
+        return new Run(result, ClassMeteringTest.TestEnergy.totalCost, ClassMeteringTest.TestEnergy.totalCharges);
+    }
+
+    private static Class<?> loadMetered(boolean coalesceCharges) throws Exception {
+        String className = ChargeCoalescingTarget.class.getName();
+        byte[] raw = Helpers.loadRequiredResourceAsBytes(className.replaceAll("\\.", "/") + ".class");
+        byte[] metered = new ClassToolchain.Builder(raw, ClassReader.SKIP_DEBUG)
+                .addNextVisitor(new ClassMetering(null, coalesceCharges))
+                .addWriter(new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS))
+                .build()
+                .runAndGetBytecode();
+        Map<String, byte[]> classes = new HashMap<>();
+        classes.put(className, metered);
+        byte[] stubBytecode = Helpers.loadRequiredResourceAsBytes(ClassMeteringTest.HelperStub.CLASS_NAME + ".class");
+        Map<String, byte[]> classesAndHelper = Helpers.mapIncludingHelperBytecode(classes, stubBytecode);
+        AvmClassLoader loader = NodeEnvironment.singleton.createInvocationClassLoader(classesAndHelper);
+        return loader.loadClass(className);
+    }
+
+
+    private static class Run {
+        public final Object result;
+        public final long cost;
+        public final int charges;
+
+        public Run(Object result, long cost, int charges) {
+            this.result = result;
+            this.cost = cost;
+            this.charges = charges;
+        }
+    }
+}
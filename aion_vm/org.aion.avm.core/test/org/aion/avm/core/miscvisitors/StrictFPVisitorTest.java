@@ -7,7 +7,7 @@ import org.aion.avm.core.AvmImpl;
 import org.aion.avm.core.CommonAvmFactory;
 import org.aion.avm.core.blockchainruntime.EmptyCapabilities;
 import org.aion.avm.core.dappreading.JarBuilder;
-import org.aion.avm.core.dappreading.LoadedJar;
+import org.aion.avm.core.types.ImmortalDappModule;
 import org.aion.avm.core.util.CodeAndArguments;
 import org.aion.avm.core.util.Helpers;
 import org.aion.kernel.Block;
@@ -58,9 +58,9 @@ public class StrictFPVisitorTest {
     }
 
     @Test
-    public void testAccessFlag() {
-        LoadedJar jar = LoadedJar.fromBytes(kernel.getTransformedCode(dappAddress));
-        for (byte[] klass : jar.classBytesByQualifiedNames.values()) {
+    public void testAccessFlag() throws Exception {
+        ImmortalDappModule dapp = ImmortalDappModule.readFromStorage(kernel.getTransformedCode(dappAddress));
+        for (byte[] klass : dapp.classes.values()) {
             ClassReader reader = new ClassReader(klass);
             ClassNode node = new ClassNode();
             reader.accept(node, ClassReader.SKIP_FRAMES);
@@ -1,9 +1,13 @@
 package org.aion.avm.core.persistence;
 
 import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import org.aion.avm.core.SimpleAvm;
 import org.aion.avm.core.classloading.AvmClassLoader;
+import org.aion.avm.internal.IObjectDeserializer;
+import org.aion.avm.internal.IObjectSerializer;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -68,4 +72,30 @@ public class AutomaticGraphVisitorTest {
         this.secondaryClass.getMethod("avm_setValue", int.class).invoke(secondary, 1);
         Assert.assertEquals(1, this.secondaryClass.getDeclaredField("avm_value").getInt(secondary));
     }
+
+    @Test
+    public void generatedFieldCodecs() throws Exception {
+        Object secondary = this.secondaryClass.getConstructor(int.class).newInstance(5);
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+        // We only write/read an int so the serializer/deserializer don't need anything else.
+        this.secondaryClass.getMethod(AutomaticGraphVisitor.SERIALIZE_INSTANCE_FIELDS_NAME, Object.class, IObjectSerializer.class)
+                .invoke(null, secondary, new ByteBufferObjectSerializer(buffer, null, null, null, null, false));
+        Assert.assertEquals(5, buffer.getInt(0));
+        
+        buffer.putInt(0, 6);
+        buffer.rewind();
+        Object copy = this.secondaryClass.getConstructor(Void.class, int.class).newInstance(null, org.aion.avm.shadow.java.lang.Object.NEW_INSTANCE_READ_INDEX);
+        this.secondaryClass.getMethod(AutomaticGraphVisitor.DESERIALIZE_INSTANCE_FIELDS_NAME, Object.class, IObjectDeserializer.class)
+                .invoke(null, copy, new ByteBufferObjectDeserializer(buffer, null, null, null, null));
+        Assert.assertEquals(6, this.secondaryClass.getDeclaredField("avm_value").getInt(copy));
+        
+        // Neither class has statics so neither gets the static codecs.
+        Assert.assertTrue(hasNoMethodNamed(this.primaryClass, AutomaticGraphVisitor.SERIALIZE_STATIC_FIELDS_NAME));
+        Assert.assertTrue(hasNoMethodNamed(this.secondaryClass, AutomaticGraphVisitor.DESERIALIZE_STATIC_FIELDS_NAME));
+    }
+
+
+    private static boolean hasNoMethodNamed(Class<?> clazz, String name) {
+        return Arrays.stream(clazz.getDeclaredMethods()).noneMatch((method) -> name.equals(method.getName()));
+    }
 }
@@ -0,0 +1,75 @@
+package org.aion.avm.core.persistence;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+import org.aion.avm.internal.OutOfEnergyException;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class GraphBufferTest {
+    @Test
+    public void testReuse() {
+        GraphBuffer buffer = new GraphBuffer(16);
+        Assert.assertEquals(16L, buffer.takeAllocatedBytes());
+
+        byte[] first = buffer.serialize(1000, writing(new byte[] {1, 2}));
+        Assert.assertArrayEquals(new byte[] {1, 2}, first);
+        byte[] second = buffer.serialize(1000, writing(new byte[] {3}));
+        Assert.assertArrayEquals(new byte[] {3}, second);
+
+        // Only the copies were allocated.
+        Assert.assertEquals(16, buffer.getCapacity());
+        Assert.assertEquals(3L, buffer.takeAllocatedBytes());
+        Assert.assertEquals(0L, buffer.takeAllocatedBytes());
+    }
+
+    @Test
+    public void testGrowth() {
+        GraphBuffer buffer = new GraphBuffer(16);
+        buffer.takeAllocatedBytes();
+
+        // This doesn't fit in 16 or 32 bytes, so it is serialized 3 times.
+        int[] attempts = new int[1];
+        byte[] result = buffer.serialize(1000, (target) -> {
+            attempts[0] += 1;
+            writing(new byte[40]).accept(target);
+        });
+        Assert.assertEquals(40, result.length);
+        Assert.assertEquals(3, attempts[0]);
+        Assert.assertEquals(64, buffer.getCapacity());
+        Assert.assertEquals(32L + 64L + 40L, buffer.takeAllocatedBytes());
+
+        // The buffer never shrinks.
+        buffer.serialize(1000, writing(new byte[1]));
+        Assert.assertEquals(64, buffer.getCapacity());
+    }
+
+    @Test
+    public void testGrowthIsCappedAtLimit() {
+        GraphBuffer buffer = new GraphBuffer(16);
+        byte[] result = buffer.serialize(20, writing(new byte[20]));
+        Assert.assertEquals(20, result.length);
+        Assert.assertEquals(20, buffer.getCapacity());
+    }
+
+    @Test(expected = OutOfEnergyException.class)
+    public void testGraphOverLimit() {
+        GraphBuffer buffer = new GraphBuffer(16);
+        buffer.serialize(20, writing(new byte[21]));
+    }
+
+
+    private static Consumer<ByteBuffer> writing(byte[] bytes) {
+        // Like the Serializer, report running off the end of the buffer as being out of energy.
+        return (target) -> {
+            try {
+                target.put(bytes);
+            } catch (BufferOverflowException e) {
+                throw new OutOfEnergyException();
+            }
+        };
+    }
+}
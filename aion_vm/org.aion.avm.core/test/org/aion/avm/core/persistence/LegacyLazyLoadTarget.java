@@ -0,0 +1,19 @@
+package org.aion.avm.core.persistence;
+
+
+/**
+ * A DApp which reads and writes an instance field.  When transformed by earlier versions, these field accesses were preceded by a
+ * call to lazyLoad() (see LegacyTransformedCodeTest).
+ */
+public class LegacyLazyLoadTarget {
+    private static Counter counter = new Counter();
+
+    public static byte[] main() {
+        counter.value += 1;
+        return new byte[] { (byte) counter.value };
+    }
+
+    public static class Counter {
+        public int value;
+    }
+}
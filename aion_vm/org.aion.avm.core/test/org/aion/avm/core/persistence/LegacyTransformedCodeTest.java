@@ -0,0 +1,74 @@
+package org.aion.avm.core.persistence;
+
+import java.math.BigInteger;
+import java.util.Base64;
+
+import org.aion.avm.core.AvmConfiguration;
+import org.aion.avm.core.AvmImpl;
+import org.aion.avm.core.CommonAvmFactory;
+import org.aion.avm.core.blockchainruntime.EmptyCapabilities;
+import org.aion.avm.core.dappreading.JarBuilder;
+import org.aion.avm.core.util.CodeAndArguments;
+import org.aion.avm.core.util.Helpers;
+import org.aion.kernel.AvmTransactionResult;
+import org.aion.kernel.Block;
+import org.aion.kernel.TestingKernel;
+import org.aion.kernel.Transaction;
+import org.aion.types.Address;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+/**
+ * Tests that DApps deployed by earlier versions of the AVM can still be called, using their stored code as it was transformed then.
+ */
+public class LegacyTransformedCodeTest {
+    private static final Address DEPLOYER = TestingKernel.PREMINED_ADDRESS;
+    private static final Block BLOCK = new Block(new byte[32], 1, Helpers.randomAddress(), System.currentTimeMillis(), new byte[0]);
+
+    // The transformed code (a JAR) stored when LegacyLazyLoadTarget was deployed by the AVM before the lazyLoad() calls were removed.
+    // Its field accesses each call lazyLoad() first.
+    private static final String LAZY_LOAD_CODE = 
+            "UEsDBBQACAgIAAAAIQAAAAAAAAAAAAAAAAAUABUATUVUQS1JTkYvTUFOSUZFU1QuTUZVVA0ABwAAAAAAAAAAAAAAAP7KAAAVyrEKgCAUBdBd8B/6AR+1urbq"
+            + "Fu0Xe4lQGj4J7Our+RyPnHaWZlaukkq2w0SjVh4pm/mAiB1KjYSPCPdJoVSm67/SOAcmxxGhOzzdFWwLauSmlVYvUEsHCKzZq4RVAAAAWQAAAFBLAwQUAAgI"
+            + "CAAAACEAAAAAAAAAAAAAAAAASgARAG9yZy9haW9uL2F2bS91c2VyL29yZy9haW9uL2F2bS9jb3JlL3BlcnNpc3RlbmNlL0xlZ2FjeUxhenlMb2FkVGFyZ2V0"
+            + "LmNsYXNzVVQNAAcAAAAAAAAAAAAAAACtUttu00AUnMVJHDvmlrZcW6BqoE4KLOUSoEFINAURZOAFBUVCgsVZJa5Su7KdFPMFvPInFEEb8cAH8FGIs3YqlLc+"
+            + "1A/rc3Zn58yM/efvr98A6mgwbARhjwsv8LkYbfFhJEM+teMGoeTbMoy8KJa+K7kje8JNHPE5cQLRfSPCnox1MIbK1L2oL7rBDt8UI8EHwu/x1x83pUtIjcE5"
+            + "ipmVZjD0YxnqyDPok4ahRATv3YPu1ZGOorgKjzzfix8zaHa1rVGINJw913GcJkuFeSnjftBlyNmtatvCSZwycQKn88ieVQbL7SvWp74Me4kCvlDAOZxRwLMW"
+            + "TJRM5HCewZSfvDgjtHAxY5pnKCqLW8LzGZbt6rRDEYYi2QnFNnni60ksn6iNhlKqH2j4YqEIw8AxLBHZYGLVwtVs8DUGQ00YicFQkruWBRtVAwXUGJYOMU3H"
+            + "daJQOaUtg01ZHEqmhZvgJm7gFgUcyZghb7fWVTy3cUft32WYtZ3/P1U78LqNNGgTdSX+PgXaDLqk22r5lHBzIKJIRsVFcpsj7xSqMk+VltYlWh9Sp84ZvefK"
+            + "1hjlWcyMca62jwuqXdhNYzNwCZcn8GfIwlwrX0nhiwT/jkqns4flH1jJfXj3lqqfVI2x2tHUUXbydQ/31J2Fb+l9JaE+4ZwhSel3qq3M7+PB7gSwRqtJ7wIp"
+            + "1GH8A1BLBwj12MHiCQIAALwDAABQSwMEFAAICAgAAAAhAAAAAAAAAAAAAAAAAFIAEQBvcmcvYWlvbi9hdm0vdXNlci9vcmcvYWlvbi9hdm0vY29yZS9wZXJz"
+            + "aXN0ZW5jZS9MZWdhY3lMYXp5TG9hZFRhcmdldCRDb3VudGVyLmNsYXNzVVQNAAcAAAAAAAAAAAAAAACtT8tOwkAUPZdXodQX4BtRlAXgYuLGjcYNmoipcWPY"
+            + "mrGdlBLsmLag+FeuIC78AD/KOAMYw95Z3Lln5px7zv36/vgEcIojgi1Dj3FfBowPn9ggEiFbeHFkKNizCCM/ikXgCGYLjzsjm7+NbMndex56Iq615CCIRWiA"
+            + "CLUFfdTlrnxhPT7krM8Dj9099oQTG0gSLv/D20CaYMwDEHJK+DDk/YEgUJuQOfcDP74gJOuNTlJtrdh0bWCJkBdacivirnQJqXq70bGwglUTy1hLY3ZOCJbT"
+            + "1U5XgQi9kSbeaOI6NjRx04KJvIkUtgmmePXj2UALu7NJZUKpbv/t35G+eza1MlHRun01siVdlddqB8qj1edRJKJsFQn1C6i8yCKnuoTqlJmqVYWqUwysF6wJ"
+            + "CiUUJ9hqjrGj4d77NLymV+b0IpLQ+xvN4/IYB7+EQ1VNdSeQgYHcD1BLBwhC7XJWVQEAABsCAABQSwECFAAUAAgICAAAACEArNmrhFUAAABZAAAAFAANAAAA"
+            + "AAAAAAAAAAAAAAAATUVUQS1JTkYvTUFOSUZFU1QuTUZVVAUABwAAAAD+ygAAUEsBAhQAFAAICAgAAAAhAPXYweIJAgAAvAMAAEoACQAAAAAAAAAAAAAArAAA"
+            + "AG9yZy9haW9uL2F2bS91c2VyL29yZy9haW9uL2F2bS9jb3JlL3BlcnNpc3RlbmNlL0xlZ2FjeUxhenlMb2FkVGFyZ2V0LmNsYXNzVVQFAAcAAAAAUEsBAhQA"
+            + "FAAICAgAAAAhAELtclZVAQAAGwIAAFIACQAAAAAAAAAAAAAAPgMAAG9yZy9haW9uL2F2bS91c2VyL29yZy9haW9uL2F2bS9jb3JlL3BlcnNpc3RlbmNlL0xl"
+            + "Z2FjeUxhenlMb2FkVGFyZ2V0JENvdW50ZXIuY2xhc3NVVAUABwAAAABQSwUGAAAAAAMAAwBZAQAAJAUAAAAA";
+    // The object graph stored after the first call to that DApp (so its counter is 1).
+    private static final String LAZY_LOAD_GRAPH = "AAAAAwMAAAAATG9yZy5haW9uLmF2bS51c2VyLm9yZy5haW9uLmF2bS5jb3JlLnBlcnNpc3RlbmNlLkxlZ2FjeUxhenlMb2FkVGFyZ2V0JENvdW50ZXIAAAABAAAAAQ==";
+
+    @Test
+    public void testCallCodeCallingLazyLoad() {
+        TestingKernel kernel = new TestingKernel(BLOCK);
+        AvmImpl avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), new AvmConfiguration());
+        byte[] txData = new CodeAndArguments(JarBuilder.buildJarForMainAndClasses(LegacyLazyLoadTarget.class), new byte[0]).encodeToBytes();
+        Transaction create = Transaction.create(DEPLOYER, kernel.getNonce(DEPLOYER), BigInteger.ZERO, txData, 10_000_000L, 1L);
+        AvmTransactionResult createResult = (AvmTransactionResult) avm.run(kernel, new Transaction[] {create})[0].get();
+        Assert.assertEquals(AvmTransactionResult.Code.SUCCESS, createResult.getResultCode());
+        Address dappAddress = Address.wrap(createResult.getReturnData());
+
+        // Replace what was stored with what the earlier version stored, as if the DApp had been deployed (and called once) before.
+        kernel.setTransformedCode(dappAddress, Base64.getDecoder().decode(LAZY_LOAD_CODE));
+        kernel.putObjectGraph(dappAddress, Base64.getDecoder().decode(LAZY_LOAD_GRAPH));
+
+        Transaction call = Transaction.call(DEPLOYER, dappAddress, kernel.getNonce(DEPLOYER), BigInteger.ZERO, new byte[0], 10_000_000L, 1L);
+        AvmTransactionResult callResult = (AvmTransactionResult) avm.run(kernel, new Transaction[] {call})[0].get();
+        Assert.assertEquals(AvmTransactionResult.Code.SUCCESS, callResult.getResultCode());
+        Assert.assertArrayEquals(new byte[] { 2 }, callResult.getReturnData());
+        avm.shutdown();
+    }
+}
@@ -50,6 +50,22 @@ public class LoadedDAppTest {
         InstrumentationHelpers.detachThread(this.instrumentation);
     }
 
+    @Test
+    public void isLoadedFromCodeHash() {
+        LoadedDApp dapp = new LoadedDApp(this.loader, Arrays.asList(LoadedDAppTarget.class), LoadedDAppTarget.class.getName(), this.preserveDebuggability);
+        byte[] code = new byte[] {1, 2, 3};
+        byte[] codeHash = LoadedDApp.hashLoadedCode(code);
+        Assert.assertEquals(32, codeHash.length);
+        Assert.assertNull(LoadedDApp.hashLoadedCode(null));
+        
+        // Nothing matches until we know which code it was loaded from.
+        Assert.assertFalse(dapp.isLoadedFrom(codeHash));
+        dapp.setLoadedCodeHash(codeHash);
+        Assert.assertTrue(dapp.isLoadedFrom(LoadedDApp.hashLoadedCode(code.clone())));
+        Assert.assertFalse(dapp.isLoadedFrom(LoadedDApp.hashLoadedCode(new byte[] {1, 2, 4})));
+        Assert.assertFalse(dapp.isLoadedFrom(null));
+    }
+
     /**
      * Populate 2 target classes and make sure they serialize correctly.
      */
@@ -73,7 +89,7 @@ public class LoadedDAppTest {
         LoadedDAppTarget.s_eight = 5.0d;
 
         LoadedDApp dapp = new LoadedDApp(this.loader, Arrays.asList(ReflectionStructureCodecTarget.class, LoadedDAppTarget.class), ReflectionStructureCodecTarget.class.getName(), this.preserveDebuggability);
-        byte[] result = dapp.saveEntireGraph(1, MAX_GRAPH_SIZE);
+        byte[] result = dapp.saveEntireGraph(new GraphBuffer(), 1, MAX_GRAPH_SIZE, false);
         String expectedHex = ""
                 // hashcode
                 + "00000001"
@@ -212,7 +228,7 @@ public class LoadedDAppTest {
         ReflectionStructureCodecTarget.s_nine = new ReflectionStructureCodecTarget();
         
         LoadedDApp dapp = new LoadedDApp(this.loader, Arrays.asList(ReflectionStructureCodecTarget.class), ReflectionStructureCodecTarget.class.getName(), this.preserveDebuggability);
-        byte[] result = dapp.saveEntireGraph(1, MAX_GRAPH_SIZE);
+        byte[] result = dapp.saveEntireGraph(new GraphBuffer(), 1, MAX_GRAPH_SIZE, false);
         String expectedHex = ""
                 // hashcode
                 + "00000001"
@@ -312,7 +328,7 @@ public class LoadedDAppTest {
         
         LoadedDApp dapp = new LoadedDApp(this.loader, Arrays.asList(ReflectionStructureCodecTarget.class, ReflectionStructureCodecTargetSub.class), ReflectionStructureCodecTarget.class.getName(), this.preserveDebuggability);
         int hashCode = 1;
-        byte[] result = dapp.saveEntireGraph(hashCode, MAX_GRAPH_SIZE);
+        byte[] result = dapp.saveEntireGraph(new GraphBuffer(), hashCode, MAX_GRAPH_SIZE, false);
         
         // We always have a hashcode - both at the beginning of the buffer (next), and in each instance, before fields.
         int hashCodeSize = 4;
@@ -353,9 +369,7 @@ public class LoadedDAppTest {
         
         // Verify that the instances are as we expect.
         ReflectionStructureCodecTarget parent = ReflectionStructureCodecTarget.s_nine;
-        parent.lazyLoad();
         ReflectionStructureCodecTargetSub sub = ReflectionStructureCodecTargetSub.s_nine;
-        sub.lazyLoad();
         Assert.assertEquals(true, parent.i_one);
         Assert.assertEquals(5, parent.i_two);
         Assert.assertEquals(5, parent.i_three);
@@ -387,7 +401,7 @@ public class LoadedDAppTest {
         
         LoadedDApp dapp = new LoadedDApp(this.loader, Arrays.asList(LoadedDAppTarget.class), LoadedDAppTarget.class.getName(), this.preserveDebuggability);
         int hashcode = 1;
-        byte[] result = dapp.saveEntireGraph(hashcode, MAX_GRAPH_SIZE);
+        byte[] result = dapp.saveEntireGraph(new GraphBuffer(), hashcode, MAX_GRAPH_SIZE, false);
         String expectedHex = ""
                 // hashcode
                 + "00000001"
@@ -432,7 +446,7 @@ public class LoadedDAppTest {
         LoadedDAppTarget.s_nine = originalClassRef;
         
         LoadedDApp dapp = new LoadedDApp(this.loader, Arrays.asList(LoadedDAppTarget.class), LoadedDAppTarget.class.getName(), this.preserveDebuggability);
-        byte[] result = dapp.saveEntireGraph(1, MAX_GRAPH_SIZE);
+        byte[] result = dapp.saveEntireGraph(new GraphBuffer(), 1, MAX_GRAPH_SIZE, false);
         String expectedHex = ""
                 // hashcode
                 + "00000001"
@@ -475,7 +489,7 @@ public class LoadedDAppTest {
         LoadedDAppTarget.s_nine = org.aion.avm.shadow.java.lang.Byte.avm_TYPE;
         
         LoadedDApp dapp = new LoadedDApp(this.loader, Arrays.asList(LoadedDAppTarget.class), LoadedDAppTarget.class.getName(), this.preserveDebuggability);
-        byte[] result = dapp.saveEntireGraph(1, MAX_GRAPH_SIZE);
+        byte[] result = dapp.saveEntireGraph(new GraphBuffer(), 1, MAX_GRAPH_SIZE, false);
         String expectedHex = ""
                 // hashcode
                 + "00000001"
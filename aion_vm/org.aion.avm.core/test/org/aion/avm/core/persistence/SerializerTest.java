@@ -48,8 +48,8 @@ public class SerializerTest {
         
         int nextHashCode = 1;
         Class<?>[] sortedRoots = new Class<?>[] {TargetRoot.class, TargetLeaf.class};
-        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots);
-        Serializer.serializeEntireGraph(buffer, null, null, resolver, this.cache, classNameMapper, nextHashCode, sortedRoots);
+        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots, false);
+        Serializer.serializeEntireGraph(buffer, null, null, resolver, this.cache, classNameMapper, nextHashCode, sortedRoots, false);
         System.out.println(Helpers.bytesToHexString(finalBytes));
         Assert.assertArrayEquals(Helpers.hexStringToBytes("00000001030000000000000000000000000a546172676574526f6f740000000103000000010a5461726765744c656166000000020003000000000300000001"), finalBytes);
         
@@ -72,7 +72,7 @@ public class SerializerTest {
         
         int nextHashCode = 1;
         Class<?>[] sortedRoots = new Class<?>[] {TargetRoot.class, TargetLeaf.class};
-        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots);
+        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots, false);
         System.out.println(Helpers.bytesToHexString(finalBytes));
         Assert.assertArrayEquals(Helpers.hexStringToBytes("00000001030000000000000000000000000a546172676574526f6f740000000103000000010a5461726765744c6561660000000200000300000001"), finalBytes);
         
@@ -102,7 +102,7 @@ public class SerializerTest {
         
         int nextHashCode = 1;
         Class<?>[] sortedRoots = new Class<?>[] {TargetRoot.class, TargetLeaf.class, TargetArray.class};
-        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots);
+        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots, false);
         System.out.println(Helpers.bytesToHexString(finalBytes));
         Assert.assertArrayEquals(Helpers.hexStringToBytes("00000001030000000000000000000000000b54617267657441727261790000000100000000060300000001030000000203000000030300000004030000000503000000060a5461726765744c6561660000000400030000000703000000080a5461726765744c6561660000000500030000000703000000080a5461726765744c6561660000000600030000000703000000080a5461726765744c6561660000000700030000000703000000080a5461726765744c6561660000000800030000000703000000080a5461726765744c6561660000000900030000000703000000080a546172676574526f6f7400000002000a546172676574526f6f740000000300"), finalBytes);
         
@@ -126,7 +126,7 @@ public class SerializerTest {
         
         int nextHashCode = 1;
         Class<?>[] sortedRoots = new Class<?>[] {TargetRoot.class, TargetLeaf.class, TargetArray.class};
-        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots);
+        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots, false);
         System.out.println(Helpers.bytesToHexString(finalBytes));
         Assert.assertArrayEquals(Helpers.hexStringToBytes("00000001030000000000000000000000000a546172676574526f6f740000000103000000010a5461726765744c656166000000020002000000010300000001"), finalBytes);
         
@@ -146,7 +146,7 @@ public class SerializerTest {
         
         int nextHashCode = 1;
         Class<?>[] sortedRoots = new Class<?>[] {TargetRoot.class, TargetLeaf.class, TargetArray.class};
-        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots);
+        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots, false);
         System.out.println(Helpers.bytesToHexString(finalBytes));
         Assert.assertArrayEquals(Helpers.hexStringToBytes("00000001030000000000000000000000000b5461726765744172726179000000010000000001010b5461726765744172726179"), finalBytes);
         
@@ -155,6 +155,59 @@ public class SerializerTest {
         Assert.assertTrue(TargetArray.class == checkArray.array[0]);
     }
 
+    @Test
+    public void testLegacyAndDictionaryFormats() throws Exception {
+        // This is the graph from testWithArray, in the legacy format.
+        byte[] legacyBytes = Helpers.hexStringToBytes("00000001030000000000000000000000000b54617267657441727261790000000100000000060300000001030000000203000000030300000004030000000503000000060a5461726765744c6561660000000400030000000703000000080a5461726765744c6561660000000500030000000703000000080a5461726765744c6561660000000600030000000703000000080a5461726765744c6561660000000700030000000703000000080a5461726765744c6561660000000800030000000703000000080a5461726765744c6561660000000900030000000703000000080a546172676574526f6f7400000002000a546172676574526f6f740000000300");
+        TargetRoot.root = null;
+        
+        Class<?>[] sortedRoots = new Class<?>[] {TargetRoot.class, TargetLeaf.class, TargetArray.class};
+        int hashCode = Deserializer.deserializeEntireGraphAndNextHashCode(ByteBuffer.wrap(legacyBytes), null, new TestGlobalResolver(), this.cache, new TestNameMapper(), sortedRoots);
+        Assert.assertEquals(1, hashCode);
+        
+        Assert.assertEquals(1, TargetRoot.root.counter);
+        TargetArray checkArray = (TargetArray)TargetRoot.root;
+        Assert.assertEquals(6, checkArray.array.length);
+        Assert.assertEquals(9, ((TargetRoot)checkArray.array[5]).counter);
+        Assert.assertEquals(3, ((TargetLeaf)checkArray.array[5]).right.counter);
+        Assert.assertTrue(((TargetLeaf)checkArray.array[5]).left == ((TargetLeaf)checkArray.array[0]).left);
+        
+        // Writing it back out in the legacy format produces the same bytes.
+        Assert.assertArrayEquals(legacyBytes, serializeDeserializeAsNew(hashCode, sortedRoots, false));
+        
+        // The dictionary format is smaller, since each class name is only written once, and can be read back.
+        byte[] dictionaryBytes = serializeDeserializeAsNew(hashCode, sortedRoots, true);
+        System.out.println(Helpers.bytesToHexString(dictionaryBytes));
+        Assert.assertArrayEquals(Helpers.hexStringToBytes("a70000020000000103000000000000000000000b5461726765744172726179000000010000000006030103020303030403050306010a5461726765744c6561660000000400030703080100000005000307030801000000060003070308010000000700030703080100000008000307030801000000090003070308020a546172676574526f6f740000000200020000000300"), dictionaryBytes);
+        Assert.assertEquals(GraphFormat.DICTIONARY_FORMAT_HEADER, ByteBuffer.wrap(dictionaryBytes).getInt());
+        Assert.assertEquals(146, dictionaryBytes.length);
+        Assert.assertEquals(256, legacyBytes.length);
+        
+        // Writing it back out in the dictionary format produces the same bytes, as well.
+        Assert.assertArrayEquals(dictionaryBytes, serializeDeserializeAsNew(hashCode, sortedRoots, true));
+        Assert.assertEquals(9, ((TargetRoot)((TargetArray)TargetRoot.root).array[5]).counter);
+    }
+
+    @Test
+    public void testVarInts() throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(100);
+        int[] values = {0, 1, 127, 128, 300, 16384, Integer.MAX_VALUE};
+        for (int value : values) {
+            GraphFormat.putVarInt(buffer, value);
+        }
+        // Each byte holds 7 bits.
+        Assert.assertEquals(1 + 1 + 1 + 2 + 2 + 3 + 5, buffer.position());
+        Assert.assertEquals((byte)0x7f, buffer.get(2));
+        Assert.assertEquals((byte)0x80, buffer.get(3));
+        Assert.assertEquals((byte)0x01, buffer.get(4));
+        
+        buffer.flip();
+        for (int value : values) {
+            Assert.assertEquals(value, GraphFormat.getVarInt(buffer));
+        }
+        Assert.assertFalse(buffer.hasRemaining());
+    }
+
     @Test
     public void testReentrantExample() throws Exception {
         TestGlobalResolver resolver = new TestGlobalResolver();
@@ -172,7 +225,7 @@ public class SerializerTest {
         // We want to capture this state as the caller.
         int nextHashCode = 1;
         Class<?>[] sortedRoots = new Class<?>[] {TargetRoot.class, TargetLeaf.class};
-        ReentrantGraph callerState = ReentrantGraph.captureCallerState(resolver, this.cache, classNameMapper, 1000, nextHashCode, sortedRoots);
+        ReentrantGraph callerState = ReentrantGraph.captureCallerState(resolver, this.cache, classNameMapper, new GraphBuffer(), 1000, nextHashCode, sortedRoots, false);
         
         // We need to fake up a callee context, which means that shared instances will have a readIndex, so we need to create our new instances.
         TargetRoot.root = null;
@@ -187,7 +240,7 @@ public class SerializerTest {
         newRoot.next = TargetRoot.root;
         TargetRoot.root = newRoot;
         TargetLeaf.D = 5.0;
-        ReentrantGraph calleeState = ReentrantGraph.captureCalleeState(resolver, this.cache, classNameMapper, 1000, nextHashCode, sortedRoots);
+        ReentrantGraph calleeState = ReentrantGraph.captureCalleeState(resolver, this.cache, classNameMapper, new GraphBuffer(), 1000, nextHashCode, sortedRoots, false);
         System.out.println(Helpers.bytesToHexString(calleeState.rawState));
         
         TargetRoot.root = null;
@@ -223,7 +276,7 @@ public class SerializerTest {
         // We want to capture this state as the caller.
         int nextHashCode = 1;
         Class<?>[] sortedRoots = new Class<?>[] {TargetRoot.class, TargetLeaf.class};
-        ReentrantGraph callerState = ReentrantGraph.captureCallerState(resolver, this.cache, classNameMapper, 1000, nextHashCode, sortedRoots);
+        ReentrantGraph callerState = ReentrantGraph.captureCallerState(resolver, this.cache, classNameMapper, new GraphBuffer(), 1000, nextHashCode, sortedRoots, false);
         
         // We need to fake up a callee context, which means that shared instances will have a readIndex, so we need to create our new instances.
         TargetRoot.root = null;
@@ -270,7 +323,7 @@ public class SerializerTest {
         
         int nextHashCode = 1;
         Class<?>[] sortedRoots = new Class<?>[] {TargetRoot.class, TargetLeaf.class, TargetArray.class};
-        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots);
+        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots, false);
         System.out.println("IntArrays perf serialized size: " + finalBytes.length);
         
         TestGlobalResolver resolver = new TestGlobalResolver();
@@ -281,7 +334,7 @@ public class SerializerTest {
         long start = System.nanoTime();
         for (int i = 0; i < samples; ++i) {
             serializationBuffer.clear();
-            Serializer.serializeEntireGraph(serializationBuffer, null, null, resolver, this.cache, classNameMapper, nextHashCode, sortedRoots);
+            Serializer.serializeEntireGraph(serializationBuffer, null, null, resolver, this.cache, classNameMapper, nextHashCode, sortedRoots, false);
         }
         long end = System.nanoTime();
         long deltaNanosPer = (end - start) / samples;
@@ -317,7 +370,7 @@ public class SerializerTest {
         
         int nextHashCode = 1;
         Class<?>[] sortedRoots = new Class<?>[] {TargetRoot.class, TargetLeaf.class, TargetArray.class};
-        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots);
+        byte[] finalBytes = serializeDeserializeAsNew(nextHashCode, sortedRoots, false);
         System.out.println("ObjectArrays perf serialized size: " + finalBytes.length);
         
         TestGlobalResolver resolver = new TestGlobalResolver();
@@ -328,7 +381,7 @@ public class SerializerTest {
         long start = System.nanoTime();
         for (int i = 0; i < samples; ++i) {
             serializationBuffer.clear();
-            Serializer.serializeEntireGraph(serializationBuffer, null, null, resolver, this.cache, classNameMapper, nextHashCode, sortedRoots);
+            Serializer.serializeEntireGraph(serializationBuffer, null, null, resolver, this.cache, classNameMapper, nextHashCode, sortedRoots, false);
         }
         long end = System.nanoTime();
         long deltaNanosPer = (end - start) / samples;
@@ -347,12 +400,12 @@ public class SerializerTest {
     }
 
 
-    private byte[] serializeDeserializeAsNew(int nextHashCode, Class<?>[] sortedRoots) {
+    private byte[] serializeDeserializeAsNew(int nextHashCode, Class<?>[] sortedRoots, boolean useDictionaryFormat) {
         ByteBuffer buffer = ByteBuffer.allocate(5_000_000);
         TestGlobalResolver resolver = new TestGlobalResolver();
         TestNameMapper classNameMapper = new TestNameMapper();
         
-        Serializer.serializeEntireGraph(buffer, null, null, resolver, this.cache, classNameMapper, nextHashCode, sortedRoots);
+        Serializer.serializeEntireGraph(buffer, null, null, resolver, this.cache, classNameMapper, nextHashCode, sortedRoots, useDictionaryFormat);
         byte[] finalBytes = new byte[buffer.position()];
         System.arraycopy(buffer.array(), 0, finalBytes, 0, finalBytes.length);
         
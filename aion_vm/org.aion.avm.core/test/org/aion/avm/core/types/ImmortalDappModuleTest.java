@@ -0,0 +1,71 @@
+package org.aion.avm.core.types;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.aion.avm.core.util.Helpers;
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class ImmortalDappModuleTest {
+    @Test
+    public void testCompactRoundTrip() throws Exception {
+        ImmortalDappModule module = ImmortalDappModule.fromImmortalClasses(buildClasses(), "b.Main");
+        byte[] compact = module.createCompact();
+        Assert.assertTrue(ImmortalDappModule.isCompact(compact));
+
+        ImmortalDappModule read = ImmortalDappModule.readFromStorage(compact);
+        Assert.assertEquals("b.Main", read.mainClass);
+        assertSameClasses(module.classes, read.classes);
+
+        // The encoding only depends on the contents, not the order of the map.
+        Map<String, byte[]> reordered = new HashMap<>();
+        for (String name : new String[] {"b.Main", "a.Other"}) {
+            reordered.put(name, module.classes.get(name));
+        }
+        Assert.assertArrayEquals(compact, ImmortalDappModule.fromImmortalClasses(reordered, "b.Main").createCompact());
+    }
+
+    @Test
+    public void testJarFallback() throws Exception {
+        ImmortalDappModule module = ImmortalDappModule.fromImmortalClasses(buildClasses(), "b.Main");
+        byte[] jar = module.createJar(Helpers.randomAddress(), 1L);
+        Assert.assertFalse(ImmortalDappModule.isCompact(jar));
+
+        ImmortalDappModule read = ImmortalDappModule.readFromStorage(jar);
+        Assert.assertEquals("b.Main", read.mainClass);
+        assertSameClasses(module.classes, read.classes);
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws Exception {
+        byte[] compact = ImmortalDappModule.fromImmortalClasses(buildClasses(), "b.Main").createCompact();
+        ImmortalDappModule.readFromStorage(Arrays.copyOf(compact, compact.length - 1));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownVersion() throws Exception {
+        byte[] compact = ImmortalDappModule.fromImmortalClasses(buildClasses(), "b.Main").createCompact();
+        // (the version byte immediately follows the 4-byte header)
+        compact[4] = 2;
+        ImmortalDappModule.readFromStorage(compact);
+    }
+
+
+    private static Map<String, byte[]> buildClasses() {
+        Map<String, byte[]> classes = new HashMap<>();
+        classes.put("a.Other", new byte[] {1, 2, 3});
+        classes.put("b.Main", new byte[] {4, 5, 6, 7});
+        return classes;
+    }
+
+    private static void assertSameClasses(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+        Assert.assertEquals(expected.keySet(), actual.keySet());
+        for (String name : expected.keySet()) {
+            Assert.assertArrayEquals(expected.get(name), actual.get(name));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.aion.avm.core.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+
+public class LruCacheTest {
+    @Test
+    public void testCheckoutAndCheckin() {
+        LruCache<String, byte[]> cache = new LruCache<>(10, 1024L, (value) -> value.length);
+        byte[] element1 = new byte[16];
+        Assert.assertNull(cache.checkout("element1"));
+        cache.checkin("element1", element1);
+        Assert.assertSame(element1, cache.checkout("element1"));
+        // Checked-out values are no longer in the cache.
+        Assert.assertNull(cache.checkout("element1"));
+
+        CacheStatistics stats = cache.getStatistics();
+        Assert.assertEquals(1L, stats.getHits());
+        Assert.assertEquals(2L, stats.getMisses());
+        Assert.assertEquals(0, stats.getEntryCount());
+        Assert.assertEquals(0L, stats.getTotalBytes());
+    }
+
+    @Test
+    public void testEntryBound() {
+        LruCache<String, byte[]> cache = new LruCache<>(2, 1024L, (value) -> value.length);
+        cache.checkin("a", new byte[1]);
+        cache.checkin("b", new byte[1]);
+        // Using "a" makes "b" the least recently used, so it is the one evicted.
+        cache.checkin("a", cache.checkout("a"));
+        cache.checkin("c", new byte[1]);
+
+        Assert.assertNull(cache.checkout("b"));
+        Assert.assertNotNull(cache.checkout("a"));
+        Assert.assertNotNull(cache.checkout("c"));
+        Assert.assertEquals(1L, cache.getStatistics().getEvictions());
+    }
+
+    @Test
+    public void testByteBound() {
+        LruCache<String, byte[]> cache = new LruCache<>(10, 100L, (value) -> value.length);
+        cache.checkin("a", new byte[40]);
+        cache.checkin("b", new byte[40]);
+        Assert.assertEquals(80L, cache.getStatistics().getTotalBytes());
+
+        // This pushes us over the limit so the oldest is evicted.
+        cache.checkin("c", new byte[40]);
+        CacheStatistics stats = cache.getStatistics();
+        Assert.assertEquals(2, stats.getEntryCount());
+        Assert.assertEquals(80L, stats.getTotalBytes());
+        Assert.assertEquals(1L, stats.getEvictions());
+        Assert.assertNull(cache.checkout("a"));
+
+        // A value too big for the cache is dropped immediately, without evicting the others.
+        cache.checkin("huge", new byte[200]);
+        Assert.assertNull(cache.checkout("huge"));
+        Assert.assertEquals(2, cache.getStatistics().getEntryCount());
+    }
+
+    @Test
+    public void testInvalidation() {
+        LruCache<String, byte[]> cache = new LruCache<>(10, 1024L, (value) -> value.length);
+        cache.checkin("a", new byte[1]);
+        cache.checkin("b", new byte[2]);
+        cache.checkin("c", new byte[3]);
+
+        Assert.assertNull(cache.checkout("a", (value) -> value.length != 1));
+        cache.removeIf((key, value) -> "b".equals(key));
+        Assert.assertNotNull(cache.checkout("c", (value) -> value.length == 3));
+
+        CacheStatistics stats = cache.getStatistics();
+        Assert.assertEquals(2L, stats.getInvalidations());
+        Assert.assertEquals(1L, stats.getHits());
+        Assert.assertEquals(1L, stats.getMisses());
+        Assert.assertEquals(0, stats.getEntryCount());
+    }
+
+    @Test
+    public void testSeveralValuesPerKey() {
+        LruCache<String, byte[]> cache = new LruCache<>(10, 1024L, 2, (value) -> value.length);
+        byte[] first = new byte[1];
+        byte[] second = new byte[1];
+
+        // 2 threads using the same key each get their own value, and both can be checked back in.
+        cache.checkin("a", first);
+        cache.checkin("a", second);
+        Assert.assertNotNull(cache.checkout("a"));
+        Assert.assertNotNull(cache.checkout("a"));
+        Assert.assertNull(cache.checkout("a"));
+        cache.checkin("a", first);
+        cache.checkin("a", second);
+
+        // A third is beyond the per-key limit, so it is dropped.
+        cache.checkin("a", new byte[1]);
+        CacheStatistics stats = cache.getStatistics();
+        Assert.assertEquals(2, stats.getEntryCount());
+        Assert.assertEquals(1L, stats.getEvictions());
+
+        // Invalidation drains every stale value for the key.
+        Assert.assertNull(cache.checkout("a", (value) -> false));
+        Assert.assertEquals(2L, cache.getStatistics().getInvalidations());
+        Assert.assertEquals(0, cache.getStatistics().getEntryCount());
+    }
+
+    @Test
+    public void testGetLeavesValueInCache() {
+        LruCache<String, byte[]> cache = new LruCache<>(2, 1024L, (value) -> value.length);
+        byte[] shared = new byte[1];
+        Assert.assertNull(cache.get("a"));
+        cache.checkin("a", shared);
+        cache.checkin("b", new byte[1]);
+
+        // Unlike a checkout, every get returns the same value, which stays in the cache.
+        Assert.assertSame(shared, cache.get("a"));
+        Assert.assertSame(shared, cache.get("a"));
+
+        // The get made "a" the most recently used, so "b" is the one evicted.
+        cache.checkin("c", new byte[1]);
+        Assert.assertNull(cache.get("b"));
+        Assert.assertSame(shared, cache.get("a"));
+
+        CacheStatistics stats = cache.getStatistics();
+        Assert.assertEquals(3L, stats.getHits());
+        Assert.assertEquals(2L, stats.getMisses());
+        Assert.assertEquals(2, stats.getEntryCount());
+    }
+}
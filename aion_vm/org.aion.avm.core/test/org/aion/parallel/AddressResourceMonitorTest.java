@@ -2,9 +2,17 @@ package org.aion.parallel;
 
 import legacy_examples.foresttest.A;
 import org.aion.avm.core.util.Helpers;
+import org.aion.kernel.TestingKernel;
 import org.aion.types.Address;
+import org.aion.vm.api.interfaces.KernelInterface;
+import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 public class AddressResourceMonitorTest {
     
     byte[] addr1 = Helpers.hexStringToBytes("1111111111111111111111111111111111111111111111111111111111111111");
@@ -210,4 +218,37 @@ public class AddressResourceMonitorTest {
         t2.join();
     }
 
+    @Test
+    public void testCommitOrder() throws InterruptedException{
+        AddressResourceMonitor monitor = new AddressResourceMonitor();
+        // The commits are observed through the kernel they are written back to.
+        List<Integer> commitOrder = Collections.synchronizedList(new ArrayList<>());
+        KernelInterface kernel = new TestingKernel() {
+            @Override
+            public void createAccount(Address address) {
+                commitOrder.add((int) address.toBytes()[0]);
+            }
+        };
+
+        // Start the tasks in reverse order, each on its own address, so every commit has to wait for its turn.
+        Thread[] threads = new Thread[8];
+        for (int i = threads.length - 1; i >= 0; --i){
+            int index = i;
+            threads[i] = new Thread(() -> {
+                TransactionTask task = new TransactionTask(kernel, null, index, Address.ZERO_ADDRESS());
+                task.startNewTransaction();
+                byte[] address = new byte[32];
+                address[0] = (byte) index;
+                monitor.acquire(address, task);
+                task.getThisTransactionalKernel().createAccount(Address.wrap(address));
+                Assert.assertTrue(monitor.commitKernelForTask(task, false));
+            });
+            threads[i].start();
+        }
+        for (Thread t : threads){
+            t.join();
+        }
+
+        Assert.assertEquals(Arrays.asList(0, 1, 2, 3, 4, 5, 6, 7), commitOrder);
+    }
 }
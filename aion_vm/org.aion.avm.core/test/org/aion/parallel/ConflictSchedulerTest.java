@@ -0,0 +1,78 @@
+package org.aion.parallel;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.aion.avm.core.AvmTransaction;
+import org.aion.avm.core.util.Helpers;
+import org.aion.kernel.Transaction;
+import org.aion.types.Address;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConflictSchedulerTest {
+    private Address usr1 = Address.wrap(Helpers.hexStringToBytes("1111111111111111111111111111111111111111111111111111111111111111"));
+    private Address usr2 = Address.wrap(Helpers.hexStringToBytes("2222222222222222222222222222222222222222222222222222222222222222"));
+    private Address usr3 = Address.wrap(Helpers.hexStringToBytes("3333333333333333333333333333333333333333333333333333333333333333"));
+    private Address usr4 = Address.wrap(Helpers.hexStringToBytes("4444444444444444444444444444444444444444444444444444444444444444"));
+
+    @Test
+    public void testInOrder() {
+        TransactionTask[] tasks = buildTasks(new Address[][] {{usr1, usr2}, {usr1, usr2}, {usr1, usr2}});
+        ConflictScheduler scheduler = ConflictScheduler.inOrder(tasks);
+
+        // Everything is ready immediately, in index order.
+        for (TransactionTask task : tasks) {
+            Assert.assertSame(task, scheduler.pollReadyTask());
+        }
+        Assert.assertFalse(scheduler.hasReadyTask());
+    }
+
+    @Test
+    public void testIndependentTasks() {
+        TransactionTask[] tasks = buildTasks(new Address[][] {{usr1, usr2}, {usr3, usr4}});
+        ConflictScheduler scheduler = ConflictScheduler.byConflicts(tasks);
+
+        Assert.assertSame(tasks[0], scheduler.pollReadyTask());
+        Assert.assertSame(tasks[1], scheduler.pollReadyTask());
+        Assert.assertEquals(0, scheduler.getPendingDependencyCount(1));
+        Assert.assertTrue(scheduler.getDependents(0).isEmpty());
+    }
+
+    @Test
+    public void testChains() {
+        // 0: usr1->usr2, 1: usr3->usr4, 2: usr2->usr3 (depends on 0 and 1), 3: usr1->usr1 (depends on 0)
+        TransactionTask[] tasks = buildTasks(new Address[][] {{usr1, usr2}, {usr3, usr4}, {usr2, usr3}, {usr1, usr1}});
+        ConflictScheduler scheduler = ConflictScheduler.byConflicts(tasks);
+        Assert.assertEquals(2, scheduler.getPendingDependencyCount(2));
+        Assert.assertEquals(1, scheduler.getPendingDependencyCount(3));
+        Assert.assertEquals(Arrays.asList(tasks[2], tasks[3]), scheduler.getDependents(0));
+        Assert.assertEquals(Arrays.asList(tasks[2]), scheduler.getDependents(1));
+
+        Assert.assertSame(tasks[0], scheduler.pollReadyTask());
+        Assert.assertSame(tasks[1], scheduler.pollReadyTask());
+        Assert.assertFalse(scheduler.hasReadyTask());
+
+        // Completing 1 isn't enough for 2, which is also waiting on 0.
+        scheduler.markCompleted(tasks[1]);
+        Assert.assertFalse(scheduler.hasReadyTask());
+
+        // Completing 0 releases both of the remaining tasks, which are handed out lowest index first.
+        scheduler.markCompleted(tasks[0]);
+        Assert.assertSame(tasks[2], scheduler.pollReadyTask());
+        Assert.assertSame(tasks[3], scheduler.pollReadyTask());
+        Assert.assertNull(scheduler.pollReadyTask());
+    }
+
+    private static TransactionTask[] buildTasks(Address[][] senderAndDestinations) {
+        TransactionTask[] tasks = new TransactionTask[senderAndDestinations.length];
+        for (int i = 0; i < tasks.length; ++i) {
+            Address sender = senderAndDestinations[i][0];
+            Address destination = senderAndDestinations[i][1];
+            Transaction tx = Transaction.call(sender, destination, BigInteger.ZERO, BigInteger.ZERO, new byte[0], 100_000L, 1L);
+            // (we don't consult the capabilities since there is no creation)
+            tasks[i] = new TransactionTask(null, AvmTransaction.from(null, tx), i, sender);
+        }
+        return tasks;
+    }
+}
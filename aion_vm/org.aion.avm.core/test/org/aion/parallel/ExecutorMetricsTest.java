@@ -0,0 +1,85 @@
+package org.aion.parallel;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.aion.avm.core.AvmConfiguration;
+import org.aion.avm.core.AvmImpl;
+import org.aion.avm.core.CommonAvmFactory;
+import org.aion.avm.core.blockchainruntime.EmptyCapabilities;
+import org.aion.avm.core.util.Helpers;
+import org.aion.kernel.Block;
+import org.aion.kernel.TestingKernel;
+import org.aion.kernel.Transaction;
+import org.aion.vm.api.interfaces.SimpleFuture;
+import org.aion.vm.api.interfaces.TransactionResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExecutorMetricsTest {
+    private org.aion.types.Address preminedAddress = TestingKernel.PREMINED_ADDRESS;
+
+    private Block block = new Block(new byte[32], 1, Helpers.randomAddress(), System.currentTimeMillis(), new byte[0]);
+
+    @Test
+    public void testBucketFor() {
+        Assert.assertEquals(0, WaitTimeHistogram.bucketFor(0L));
+        Assert.assertEquals(0, WaitTimeHistogram.bucketFor(999L));
+        Assert.assertEquals(1, WaitTimeHistogram.bucketFor(1_000L));
+        Assert.assertEquals(2, WaitTimeHistogram.bucketFor(2_000L));
+        Assert.assertEquals(2, WaitTimeHistogram.bucketFor(3_999L));
+        Assert.assertEquals(WaitTimeHistogram.BUCKET_COUNT - 1, WaitTimeHistogram.bucketFor(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        AvmImpl avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), new AvmConfiguration());
+        Assert.assertNull(avm.getExecutorMetrics());
+        avm.shutdown();
+    }
+
+    @Test
+    public void testBatchMetrics() throws Exception {
+        TestingKernel kernel = new TestingKernel(block);
+        AvmConfiguration config = new AvmConfiguration();
+        config.enableExecutorMetrics = true;
+        AvmImpl avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new EmptyCapabilities(), config);
+        ExecutorMetrics metrics = avm.getExecutorMetrics();
+        Assert.assertNotNull(metrics);
+        Assert.assertNull(metrics.getLastBatch());
+
+        // Every transaction touches the same 2 addresses so they all contend.
+        org.aion.types.Address usr1 = org.aion.types.Address.wrap(Helpers.hexStringToBytes("1111111111111111111111111111111111111111111111111111111111111111"));
+        int count = 8;
+        Transaction[] batch = new Transaction[count];
+        for (int i = 0; i < count; i++) {
+            batch[i] = Transaction.call(preminedAddress, usr1, BigInteger.valueOf(i), BigInteger.valueOf(1_000), new byte[0], 100000L, 1);
+        }
+        SimpleFuture<TransactionResult>[] results = avm.run(kernel, batch);
+        for (SimpleFuture<TransactionResult> f : results) {
+            Assert.assertTrue(f.get().getResultCode().isSuccess());
+        }
+
+        BatchMetrics last = metrics.getLastBatch();
+        Assert.assertNotNull(last);
+        Assert.assertEquals(count, last.getTransactionCount());
+        Assert.assertEquals(count, last.getAbortsPerTask().length);
+        Assert.assertEquals(count, last.getGraphBytesPerTask().length);
+        Assert.assertTrue(last.getWallNanos() > 0L);
+        Assert.assertFalse(last.getAddressContention().isEmpty());
+        Assert.assertTrue(last.getHotAddresses(1).size() <= 1);
+        Assert.assertEquals(1L, metrics.getBatchCount());
+        Assert.assertEquals(count, metrics.getTransactionCount());
+
+        // The same attributes are visible over JMX while the AVM is running.
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(ExecutorMetrics.OBJECT_NAME);
+        Assert.assertEquals(count, ((Integer) server.getAttribute(name, "LastBatchTransactionCount")).intValue());
+        Assert.assertEquals(1L, ((Long) server.getAttribute(name, "BatchCount")).longValue());
+
+        avm.shutdown();
+        Assert.assertFalse(server.isRegistered(name));
+    }
+}
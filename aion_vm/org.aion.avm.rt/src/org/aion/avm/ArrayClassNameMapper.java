@@ -3,15 +3,16 @@ package org.aion.avm;
 import java.util.regex.Pattern;
 import org.aion.avm.internal.PackageConstants;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.aion.avm.internal.RuntimeAssertionError;
 
 public class ArrayClassNameMapper {
     private static final Pattern PRIMITIVE_PATTERN = Pattern.compile("^\\${2,}[IBZCFSJD]$");
 
-    static private HashMap<String, String> CLASS_WRAPPER_MAP = new HashMap<>();
-    static private HashMap<String, String> INTERFACE_WRAPPER_MAP = new HashMap<>();
+    // These are added to by every transformation which needs a new wrapper, and transformations run concurrently.
+    static private ConcurrentHashMap<String, String> CLASS_WRAPPER_MAP = new ConcurrentHashMap<>();
+    static private ConcurrentHashMap<String, String> INTERFACE_WRAPPER_MAP = new ConcurrentHashMap<>();
 
     static {
         CLASS_WRAPPER_MAP.put("[I", PackageConstants.kArrayWrapperSlashPrefix + "IntArray");
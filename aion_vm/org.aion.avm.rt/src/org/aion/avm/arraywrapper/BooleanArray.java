@@ -26,42 +26,35 @@ public class BooleanArray extends Array {
 
     @Override
     public int length() {
-        lazyLoad();
         return this.underlying.length;
     }
 
     public boolean get(int idx) {
-        lazyLoad();
         return this.underlying[idx];
     }
 
     public void set(int idx, boolean val) {
-        lazyLoad();
         this.underlying[idx] = val;
     }
 
     @Override
     public IObject avm_clone() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.ByteArray_avm_clone + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * length());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.ByteArray_avm_clone + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * length());
         return new BooleanArray(Arrays.copyOf(underlying, underlying.length));
     }
 
     @Override
     public IObject clone() {
-        lazyLoad();
         return new BooleanArray(Arrays.copyOf(underlying, underlying.length));
     }
 
     @Override
     public boolean equals(java.lang.Object obj) {
-        lazyLoad();
         return obj instanceof BooleanArray && Arrays.equals(this.underlying, ((BooleanArray) obj).underlying);
     }
 
     @Override
     public java.lang.String toString() {
-        lazyLoad();
         return Arrays.toString(this.underlying);
     }
 
@@ -70,7 +63,7 @@ public class BooleanArray extends Array {
     //========================================================
 
     public BooleanArray(int c) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.ByteArray_avm_constructor);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.ByteArray_avm_constructor);
         this.underlying = new boolean[c];
     }
 
@@ -80,26 +73,22 @@ public class BooleanArray extends Array {
     }
 
     public boolean[] getUnderlying() {
-        lazyLoad();
         return underlying;
     }
 
     @Override
     public void setUnderlyingAsObject(java.lang.Object u){
         RuntimeAssertionError.assertTrue(null != u);
-        lazyLoad();
         this.underlying = (boolean[]) u;
     }
 
     @Override
     public java.lang.Object getUnderlyingAsObject(){
-        lazyLoad();
         return underlying;
     }
 
     @Override
     public java.lang.Object getAsObject(int idx){
-        lazyLoad();
         return this.underlying[idx];
     }
 
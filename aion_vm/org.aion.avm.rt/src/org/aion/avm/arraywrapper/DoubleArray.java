@@ -26,30 +26,25 @@ public class DoubleArray extends Array {
 
     @Override
     public int length() {
-        lazyLoad();
         return this.underlying.length;
     }
 
     public double get(int idx) {
-        lazyLoad();
         return this.underlying[idx];
     }
 
     public void set(int idx, double val) {
-        lazyLoad();
         this.underlying[idx] = val;
     }
 
     @Override
     public IObject avm_clone() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.DoubleArray_avm_clone + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * length());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.DoubleArray_avm_clone + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * length());
         return new DoubleArray(Arrays.copyOf(underlying, underlying.length));
     }
 
     @Override
     public IObject clone() {
-        lazyLoad();
         return new DoubleArray(Arrays.copyOf(underlying, underlying.length));
     }
 
@@ -58,7 +53,7 @@ public class DoubleArray extends Array {
     //========================================================
 
     public DoubleArray(int c) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.DoubleArray_avm_constructor);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.DoubleArray_avm_constructor);
         this.underlying = new double[c];
     }
 
@@ -68,26 +63,22 @@ public class DoubleArray extends Array {
     }
 
     public double[] getUnderlying() {
-        lazyLoad();
         return underlying;
     }
 
     @Override
     public void setUnderlyingAsObject(java.lang.Object u){
         RuntimeAssertionError.assertTrue(null != u);
-        lazyLoad();
         this.underlying = (double[]) u;
     }
 
     @Override
     public java.lang.Object getUnderlyingAsObject(){
-        lazyLoad();
         return underlying;
     }
 
     @Override
     public java.lang.Object getAsObject(int idx){
-        lazyLoad();
         return this.underlying[idx];
     }
 
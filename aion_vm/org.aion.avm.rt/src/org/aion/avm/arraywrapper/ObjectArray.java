@@ -33,30 +33,25 @@ public class ObjectArray extends Array implements IObjectArray {
 
     @Override
     public int length() {
-        lazyLoad();
         return this.underlying.length;
     }
 
     public Object get(int idx) {
-        lazyLoad();
         return this.underlying[idx];
     }
 
     public void set(int idx, Object val) {
-        lazyLoad();
         this.underlying[idx] = val;
     }
 
     @Override
     public IObject avm_clone() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.ObjectArray_avm_clone + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * length());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.ObjectArray_avm_clone + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * length());
         return new ObjectArray(Arrays.copyOf(underlying, underlying.length));
     }
 
     @Override
     public IObject clone() {
-        lazyLoad();
         return new ObjectArray(Arrays.copyOf(underlying, underlying.length));
     }
 
@@ -65,12 +60,12 @@ public class ObjectArray extends Array implements IObjectArray {
     //========================================================
 
     public ObjectArray(int c) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.ObjectArray_avm_constructor);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.ObjectArray_avm_constructor);
         this.underlying = new Object[c];
     }
 
     public ObjectArray(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.ObjectArray_avm_constructor_1);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.ObjectArray_avm_constructor_1);
     };
 
     public ObjectArray(Object[] underlying) {
@@ -79,26 +74,22 @@ public class ObjectArray extends Array implements IObjectArray {
     }
 
     public Object[] getUnderlying() {
-        lazyLoad();
         return underlying;
     }
 
     @Override
     public void setUnderlyingAsObject(java.lang.Object u){
         RuntimeAssertionError.assertTrue(null != u);
-        lazyLoad();
         this.underlying = (Object[]) u;
     }
 
     @Override
     public java.lang.Object getUnderlyingAsObject(){
-        lazyLoad();
         return underlying;
     }
 
     @Override
     public java.lang.Object getAsObject(int idx){
-        lazyLoad();
         return this.underlying[idx];
     }
 
@@ -26,30 +26,25 @@ public class ShortArray extends Array {
 
     @Override
     public int length() {
-        lazyLoad();
         return this.underlying.length;
     }
 
     public short get(int idx) {
-        lazyLoad();
         return this.underlying[idx];
     }
 
     public void set(int idx, short val) {
-        lazyLoad();
         this.underlying[idx] = val;
     }
 
     @Override
     public IObject clone() {
-        lazyLoad();
         return new ShortArray(Arrays.copyOf(underlying, underlying.length));
     }
 
     @Override
     public IObject avm_clone() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.ShortArray_avm_clone + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * length());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.ShortArray_avm_clone + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * length());
         return new ShortArray(Arrays.copyOf(underlying, underlying.length));
     }
 
@@ -58,7 +53,7 @@ public class ShortArray extends Array {
     //========================================================
 
     public ShortArray(int c) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.ShortArray_avm_constructor);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.ShortArray_avm_constructor);
         this.underlying = new short[c];
     }
 
@@ -68,26 +63,22 @@ public class ShortArray extends Array {
     }
 
     public short[] getUnderlying() {
-        lazyLoad();
         return underlying;
     }
 
     @Override
     public java.lang.Object getUnderlyingAsObject(){
-        lazyLoad();
         return underlying;
     }
 
     @Override
     public void setUnderlyingAsObject(java.lang.Object u){
         RuntimeAssertionError.assertTrue(null != u);
-        lazyLoad();
         this.underlying = (short[]) u;
     }
 
     @Override
     public java.lang.Object getAsObject(int idx){
-        lazyLoad();
         return this.underlying[idx];
     }
 
@@ -9,8 +9,22 @@ package org.aion.avm.internal;
  */
 public interface IInstrumentation {
     // The instrumentation instance associated with the given thread and also installed into the Helper of the currently-running DApp.
+    // NOTE:  Use getCurrentThreadInstrumentation() to read it, since an InstrumentedThread can provide it more cheaply.
     public static final ThreadLocal<IInstrumentation> attachedThreadInstrumentation = new ThreadLocal<>();
 
+    /**
+     * Returns the instrumentation attached to the current thread.  This is called by every shadow JCL method so it avoids the
+     * ThreadLocal lookup when running on an InstrumentedThread (as all of the AVM's executor threads are).
+     *
+     * @return The instrumentation attached to the current thread (null if there isn't one).
+     */
+    public static IInstrumentation getCurrentThreadInstrumentation() {
+        Thread thread = Thread.currentThread();
+        return (thread instanceof InstrumentedThread)
+                ? ((InstrumentedThread) thread).attachedInstrumentation
+                : attachedThreadInstrumentation.get();
+    }
+
     void enterNewFrame(ClassLoader contractLoader, long energyLeft, int nextHashCode, InternedClasses classWrappers);
     void exitCurrentFrame();
 
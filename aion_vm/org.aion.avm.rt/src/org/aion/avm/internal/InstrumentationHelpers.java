@@ -8,15 +8,24 @@ public class InstrumentationHelpers {
     public static void attachThread(IInstrumentation instrumentation) {
         RuntimeAssertionError.assertTrue(null == IInstrumentation.attachedThreadInstrumentation.get());
         IInstrumentation.attachedThreadInstrumentation.set(instrumentation);
+        // We also bind it directly to an InstrumentedThread, since that is where the shadow JCL will look for it.
+        Thread thread = Thread.currentThread();
+        if (thread instanceof InstrumentedThread) {
+            ((InstrumentedThread) thread).attachedInstrumentation = instrumentation;
+        }
     }
     public static void detachThread(IInstrumentation instrumentation) {
         RuntimeAssertionError.assertTrue(instrumentation == IInstrumentation.attachedThreadInstrumentation.get());
         IInstrumentation.attachedThreadInstrumentation.remove();
+        Thread thread = Thread.currentThread();
+        if (thread instanceof InstrumentedThread) {
+            ((InstrumentedThread) thread).attachedInstrumentation = null;
+        }
     }
 
     public static void pushNewStackFrame(IRuntimeSetup runtimeSetup, ClassLoader contractLoader, long energyLeft, int nextHashCode, InternedClasses classWrappers) {
         // Get the instrumentation for this thread (must be attached).
-        IInstrumentation instrumentation = IInstrumentation.attachedThreadInstrumentation.get();
+        IInstrumentation instrumentation = IInstrumentation.getCurrentThreadInstrumentation();
         RuntimeAssertionError.assertTrue(null != instrumentation);
         
         // Tell the instrumentation to create the new frame for the DApp we are entering.
@@ -27,7 +36,7 @@ public class InstrumentationHelpers {
     }
     public static void popExistingStackFrame(IRuntimeSetup runtimeSetup) {
         // Get the instrumentation for this thread (must be attached).
-        IInstrumentation instrumentation = IInstrumentation.attachedThreadInstrumentation.get();
+        IInstrumentation instrumentation = IInstrumentation.getCurrentThreadInstrumentation();
         RuntimeAssertionError.assertTrue(null != instrumentation);
         
         // Tell the underlying static instrumentation receiver to detach to this instrumentation.
@@ -39,7 +48,7 @@ public class InstrumentationHelpers {
 
     public static void temporarilyExitFrame(IRuntimeSetup runtimeSetup) {
         // Get the instrumentation for this thread (must be attached).
-        IInstrumentation instrumentation = IInstrumentation.attachedThreadInstrumentation.get();
+        IInstrumentation instrumentation = IInstrumentation.getCurrentThreadInstrumentation();
         RuntimeAssertionError.assertTrue(null != instrumentation);
         
         // We want to detach from the underlying DApp so we can re-enter it freshly, later.
@@ -47,7 +56,7 @@ public class InstrumentationHelpers {
     }
     public static void returnToExecutingFrame(IRuntimeSetup runtimeSetup) {
         // Get the instrumentation for this thread (must be attached).
-        IInstrumentation instrumentation = IInstrumentation.attachedThreadInstrumentation.get();
+        IInstrumentation instrumentation = IInstrumentation.getCurrentThreadInstrumentation();
         RuntimeAssertionError.assertTrue(null != instrumentation);
         
         // We want to re-attach to the DApp configured by this IRuntimeSetup.
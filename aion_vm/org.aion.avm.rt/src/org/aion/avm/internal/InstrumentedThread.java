@@ -0,0 +1,17 @@
+package org.aion.avm.internal;
+
+
+/**
+ * A thread which holds its attached IInstrumentation in a plain field.
+ * The shadow JCL is shared by every DApp (and every thread), so it can't use a static receiver like the per-DApp Helper does, but
+ * the AVM's own executor threads extend this, so that it can reach the instrumentation without a ThreadLocal lookup.
+ * Any other thread still works, through the ThreadLocal (see {@link IInstrumentation#getCurrentThreadInstrumentation()}).
+ */
+public class InstrumentedThread extends Thread {
+    // Only written by this thread, through InstrumentationHelpers.
+    IInstrumentation attachedInstrumentation;
+
+    public InstrumentedThread(String name) {
+        super(name);
+    }
+}
@@ -12,7 +12,7 @@ import org.aion.avm.internal.IObject;
 public class AssertionError extends Error {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     public AssertionError() {
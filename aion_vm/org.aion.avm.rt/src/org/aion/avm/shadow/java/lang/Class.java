@@ -18,24 +18,24 @@ import org.aion.avm.shadow.java.io.Serializable;
 public final class Class<T> extends Object implements Serializable {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     public String avm_getName() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Class_avm_getName);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Class_avm_getName);
         // Note that we actively try not to give the same instance of the name wrapper back (since the user could see implementation details of our
         // contract life-cycle or the underlying JVM/ClassLoader.
         return getName();
     }
 
     public String avm_toString() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Class_avm_toString);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Class_avm_toString);
         return new String((this.v.isInterface() ? "interface " : (this.v.isPrimitive() ? "" : "class "))
                 + getName());
     }
 
     public IObject avm_cast(IObject obj) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Class_avm_cast);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Class_avm_cast);
         return (IObject)this.v.cast(obj);
     }
 
@@ -43,17 +43,17 @@ public final class Class<T> extends Object implements Serializable {
 
     @SuppressWarnings("unchecked")
     public Class<T> avm_getSuperclass() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Class_avm_getSuperclass);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Class_avm_getSuperclass);
         // Note that we need to return null if the underlying is the shadow object root.
         Class<T> toReturn = null;
         if (org.aion.avm.shadow.java.lang.Object.class != this.v) {
-            toReturn = (Class<T>) IInstrumentation.attachedThreadInstrumentation.get().wrapAsClass(this.v.getSuperclass());
+            toReturn = (Class<T>) IInstrumentation.getCurrentThreadInstrumentation().wrapAsClass(this.v.getSuperclass());
         }
         return toReturn;
     }
 
     public boolean avm_desiredAssertionStatus() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Class_avm_desiredAssertionStatus);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Class_avm_desiredAssertionStatus);
         // Note that we currently handle assertions as always-enabled.
         // Internally, these will result in throwing AssertionError which, unless caught by the user's code, results in a FAILED_EXCEPTION status.
         // See issue-72 for more details on our thought process and future interpretations of this we may want to entertain.
@@ -7,7 +7,7 @@ import org.aion.avm.RuntimeMethodFeeSchedule;
 public final class Double extends Number implements Comparable<Double>{
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     // These are the constructors provided in the JDK but we mark them private since they are deprecated.
@@ -44,154 +44,142 @@ public final class Double extends Number implements Comparable<Double>{
 
     public static String avm_toHexString(double a)
     {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_toHexString);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_toHexString);
         return new String(java.lang.Double.toHexString(a));
     }
 
     public static String avm_toString(double a)
     {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_toString);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_toString);
         return internalToString(a);
     }
 
     public static Double avm_valueOf(String a) throws NumberFormatException
     {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_valueOf);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_valueOf);
         return new Double(internalParseDouble(a));
     }
 
     public static Double avm_valueOf(double origValue) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_valueOf_1);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_valueOf_1);
         return new Double(origValue);
     }
 
     public static double avm_parseDouble(String a) throws NumberFormatException
     {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_parseDouble);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_parseDouble);
         return internalParseDouble(a);
     }
 
     public static boolean avm_isNaN(double v)
     {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_isNaN);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_isNaN);
         return java.lang.Double.isNaN(v);
     }
 
     public static boolean avm_isInfinite(double v) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_isInfinite);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_isInfinite);
         return internalIsInfinite(v);
     }
 
     public static boolean avm_isFinite(double d) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_isFinite);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_isFinite);
         return java.lang.Math.abs(d) <= Double.avm_MAX_VALUE;
     }
 
     public boolean avm_isNaN() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_isNaN_1);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_isNaN_1);
         return java.lang.Double.isNaN(this.v);
     }
 
     public boolean avm_isInfinite() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_isInfinite_1);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_isInfinite_1);
         return internalIsInfinite(v);
     }
 
     public String avm_toString()
     {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_toString_1);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_toString_1);
         return internalToString(v);
     }
 
     public byte avm_byteValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_byteValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_byteValue);
         return (byte) v;
     }
 
     public short avm_shortValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_shortValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_shortValue);
         return (short) v;
     }
 
     public int avm_intValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_intValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_intValue);
         return (int) v;
     }
 
     public long avm_longValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_longValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_longValue);
         return (long) v;
     }
 
     public float avm_floatValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_floatValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_floatValue);
         return (float) v;
     }
 
     public double avm_doubleValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_doubleValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_doubleValue);
         return v;
     }
 
     public int avm_hashCode() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_hashCode);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_hashCode);
         return java.lang.Double.hashCode(this.v);
     }
 
     public static int avm_hashCode(double value) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_hashCode_1);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_hashCode_1);
         return java.lang.Double.hashCode(value);
     }
 
     public static long avm_doubleToLongBits(double value) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_doubleToLongBits);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_doubleToLongBits);
         return java.lang.Double.doubleToLongBits(value);
     }
 
     public static long avm_doubleToRawLongBits(double value){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_doubleToRawLongBits);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_doubleToRawLongBits);
         return java.lang.Double.doubleToRawLongBits(value);
     }
 
     public static double avm_longBitsToDouble(long bits){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_longBitsToDouble);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_longBitsToDouble);
         return java.lang.Double.longBitsToDouble(bits);
     }
 
     public int avm_compareTo(Double anotherDouble) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_compareTo);
-        lazyLoad();
-        anotherDouble.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_compareTo);
         return java.lang.Double.compare(this.v, anotherDouble.v);
     }
 
     public static int avm_compare(double d1, double d2){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_compare);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_compare);
         return java.lang.Double.compare(d1, d2);
     }
 
     public static double avm_sum(double a, double b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_sum);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_sum);
         return a + b;
     }
 
     public static double avm_max(double a, double b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_max);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_max);
         return java.lang.Math.max(a, b);
     }
 
     public static double avm_min(double a, double b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_min);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_min);
         return java.lang.Math.min(a, b);
     }
 
@@ -210,11 +198,9 @@ public final class Double extends Number implements Comparable<Double>{
     }
 
     public boolean avm_equals(IObject obj) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_equals);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Double_avm_equals);
         if (obj instanceof Double) {
             Double other = (Double) obj;
-            lazyLoad();
-            other.lazyLoad();
             return java.lang.Double.doubleToLongBits(this.v) == java.lang.Double.doubleToLongBits(other.v);
         }
         return false;
@@ -230,7 +216,6 @@ public final class Double extends Number implements Comparable<Double>{
     private double v;
 
     public double getUnderlying() {
-        lazyLoad();
         return this.v;
     }
 
@@ -9,7 +9,7 @@ import org.aion.avm.shadow.java.io.Serializable;
 public abstract class Enum<E extends Enum<E>> extends Object implements Serializable {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     // (note that these are not final since we want to be able to deserialize this type)
@@ -17,18 +17,17 @@ public abstract class Enum<E extends Enum<E>> extends Object implements Serializ
     private int ordinal;
 
     public final String avm_name() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_name);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_name);
         return getName();
     }
 
     public final int avm_ordinal() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_ordinal);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_ordinal);
         return ordinal;
     }
 
     protected Enum(String name, int ordinal) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_constructor);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_constructor);
         this.name = name;
         this.ordinal = ordinal;
     }
@@ -45,26 +44,24 @@ public abstract class Enum<E extends Enum<E>> extends Object implements Serializ
     }
 
     public String avm_toString() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_toString);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_toString);
         return name;
     }
 
     public final boolean avm_equals(IObject other) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_equals);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_equals);
         return this == other;
     }
 
     @Override
     public final Object avm_clone() throws CloneNotSupportedException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_clone);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_clone);
         throw new CloneNotSupportedException();
     }
 
     public static <T extends Enum<T>> T avm_valueOf(Class<T> enumType,
                                                 String name) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_valueOf);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Enum_avm_valueOf);
         return internalValueOf(enumType, name);
     }
 
@@ -79,7 +76,6 @@ public abstract class Enum<E extends Enum<E>> extends Object implements Serializ
     }
 
     public String getName() {
-        lazyLoad();
         return name;
     }
 
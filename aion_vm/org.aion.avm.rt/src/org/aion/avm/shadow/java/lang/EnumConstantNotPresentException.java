@@ -10,7 +10,7 @@ import org.aion.avm.internal.IInstrumentation;
 public class EnumConstantNotPresentException extends RuntimeException {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     private Class<? extends Enum> enumType;
@@ -27,12 +27,10 @@ public class EnumConstantNotPresentException extends RuntimeException {
     }
 
     public String avm_constantName() {
-        lazyLoad();
         return this.constantName;
     }
 
     public Class<? extends Enum> avm_enumType() {
-        lazyLoad();
         return this.enumType;
     }
 }
@@ -6,7 +6,7 @@ import org.aion.avm.RuntimeMethodFeeSchedule;
 public final class Float extends Number implements Comparable<Float> {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     public static final float avm_POSITIVE_INFINITY = java.lang.Float.POSITIVE_INFINITY;
@@ -46,161 +46,147 @@ public final class Float extends Number implements Comparable<Float> {
     }
 
     public static String avm_toString(float f){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_toString);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_toString);
         return new String(java.lang.Float.toString(f));
     }
 
     public static String avm_toHexString(float a){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_toHexString);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_toHexString);
         return new String(java.lang.Float.toHexString(a));
     }
 
     public static Float avm_valueOf(String s) throws NumberFormatException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_valueOf);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_valueOf);
         return new Float(internalParseFloat(s));
     }
 
     public static Float avm_valueOf(float f) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_valueOf_1);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_valueOf_1);
         return new Float(f);
     }
 
     public static float avm_parseFloat(String s) throws NumberFormatException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_parseFloat);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_parseFloat);
         return internalParseFloat(s);
     }
 
     public static boolean avm_isNaN(float v) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_isNaN);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_isNaN);
         return (v != v);
     }
 
     public static boolean avm_isInfinite(float v) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_isInfinite);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_isInfinite);
         return internalIsInfinite(v);
     }
 
     public static boolean avm_isFinite(float f) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_isFinite);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_isFinite);
         return java.lang.Float.isFinite(f);
     }
 
     public boolean avm_isNaN() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_isNaN_1);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_isNaN_1);
         return java.lang.Float.isNaN(this.v);
     }
 
     public boolean avm_isInfinite() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_isInfinite_1);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_isInfinite_1);
         return internalIsInfinite(v);
     }
 
     public String avm_toString() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_toString_1);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_toString_1);
         return new String(java.lang.Float.toString(this.v));
     }
 
     public byte avm_byteValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_byteValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_byteValue);
         return (byte) v;
     }
 
     public short avm_shortValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_shortValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_shortValue);
         return (short) v;
     }
 
     public int avm_intValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_intValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_intValue);
         return (int) v;
     }
 
     public long avm_longValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_longValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_longValue);
         return (long) v;
     }
 
     public float avm_floatValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_floatValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_floatValue);
         return v;
     }
 
     public double avm_doubleValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_doubleValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_doubleValue);
         return (double) v;
     }
 
     public int avm_hashCode() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_hashCode);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_hashCode);
         return internalHashCode(v);
     }
 
     public static int avm_hashCode(float value) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_hashCode_1);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_hashCode_1);
         return internalHashCode(value);
     }
 
     public boolean avm_equals(IObject obj) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_equals);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_equals);
         boolean isEqual = false;
         if (obj instanceof Float) {
             Float other = (Float) obj;
-            lazyLoad();
-            other.lazyLoad();
             isEqual = java.lang.Float.floatToIntBits(this.v) == java.lang.Float.floatToIntBits(other.v);
         }
         return isEqual;
     }
 
     public static int avm_floatToIntBits(float value) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_floatToIntBits);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_floatToIntBits);
         return internalFloatToIntBits(value);
     }
 
     public static int avm_floatToRawIntBits(float value){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_floatToRawIntBits);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_floatToRawIntBits);
         return java.lang.Float.floatToRawIntBits(value);
     }
 
     public static float avm_intBitsToFloat(int bits){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_intBitsToFloat);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_intBitsToFloat);
         return java.lang.Float.intBitsToFloat(bits);
     }
 
     public int avm_compareTo(Float anotherFloat) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_compareTo);
-        lazyLoad();
-        anotherFloat.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_compareTo);
         return java.lang.Float.compare(this.v, anotherFloat.v);
     }
 
     public static int avm_compare(float f1, float f2) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_compare);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_compare);
         return java.lang.Float.compare(f1, f2);
     }
 
     public static float avm_sum(float a, float b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_sum);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_sum);
         return a + b;
     }
 
     public static float avm_max(float a, float b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_max);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_max);
         return java.lang.Math.max(a, b);
     }
 
     public static float avm_min(float a, float b) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_min);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Float_avm_min);
         return java.lang.Math.min(a, b);
     }
 
@@ -232,7 +218,6 @@ public final class Float extends Number implements Comparable<Float> {
     private float v;
 
     public float getUnderlying() {
-        lazyLoad();
         return this.v;
     }
 
@@ -8,7 +8,7 @@ import org.aion.avm.shadow.java.io.Serializable;
 public abstract class Number extends Object implements Serializable {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     public Number(java.lang.Void ignore, int readIndex) {
@@ -30,12 +30,12 @@ public abstract class Number extends Object implements Serializable {
     public abstract double avm_doubleValue();
 
     public byte avm_byteValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Number_avm_byteValue);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Number_avm_byteValue);
         return (byte)avm_intValue();
     }
 
     public short avm_shortValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Number_avm_shortValue);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Number_avm_shortValue);
         return (short)avm_intValue();
     }
 }
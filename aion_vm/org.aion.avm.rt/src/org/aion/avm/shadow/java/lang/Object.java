@@ -11,7 +11,7 @@ import org.aion.avm.RuntimeMethodFeeSchedule;
 public class Object extends java.lang.Object implements IObject {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
     public static final int NEW_INSTANCE_READ_INDEX = -1;
 
@@ -21,7 +21,7 @@ public class Object extends java.lang.Object implements IObject {
     public final int readIndex;
 
     public Object() {
-        this.hashCode = IInstrumentation.attachedThreadInstrumentation.get().getNextHashCodeAndIncrement();
+        this.hashCode = IInstrumentation.getCurrentThreadInstrumentation().getNextHashCodeAndIncrement();
         this.readIndex = NEW_INSTANCE_READ_INDEX;
     }
 
@@ -55,31 +55,31 @@ public class Object extends java.lang.Object implements IObject {
 
     @Override
     public Class<?> avm_getClass() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_getClass);
-        return IInstrumentation.attachedThreadInstrumentation.get().wrapAsClass(this.getClass());
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_getClass);
+        return IInstrumentation.getCurrentThreadInstrumentation().wrapAsClass(this.getClass());
     }
 
     @Override
     public int avm_hashCode() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_hashCode);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_hashCode);
         return internalHashcode();
     }
 
     @Override
     public boolean avm_equals(IObject obj) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_equals);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_equals);
         // By default, we are only instance-equal.
         return (this == obj);
     }
 
     protected IObject avm_clone() throws CloneNotSupportedException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_clone);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_clone);
         throw new CloneNotSupportedException();
     }
 
     @Override
     public String avm_toString() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_toString);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Object_avm_toString);
         //using the public facing method since the user can override this
         return new String(ClassNameExtractor.getOriginalClassName(getClass().getName()) + "@" + java.lang.Integer.toHexString(avm_hashCode()));
     }
@@ -99,12 +99,10 @@ public class Object extends java.lang.Object implements IObject {
     }
 
     /**
-     * The call which causes this instance to become loaded.
-     * Note that this is final since the protected "deserializeSelf" should be over-ridden.
+     * Does nothing:  nothing is loaded lazily and this is no longer called by newly transformed code.
+     * It stays since the code of DApps transformed by earlier versions calls it before each field access.
      */
     public final void lazyLoad() {
-        // This now does nothing - will be removed later if we are certain we don't want the lazy loading.
-        // It was originally how the lazy loading system worked when we had the incremental loading design.
     }
 
     public void deserializeSelf(java.lang.Class<?> firstRealImplementation, IObjectDeserializer deserializer) {
@@ -128,7 +126,6 @@ public class Object extends java.lang.Object implements IObject {
     }
 
     public int internalHashcode(){
-        lazyLoad();
         return this.hashCode;
     }
 }
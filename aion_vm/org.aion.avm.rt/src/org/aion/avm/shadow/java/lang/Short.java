@@ -6,7 +6,7 @@ import org.aion.avm.RuntimeMethodFeeSchedule;
 public final class Short extends Number implements Comparable<Short> {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     public static final short avm_MIN_VALUE = java.lang.Short.MIN_VALUE;
@@ -16,37 +16,37 @@ public final class Short extends Number implements Comparable<Short> {
     public static final Class<Short> avm_TYPE = new Class(java.lang.Short.TYPE, new ConstantToken(ShadowClassConstantId.Short_avm_TYPE));
 
     public static String avm_toString(short s) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_toString);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_toString);
         return new String(java.lang.Short.toString(s));
     }
 
     public static short avm_parseShort(String s, int radix) throws NumberFormatException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_parseShort);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_parseShort);
         return internalParseShort(s, radix);
     }
 
     public static short avm_parseShort(String s) throws NumberFormatException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_parseShort_1);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_parseShort_1);
         return internalParseShort(s, 10);
     }
 
     public static Short avm_valueOf(String s, int radix) throws NumberFormatException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_valueOf);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_valueOf);
         return new Short(internalParseShort(s, radix));
     }
 
     public static Short avm_valueOf(String s) throws NumberFormatException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_valueOf_1);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_valueOf_1);
         return new Short(internalParseShort(s, 10));
     }
 
     public static Short avm_valueOf(short s) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_valueOf_2);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_valueOf_2);
         return new Short(s);
     }
 
     public static Short avm_decode(String nm) throws NumberFormatException {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_decode);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_decode);
         return new Short(java.lang.Short.decode(nm.getUnderlying()).shortValue());
     }
 
@@ -61,83 +61,71 @@ public final class Short extends Number implements Comparable<Short> {
     }
 
     public byte avm_byteValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_byteValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_byteValue);
         return (byte) v;
     }
 
     public short avm_shortValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_shortValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_shortValue);
         return v;
     }
 
     public int avm_intValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_intValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_intValue);
         return (int) v;
     }
 
     public long avm_longValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_longValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_longValue);
         return (long) v;
     }
 
     public float avm_floatValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_floatValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_floatValue);
         return (float) v;
     }
 
     public double avm_doubleValue() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_doubleValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_doubleValue);
         return (double) v;
     }
 
     public String avm_toString() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_toString_1);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_toString_1);
         return new String(java.lang.Short.toString(this.v));
     }
 
     public int avm_hashCode() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_hashCode);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_hashCode);
         return internalHashCode(this.v);
     }
 
     public static int avm_hashCode(short value) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_hashCode_1);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_hashCode_1);
         return internalHashCode(value);
     }
 
     public boolean avm_equals(IObject obj) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_equals);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_equals);
         if (obj instanceof Short) {
             Short other = (Short) obj;
-            lazyLoad();
-            other.lazyLoad();
             return this.v == other.v;
         }
         return false;
     }
 
     public int avm_compareTo(Short anotherShort) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_compareTo);
-        lazyLoad();
-        anotherShort.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_compareTo);
         return internalCompare(this.v, anotherShort.v);
     }
 
     public static int avm_compare(short x, short y) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_compare);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_compare);
         return internalCompare(x, y);
     }
 
     public static int avm_compareUnsigned(short x, short y) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_compareUnsigned);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_compareUnsigned);
         return internalToUnsignedInt(x) - internalToUnsignedInt(y);
     }
 
@@ -146,17 +134,17 @@ public final class Short extends Number implements Comparable<Short> {
     public static final int avm_BYTES = java.lang.Short.BYTES;
 
     public static short avm_reverseBytes(short i){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_reverseBytes);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_reverseBytes);
         return java.lang.Short.reverseBytes(i);
     }
 
     public static int avm_toUnsignedInt(short x) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_toUnsignedInt);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_toUnsignedInt);
         return internalToUnsignedInt(x);
     }
 
     public static long avm_toUnsignedLong(short x) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_toUnsignedLong);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Short_avm_toUnsignedLong);
         return ((long) x) & 0xffffL;
     }
 
@@ -187,7 +175,6 @@ public final class Short extends Number implements Comparable<Short> {
     private short v;
 
     public short getUnderlying() {
-        lazyLoad();
         return this.v;
     }
 
@@ -16,269 +16,223 @@ import org.aion.avm.shadow.java.io.Serializable;
 public final class String extends Object implements Comparable<String>, CharSequence, Serializable {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     public String() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor);
         this.v = new java.lang.String();
     }
 
     public String(String original) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_1);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_1);
         this.v = new java.lang.String(original.getUnderlying());
     }
 
     public String(CharArray value) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_2);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_2);
         this.v = new java.lang.String(value.getUnderlying());
     }
 
     public String(CharArray value, int offset, int count) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_3);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_3);
         this.v = new java.lang.String(value.getUnderlying(), offset, count);
     }
 
     public String(ByteArray bytes, int offset, int length){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_7);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_7);
         this.v = new java.lang.String(bytes.getUnderlying(), offset, length);
     }
 
     public String(ByteArray bytes){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_8);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_8);
         this.v = new java.lang.String(bytes.getUnderlying());
     }
 
     public String(StringBuffer buffer){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_9);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_9);
         this.v = new java.lang.String(buffer.getUnderlying());
     }
 
     public String(StringBuilder builder) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_10);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_constructor_10);
         this.v = new java.lang.String(builder.getUnderlying());
     }
 
     public int avm_length(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_length);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_length);
         return internalLength();
     }
 
     public boolean avm_isEmpty() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_isEmpty);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_isEmpty);
         return v.isEmpty();
     }
 
     public char avm_charAt(int index) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_charAt);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_charAt);
         return this.v.charAt(index);
     }
 
     public void avm_getChars(int srcBegin, int srcEnd, CharArray dst, int dstBegin) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_getChars + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(srcEnd - srcBegin, 0));
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_getChars + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(srcEnd - srcBegin, 0));
         this.v.getChars(srcBegin, srcEnd, dst.getUnderlying(), dstBegin);
     }
 
     public ByteArray avm_getBytes(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_getBytes_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_getBytes_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return new ByteArray(this.v.getBytes(StandardCharsets.UTF_8));
     }
 
     public boolean avm_equals(IObject anObject) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_equals + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_equals + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         if (!(anObject instanceof String)){
             return false;
         }
 
         String toComp = (String) anObject;
-        toComp.lazyLoad();
-        this.lazyLoad();
 
         return this.v.equals(toComp.v);
     }
 
     public boolean avm_contentEquals(StringBuffer sb) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_contentEquals + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_contentEquals + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return this.v.contentEquals(sb.getUnderlying());
     }
 
     public boolean avm_contentEquals(CharSequence cs){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_contentEquals_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_contentEquals_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return this.v.contentEquals(cs.avm_toString().getUnderlying());
     }
 
     public boolean avm_equalsIgnoreCase(String anotherString) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_equalsIgnoreCase + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_equalsIgnoreCase + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return this.v.equalsIgnoreCase(anotherString.v);
     }
 
     public int avm_compareTo(String anotherString) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_compareTo + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_compareTo + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return this.v.compareTo(anotherString.getUnderlying());
     }
 
     public int avm_compareToIgnoreCase(String str){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_compareToIgnoreCase + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_compareToIgnoreCase + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return this.v.compareToIgnoreCase(str.v);
     }
 
     public boolean avm_regionMatches(int toffset, String other, int ooffset, int len) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_regionMatches + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * len);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_regionMatches + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * len);
         return this.v.regionMatches(toffset, other.v, ooffset, len);
     }
 
     public boolean avm_regionMatches(boolean ignoreCase, int toffset, String other, int ooffset, int len) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_regionMatches_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * len);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_regionMatches_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * len);
         return this.v.regionMatches(ignoreCase, toffset, other.v, ooffset, len);
     }
 
     public boolean avm_startsWith(String prefix, int toffset) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_startsWith + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * prefix.internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_startsWith + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * prefix.internalLength());
         return this.v.startsWith(prefix.v, toffset);
     }
 
     public boolean avm_startsWith(String prefix) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_startsWith_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * prefix.internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_startsWith_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * prefix.internalLength());
         return this.v.startsWith(prefix.v);
     }
 
     public boolean avm_endsWith(String prefix) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_endsWith + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * prefix.internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_endsWith + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * prefix.internalLength());
         return this.v.endsWith(prefix.v);
     }
 
     @Override
     public int avm_hashCode() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_hashCode + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_hashCode + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return this.v.hashCode();
     }
 
     public int avm_indexOf(int ch) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_indexOf + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_indexOf + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return this.v.indexOf(ch);
     }
 
     public int avm_indexOf(int ch, int fromIndex) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_indexOf_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(internalLength() - fromIndex, 0));
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_indexOf_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(internalLength() - fromIndex, 0));
         return this.v.indexOf(ch, fromIndex);
     }
 
     public int avm_lastIndexOf(int ch) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_lastIndexOf + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_lastIndexOf + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return this.v.lastIndexOf(ch);
     }
 
     public int avm_lastIndexOf(int ch, int fromIndex) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_lastIndexOf_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(internalLength() - fromIndex, 0));
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_lastIndexOf_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(internalLength() - fromIndex, 0));
         return this.v.lastIndexOf(ch, fromIndex);
     }
 
     public int avm_indexOf(String str) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_indexOf_2 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
-        str.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_indexOf_2 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return this.v.indexOf(str.v);
     }
 
     public int avm_lastIndexOf(String str) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_lastIndexOf_2 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
-        str.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_lastIndexOf_2 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return this.v.lastIndexOf(str.v);
     }
 
     public int avm_lastIndexOf(String str, int fromIndex) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_lastIndexOf_3 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(internalLength() - fromIndex, 0));
-        lazyLoad();
-        str.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_lastIndexOf_3 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(internalLength() - fromIndex, 0));
         return this.v.lastIndexOf(str.v, fromIndex);
     }
 
     public String avm_substring(int beginIndex) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_substring + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(internalLength() - beginIndex, 0));
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_substring + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(internalLength() - beginIndex, 0));
         return new String(this.v.substring(beginIndex));
     }
 
     public String avm_substring(int beginIndex, int endIndex) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_substring_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(endIndex - beginIndex, 0));
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_substring_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(endIndex - beginIndex, 0));
         return new String(this.v.substring(beginIndex, endIndex));
     }
 
     public CharSequence avm_subSequence(int beginIndex, int endIndex){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_subSequence + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(endIndex - beginIndex, 0));
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_subSequence + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * java.lang.Math.max(endIndex - beginIndex, 0));
         return new String(this.v.subSequence(beginIndex, endIndex).toString());
     }
 
     public String avm_concat(String str){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_concat + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * (str.internalLength() + internalLength()));
-        lazyLoad();
-        str.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_concat + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * (str.internalLength() + internalLength()));
         return new String(this.v.concat(str.v));
     }
 
     public String avm_replace(char oldChar, char newChar) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_replace + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_replace + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return new String(this.v.replace(oldChar, newChar));
     }
 
     public boolean avm_matches(String regex){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_matches + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
-        regex.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_matches + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return this.v.matches(regex.v);
     }
 
     public boolean avm_contains(CharSequence s){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_contains + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
-        ((Object)s).lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_contains + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return this.v.indexOf(s.avm_toString().getUnderlying()) >= 0;
     }
 
     public String avm_replaceFirst(String regex, String replacement){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_replaceFirst + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
-        regex.lazyLoad();
-        replacement.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_replaceFirst + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return new String(this.v.replaceFirst(regex.v, replacement.v));
     }
 
     public String avm_replaceAll(String regex, String replacement) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_replaceAll + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
-        regex.lazyLoad();
-        replacement.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_replaceAll + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return new String(this.v.replaceAll(regex.v, replacement.v));
     }
 
     public String avm_replace(CharSequence target, CharSequence replacement){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_replace_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
-        ((Object)target).lazyLoad();
-        ((Object)replacement).lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_replace_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return new String(this.v.replace(target.avm_toString().getUnderlying(),
                 replacement.avm_toString().getUnderlying()));
     }
@@ -288,92 +242,84 @@ public final class String extends Object implements Comparable<String>, CharSequ
     //public String[] split(String regex){}
 
     public String avm_toLowerCase(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_toLowerCase + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_toLowerCase + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return new String(this.v.toLowerCase());
     }
 
     public String avm_toUpperCase(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_toUpperCase + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_toUpperCase + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return new String(this.v.toUpperCase());
     }
 
     public String avm_trim() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_trim + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_trim + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return new String(this.v.trim());
     }
 
     public String avm_toString() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_toString);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_toString);
         return this;
     }
 
     public CharArray avm_toCharArray() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_toCharArray + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_toCharArray + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * internalLength());
         return new CharArray(this.v.toCharArray());
     }
 
 
     public static String avm_valueOf(IObject obj) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf);
         // We don't want to use the java.lang.String version of this since it relies on calling toString(), but we need avm_toString().
         return internalValueOfObject(obj);
     }
 
     public static String avm_valueOf(CharArray a){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * a.length());
-        a.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * a.length());
         return new String(java.lang.String.valueOf(a.getUnderlying()));
     }
 
     public static String avm_valueOf(CharArray data, int offset, int count){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_2 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * count);
-        data.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_2 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * count);
         return new String(java.lang.String.valueOf(data.getUnderlying(), offset, count));
     }
 
     public static String avm_copyValueOf(CharArray data, int offset, int count){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_copyValueOf + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * count);
-        data.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_copyValueOf + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * count);
         return new String(java.lang.String.copyValueOf(data.getUnderlying(), offset, count));
     }
 
     public static String avm_copyValueOf(CharArray a){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_copyValueOf_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * a.length());
-        a.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_copyValueOf_1 + RuntimeMethodFeeSchedule.RT_METHOD_FEE_FACTOR * a.length());
         return new String(java.lang.String.copyValueOf(a.getUnderlying()));
     }
 
     public static String avm_valueOf(boolean b){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_3);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_3);
         return new String(java.lang.String.valueOf(b));
     }
 
     public static String avm_valueOf(char b){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_4);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_4);
         return new String(java.lang.String.valueOf(b));
     }
 
     public static String avm_valueOf(int b){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_5);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_5);
         return new String(java.lang.String.valueOf(b));
     }
 
     public static String avm_valueOf(long b){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_6);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_6);
         return new String(java.lang.String.valueOf(b));
     }
 
     public static String avm_valueOf(float b){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_7);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_7);
         return new String(java.lang.String.valueOf(b));
     }
 
     public static String avm_valueOf(double b){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_8);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.String_avm_valueOf_8);
         return new String(java.lang.String.valueOf(b));
     }
 
@@ -410,7 +356,6 @@ public final class String extends Object implements Comparable<String>, CharSequ
 
     @Override
     public int hashCode() {
-        lazyLoad();
         // We probably want a consistent hashCode answer, for strings, since they are data-defined.
         return this.v.hashCode();
     }
@@ -418,18 +363,15 @@ public final class String extends Object implements Comparable<String>, CharSequ
     // NOTE:  This toString() cannot be called by the contract code (it will call avm_toString()) but our runtime and test code can call this.
     @Override
     public java.lang.String toString() {
-        lazyLoad();
         return this.v;
     }
 
     //internal
     public java.lang.String getUnderlying(){
-        lazyLoad();
         return v;
     }
 
     public int internalLength(){
-        lazyLoad();
         return v.length();
     }
 
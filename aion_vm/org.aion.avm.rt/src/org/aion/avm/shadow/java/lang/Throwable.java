@@ -20,7 +20,7 @@ import org.aion.avm.shadow.java.io.Serializable;
 public class Throwable extends Object implements Serializable {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     private String message;
@@ -50,28 +50,23 @@ public class Throwable extends Object implements Serializable {
     }
 
     public String avm_getMessage() {
-        lazyLoad();
         return this.message;
     }
 
     public String avm_getLocalizedMessage() {
-        lazyLoad();
         return this.message;
     }
 
     public Throwable avm_getCause() {
-        lazyLoad();
         return this.cause;
     }
 
     public Throwable avm_initCause(Throwable cause) {
-        lazyLoad();
         this.cause = cause;
         return this;
     }
 
     public String avm_toString() {
-        lazyLoad();
         String s = new String(ClassNameExtractor.getOriginalClassName(getClass().getName()));
         return (this.message != null) ? new String(s + ": " + this.message) : s;
     }
@@ -82,7 +77,6 @@ public class Throwable extends Object implements Serializable {
 
     @Override
     public java.lang.String toString() {
-        lazyLoad();
         return getClass().getName() + ": " + this.message;
     }
 }
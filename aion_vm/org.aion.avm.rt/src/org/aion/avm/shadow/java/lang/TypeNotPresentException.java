@@ -9,7 +9,7 @@ import org.aion.avm.internal.IInstrumentation;
 public class TypeNotPresentException extends RuntimeException {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     private String typeName;
@@ -28,7 +28,6 @@ public class TypeNotPresentException extends RuntimeException {
     //========================================================
 
     public String typeName() {
-        lazyLoad();
         return typeName;
     }
 }
@@ -25,7 +25,7 @@ public final class StringConcatFactory extends org.aion.avm.shadow.java.lang.Obj
 
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     public static String avm_concat(java.lang.String recipe, Object[] staticArgs, Object[] dynamicArgs) {
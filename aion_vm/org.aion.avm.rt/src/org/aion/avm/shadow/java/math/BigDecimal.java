@@ -14,146 +14,131 @@ import org.aion.avm.RuntimeMethodFeeSchedule;
 public class BigDecimal extends Number implements Comparable<BigDecimal>{
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     public BigDecimal(String val){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_4);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_4);
         v = new java.math.BigDecimal(val.getUnderlying());
     }
 
     public BigDecimal(String val, MathContext mc){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_5);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_5);
         v = new java.math.BigDecimal(val.getUnderlying(), mc.getUnderlying());
     }
 
     public BigDecimal(double val){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_6);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_6);
         v = new java.math.BigDecimal(val);
     }
 
     public BigDecimal(double val, MathContext mc) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_7);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_7);
         v = new java.math.BigDecimal(val, mc.getUnderlying());
     }
 
     public BigDecimal(int val) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_12);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_12);
         v = new java.math.BigDecimal(val);
     }
 
     public BigDecimal(int val, MathContext mc) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_13);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_13);
         v = new java.math.BigDecimal(val, mc.getUnderlying());
     }
 
     public BigDecimal(long val) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_14);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_14);
         v = new java.math.BigDecimal(val);
     }
 
     public BigDecimal(long val, MathContext mc) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_15);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_constructor_15);
         v = new java.math.BigDecimal(val, mc.getUnderlying());
     }
 
     public static BigDecimal avm_valueOf(long val) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_valueOf_1);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_valueOf_1);
         return new BigDecimal(java.math.BigDecimal.valueOf(val));
     }
 
     public static BigDecimal avm_valueOf(double val) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_valueOf_2);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_valueOf_2);
         return new BigDecimal(java.math.BigDecimal.valueOf(val));
     }
 
     public int avm_compareTo(BigDecimal val) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_compareTo);
-        lazyLoad();
-        val.lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_compareTo);
         return v.compareTo(val.v);
     }
 
     public int avm_hashCode() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_hashCode);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_hashCode);
         return v.hashCode();
     }
 
     public String avm_toString(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toString);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toString);
         return new String(v.toString());
     }
 
     public String avm_toPlainString(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toPlainString);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toPlainString);
         return new String(v.toPlainString());
     }
 
     public BigInteger avm_toBigInteger() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toBigInteger);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toBigInteger);
         return new BigInteger(v.toBigInteger());
     }
 
     public BigInteger avm_toBigIntegerExact() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toBigIntegerExact);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_toBigIntegerExact);
         return new BigInteger(v.toBigIntegerExact());
     }
 
     public long avm_longValue(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_longValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_longValue);
         return v.longValue();
     }
 
     public long avm_longValueExact(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_longValueExact);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_longValueExact);
         return v.longValueExact();
     }
 
     public int avm_intValue(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_intValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_intValue);
         return v.intValue();
     }
 
     public int avm_intValueExact() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_intValueExact);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_intValueExact);
         return v.intValueExact();
     }
 
     public short avm_shortValueExact() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_shortValueExact);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_shortValueExact);
         return v.shortValueExact();
     }
 
     public byte avm_byteValueExact() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_byteValueExact);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_byteValueExact);
         return v.byteValueExact();
     }
 
     public float avm_floatValue(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_floatValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_floatValue);
         return v.floatValue();
     }
 
     public double avm_doubleValue(){
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_doubleValue);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_doubleValue);
         return v.doubleValue();
     }
 
     public boolean avm_equals(IObject x) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_equals);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.BigDecimal_avm_equals);
         if (x == this) {
             return true;
         }
@@ -163,8 +148,6 @@ public class BigDecimal extends Number implements Comparable<BigDecimal>{
         }
 
         BigDecimal xInt = (BigDecimal) x;
-        lazyLoad();
-        xInt.lazyLoad();
         return v.equals(xInt.v);
     }
 
@@ -179,7 +162,6 @@ public class BigDecimal extends Number implements Comparable<BigDecimal>{
     }
 
     public java.math.BigDecimal getUnderlying() {
-        lazyLoad();
         return v;
     }
 
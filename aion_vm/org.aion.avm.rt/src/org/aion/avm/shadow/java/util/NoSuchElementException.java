@@ -13,7 +13,7 @@ import org.aion.avm.shadow.java.lang.String;
 public class NoSuchElementException extends RuntimeException {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     public NoSuchElementException() {
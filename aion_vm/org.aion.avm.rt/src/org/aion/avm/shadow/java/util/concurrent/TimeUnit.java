@@ -13,7 +13,7 @@ import org.aion.avm.shadow.java.lang.String;
 public final class TimeUnit extends Enum<TimeUnit> {
     static {
         // Shadow classes MUST be loaded during bootstrap phase.
-        IInstrumentation.attachedThreadInstrumentation.get().bootstrapOnly();
+        IInstrumentation.getCurrentThreadInstrumentation().bootstrapOnly();
     }
 
     public static final TimeUnit avm_DAYS;
@@ -34,52 +34,52 @@ public final class TimeUnit extends Enum<TimeUnit> {
     }
 
     public long avm_convert(long sourceDuration, TimeUnit sourceUnit) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_convert);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_convert);
         return this.v.convert(sourceDuration, sourceUnit.v);
     }
 
     public long avm_toDays(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toDays);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toDays);
         return this.v.toDays(duration);
     }
 
     public long avm_toHours(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toHours);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toHours);
         return this.v.toHours(duration);
     }
 
     public long avm_toMinutes(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toMinutes);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toMinutes);
         return this.v.toMinutes(duration);
     }
 
     public long avm_toSeconds(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toSeconds);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toSeconds);
         return this.v.toSeconds(duration);
     }
 
     public long avm_toMillis(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toMillis);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toMillis);
         return this.v.toMillis(duration);
     }
 
     public long avm_toMicros(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toMicros);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toMicros);
         return this.v.toMicros(duration);
     }
 
     public long avm_toNanos(long duration) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toNanos);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_toNanos);
         return this.v.toNanos(duration);
     }
 
     public static IObjectArray avm_values() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_values);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_values);
         return (ObjectArray) avm_$VALUES.clone();
     }
 
     public static TimeUnit avm_valueOf(String request) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_valueOf);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.TimeUnit_avm_valueOf);
         return Enum.internalValueOf(new Class<>(TimeUnit.class), request);
     }
 
@@ -90,7 +90,6 @@ public final class TimeUnit extends Enum<TimeUnit> {
     // Deserializer support.
     public TimeUnit(Void ignore, int readIndex) {
         super(ignore, readIndex);
-        lazyLoad();
     }
 
     static {
@@ -28,7 +28,7 @@ public class Address extends Object {
      * @param raw The raw bytes representing the address.
      */
     public Address(ByteArray raw) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_constructor);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_constructor);
         setUnderlying(raw);
     }
 
@@ -38,15 +38,13 @@ public class Address extends Object {
      * @return The raw bytes underneath the address.
      */
     public ByteArray avm_unwrap() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_unwrap);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_unwrap);
         return this.underlying;
     }
 
     @Override
     public int avm_hashCode() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_hashCode);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_hashCode);
         // Just a really basic implementation.
         int code = 0;
         for (byte elt : this.underlying.getUnderlying()) {
@@ -57,13 +55,11 @@ public class Address extends Object {
 
     @Override
     public boolean avm_equals(IObject obj) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_equals);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_equals);
 
         boolean isEqual = this == obj;
         if (!isEqual && (obj instanceof Address)) {
             Address other = (Address)obj;
-            lazyLoad();
-            other.lazyLoad();
             if (this.underlying.length() == other.underlying.length()) {
                 isEqual = true;
                 byte[] us = this.underlying.getUnderlying();
@@ -78,8 +74,7 @@ public class Address extends Object {
 
     @Override
     public String avm_toString() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_toString);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Address_avm_toString);
         return toHexString(this.underlying.getUnderlying());
     }
 
@@ -116,7 +111,6 @@ public class Address extends Object {
      * @return The raw bytes underneath the address.
      */
     public byte[] unwrap() {
-        lazyLoad();
         return this.underlying.getUnderlying();
     }
 
@@ -125,8 +119,6 @@ public class Address extends Object {
         boolean isEqual = this == obj;
         if (!isEqual && (obj instanceof Address)) {
             Address other = (Address) obj;
-            lazyLoad();
-            other.lazyLoad();
             if (this.underlying.length() == other.underlying.length()) {
                 isEqual = true;
                 for (int i = 0; isEqual && (i < other.underlying.length()); ++i) {
@@ -140,7 +132,6 @@ public class Address extends Object {
     @Override
     public int hashCode() {
         int code = 0;
-        lazyLoad();
         for (byte elt : this.underlying.getUnderlying()) {
             code += (int)elt;
         }
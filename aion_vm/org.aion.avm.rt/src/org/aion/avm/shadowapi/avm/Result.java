@@ -16,25 +16,24 @@ public class Result extends Object {
     private ByteArray returnData;
 
     public Result(boolean success, ByteArray returnData) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Result_avm_constructor);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Result_avm_constructor);
         this.success = success;
         this.returnData = returnData;
     }
 
     public boolean avm_isSuccess() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Result_avm_isSuccess);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Result_avm_isSuccess);
         return success;
     }
 
     public ByteArray avm_getReturnData() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Result_avm_getReturnData);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Result_avm_getReturnData);
         return returnData;
     }
 
     @Override
     public String avm_toString() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Result_avm_toString);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Result_avm_toString);
         return  new String("success:" + this.success + ", returnData:" + toHexString(this.returnData.getUnderlying()));
     }
 
@@ -54,13 +53,11 @@ public class Result extends Object {
 
     @Override
     public boolean avm_equals(IObject obj) {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Result_avm_equals);
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Result_avm_equals);
 
         boolean isEqual = this == obj;
         if (!isEqual && (obj instanceof Result)) {
             Result other = (Result)obj;
-            lazyLoad();
-            other.lazyLoad();
             if (this.returnData.length() == other.returnData.length()) {
                 isEqual = true;
                 byte[] us = this.returnData.getUnderlying();
@@ -77,8 +74,7 @@ public class Result extends Object {
 
     @Override
     public int avm_hashCode() {
-        IInstrumentation.attachedThreadInstrumentation.get().chargeEnergy(RuntimeMethodFeeSchedule.Result_avm_hashCode);
-        lazyLoad();
+        IInstrumentation.getCurrentThreadInstrumentation().chargeEnergy(RuntimeMethodFeeSchedule.Result_avm_hashCode);
         // Just a really basic implementation.
         int code = 0;
         for (byte elt : this.returnData.getUnderlying()) {
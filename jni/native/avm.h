@@ -156,6 +156,31 @@ typedef void (*avm_set_transformed_code_fn)(
     const struct avm_address *address,
     const struct avm_bytes *data);
 
+/**
+ * Batched account read callback function.
+ *
+ * Takes a list of addresses (int count, followed by each address as bytes, using the Native Codec) and
+ * returns, for each of them in order: balance bytes, nonce (long), then nullable code, transformed code
+ * and object graph (a presence byte, followed by the bytes if present).
+ */
+typedef struct avm_bytes (*avm_prefetch_accounts_fn)(const void *handle, const struct avm_bytes *addresses);
+
+/**
+ * Batched write callback function.
+ *
+ * Applies a whole write log, as encoded by the Java WriteLogEncoder, to the account states.
+ */
+typedef void (*avm_commit_write_log_fn)(const void *handle, const struct avm_bytes *log);
+
+/**
+ * Streamed result callback function.
+ *
+ * Receives the result of the transaction at the given index of the batch (the encoded transaction result,
+ * followed by the state root bytes, using the Native Codec) as soon as it has been committed; the results
+ * are delivered in transaction order.
+ */
+typedef void (*avm_receive_result_fn)(const void *handle, const struct avm_bytes *result, const i32 idx);
+
 /**
  * A data structure holds all the callback function pointers.
  */
@@ -180,6 +205,11 @@ struct avm_callbacks {
     avm_set_transformed_code_fn put_transformed_code;
     avm_get_objectgraph_fn      get_objectgraph;
     avm_set_objectgraph_fn      set_objectgraph;
+    // optional: batched access is disabled while these are NULL
+    avm_prefetch_accounts_fn    prefetch_accounts;
+    avm_commit_write_log_fn     commit_write_log;
+    // optional: streamed execution is disabled while this is NULL
+    avm_receive_result_fn       receive_result;
 };
 
 typedef struct avm_bytes (*create_contract_fn)(const struct avm_address *address, const uint64_t nonce);
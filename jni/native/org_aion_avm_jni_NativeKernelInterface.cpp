@@ -447,4 +447,86 @@ JNIEXPORT void JNICALL Java_org_aion_avm_jni_NativeKernelInterface_setObjectGrap
 
     // release the buffer
     release_bytes(&c);
-}
\ No newline at end of file
+}
+
+/*
+ * Class:     org_aion_avm_jni_NativeKernelInterface
+ * Method:    prefetchAccounts
+ * Signature: (J[B)[B
+ */
+JNIEXPORT jbyteArray JNICALL Java_org_aion_avm_jni_NativeKernelInterface_prefetchAccounts
+  (JNIEnv *env, jclass clazz, jlong handle, jbyteArray addresses)
+{
+    if (callbacks.prefetch_accounts == NULL) {
+        return NULL;
+    }
+
+    struct avm_bytes a = load_bytes(env, addresses);
+
+    // ask the client for the state of all the accounts at once
+    struct avm_bytes s = callbacks.prefetch_accounts((void *)handle, &a);
+
+    // convert into JVM byte array.
+    jbyteArray ret = is_null(&s) ? NULL : to_jbyteArray(env, s.pointer, s.length);
+
+    // release the buffer
+    release_bytes(&a);
+    release_bytes(&s);
+
+    return ret;
+}
+
+/*
+ * Class:     org_aion_avm_jni_NativeKernelInterface
+ * Method:    commitWriteLog
+ * Signature: (J[B)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_aion_avm_jni_NativeKernelInterface_commitWriteLog
+  (JNIEnv *env, jclass clazz, jlong handle, jbyteArray log)
+{
+    if (callbacks.commit_write_log == NULL) {
+        return JNI_FALSE;
+    }
+
+    struct avm_bytes l = load_bytes(env, log);
+
+    callbacks.commit_write_log((void *)handle, &l);
+
+    // release the buffer
+    release_bytes(&l);
+
+    return JNI_TRUE;
+}
+
+/*
+ * Class:     org_aion_avm_jni_NativeKernelInterface
+ * Method:    pushResult
+ * Signature: (J[BI)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_aion_avm_jni_NativeKernelInterface_pushResult
+  (JNIEnv *env, jclass clazz, jlong handle, jbyteArray result, jint idx)
+{
+    if (callbacks.receive_result == NULL) {
+        return JNI_FALSE;
+    }
+
+    struct avm_bytes r = load_bytes(env, result);
+
+    callbacks.receive_result((void *)handle, &r, idx);
+
+    // release the buffer
+    release_bytes(&r);
+
+    return JNI_TRUE;
+}
+
+/*
+ * Class:     org_aion_avm_jni_NativeKernelInterface
+ * Method:    isStreamingSupported
+ * Signature: ()Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_aion_avm_jni_NativeKernelInterface_isStreamingSupported
+  (JNIEnv *env, jclass clazz)
+{
+    return (callbacks.receive_result != NULL) ? JNI_TRUE : JNI_FALSE;
+}
@@ -167,6 +167,38 @@ JNIEXPORT jbyteArray JNICALL Java_org_aion_avm_jni_NativeKernelInterface_sendSig
 JNIEXPORT jbyteArray JNICALL Java_org_aion_avm_jni_NativeKernelInterface_contract_1address
   (JNIEnv *, jclass, jbyteArray, jbyteArray);
 
+/*
+ * Class:     org_aion_avm_jni_NativeKernelInterface
+ * Method:    prefetchAccounts
+ * Signature: (J[B)[B
+ */
+JNIEXPORT jbyteArray JNICALL Java_org_aion_avm_jni_NativeKernelInterface_prefetchAccounts
+  (JNIEnv *, jclass, jlong, jbyteArray);
+
+/*
+ * Class:     org_aion_avm_jni_NativeKernelInterface
+ * Method:    commitWriteLog
+ * Signature: (J[B)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_aion_avm_jni_NativeKernelInterface_commitWriteLog
+  (JNIEnv *, jclass, jlong, jbyteArray);
+
+/*
+ * Class:     org_aion_avm_jni_NativeKernelInterface
+ * Method:    pushResult
+ * Signature: (J[BI)Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_aion_avm_jni_NativeKernelInterface_pushResult
+  (JNIEnv *, jclass, jlong, jbyteArray, jint);
+
+/*
+ * Class:     org_aion_avm_jni_NativeKernelInterface
+ * Method:    isStreamingSupported
+ * Signature: ()Z
+ */
+JNIEXPORT jboolean JNICALL Java_org_aion_avm_jni_NativeKernelInterface_isStreamingSupported
+  (JNIEnv *, jclass);
+
 #ifdef __cplusplus
 }
 #endif
@@ -0,0 +1,27 @@
+package org.aion.avm.jni;
+
+import org.aion.types.Address;
+
+import java.math.BigInteger;
+
+/**
+ * The state of an account, as loaded in bulk from the native kernel by NativeKernelInterface.loadAccounts().
+ * Any of the byte arrays may be null if the account has no such data.
+ */
+final class AccountState {
+    final Address address;
+    final BigInteger balance;
+    final BigInteger nonce;
+    final byte[] code;
+    final byte[] transformedCode;
+    final byte[] objectGraph;
+
+    AccountState(Address address, BigInteger balance, BigInteger nonce, byte[] code, byte[] transformedCode, byte[] objectGraph) {
+        this.address = address;
+        this.balance = balance;
+        this.nonce = nonce;
+        this.code = code;
+        this.transformedCode = transformedCode;
+        this.objectGraph = objectGraph;
+    }
+}
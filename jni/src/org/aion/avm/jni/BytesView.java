@@ -0,0 +1,33 @@
+package org.aion.avm.jni;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A byte array field decoded in place, as a slice of the input buffer.
+ * It is only copied out into a byte[] the first time it is requested, and that copy is then shared by all callers.
+ */
+final class BytesView {
+    private final ByteBuffer slice;
+    private byte[] bytes;
+
+    BytesView(ByteBuffer slice) {
+        this.slice = slice;
+    }
+
+    int length() {
+        return this.slice.remaining();
+    }
+
+    ByteBuffer slice() {
+        return this.slice.duplicate();
+    }
+
+    byte[] toBytes() {
+        if (null == this.bytes) {
+            byte[] copy = new byte[this.slice.remaining()];
+            this.slice.duplicate().get(copy);
+            this.bytes = copy;
+        }
+        return this.bytes;
+    }
+}
@@ -9,6 +9,7 @@ import org.aion.kernel.Transaction;
 import org.aion.kernel.SideEffects;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -16,53 +17,61 @@ import java.util.Arrays;
  */
 public class Message implements TransactionInterface {
 
+    // Byte array fields are kept as views of the input buffer and only copied out when requested.
     private final byte type;
-    private final byte[] address;
-    private final byte[] caller;
-    private final byte[] origin;
+    private final BytesView address;
+    private final BytesView caller;
+    private final BytesView origin;
     private final long nonce;
-    private final byte[] value;
-    private final byte[] data;
+    private final BytesView value;
+    private final BytesView data;
     private final long energyLimit;
     private final long energyPrice;
-    private byte[] transactionHash;
+    private final BytesView transactionHash;
     private final int basicCost;
     private long transactionTimestamp;
     
-    private final byte[] blockPreviousHash;
+    private final BytesView blockPreviousHash;
     private final int internalCallDepth;
     private final TransactionSideEffects sideEffects;
 
     public final long blockTimestamp;
     public final long blockNumber;
     public final long blockEnergyLimit;
-    public final byte[] blockCoinbase;
-    public final byte[] blockDifficulty;
+    private final BytesView blockCoinbase;
+    private final BytesView blockDifficulty;
 
     byte vm;
 
 
     public Message(byte[] bytes) {
-        NativeDecoder dec = new NativeDecoder(bytes);
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Decodes a message in place:  the buffer must stay valid for as long as this message is in use.
+     */
+    public Message(ByteBuffer buffer) {
+        NativeDecoder dec = new NativeDecoder(buffer);
 
         type = dec.decodeByte();
-        address = dec.decodeBytes();
-        caller = dec.decodeBytes();
-        origin = dec.decodeBytes();
+        address = new BytesView(dec.decodeSlice());
+        caller = new BytesView(dec.decodeSlice());
+        origin = new BytesView(dec.decodeSlice());
         nonce = dec.decodeLong();
-        value = dec.decodeBytes();
-        data = dec.decodeBytes();
+        value = new BytesView(dec.decodeSlice());
+        data = new BytesView(dec.decodeSlice());
         energyLimit = dec.decodeLong();
         energyPrice = dec.decodeLong();
-        transactionHash = dec.decodeBytes();
+        transactionHash = new BytesView(dec.decodeSlice());
         basicCost = dec.decodeInt();
         transactionTimestamp = dec.decodeLong();
         blockTimestamp = dec.decodeLong();
         blockNumber = dec.decodeLong();
         blockEnergyLimit = dec.decodeLong();
-        blockCoinbase = dec.decodeBytes();
-        blockPreviousHash = dec.decodeBytes();
-        blockDifficulty = dec.decodeBytes();
+        blockCoinbase = new BytesView(dec.decodeSlice());
+        blockPreviousHash = new BytesView(dec.decodeSlice());
+        blockDifficulty = new BytesView(dec.decodeSlice());
         internalCallDepth = dec.decodeInt();
         sideEffects = new SideEffects();
     }
@@ -138,12 +147,12 @@ public class Message implements TransactionInterface {
 
     @Override
     public Address getSenderAddress() {
-        return org.aion.types.Address.wrap(caller);
+        return org.aion.types.Address.wrap(caller.toBytes());
     }
 
     @Override
     public Address getDestinationAddress() {
-        return org.aion.types.Address.wrap(address);
+        return org.aion.types.Address.wrap(address.toBytes());
     }
 
     @Override
@@ -157,16 +166,16 @@ public class Message implements TransactionInterface {
 
     @Override
     public byte[] getValue() {
-        return this.value;
+        return this.value.toBytes();
     }
 
     BigInteger getValueAsBigInteger() {
-        return new BigInteger(value);
+        return new BigInteger(value.toBytes());
     }
 
     @Override
     public byte[] getData() {
-        return data;
+        return data.toBytes();
     }
 
     @Override
@@ -181,7 +190,18 @@ public class Message implements TransactionInterface {
 
     @Override
     public byte[] getTransactionHash() {
-        return transactionHash;
+        return transactionHash.toBytes();
+    }
+
+    byte[] getBlockCoinbase() {
+        return blockCoinbase.toBytes();
+    }
+
+    /**
+     * Returns the block difficulty, which is encoded as a long at the front of its bytes.
+     */
+    long getBlockDifficultyAsLong() {
+        return new NativeDecoder(blockDifficulty.slice()).decodeLong();
     }
 
     @Override
@@ -205,23 +225,23 @@ public class Message implements TransactionInterface {
     public String toString() {
         return "TransactionContextHelper{" +
                 "type=" + type +
-                ", address=" + Arrays.toString(address) +
-                ", caller=" + Arrays.toString(caller) +
-                ", origin=" + Arrays.toString(origin) +
+                ", address=" + Arrays.toString(address.toBytes()) +
+                ", caller=" + Arrays.toString(caller.toBytes()) +
+                ", origin=" + Arrays.toString(origin.toBytes()) +
                 ", nonce=" + nonce +
-                ", value=" + Arrays.toString(value) +
-                ", data=" + Arrays.toString(data) +
+                ", value=" + Arrays.toString(value.toBytes()) +
+                ", data=" + Arrays.toString(data.toBytes()) +
                 ", energyLimit=" + energyLimit +
                 ", energyPrice=" + energyPrice +
-                ", transactionHash=" + Arrays.toString(transactionHash) +
+                ", transactionHash=" + Arrays.toString(transactionHash.toBytes()) +
                 ", basicCost=" + basicCost +
                 ", transactionTimestamp=" + transactionTimestamp +
                 ", blockTimestamp=" + blockTimestamp +
                 ", blockNumber=" + blockNumber +
                 ", blockEnergyLimit=" + blockEnergyLimit +
-                ", blockCoinbase=" + Arrays.toString(blockCoinbase) +
-                ", blockPreviousHash=" + Arrays.toString(blockPreviousHash) +
-                ", blockDifficulty=" + Arrays.toString(blockDifficulty) +
+                ", blockCoinbase=" + Arrays.toString(blockCoinbase.toBytes()) +
+                ", blockPreviousHash=" + Arrays.toString(blockPreviousHash.toBytes()) +
+                ", blockDifficulty=" + Arrays.toString(blockDifficulty.toBytes()) +
                 ", internalCallDepth=" + internalCallDepth +
                 '}';
     }
@@ -1,58 +1,80 @@
 package org.aion.avm.jni;
 
+import java.nio.ByteBuffer;
+
 public class NativeDecoder {
 
-    private byte[] bytes;
-    private int index;
+    private final ByteBuffer buffer;
 
     public NativeDecoder(byte[] bytes) {
-        this.bytes = bytes;
+        this(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Decodes the remaining content of the given buffer (which may be a direct buffer over native memory), in place.
+     * The buffer must stay valid for as long as this decoder, or any slice it returned, is in use.
+     */
+    public NativeDecoder(ByteBuffer buffer) {
+        // (slice() gives us our own position, and the default big-endian order, without copying anything)
+        this.buffer = buffer.slice();
     }
 
     public byte decodeByte() {
         require(1);
-        return bytes[index++];
+        return buffer.get();
     }
 
     public short decodeShort() {
         require(2);
-        short n = (short) (((0xff & bytes[index]) << 8) | (0xff & bytes[index + 1]));
-        index += 2;
-        return n;
+        return buffer.getShort();
     }
 
     public int decodeInt() {
         require(4);
-        int n = ((0xff & bytes[index]) << 24) | ((0xff & bytes[index + 1]) << 16) | ((0xff & bytes[index + 2]) << 8) | (0xff & bytes[index + 3]);
-        index += 4;
-        return n;
+        return buffer.getInt();
     }
 
     public long decodeLong() {
         require(8);
-        long n = ((0xffL & bytes[index]) << 56)
-                | ((0xffL & bytes[index + 1]) << 48)
-                | ((0xffL & bytes[index + 2]) << 40)
-                | ((0xffL & bytes[index + 3]) << 32)
-                | ((0xffL & bytes[index + 4]) << 24)
-                | ((0xffL & bytes[index + 5]) << 16)
-                | ((0xffL & bytes[index + 6]) << 8)
-                | (0xffL & bytes[index + 7]);
-        index += 8;
-        return n;
+        return buffer.getLong();
     }
 
     public byte[] decodeBytes() {
         int size = decodeInt();
         require(size);
         byte[] tmp = new byte[size];
-        System.arraycopy(bytes, index, tmp, 0, size);
-        index += size;
+        buffer.get(tmp);
         return tmp;
     }
 
+    /**
+     * Decodes a byte array without copying it:  the returned buffer is a view of the input.
+     */
+    public ByteBuffer decodeSlice() {
+        int size = decodeInt();
+        require(size);
+        ByteBuffer slice = buffer.slice();
+        slice.limit(size);
+        buffer.position(buffer.position() + size);
+        return slice;
+    }
+
+    /**
+     * Decodes a byte array written by NativeEncoder.encodeNullableBytes().
+     */
+    public byte[] decodeNullableBytes() {
+        return (0 == decodeByte()) ? null : decodeBytes();
+    }
+
+    /**
+     * @return True if everything in the input has been decoded.
+     */
+    public boolean isEmpty() {
+        return !buffer.hasRemaining();
+    }
+
     private void require(int n) {
-        if (n < 0 || bytes.length - index < n) {
+        if (n < 0 || buffer.remaining() < n) {
             throw new ArrayIndexOutOfBoundsException();
         }
     }
@@ -1,47 +1,126 @@
 package org.aion.avm.jni;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
 
 public class NativeEncoder {
 
-    private ByteArrayOutputStream buffer;
+    private static final int DEFAULT_CAPACITY = 256;
+
+    private final boolean direct;
+    private ByteBuffer buffer;
 
     public NativeEncoder() {
-        buffer = new ByteArrayOutputStream();
+        this(false, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param direct True if the output should be built in a direct buffer, so that native code can read it in place.
+     * @param initialCapacity The initial size of the buffer (it grows as needed).
+     */
+    public NativeEncoder(boolean direct, int initialCapacity) {
+        this.direct = direct;
+        this.buffer = allocate(Math.max(initialCapacity, DEFAULT_CAPACITY));
     }
 
     public void encodeByte(byte n) {
-        buffer.write(0xff & n);
+        ensure(1);
+        buffer.put(n);
     }
 
     public void encodeShort(short n) {
-        buffer.write(0xff & (n >> 8));
-        buffer.write(0xff & n);
+        ensure(2);
+        buffer.putShort(n);
     }
 
     public void encodeInt(int n) {
-        buffer.write(0xff & (n >> 24));
-        buffer.write(0xff & (n >> 16));
-        buffer.write(0xff & (n >> 8));
-        buffer.write(0xff & n);
+        ensure(4);
+        buffer.putInt(n);
     }
 
     public void encodeLong(long n) {
-        encodeInt((int) (n >> 32));
-        encodeInt((int) (0xffffffff & n));
+        ensure(8);
+        buffer.putLong(n);
     }
 
     public void encodeBytes(byte[] bytes) {
-        encodeInt(bytes.length);
-        try {
-            buffer.write(bytes);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        ensure(4 + bytes.length);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /**
+     * Encodes the remaining content of the given buffer as a byte array (the buffer's position is not changed).
+     */
+    public void encodeBytes(ByteBuffer bytes) {
+        ensure(4 + bytes.remaining());
+        buffer.putInt(bytes.remaining());
+        buffer.put(bytes.duplicate());
+    }
+
+    /**
+     * Encodes a byte array which may be null, as a presence byte followed (if present) by the array.
+     */
+    public void encodeNullableBytes(byte[] bytes) {
+        if (null == bytes) {
+            encodeByte((byte) 0);
+        } else {
+            encodeByte((byte) 1);
+            encodeBytes(bytes);
         }
     }
 
+    /**
+     * Starts a byte array which will be encoded in place, instead of being built separately and copied in.
+     * Everything encoded until the matching endBytes() call makes up its content.
+     *
+     * @return The token to pass to endBytes().
+     */
+    public int beginBytes() {
+        ensure(4);
+        int start = buffer.position();
+        buffer.putInt(0);
+        return start;
+    }
+
+    /**
+     * Ends a byte array started by beginBytes(), writing its length.
+     *
+     * @param start The token returned by beginBytes().
+     */
+    public void endBytes(int start) {
+        buffer.putInt(start, buffer.position() - start - 4);
+    }
+
     public byte[] toByteArray() {
-        return buffer.toByteArray();
+        byte[] bytes = new byte[buffer.position()];
+        ByteBuffer view = buffer.duplicate();
+        view.flip();
+        view.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Returns the encoded content without copying it:  the returned buffer is a view of this encoder's storage (a direct buffer, if
+     * this encoder was created as such) so nothing more should be encoded while it is in use.
+     */
+    public ByteBuffer toByteBuffer() {
+        // (sliced, so that its capacity is exactly the encoded length, as seen by GetDirectBufferCapacity)
+        ByteBuffer view = buffer.duplicate();
+        view.flip();
+        return view.slice();
+    }
+
+    private void ensure(int n) {
+        if (buffer.remaining() < n) {
+            int capacity = Math.max(buffer.capacity() * 2, buffer.position() + n);
+            ByteBuffer larger = allocate(capacity);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = larger;
+        }
+    }
+
+    private ByteBuffer allocate(int capacity) {
+        return direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
     }
 }
@@ -5,6 +5,9 @@ import org.aion.types.Address;
 import org.aion.avm.core.NodeEnvironment;
 import java.math.BigInteger;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -38,6 +41,71 @@ public class NativeKernelInterface implements KernelInterface {
         return sendSignal(handle, sig_num);
     }
 
+    /**
+     * Loads the balance, nonce, code, transformed code and object graph of all the given accounts in a single native call.
+     *
+     * @param addresses The accounts to load.
+     * @return The state of each account, in the order given, or null if the client doesn't support batched reads.
+     */
+    List<AccountState> loadAccounts(Collection<Address> addresses) {
+        NativeEncoder request = new NativeEncoder();
+        request.encodeInt(addresses.size());
+        for (Address address : addresses) {
+            request.encodeBytes(address.toBytes());
+        }
+
+        byte[] response = prefetchAccounts(handle, request.toByteArray());
+        if (null == response) {
+            return null;
+        }
+
+        NativeDecoder decoder = new NativeDecoder(response);
+        List<AccountState> accounts = new ArrayList<>(addresses.size());
+        for (Address address : addresses) {
+            BigInteger balance = new BigInteger(1, decoder.decodeBytes());
+            BigInteger nonce = BigInteger.valueOf(decoder.decodeLong());
+            byte[] code = decoder.decodeNullableBytes();
+            byte[] transformedCode = decoder.decodeNullableBytes();
+            byte[] objectGraph = decoder.decodeNullableBytes();
+            accounts.add(new AccountState(address, balance, nonce, code, transformedCode, objectGraph));
+        }
+        return accounts;
+    }
+
+    /**
+     * Applies a write log, encoded by WriteLogEncoder, in a single native call.
+     *
+     * @param log The encoded write log.
+     * @return false if the client doesn't support batched writes, in which case nothing was applied.
+     */
+    boolean commitWriteLog(byte[] log) {
+        return commitWriteLog(handle, log);
+    }
+
+    /**
+     * Hands a single transaction result over to the client, as soon as it is available.
+     *
+     * @param result The encoded transaction result, followed by the state root.
+     * @param idx The index of the transaction in its batch.
+     * @return false if the client doesn't support streamed results, in which case nothing was handed over.
+     */
+    boolean pushResult(byte[] result, int idx) {
+        return pushResult(handle, result, idx);
+    }
+
+    /**
+     * Writes back all the changes of the given kernel, in a single native call when the client supports it.
+     *
+     * @param source The kernel whose changes should be written back (through its commitTo()).
+     */
+    public void commitChangesFrom(KernelInterface source) {
+        WriteLogEncoder writeLog = new WriteLogEncoder();
+        source.commitTo(writeLog);
+        if ((writeLog.getOperationCount() > 0) && !commitWriteLog(writeLog.toByteArray())) {
+            source.commitTo(this);
+        }
+    }
+
     @Override
     public void createAccount(Address address) {
         createAccount(handle, address.toBytes());
@@ -263,4 +331,14 @@ public class NativeKernelInterface implements KernelInterface {
     public static native byte[] sendSignal(long handle, int sig);
 
     public static native byte[] contract_address(byte[] sender, byte[] nonce);
+
+    /// batched access: returns NULL/false if the client hasn't registered the batched callbacks
+    public static native byte[] prefetchAccounts(long handle, byte[] addresses);
+
+    public static native boolean commitWriteLog(long handle, byte[] log);
+
+    /// streamed results: returns false if the client hasn't registered the receive_result callback
+    public static native boolean pushResult(long handle, byte[] result, int idx);
+
+    public static native boolean isStreamingSupported();
 }
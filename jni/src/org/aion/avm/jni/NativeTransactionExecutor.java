@@ -13,19 +13,143 @@ import org.aion.avm.core.AvmConfiguration;
 import org.aion.avm.tooling.StandardCapabilities;
 import org.aion.kernel.AvmTransactionResult;
 import org.aion.kernel.TransactionalKernel;
+import org.aion.types.Address;
 
+import java.nio.ByteBuffer;
+import java.util.LinkedHashSet;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 
 public class NativeTransactionExecutor {
 
+    // The long-lived AVM instance, book-ended by the startup()/shutdown() calls from the client.
+    // While it is running, its executor threads and hot DApp cache are reused by every execute() call.
+    private static AvmImpl session;
+
     /**
-     * Runs the given transactions with the specified handle, and returns the transaction results
+     * Starts the long-lived AVM instance used by all subsequent calls to execute(), until shutdown() is called.
+     *
+     * @return true if a new instance was started, false if one was already running or it failed to start
+     */
+    public static synchronized boolean startup() {
+        if (null != session) {
+            return false;
+        }
+        try {
+            session = buildAvm();
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Stops the long-lived AVM instance started by startup(), joining its executor threads.
+     *
+     * @return true if an instance was stopped cleanly, false if none was running or its shutdown reported an error
+     */
+    public static synchronized boolean shutdown() {
+        if (null == session) {
+            return false;
+        }
+        AvmImpl avm = session;
+        session = null;
+        try {
+            avm.shutdown();
+            return true;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * Runs the given transactions with the specified handle, and returns the transaction results.
+     * If a long-lived AVM instance was started via startup(), it is reused; otherwise, a temporary one is created for this call.
      *
      * @param handle reserved pointer for the client
      * @param txs    serialized list of transaction contexts, using the Native Codec
      * @return serialized list of transaction result, using the Native Codec
      */
-    public static byte[] execute(long handle, byte[] txs, boolean is_local) {
+    public static synchronized byte[] execute(long handle, byte[] txs, boolean is_local) {
+        NativeEncoder encoder = new NativeEncoder();
+        return executeBatch(handle, new NativeDecoder(txs), is_local, encoder)
+                ? encoder.toByteArray()
+                : null;
+    }
+
+    /**
+     * Same as execute(), but without copying the input or the output across JNI:  the transactions are decoded in place from the
+     * given buffer (typically created over native memory with NewDirectByteBuffer, which must stay valid until this returns) and the
+     * results are encoded into a direct buffer which the client can read in place (GetDirectBufferAddress).
+     *
+     * @param handle reserved pointer for the client
+     * @param txs    serialized list of transaction contexts, using the Native Codec
+     * @return serialized list of transaction result, using the Native Codec, in a direct buffer
+     */
+    public static synchronized ByteBuffer executeDirect(long handle, ByteBuffer txs, boolean is_local) {
+        // (results are much smaller than the transactions, so this is usually the only allocation)
+        NativeEncoder encoder = new NativeEncoder(true, txs.remaining() / 4);
+        return executeBatch(handle, new NativeDecoder(txs), is_local, encoder)
+                ? encoder.toByteBuffer()
+                : null;
+    }
+
+    /**
+     * Same as execute(), but instead of returning all the results once the whole batch is done, each transaction result is pushed
+     * to the client (through the receive_result callback) as soon as it has been committed, in transaction order, so that the
+     * client can process it while the following transactions are still executing.
+     * Each pushed result is the serialized transaction result followed by the state root, using the Native Codec.
+     *
+     * @param handle reserved pointer for the client
+     * @param txs    serialized list of transaction contexts, using the Native Codec
+     * @return true if all the results were pushed, false if the batch failed (or the client doesn't support streaming, in which
+     *         case nothing was run)
+     */
+    public static synchronized boolean executeStreaming(long handle, byte[] txs, boolean is_local) {
+        return executeStreaming(handle, txs, is_local, NativeKernelInterface::isStreamingSupported);
+    }
+
+    static synchronized boolean executeStreaming(long handle, byte[] txs, boolean is_local, BooleanSupplier isStreamingSupported) {
+        // Each result is pushed once its transaction is committed, so we must know that the client can receive them before running
+        // anything:  finding out at the first push would leave the batch partly committed.
+        if (!isStreamingSupported.getAsBoolean()) {
+            System.err.println("The client has not registered the receive_result callback");
+            return false;
+        }
+        return executeBatch(handle, new NativeDecoder(txs), is_local, (kernel, index, result, stateRoot) -> {
+            NativeEncoder encoder = new NativeEncoder();
+            TransactionResultHelper.encodeTransactionResult(encoder, result);
+            encoder.encodeBytes(stateRoot);
+            if (!kernel.pushResult(encoder.toByteArray(), index)) {
+                // (checked before the batch started, so this can't happen)
+                throw new IllegalStateException("The client has not registered the receive_result callback");
+            }
+        });
+    }
+
+    private static boolean executeBatch(long handle, NativeDecoder decoder, boolean is_local, NativeEncoder encoder) {
+        return executeBatch(handle, decoder, is_local, new ResultSink() {
+            @Override
+            public void begin(int count) {
+                encoder.encodeInt(count);
+            }
+
+            @Override
+            public void accept(NativeKernelInterface kernel, int index, TransactionResult result, byte[] stateRoot) {
+                int resultStart = encoder.beginBytes();
+                TransactionResultHelper.encodeTransactionResult(encoder, result);
+                encoder.endBytes(resultStart);
+                encoder.encodeBytes(stateRoot);
+            }
+        });
+    }
+
+    private static boolean executeBatch(long handle, NativeDecoder decoder, boolean is_local, ResultSink sink) {
+        // (the AVM only supports a single external thread driving it, hence the synchronization of the callers)
+        boolean isTemporary = (null == session);
+        AvmImpl avm = null;
         try {
             // deserialize the transaction contexts
             // the paralleled transactions should have the same block info
@@ -34,28 +158,25 @@ public class NativeTransactionExecutor {
             NativeKernelInterface kernel = new NativeKernelInterface(handle);
             Substate substate = new Substate(kernel);
 
-            NativeDecoder decoder = new NativeDecoder(txs);
             TransactionInterface[] contexts = new TransactionInterface[decoder.decodeInt()];
             for (int i = 0; i < contexts.length; i++) {
-                Message msg = new Message(decoder.decodeBytes());
+                Message msg = new Message(decoder.decodeSlice());
                 substate.updateEnvInfo(msg);
                 contexts[i] = msg; 
                 if (Constants.DEBUG)
                     System.out.println(contexts[i]);
             }
 
-            AvmConfiguration config = new AvmConfiguration();
-            if (Constants.DEBUG)
-                config.enableVerboseConcurrentExecutor = true;
-            AvmImpl avm = CommonAvmFactory.buildAvmInstanceForConfiguration(new AionCapabilities(), config);
+            // load the accounts this batch is known to touch in one native call, instead of one call per read.
+            substate.preload(kernel.loadAccounts(collectKnownAddresses(contexts, substate.getMinerAddress())));
+
+            avm = isTemporary ? buildAvm() : session;
             SimpleFuture<TransactionResult>[] futures = avm.run(substate, contexts);
 
-            // wait for the transaction results and serialize them into bytes
-            NativeEncoder encoder = new NativeEncoder();
-            encoder.encodeInt(futures.length);
+            // wait for the transaction results, in order, and hand each of them over once committed
+            sink.begin(futures.length);
             for (int i = 0; i < futures.length; i++) {
                 TransactionResult r = futures[i].get();
-                encoder.encodeBytes(TransactionResultHelper.encodeTransactionResult(r));
                 if (Constants.DEBUG) {
                     System.out.println(futures[i]);
                 }
@@ -80,22 +201,76 @@ public class NativeTransactionExecutor {
                         logEncoder.encodeBytes(log.getData());
                         kernel.addLog(logEncoder.toByteArray(), i);
                     }
-                    transactionKernel.commitTo(kernel);
+                    kernel.commitChangesFrom(transactionKernel);
                     // 0: should commit state; and return state root
                     state_root = kernel.sendSignal(0);
                 }
                    
-                encoder.encodeBytes(state_root);
+                sink.accept(kernel, i, r, state_root);
             }
             kernel.sendSignal(-1);
-            avm.shutdown();
+            if (isTemporary) {
+                // (cleared first so a failing shutdown isn't attempted twice)
+                AvmImpl temporary = avm;
+                avm = null;
+                temporary.shutdown();
+            }
 
-            return encoder.toByteArray();
+            return true;
         } catch (Exception e) {
             // instead of propagating the exceptions to client, we dump it from the java side
             // and return NULL to indicate an error.
             e.printStackTrace();
-            return null;
+            // once the batch was handed off, the instance may be left with unconsumed results (or a failed background thread),
+            // so it can't be reused:  tear it down and let the client start a new session.
+            if (null != avm) {
+                if (isTemporary) {
+                    shutdownQuietly(avm);
+                } else {
+                    shutdown();
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Receives the transaction results of a batch, in transaction order, each once its changes have been committed to the kernel.
+     */
+    private interface ResultSink {
+        default void begin(int count) {
+        }
+
+        void accept(NativeKernelInterface kernel, int index, TransactionResult result, byte[] stateRoot);
+    }
+
+    private static Set<Address> collectKnownAddresses(TransactionInterface[] contexts, Address miner) {
+        Set<Address> addresses = new LinkedHashSet<>();
+        for (TransactionInterface context : contexts) {
+            addresses.add(context.getSenderAddress());
+            // the destination of a CREATE is only known once the contract address is generated.
+            if (!context.isContractCreationTransaction()) {
+                addresses.add(context.getDestinationAddress());
+            }
+        }
+        if (null != miner) {
+            addresses.add(miner);
+        }
+        return addresses;
+    }
+
+    private static AvmImpl buildAvm() {
+        AvmConfiguration config = new AvmConfiguration();
+        if (Constants.DEBUG)
+            config.enableVerboseConcurrentExecutor = true;
+        return CommonAvmFactory.buildAvmInstanceForConfiguration(new AionCapabilities(), config);
+    }
+
+    private static void shutdownQuietly(AvmImpl avm) {
+        try {
+            avm.shutdown();
+        } catch (Exception e) {
+            // the original failure was already reported.
         }
     }
 }
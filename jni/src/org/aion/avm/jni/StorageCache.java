@@ -0,0 +1,82 @@
+package org.aion.avm.jni;
+
+import org.aion.types.Address;
+
+import java.util.HashMap;
+import java.util.function.BiFunction;
+
+/**
+ * A per-account storage cache, keyed by the content of the storage keys (not their array identity).
+ * Reads go through to the given loader on a miss and the loaded value (even null) is kept, so repeated reads of the same slot
+ * only pay for one load.  Writes only update the cache:  the caller is responsible for writing them back.
+ */
+class StorageCache {
+    private final HashMap<Address, HashMap<StorageKey, byte[]>> accounts;
+    private long hits;
+    private long misses;
+
+    StorageCache() {
+        this.accounts = new HashMap<>();
+    }
+
+    /**
+     * Returns the cached value of the given slot, loading it (and caching it) on a miss.
+     *
+     * @param address The account owning the storage.
+     * @param key The storage key.
+     * @param loader Called to load the value of a slot which isn't cached.
+     * @return The value of the slot (may be null).
+     */
+    byte[] getOrLoad(Address address, byte[] key, BiFunction<Address, byte[], byte[]> loader) {
+        StorageKey storageKey = StorageKey.of(key);
+        synchronized (this) {
+            HashMap<StorageKey, byte[]> slots = slotsFor(address);
+            if (slots.containsKey(storageKey)) {
+                this.hits += 1;
+                return slots.get(storageKey);
+            }
+            this.misses += 1;
+        }
+
+        // Load outside of the lock, since this is usually a native call.
+        byte[] value = loader.apply(address, key);
+        synchronized (this) {
+            HashMap<StorageKey, byte[]> slots = slotsFor(address);
+            // If another thread loaded or wrote the slot in the meantime, that value wins.
+            if (slots.containsKey(storageKey)) {
+                value = slots.get(storageKey);
+            } else {
+                slots.put(storageKey, value);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Sets the cached value of the given slot.
+     *
+     * @param address The account owning the storage.
+     * @param key The storage key.
+     * @param value The new value of the slot.
+     */
+    synchronized void put(Address address, byte[] key, byte[] value) {
+        slotsFor(address).put(StorageKey.of(key), value);
+    }
+
+    synchronized long getHitCount() {
+        return this.hits;
+    }
+
+    synchronized long getMissCount() {
+        return this.misses;
+    }
+
+    private HashMap<StorageKey, byte[]> slotsFor(Address address) {
+        HashMap<StorageKey, byte[]> slots = this.accounts.get(address);
+        if (null == slots) {
+            slots = new HashMap<>();
+            this.accounts.put(address, slots);
+        }
+        return slots;
+    }
+}
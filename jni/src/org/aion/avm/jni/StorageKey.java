@@ -0,0 +1,66 @@
+package org.aion.avm.jni;
+
+import java.util.Arrays;
+
+/**
+ * A content-keyed wrapper of a storage key, to be used as the HashMap key.
+ * The common 32-byte key is specialized into 4 longs so that equality and hashing don't need to walk an array.
+ * Any other length falls back to a private copy of the bytes.
+ */
+final class StorageKey {
+    private static final int SPECIALIZED_LENGTH = 32;
+
+    private final long word0;
+    private final long word1;
+    private final long word2;
+    private final long word3;
+    // Only set for keys which aren't SPECIALIZED_LENGTH bytes long.
+    private final byte[] other;
+
+    private StorageKey(long word0, long word1, long word2, long word3, byte[] other) {
+        this.word0 = word0;
+        this.word1 = word1;
+        this.word2 = word2;
+        this.word3 = word3;
+        this.other = other;
+    }
+
+    static StorageKey of(byte[] key) {
+        return (SPECIALIZED_LENGTH == key.length)
+                ? new StorageKey(readLong(key, 0), readLong(key, 8), readLong(key, 16), readLong(key, 24), null)
+                : new StorageKey(0L, 0L, 0L, 0L, key.clone());
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+        if (!(object instanceof StorageKey)) {
+            return false;
+        }
+        StorageKey that = (StorageKey) object;
+        return (this.word0 == that.word0)
+                && (this.word1 == that.word1)
+                && (this.word2 == that.word2)
+                && (this.word3 == that.word3)
+                && Arrays.equals(this.other, that.other);
+    }
+
+    @Override
+    public int hashCode() {
+        if (null != this.other) {
+            return Arrays.hashCode(this.other);
+        }
+        long mixed = this.word0 ^ (31 * this.word1) ^ (961 * this.word2) ^ (29791 * this.word3);
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long n = 0;
+        for (int i = 0; i < 8; i++) {
+            n = (n << 8) | (0xffL & bytes[offset + i]);
+        }
+        return n;
+    }
+}
@@ -9,10 +9,11 @@ import java.util.ArrayList;
 import java.util.function.Consumer;
 import java.math.BigInteger;
 import java.util.HashMap;
-import java.util.HashSet;
 
 public class Substate implements KernelInterface {
     final private KernelInterface parent;
+    /// set when the parent is the native kernel, so the write log can be committed in one call
+    final private NativeKernelInterface nativeParent;
     private final List<Consumer<KernelInterface>> writeLog;
     /// cached nonces
     private final HashMap<Address, BigInteger> nonces;
@@ -20,9 +21,11 @@ public class Substate implements KernelInterface {
     private final HashMap<Address, BigInteger> balances;
     /// cached object graph
     private final HashMap<Address, byte[]> objectGraphs;
-    /// storage keys and values
-    private final HashMap<Address, HashSet<byte[]>> keys;
-    private final HashMap<byte[], byte[]> values;
+    /// cached code and transformed code (populated by preload and by writes)
+    private final HashMap<Address, byte[]> codes;
+    private final HashMap<Address, byte[]> transformedCodes;
+    /// cached storage, per account and keyed by content
+    private final StorageCache storage;
     
     /// block info (act as env info)
     private EnvInfo info;
@@ -37,22 +40,48 @@ public class Substate implements KernelInterface {
 
     public Substate(KernelInterface parent) {
         this.parent = parent;
+        this.nativeParent = (parent instanceof NativeKernelInterface) ? (NativeKernelInterface) parent : null;
         this.writeLog = new ArrayList<>();
         this.nonces = new HashMap<>();
         this.balances = new HashMap<>();
         this.objectGraphs = new HashMap<>();
-        this.keys = new HashMap<>();
-        this.values = new HashMap<>();
+        this.codes = new HashMap<>();
+        this.transformedCodes = new HashMap<>();
+        this.storage = new StorageCache();
         this.info = new EnvInfo();
     }
 
     public void updateEnvInfo(Message msg) {
-        NativeDecoder decoder = new NativeDecoder(msg.blockDifficulty);
-        this.info.blockDifficulty = decoder.decodeLong();
+        this.info.blockDifficulty = msg.getBlockDifficultyAsLong();
         this.info.blockTimestamp = msg.blockTimestamp;
         this.info.blockGasLimit = msg.blockEnergyLimit;
         this.info.blockNumber = msg.blockNumber;
-        this.info.coinbase = new Address(msg.blockCoinbase);
+        this.info.coinbase = new Address(msg.getBlockCoinbase());
+    }
+
+    /**
+     * Seeds the caches with account states loaded in bulk, so the first reads of these accounts don't need to go to the parent.
+     * Anything already cached (possibly modified by this substate) is kept.
+     *
+     * @param accounts The loaded account states (null is treated as empty).
+     */
+    void preload(List<AccountState> accounts) {
+        if (null == accounts) {
+            return;
+        }
+        for (AccountState account : accounts) {
+            this.balances.putIfAbsent(account.address, account.balance);
+            this.nonces.putIfAbsent(account.address, account.nonce);
+            if (!this.codes.containsKey(account.address)) {
+                this.codes.put(account.address, account.code);
+            }
+            if (!this.transformedCodes.containsKey(account.address)) {
+                this.transformedCodes.put(account.address, account.transformedCode);
+            }
+            if (null == this.objectGraphs.get(account.address)) {
+                this.objectGraphs.put(account.address, account.objectGraph);
+            }
+        }
     }
 
     @Override
@@ -83,6 +112,7 @@ public class Substate implements KernelInterface {
             kernel.putCode(address, code);
         };
         writeLog.add(write);
+        this.codes.put(address, code);
     }
 
     @Override
@@ -90,6 +120,9 @@ public class Substate implements KernelInterface {
         if (Constants.DEBUG) {
             System.out.printf("JNI: get code of %s", address);
         }
+        if (this.codes.containsKey(address)) {
+            return this.codes.get(address);
+        }
         return this.parent.getCode(address);
     }
 
@@ -103,18 +136,7 @@ public class Substate implements KernelInterface {
         };
         writeLog.add(write);
 
-        HashSet<byte[]> keySet = this.keys.get(address);
-        if (keySet == null) {
-            this.keys.put(address, new HashSet<>());
-            this.keys.get(address).add(key);
-            this.values.put(key, value);
-        } else {
-            // key set is not null but the key is not found
-            keySet.add(key);
-            this.values.put(key, value);
-        }
-
-        
+        this.storage.put(address, key, value);
     }
 
     @Override
@@ -123,26 +145,21 @@ public class Substate implements KernelInterface {
             System.out.printf("JNI: get storage");
         }
 
-        byte[] value;
-        HashSet<byte[]> localKeys = this.keys.get(address);
-        if (null == localKeys) {
-            value = this.parent.getStorage(address, key);
-            this.keys.put(address, new HashSet<>());
-            this.keys.get(address).add(key);
-            this.values.put(key, value);
-        } else {
-            // has local keys
-            if (localKeys.contains(key)) {
-                value = this.values.get(key);
-            } else {
-                value = this.parent.getStorage(address, key);
-                // key/value always update together
-                localKeys.add(key);
-                this.values.put(key, value);
-            }
-        }
+        return this.storage.getOrLoad(address, key, this.parent::getStorage);
+    }
+
+    /**
+     * @return The number of storage reads served from this substate's cache.
+     */
+    public long getStorageCacheHits() {
+        return this.storage.getHitCount();
+    }
 
-        return value;
+    /**
+     * @return The number of storage reads which had to go to the parent kernel.
+     */
+    public long getStorageCacheMisses() {
+        return this.storage.getMissCount();
     }
 
     @Override
@@ -151,6 +168,9 @@ public class Substate implements KernelInterface {
             kernel.deleteAccount(address);
         };
         writeLog.add(write);
+        // Forget anything preloaded for this account.
+        this.codes.remove(address);
+        this.transformedCodes.remove(address);
     }
 
     @Override
@@ -309,6 +329,16 @@ public class Substate implements KernelInterface {
 
     @Override
     public void commit() {
+        if (null != this.nativeParent) {
+            // Flush the whole write log in one native call, if the client supports it.
+            WriteLogEncoder encoded = new WriteLogEncoder();
+            for (Consumer<KernelInterface> mutation : this.writeLog) {
+                mutation.accept(encoded);
+            }
+            if (this.nativeParent.commitWriteLog(encoded.toByteArray())) {
+                return;
+            }
+        }
         for (Consumer<KernelInterface> mutation : this.writeLog) {
             mutation.accept(this.parent);
         }
@@ -354,10 +384,14 @@ public class Substate implements KernelInterface {
             kernel.setTransformedCode(address, bytes);
         };
         writeLog.add(write);
+        this.transformedCodes.put(address, bytes);
     }
 
     @Override
     public byte[] getTransformedCode(Address address) {
+        if (this.transformedCodes.containsKey(address)) {
+            return this.transformedCodes.get(address);
+        }
         return parent.getTransformedCode(address);
     }
 }
\ No newline at end of file
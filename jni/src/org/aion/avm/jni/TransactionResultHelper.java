@@ -38,13 +38,18 @@ public class TransactionResultHelper {
 
     public static byte[] encodeTransactionResult(TransactionResult result) {
         NativeEncoder enc = new NativeEncoder();
+        encodeTransactionResult(enc, result);
+        return enc.toByteArray();
+    }
 
+    /**
+     * Encodes the result directly into the given encoder, rather than into a separate array.
+     */
+    public static void encodeTransactionResult(NativeEncoder enc, TransactionResult result) {
         AvmTransactionResult avm_result = (AvmTransactionResult) result;
         ResultCode code = avm_result.getResultCode();
         enc.encodeInt(encodeAvmResultCode(code));
         enc.encodeBytes(result.getReturnData() == null ? new byte[0] : result.getReturnData());
         enc.encodeLong(avm_result.getEnergyUsed());
-
-        return enc.toByteArray();
     }
 }
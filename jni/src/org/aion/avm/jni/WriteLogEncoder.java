@@ -0,0 +1,226 @@
+package org.aion.avm.jni;
+
+import org.aion.types.Address;
+import org.aion.vm.api.interfaces.KernelInterface;
+
+import java.math.BigInteger;
+
+/**
+ * A write-only KernelInterface which encodes every mutation it is given into one buffer, using the Native Codec, so that a whole
+ * write log can be applied by the native kernel in a single call (see NativeKernelInterface.commitWriteLog()).
+ *
+ * The buffer is a sequence of operations, up to its end.  Each one is an opcode byte, followed by the address bytes and then the
+ * arguments of that opcode (balance deltas are encoded as an unsigned magnitude, with the sign given by the opcode).
+ */
+class WriteLogEncoder implements KernelInterface {
+    static final byte OP_CREATE_ACCOUNT = 1;
+    static final byte OP_PUT_CODE = 2;
+    static final byte OP_PUT_STORAGE = 3;
+    static final byte OP_DELETE_ACCOUNT = 4;
+    static final byte OP_INCREASE_BALANCE = 5;
+    static final byte OP_DECREASE_BALANCE = 6;
+    static final byte OP_INCREMENT_NONCE = 7;
+    static final byte OP_PUT_TRANSFORMED_CODE = 8;
+    static final byte OP_PUT_OBJECT_GRAPH = 9;
+
+    private final NativeEncoder encoder;
+    private int operationCount;
+
+    WriteLogEncoder() {
+        this.encoder = new NativeEncoder();
+    }
+
+    /**
+     * @return The number of operations encoded so far.
+     */
+    int getOperationCount() {
+        return this.operationCount;
+    }
+
+    byte[] toByteArray() {
+        return this.encoder.toByteArray();
+    }
+
+    @Override
+    public void createAccount(Address address) {
+        startOperation(OP_CREATE_ACCOUNT, address);
+    }
+
+    @Override
+    public void putCode(Address address, byte[] code) {
+        startOperation(OP_PUT_CODE, address);
+        this.encoder.encodeBytes(code);
+    }
+
+    @Override
+    public void putStorage(Address address, byte[] key, byte[] value) {
+        startOperation(OP_PUT_STORAGE, address);
+        this.encoder.encodeBytes(key);
+        this.encoder.encodeBytes(value);
+    }
+
+    @Override
+    public void removeStorage(Address address, byte[] key) {
+        // Same as the NativeKernelInterface:  removal is writing an empty value.
+        putStorage(address, key, new byte[0]);
+    }
+
+    @Override
+    public void deleteAccount(Address address) {
+        startOperation(OP_DELETE_ACCOUNT, address);
+    }
+
+    @Override
+    public void adjustBalance(Address address, BigInteger delta) {
+        if (delta.signum() > 0) {
+            startOperation(OP_INCREASE_BALANCE, address);
+            this.encoder.encodeBytes(delta.toByteArray());
+        } else if (delta.signum() < 0) {
+            startOperation(OP_DECREASE_BALANCE, address);
+            this.encoder.encodeBytes(delta.negate().toByteArray());
+        }
+    }
+
+    @Override
+    public void incrementNonce(Address address) {
+        startOperation(OP_INCREMENT_NONCE, address);
+    }
+
+    @Override
+    public void setTransformedCode(Address address, byte[] code) {
+        startOperation(OP_PUT_TRANSFORMED_CODE, address);
+        this.encoder.encodeBytes(code);
+    }
+
+    @Override
+    public void putObjectGraph(Address address, byte[] data) {
+        startOperation(OP_PUT_OBJECT_GRAPH, address);
+        this.encoder.encodeBytes(data);
+    }
+
+    @Override
+    public void payMiningFee(Address address, BigInteger fee) {
+        adjustBalance(address, fee);
+    }
+
+    @Override
+    public void refundAccount(Address address, BigInteger amount) {
+        adjustBalance(address, amount);
+    }
+
+    @Override
+    public void deductEnergyCost(Address address, BigInteger cost) {
+        adjustBalance(address, cost);
+    }
+
+    @Override
+    public void commitTo(KernelInterface target) {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public void commit() {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public KernelInterface makeChildKernelInterface() {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public boolean hasAccountState(Address address) {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public byte[] getCode(Address address) {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public byte[] getTransformedCode(Address address) {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public byte[] getObjectGraph(Address address) {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public byte[] getStorage(Address address, byte[] key) {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public BigInteger getBalance(Address address) {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public BigInteger getNonce(Address address) {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public byte[] getBlockHashByNumber(long blockNumber) {
+        throw new AssertionError("No equivalent concept in the Avm.");
+    }
+
+    @Override
+    public boolean accountNonceEquals(Address address, BigInteger nonce) {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public boolean accountBalanceIsAtLeast(Address address, BigInteger amount) {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public boolean isValidEnergyLimitForCreate(long energyLimit) {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public boolean isValidEnergyLimitForNonCreate(long energyLimit) {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public boolean destinationAddressIsSafeForThisVM(Address address) {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public long getBlockNumber() {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public long getBlockTimestamp() {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public long getBlockEnergyLimit() {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public long getBlockDifficulty() {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    @Override
+    public Address getMinerAddress() {
+        throw new AssertionError("This class does not implement this method.");
+    }
+
+    private void startOperation(byte opcode, Address address) {
+        this.encoder.encodeByte(opcode);
+        this.encoder.encodeBytes(address.toBytes());
+        this.operationCount += 1;
+    }
+}
@@ -2,8 +2,12 @@ package org.aion.avm.jni;
 
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class NativeCodecTest {
 
@@ -51,4 +55,43 @@ public class NativeCodecTest {
         assertArrayEquals(bytes2, dec.decodeBytes());
         assertArrayEquals(bytes3, dec.decodeBytes());
     }
+
+    @Test
+    public void testNullableBytes() {
+        NativeEncoder enc = new NativeEncoder();
+        enc.encodeNullableBytes(null);
+        enc.encodeNullableBytes(bytes1);
+        enc.encodeNullableBytes(bytes2);
+
+        NativeDecoder dec = new NativeDecoder(enc.toByteArray());
+        assertNull(dec.decodeNullableBytes());
+        assertArrayEquals(bytes1, dec.decodeNullableBytes());
+        assertArrayEquals(bytes2, dec.decodeNullableBytes());
+        assertTrue(dec.isEmpty());
+    }
+
+    @Test
+    public void testSliceAndNestedBytes() {
+        // a tiny direct buffer, so that nesting also exercises the growth path
+        NativeEncoder enc = new NativeEncoder(true, 4);
+        enc.encodeInt(2);
+        int start = enc.beginBytes();
+        enc.encodeLong(l2);
+        enc.encodeBytes(bytes3);
+        enc.endBytes(start);
+        enc.encodeBytes(ByteBuffer.wrap(bytes2));
+
+        ByteBuffer out = enc.toByteBuffer();
+        assertTrue(out.isDirect());
+        NativeDecoder dec = new NativeDecoder(out);
+        assertEquals(2, dec.decodeInt());
+        ByteBuffer nested = dec.decodeSlice();
+        assertEquals(8 + 4 + bytes3.length, nested.remaining());
+        NativeDecoder inner = new NativeDecoder(nested);
+        assertEquals(l2, inner.decodeLong());
+        assertArrayEquals(bytes3, inner.decodeBytes());
+        assertTrue(inner.isEmpty());
+        assertArrayEquals(bytes2, dec.decodeBytes());
+        assertTrue(dec.isEmpty());
+    }
 }
@@ -0,0 +1,29 @@
+package org.aion.avm.jni;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class NativeTransactionExecutorTest {
+
+    private int probes = 0;
+
+    @Test
+    public void testStreamingWithoutCallbackRunsNothing() {
+        // a batch of one transaction
+        NativeEncoder batch = new NativeEncoder();
+        batch.encodeInt(1);
+        batch.encodeBytes(new byte[64]);
+
+        boolean pushed = NativeTransactionExecutor.executeStreaming(0L, batch.toByteArray(), false, () -> {
+            probes += 1;
+            return false;
+        });
+
+        // The batch is refused before anything runs:  the native library isn't loaded by these tests, so the first access to the
+        // kernel (reading the accounts, or committing transaction 0) would have thrown UnsatisfiedLinkError, instead.
+        assertFalse(pushed);
+        assertEquals(1, probes);
+    }
+}
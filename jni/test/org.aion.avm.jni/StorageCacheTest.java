@@ -0,0 +1,68 @@
+package org.aion.avm.jni;
+
+import org.aion.types.Address;
+import org.junit.Test;
+
+import java.util.function.BiFunction;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class StorageCacheTest {
+
+    private Address a1 = new Address(filled((byte) 1, 32));
+    private Address a2 = new Address(filled((byte) 2, 32));
+
+    private int loads = 0;
+    private BiFunction<Address, byte[], byte[]> loader = (address, key) -> {
+        loads += 1;
+        return (key.length == 32) ? address.toBytes() : null;
+    };
+
+    @Test
+    public void testFreshKeyArraysHit() {
+        StorageCache cache = new StorageCache();
+        assertArrayEquals(a1.toBytes(), cache.getOrLoad(a1, filled((byte) 7, 32), loader));
+        assertArrayEquals(a1.toBytes(), cache.getOrLoad(a1, filled((byte) 7, 32), loader));
+        assertEquals(1, loads);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    public void testNullValuesAreCached() {
+        StorageCache cache = new StorageCache();
+        assertNull(cache.getOrLoad(a1, filled((byte) 7, 5), loader));
+        assertNull(cache.getOrLoad(a1, filled((byte) 7, 5), loader));
+        assertEquals(1, loads);
+    }
+
+    @Test
+    public void testAccountsDoNotCollide() {
+        StorageCache cache = new StorageCache();
+        cache.put(a1, filled((byte) 7, 32), new byte[] {1});
+        cache.put(a2, filled((byte) 7, 32), new byte[] {2});
+        assertArrayEquals(new byte[] {1}, cache.getOrLoad(a1, filled((byte) 7, 32), loader));
+        assertArrayEquals(new byte[] {2}, cache.getOrLoad(a2, filled((byte) 7, 32), loader));
+        assertEquals(0, loads);
+    }
+
+    @Test
+    public void testKeyCopiedOnWrite() {
+        StorageCache cache = new StorageCache();
+        byte[] key = filled((byte) 7, 5);
+        cache.put(a1, key, new byte[] {1});
+        key[0] = 0;
+        assertArrayEquals(new byte[] {1}, cache.getOrLoad(a1, filled((byte) 7, 5), loader));
+        assertEquals(0, loads);
+    }
+
+    private static byte[] filled(byte value, int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = value;
+        }
+        return bytes;
+    }
+}
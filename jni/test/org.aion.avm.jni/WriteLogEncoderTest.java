@@ -0,0 +1,53 @@
+package org.aion.avm.jni;
+
+import org.aion.types.Address;
+import org.junit.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WriteLogEncoderTest {
+
+    private Address address = new Address(new byte[32]);
+
+    @Test
+    public void testEncoding() {
+        WriteLogEncoder log = new WriteLogEncoder();
+        log.createAccount(address);
+        log.putStorage(address, new byte[] {1}, new byte[] {2});
+        log.removeStorage(address, new byte[] {1});
+        log.adjustBalance(address, BigInteger.valueOf(5));
+        log.adjustBalance(address, BigInteger.ZERO);
+        log.deductEnergyCost(address, BigInteger.valueOf(-7));
+        log.incrementNonce(address);
+        assertEquals(6, log.getOperationCount());
+
+        NativeDecoder dec = new NativeDecoder(log.toByteArray());
+        expectOperation(dec, WriteLogEncoder.OP_CREATE_ACCOUNT);
+
+        expectOperation(dec, WriteLogEncoder.OP_PUT_STORAGE);
+        assertArrayEquals(new byte[] {1}, dec.decodeBytes());
+        assertArrayEquals(new byte[] {2}, dec.decodeBytes());
+
+        expectOperation(dec, WriteLogEncoder.OP_PUT_STORAGE);
+        assertArrayEquals(new byte[] {1}, dec.decodeBytes());
+        assertArrayEquals(new byte[0], dec.decodeBytes());
+
+        expectOperation(dec, WriteLogEncoder.OP_INCREASE_BALANCE);
+        assertEquals(BigInteger.valueOf(5), new BigInteger(dec.decodeBytes()));
+
+        expectOperation(dec, WriteLogEncoder.OP_DECREASE_BALANCE);
+        assertEquals(BigInteger.valueOf(7), new BigInteger(dec.decodeBytes()));
+
+        expectOperation(dec, WriteLogEncoder.OP_INCREMENT_NONCE);
+        assertTrue(dec.isEmpty());
+    }
+
+    private void expectOperation(NativeDecoder dec, byte opcode) {
+        assertEquals(opcode, dec.decodeByte());
+        assertArrayEquals(address.toBytes(), dec.decodeBytes());
+    }
+}
@@ -449,6 +449,37 @@ impl JavaVM {
 		result
 	}
 
+	/// Wraps the given memory into a direct java.nio.ByteBuffer, without copying.
+	/// The memory must stay valid for as long as the buffer is used by Java.
+	pub fn new_direct_byte_buffer(& self, data: &mut [u8]) -> Result<Object> {
+		let raw = unsafe {
+			((**self.env).NewDirectByteBuffer)(self.env, data.as_mut_ptr() as *mut ffi::jvoid, data.len() as ffi::jlong)
+		};
+
+		if raw == 0 as ffi::jobject {
+			Err(Error::from_exception(self))
+		} else {
+			Ok(Object {
+				jvm: self,
+				raw: raw
+			})
+		}
+	}
+
+	/// Returns the memory backing a direct java.nio.ByteBuffer, without copying,
+	/// or None if the object is not a direct buffer.
+	pub fn direct_buffer_slice<'b>(&'b self, buffer: &Object<'b>) -> Option<&'b [u8]> {
+		unsafe {
+			let address = ((**self.env).GetDirectBufferAddress)(self.env, buffer.raw);
+			let capacity = ((**self.env).GetDirectBufferCapacity)(self.env, buffer.raw);
+			if address.is_null() || capacity < 0 {
+				None
+			} else {
+				Some(std::slice::from_raw_parts(address as *const u8, capacity as usize))
+			}
+		}
+	}
+
 	/// Returns true when an exception has occurred.
 	fn has_exception(&self) -> bool {
 		unsafe { ((**self.env).ExceptionCheck)(self.env) == ffi::JNI_TRUE }
@@ -134,6 +134,33 @@ impl AVM {
         }
     }
 
+    /// Starts the long-lived AVM session, whose executor threads and DApp cache
+    /// are reused by every subsequent `execute` call until `shutdown` is called.
+    pub fn startup(&self) -> Result<bool, &'static str> {
+        self.call_session_method("startup")
+    }
+
+    /// Stops the long-lived AVM session started by `startup`.
+    pub fn shutdown(&self) -> Result<bool, &'static str> {
+        self.call_session_method("shutdown")
+    }
+
+    /// Invokes one of the no-argument session methods on NativeTransactionExecutor
+    fn call_session_method(&self, name: &str) -> Result<bool, &'static str> {
+        let class = self.jvm.class("org/aion/avm/jni/NativeTransactionExecutor")
+            .expect("NativeTransactionExecutor is missing in the classpath");
+
+        let ret = class
+            .call_static(name, &[], Type::Boolean)
+            .map_err(|_| "Failed to call the AVM session method")?;
+
+        if let Value::Boolean(started) = ret {
+            Ok(started)
+        } else {
+            Err("The AVM session method returns wrong data")
+        }
+    }
+
     /// Executes a list of transactions
     pub fn execute(&self, transactions: &Vec<TransactionContext>) -> Result<Vec<TransactionResult>, &'static str> {
         // find the NativeTransactionExecutor class
@@ -172,6 +199,41 @@ impl AVM {
         }
     }
 
+    /// Executes a list of transactions, passing the encoded transactions and
+    /// results through direct buffers instead of copying them across JNI.
+    pub fn execute_direct(&self, transactions: &Vec<TransactionContext>) -> Result<Vec<TransactionResult>, &'static str> {
+        let class = self.jvm.class("org/aion/avm/jni/NativeTransactionExecutor")
+            .expect("NativeTransactionExecutor is missing in the classpath");
+
+        // the encoded transactions must outlive the call, since Java reads them in place
+        let mut input = Self::encode_transaction_contexts(&transactions);
+        let handle = 0i64;
+        let arguments = [
+            Value::Long(handle), // handle
+            Value::Object(self.jvm.new_direct_byte_buffer(&mut input)
+                .expect("Failed to create new direct buffer in JVM")
+            ),
+            Value::Boolean(false), // is_local
+        ];
+
+        let ret = class
+            .call_static("executeDirect", &arguments, Type::Object("java/nio/ByteBuffer"))
+            .expect("Failed to call the executeDirect() method");
+
+        if let Value::Object(obj) = ret {
+            if obj.is_null() {
+                Err("The executeDirect() method failed")
+            } else {
+                match self.jvm.direct_buffer_slice(&obj) {
+                    Some(bytes) => Self::decode_transaction_results(bytes),
+                    None => Err("The executeDirect() method returns wrong data"),
+                }
+            }
+        } else {
+            Err("The executeDirect() method returns wrong data")
+        }
+    }
+
     /// Encodes transaction contexts into byte array
     fn encode_transaction_contexts(transactions: &Vec<TransactionContext>) -> Vec<u8> {
         let mut encoder = NativeEncoder::new();
@@ -184,7 +246,7 @@ impl AVM {
     }
 
     /// Decodes transaction results from byte array
-    fn decode_transaction_results(bytes: &Vec<u8>) -> Result<Vec<TransactionResult>, &'static str> {
+    fn decode_transaction_results(bytes: &[u8]) -> Result<Vec<TransactionResult>, &'static str> {
         let mut results = Vec::<TransactionResult>::new();
         let mut decoder = NativeDecoder::new(bytes);
         let length = decoder.decode_int()?;
@@ -48,15 +48,15 @@ impl NativeEncoder {
     }
 }
 
-pub struct NativeDecoder {
-    bytes: Vec<u8>,
+pub struct NativeDecoder<'a> {
+    bytes: &'a [u8],
     index: usize,
 }
 
-impl NativeDecoder {
-    pub fn new(bytes: &Vec<u8>) -> NativeDecoder {
+impl<'a> NativeDecoder<'a> {
+    pub fn new(bytes: &'a [u8]) -> NativeDecoder<'a> {
         NativeDecoder {
-            bytes: bytes.clone(),
+            bytes: bytes,
             index: 0,
         }
     }
@@ -120,8 +120,7 @@ impl NativeDecoder {
         let size = self.decode_int()? as usize;
         match self.require(size) {
             true => {
-                let slice = self.bytes.as_slice();
-                let ret = slice[self.index..self.index + size].to_vec();
+                let ret = self.bytes[self.index..self.index + size].to_vec();
                 self.index = self.index + size;
                 Ok(ret)
             }